@@ -36,6 +36,12 @@ public interface TargetDatabaseConfiguration extends DatabaseConfiguration {
    */
   void finalizeTargetConnection(Connection connection, String connectorId) throws SQLException;
 
+  /**
+   * Foreign key constraints are disabled by {@link #initializeTargetConnection(Connection, String)} until
+   * {@link #finalizeTargetConnection(Connection, String)} is called? If so, tables may be filled in any order.
+   */
+  boolean isReferentialIntegrityDisabled();
+
   /**
    * Called before an INSERT clause is executed. E.g., in order to disable foreign key constraints. Note that an INSERT statement may have
    * multiple VALUES clauses.
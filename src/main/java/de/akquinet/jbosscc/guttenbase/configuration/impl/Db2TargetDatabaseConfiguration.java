@@ -86,6 +86,14 @@ public class Db2TargetDatabaseConfiguration extends DefaultTargetDatabaseConfigu
     setTableForeignKeys(connection, true);
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean isReferentialIntegrityDisabled() {
+    return true;
+  }
+
   private void setTableForeignKeys(final Connection connection, final boolean enable) throws SQLException {
     for (final Entry<String, List<String>> entry : _constraintsOfTable.entrySet()) {
       final String tableName = entry.getKey();
@@ -50,6 +50,16 @@ public abstract class DefaultTargetDatabaseConfiguration extends AbstractDatabas
   public void finalizeTargetConnection(final Connection connection, final String connectorId) throws SQLException {
   }
 
+  /**
+   * {@inheritDoc}
+   * <p/>
+   * false by default
+   */
+  @Override
+  public boolean isReferentialIntegrityDisabled() {
+    return false;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -39,6 +39,14 @@ public class H2DbTargetDatabaseConfiguration extends DefaultTargetDatabaseConfig
     setReferentialIntegrity(connection, true);
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean isReferentialIntegrityDisabled() {
+    return true;
+  }
+
   private void setReferentialIntegrity(final Connection connection, final boolean enable) throws SQLException {
     final String referentialIntegrity = enable ? "TRUE" : "FALSE";
 
@@ -40,6 +40,14 @@ public class HsqldbTargetDatabaseConfiguration extends DefaultTargetDatabaseConf
     setReferentialIntegrity(connection, true, _connectorRepository.getDatabaseMetaData(connectorId));
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean isReferentialIntegrityDisabled() {
+    return true;
+  }
+
   private void setReferentialIntegrity(final Connection connection, final boolean enable, final DatabaseMetaData databaseMetaData)
       throws SQLException {
     final int databaseMajorVersion = databaseMetaData.getMajorVersion();
@@ -45,6 +45,14 @@ public class MsSqlTargetDatabaseConfiguration extends DefaultTargetDatabaseConfi
     enableTableForeignKeys(connection, connectorId, getTableMetaData(connectorId));
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean isReferentialIntegrityDisabled() {
+    return true;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -67,6 +67,15 @@ public class MySqlTargetDatabaseConfiguration extends DefaultTargetDatabaseConfi
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean isReferentialIntegrityDisabled()
+  {
+    return true;
+  }
+
   private void setReferentialIntegrity(final Connection connection, final boolean enable) throws SQLException
   {
     executeSQL(connection, "SET FOREIGN_KEY_CHECKS = " + (enable ? "1" : "0") + ";");
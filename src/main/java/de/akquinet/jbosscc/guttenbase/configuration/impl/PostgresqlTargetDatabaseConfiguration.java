@@ -67,6 +67,14 @@ public class PostgresqlTargetDatabaseConfiguration extends DefaultTargetDatabase
     setReferentialIntegrity(connection, connectorId, getTableMetaData(connectorId), true);
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean isReferentialIntegrityDisabled() {
+    return true;
+  }
+
   private List<TableMetaData> getTableMetaData(final String connectorId) throws SQLException {
     return TableOrderHint.getSortedTables(_connectorRepository, connectorId);
   }
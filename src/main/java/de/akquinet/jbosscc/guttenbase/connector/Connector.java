@@ -2,6 +2,7 @@ package de.akquinet.jbosscc.guttenbase.connector;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
 
 import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
 
@@ -29,4 +30,9 @@ public interface Connector {
 	 * Return information about database and tables
 	 */
 	DatabaseMetaData retrieveDatabaseMetaData() throws SQLException;
+
+	/**
+	 * Read information about the given tables again and update the given data base meta data accordingly
+	 */
+	void refreshTableMetaData(DatabaseMetaData databaseMetaData, Collection<String> tableNames) throws SQLException;
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package de.akquinet.jbosscc.guttenbase.connector.impl;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
 
 import org.apache.log4j.Logger;
 
@@ -10,7 +11,11 @@ import de.akquinet.jbosscc.guttenbase.configuration.TargetDatabaseConfiguration;
 import de.akquinet.jbosscc.guttenbase.connector.Connector;
 import de.akquinet.jbosscc.guttenbase.connector.ConnectorInfo;
 import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.InternalDatabaseMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.InternalTableMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
 import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+import de.akquinet.jbosscc.guttenbase.repository.DatabaseMetaDataCache;
 import de.akquinet.jbosscc.guttenbase.repository.impl.DatabaseMetaDataInspectorTool;
 
 /**
@@ -21,6 +26,7 @@ import de.akquinet.jbosscc.guttenbase.repository.impl.DatabaseMetaDataInspectorT
  * </p>
  * 
  * @author M. Dahm
+ * @Uses-Hint {@link de.akquinet.jbosscc.guttenbase.hints.DatabaseMetaDataCacheHint} to reuse meta data of previous processes
  */
 public abstract class AbstractConnector implements Connector {
   protected static final Logger LOG = Logger.getLogger(AbstractConnector.class);
@@ -67,18 +73,61 @@ public abstract class AbstractConnector implements Connector {
   }
 
   /**
+   * Inspect the data base or use the meta data cached by a previous process if the schema has not changed. In the latter case only
+   * the row counts are computed again. Lazily loaded meta data is not cached, since it is incomplete.
+   * 
    * {@inheritDoc}
    */
   @Override
   public DatabaseMetaData retrieveDatabaseMetaData() throws SQLException {
     final DatabaseMetaDataInspectorTool tableMetaDataInspector = new DatabaseMetaDataInspectorTool(_connectorRepository, _connectorId);
+    final DatabaseMetaDataCache databaseMetaDataCache = _connectorRepository.getConnectorHint(_connectorId, DatabaseMetaDataCache.class)
+        .getValue();
     final Connection connection = openConnection();
     final SourceDatabaseConfiguration sourceDatabaseConfiguration = _connectorRepository.getSourceDatabaseConfiguration(_connectorId);
 
     sourceDatabaseConfiguration.initializeSourceConnection(connection, _connectorId);
-    final DatabaseMetaData databaseMetaData = tableMetaDataInspector.getDatabaseMetaData(connection);
+    final String fingerprint = databaseMetaDataCache.computeFingerprint(_connectorRepository, _connectorId, connection);
+    DatabaseMetaData databaseMetaData = fingerprint != null ? databaseMetaDataCache.load(_connectorId, fingerprint) : null;
+
+    if (databaseMetaData == null) {
+      databaseMetaData = tableMetaDataInspector.getDatabaseMetaData(connection);
+
+      if (fingerprint != null && !isLoadedLazily(databaseMetaData)) {
+        databaseMetaDataCache.store(_connectorId, fingerprint, databaseMetaData);
+      }
+    } else {
+      LOG.info("Using cached meta data for " + _connectorId);
+      tableMetaDataInspector.updateRowCounts(connection, databaseMetaData);
+    }
+
     sourceDatabaseConfiguration.finalizeSourceConnection(connection, _connectorId);
     closeConnection();
     return databaseMetaData;
   }
+
+  private static boolean isLoadedLazily(final DatabaseMetaData databaseMetaData) {
+    for (final TableMetaData tableMetaData : databaseMetaData.getTableMetaData()) {
+      if (((InternalTableMetaData) tableMetaData).getTableMetaDataLoader() != null) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void refreshTableMetaData(final DatabaseMetaData databaseMetaData, final Collection<String> tableNames) throws SQLException {
+    final DatabaseMetaDataInspectorTool tableMetaDataInspector = new DatabaseMetaDataInspectorTool(_connectorRepository, _connectorId);
+    final Connection connection = openConnection();
+    final SourceDatabaseConfiguration sourceDatabaseConfiguration = _connectorRepository.getSourceDatabaseConfiguration(_connectorId);
+
+    sourceDatabaseConfiguration.initializeSourceConnection(connection, _connectorId);
+    tableMetaDataInspector.refreshTableMetaData(connection, (InternalDatabaseMetaData) databaseMetaData, tableNames);
+    sourceDatabaseConfiguration.finalizeSourceConnection(connection, _connectorId);
+    closeConnection();
+  }
 }
\ No newline at end of file
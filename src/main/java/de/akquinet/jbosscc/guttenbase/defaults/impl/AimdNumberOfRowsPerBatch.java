@@ -0,0 +1,133 @@
+package de.akquinet.jbosscc.guttenbase.defaults.impl;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.tools.AdaptiveNumberOfRowsPerBatch;
+
+/**
+ * Adapt the number of rows per batch towards a target latency using additive increase/multiplicative decrease (AIMD), the same
+ * scheme TCP uses for its congestion window: As long as batches finish within the target latency, the batch size grows by a fixed
+ * amount. When a batch takes too long, the batch size is halved. The batch size always stays within the given bounds.
+ * <p>
+ * Batch sizes are tracked per table, since narrow tables and tables with LOBs behave very differently.
+ * </p>
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class AimdNumberOfRowsPerBatch implements AdaptiveNumberOfRowsPerBatch
+{
+  private final int _minimumNumberOfRows;
+  private final int _maximumNumberOfRows;
+  private final int _initialNumberOfRows;
+  private final int _additiveIncrease;
+  private final long _targetLatencyMillis;
+  private final boolean _useMultipleValuesClauses;
+  private final ConcurrentMap<String, Integer> _numberOfRows = new ConcurrentHashMap<String, Integer>();
+
+  /**
+   * Start with the minimum number of rows and increase by the minimum number of rows.
+   */
+  public AimdNumberOfRowsPerBatch(final int minimumNumberOfRows, final int maximumNumberOfRows, final long targetLatencyMillis,
+                                  final boolean useMultipleValuesClauses)
+  {
+    this(minimumNumberOfRows, maximumNumberOfRows, minimumNumberOfRows, minimumNumberOfRows, targetLatencyMillis,
+            useMultipleValuesClauses);
+  }
+
+  public AimdNumberOfRowsPerBatch(final int minimumNumberOfRows, final int maximumNumberOfRows, final int initialNumberOfRows,
+                                  final int additiveIncrease, final long targetLatencyMillis, final boolean useMultipleValuesClauses)
+  {
+    assert minimumNumberOfRows > 0 : "minimumNumberOfRows > 0";
+    assert maximumNumberOfRows >= minimumNumberOfRows : "maximumNumberOfRows >= minimumNumberOfRows";
+    assert additiveIncrease > 0 : "additiveIncrease > 0";
+    assert targetLatencyMillis > 0 : "targetLatencyMillis > 0";
+
+    _minimumNumberOfRows = minimumNumberOfRows;
+    _maximumNumberOfRows = maximumNumberOfRows;
+    _initialNumberOfRows = bound(initialNumberOfRows);
+    _additiveIncrease = additiveIncrease;
+    _targetLatencyMillis = targetLatencyMillis;
+    _useMultipleValuesClauses = useMultipleValuesClauses;
+  }
+
+  @Override
+  public int getNumberOfRowsPerBatch(final TableMetaData targetTableMetaData)
+  {
+    final Integer result = _numberOfRows.get(getKey(targetTableMetaData));
+
+    return result != null ? result : _initialNumberOfRows;
+  }
+
+  @Override
+  public boolean useMultipleValuesClauses(final TableMetaData targetTableMetaData)
+  {
+    return _useMultipleValuesClauses;
+  }
+
+  /**
+   * Batches of the same table may be executed by several threads concurrently, thus the batch size is updated atomically.
+   */
+  @Override
+  public void batchExecuted(final TableMetaData targetTableMetaData, final int numberOfRows, final long elapsedMillis)
+  {
+    final String key = getKey(targetTableMetaData);
+
+    while (true)
+    {
+      final Integer current = _numberOfRows.get(key);
+      final int next = getNextNumberOfRows(current != null ? current : _initialNumberOfRows, numberOfRows, elapsedMillis);
+
+      if (current == null ? _numberOfRows.putIfAbsent(key, next) == null : _numberOfRows.replace(key, current, next))
+      {
+        return;
+      }
+    }
+  }
+
+  public int getMinimumNumberOfRows()
+  {
+    return _minimumNumberOfRows;
+  }
+
+  public int getMaximumNumberOfRows()
+  {
+    return _maximumNumberOfRows;
+  }
+
+  public long getTargetLatencyMillis()
+  {
+    return _targetLatencyMillis;
+  }
+
+  private int getNextNumberOfRows(final int current, final int numberOfRows, final long elapsedMillis)
+  {
+    if (elapsedMillis > _targetLatencyMillis)
+    {
+      return bound(current / 2);
+    }
+    else if (numberOfRows >= current)
+    {
+      return bound(current + _additiveIncrease);
+    }
+    else
+    {
+      // Smaller batch than requested, e.g. the last one of a table, tells nothing about larger batches
+      return current;
+    }
+  }
+
+  private int bound(final int numberOfRows)
+  {
+    return Math.max(_minimumNumberOfRows, Math.min(_maximumNumberOfRows, numberOfRows));
+  }
+
+  private static String getKey(final TableMetaData targetTableMetaData)
+  {
+    return targetTableMetaData.getTableName().toUpperCase();
+  }
+}
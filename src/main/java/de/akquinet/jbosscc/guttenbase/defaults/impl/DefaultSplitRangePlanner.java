@@ -0,0 +1,60 @@
+package de.akquinet.jbosscc.guttenbase.defaults.impl;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.AbstractList;
+import java.util.List;
+
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+import de.akquinet.jbosscc.guttenbase.tools.MinMaxIdSelectorTool;
+import de.akquinet.jbosscc.guttenbase.tools.SplitRange;
+import de.akquinet.jbosscc.guttenbase.tools.SplitRangePlanner;
+
+/**
+ * Split the range between MIN and MAX of the split column into ranges of numberOfRowsPerRange + 1 values. If the values are
+ * populated sparsely, many ranges will be empty.
+ * <p>
+ * The ranges are computed on demand, i.e. the returned list does not occupy memory for each range.
+ * </p>
+ * 
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ * 
+ * @author M. Dahm
+ */
+public class DefaultSplitRangePlanner implements SplitRangePlanner {
+  @Override
+  public List<SplitRange> computeSplitRanges(final ConnectorRepository connectorRepository, final String connectorId,
+      final TableMetaData tableMetaData, final Connection connection, final int numberOfRowsPerRange) throws SQLException {
+    final MinMaxIdSelectorTool minMaxIdSelector = new MinMaxIdSelectorTool(connectorRepository);
+    minMaxIdSelector.computeMinMax(connectorId, tableMetaData, connection);
+
+    final long minValue = minMaxIdSelector.getMinValue();
+    final long maxValue = minMaxIdSelector.getMaxValue();
+    final long rangeSize = numberOfRowsPerRange + 1L;
+    final long numberOfRanges = maxValue >= minValue ? (maxValue - minValue) / rangeSize + 1 : 0;
+
+    if (numberOfRanges > Integer.MAX_VALUE) {
+      throw new SQLException("Too many ranges for " + tableMetaData + ": " + numberOfRanges);
+    }
+
+    return new AbstractList<SplitRange>() {
+      @Override
+      public SplitRange get(final int index) {
+        if (index < 0 || index >= numberOfRanges) {
+          throw new IndexOutOfBoundsException(String.valueOf(index));
+        }
+
+        final long start = minValue + index * rangeSize;
+        return new SplitRange(start, start + rangeSize - 1);
+      }
+
+      @Override
+      public int size() {
+        return (int) numberOfRanges;
+      }
+    };
+  }
+}
@@ -0,0 +1,151 @@
+package de.akquinet.jbosscc.guttenbase.defaults.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+
+import de.akquinet.jbosscc.guttenbase.connector.DatabaseType;
+import de.akquinet.jbosscc.guttenbase.mapping.TableNameMapper;
+import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+import de.akquinet.jbosscc.guttenbase.tools.MinMaxIdSelectorTool;
+import de.akquinet.jbosscc.guttenbase.tools.SplitColumn;
+import de.akquinet.jbosscc.guttenbase.tools.SplitRange;
+import de.akquinet.jbosscc.guttenbase.tools.SplitRangePlanner;
+
+/**
+ * Compute ranges with roughly the same number of rows, regardless of how the values of the split column are distributed.
+ * <p>
+ * If the data base supports window functions, the boundaries are computed by the data base using <tt>NTILE</tt>. Otherwise the
+ * values of the split column are read in ascending order and every numberOfRowsPerRange-th value becomes a boundary. Only the
+ * split column is read, which is usually covered by the primary key index. The rows of the table are counted, unless the row count
+ * is already known exactly.
+ * </p>
+ * <p>
+ * The ranges are contiguous, i.e. the first range starts at MIN and the last range ends at MAX of the split column.
+ * </p>
+ * 
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ * 
+ * @author M. Dahm
+ */
+public class EqualCardinalitySplitRangePlanner implements SplitRangePlanner {
+  private static final Logger LOG = Logger.getLogger(EqualCardinalitySplitRangePlanner.class);
+
+  @Override
+  public List<SplitRange> computeSplitRanges(final ConnectorRepository connectorRepository, final String connectorId,
+      final TableMetaData tableMetaData, final Connection connection, final int numberOfRowsPerRange) throws SQLException {
+    final MinMaxIdSelectorTool minMaxIdSelector = new MinMaxIdSelectorTool(connectorRepository);
+    minMaxIdSelector.computeMinMax(connectorId, tableMetaData, connection);
+
+    final long minValue = minMaxIdSelector.getMinValue();
+    final long maxValue = minMaxIdSelector.getMaxValue();
+    // An estimated row count may be stale or -1 and would result in a single range
+    final int rowCount = tableMetaData.getExactRowCount();
+    final List<SplitRange> result = new ArrayList<SplitRange>();
+
+    if (rowCount <= numberOfRowsPerRange) {
+      result.add(new SplitRange(minValue, maxValue));
+      return result;
+    }
+
+    final TableNameMapper tableNameMapper = connectorRepository.getConnectorHint(connectorId, TableNameMapper.class).getValue();
+    final String tableName = tableNameMapper.mapTableName(tableMetaData);
+    final ColumnMetaData splitColumn = connectorRepository.getConnectorHint(connectorId, SplitColumn.class).getValue()
+        .getSplitColumn(tableMetaData);
+    final DatabaseType databaseType = connectorRepository.getConnectionInfo(connectorId).getDatabaseType();
+    final List<Long> upperBounds;
+
+    if (supportsWindowFunctions(databaseType)) {
+      final int numberOfRanges = (rowCount + numberOfRowsPerRange - 1) / numberOfRowsPerRange;
+      upperBounds = computeUpperBoundsWithNtile(connection, tableName, splitColumn.getColumnName(), numberOfRanges);
+    } else {
+      upperBounds = computeUpperBoundsByScan(connection, tableName, splitColumn.getColumnName(), numberOfRowsPerRange);
+    }
+
+    long start = minValue;
+
+    for (final Long upperBound : upperBounds) {
+      if (upperBound >= start && upperBound < maxValue) {
+        result.add(new SplitRange(start, upperBound));
+        start = upperBound + 1;
+      }
+    }
+
+    result.add(new SplitRange(start, Math.max(start, maxValue)));
+
+    LOG.debug("Split " + tableName + " into " + result.size() + " ranges");
+
+    return result;
+  }
+
+  protected boolean supportsWindowFunctions(final DatabaseType databaseType) {
+    switch (databaseType) {
+    case POSTGRESQL:
+    case ORACLE:
+    case MSSQL:
+    case DB2:
+      return true;
+
+    default:
+      return false;
+    }
+  }
+
+  private List<Long> computeUpperBoundsWithNtile(final Connection connection, final String tableName, final String columnName,
+      final int numberOfRanges) throws SQLException {
+    final String sql = "SELECT MAX(" + columnName + ") FROM (SELECT " + columnName + ", NTILE(" + numberOfRanges + ") OVER (ORDER BY "
+        + columnName + ") AS GB_BUCKET FROM " + tableName + ") GB_BUCKETS GROUP BY GB_BUCKET ORDER BY GB_BUCKET";
+    final PreparedStatement statement = connection.prepareStatement(sql);
+    final List<Long> result = new ArrayList<Long>(numberOfRanges);
+
+    try {
+      final ResultSet resultSet = statement.executeQuery();
+
+      while (resultSet.next()) {
+        result.add(resultSet.getLong(1));
+      }
+
+      resultSet.close();
+    } finally {
+      statement.close();
+    }
+
+    return result;
+  }
+
+  private List<Long> computeUpperBoundsByScan(final Connection connection, final String tableName, final String columnName,
+      final int numberOfRowsPerRange) throws SQLException {
+    final String sql = "SELECT " + columnName + " FROM " + tableName + " ORDER BY " + columnName;
+    final PreparedStatement statement = connection.prepareStatement(sql);
+    final List<Long> result = new ArrayList<Long>();
+
+    try {
+      statement.setFetchSize(Math.max(numberOfRowsPerRange, 1000));
+
+      final ResultSet resultSet = statement.executeQuery();
+      int rowsInRange = 0;
+
+      while (resultSet.next()) {
+        if (++rowsInRange == numberOfRowsPerRange) {
+          result.add(resultSet.getLong(1));
+          rowsInRange = 0;
+        }
+      }
+
+      resultSet.close();
+    } finally {
+      statement.close();
+    }
+
+    return result;
+  }
+}
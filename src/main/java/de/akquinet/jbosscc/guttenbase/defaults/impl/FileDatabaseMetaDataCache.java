@@ -0,0 +1,333 @@
+package de.akquinet.jbosscc.guttenbase.defaults.impl;
+
+import de.akquinet.jbosscc.guttenbase.connector.DatabaseType;
+import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.impl.ColumnMetaDataImpl;
+import de.akquinet.jbosscc.guttenbase.meta.impl.DatabaseMetaDataImpl;
+import de.akquinet.jbosscc.guttenbase.meta.impl.TableMetaDataImpl;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+import de.akquinet.jbosscc.guttenbase.repository.DatabaseColumnFilter;
+import de.akquinet.jbosscc.guttenbase.repository.DatabaseMetaDataCache;
+import de.akquinet.jbosscc.guttenbase.repository.DatabaseTableFilter;
+import de.akquinet.jbosscc.guttenbase.utils.Util;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Stores the meta data of every connector in a file of its own within the given directory.
+ * <p>
+ * The fingerprint is either a version supplied by the user or computed from the catalog: The number of tables and a digest of all
+ * column names and types, read with a single query, plus the time of the last DDL statement where the data base records it
+ * (MS SQL, Oracle, DB2). Other data bases such as MySQL, PostgreSQL, H2 or Derby do not record it reliably, e.g. MySQL's
+ * CREATE_TIME is not changed by CREATE INDEX or foreign key changes, so changes of indexes or foreign keys alone are not detected
+ * there. Supply a version in that case.
+ * </p>
+ * <p>
+ * The cached meta data is filtered by the configured {@link DatabaseTableFilter} and {@link DatabaseColumnFilter}. Hence the
+ * computed fingerprint also contains the parameters of the table filter and which tables and columns are accepted by the filters,
+ * which are applied to meta data built from the catalog's names and types. A user supplied version must be changed when the
+ * filters are changed.
+ * </p>
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class FileDatabaseMetaDataCache implements DatabaseMetaDataCache
+{
+  private static final Logger LOG = Logger.getLogger(FileDatabaseMetaDataCache.class);
+
+  private static final String FILE_EXTENSION = ".meta";
+  private static final Charset UTF8 = Charset.forName("UTF-8");
+
+  private final File _directory;
+  private final String _version;
+
+  /**
+   * Fingerprints are computed from the catalog.
+   */
+  public FileDatabaseMetaDataCache(final File directory)
+  {
+    this(directory, null);
+  }
+
+  /**
+   * @param version fingerprint supplied by the user, e.g. the version of the schema migrations. If null, the fingerprint is
+   *                computed from the catalog.
+   */
+  public FileDatabaseMetaDataCache(final File directory, final String version)
+  {
+    assert directory != null : "directory != null";
+    _directory = directory;
+    _version = version;
+  }
+
+  public File getFile(final String connectorId)
+  {
+    return new File(_directory, connectorId + FILE_EXTENSION);
+  }
+
+  @Override
+  public String computeFingerprint(final ConnectorRepository connectorRepository, final String connectorId,
+      final Connection connection) throws SQLException
+  {
+    if (_version != null)
+    {
+      return _version;
+    }
+
+    final String schemaPattern = getSchemaPattern(connectorRepository, connectorId);
+    final DatabaseType databaseType = connectorRepository.getConnectionInfo(connectorId).getDatabaseType();
+    final DatabaseTableFilter tableFilter = connectorRepository.getConnectorHint(connectorId, DatabaseTableFilter.class).getValue();
+    final DatabaseColumnFilter columnFilter = connectorRepository.getConnectorHint(connectorId, DatabaseColumnFilter.class)
+        .getValue();
+    final DatabaseMetaData databaseMetaData = new DatabaseMetaDataImpl(
+        Util.trim(connectorRepository.getConnectionInfo(connectorId).getSchema()), "", 0, 0, databaseType);
+    final MessageDigest digest = createDigest();
+    int numberOfTables = 0;
+    String lastTableName = null;
+    TableMetaData tableMetaData = null;
+    boolean tableAccepted = false;
+
+    update(digest, tableFilter.getCatalog(), tableFilter.getTableNamePattern(), Arrays.toString(tableFilter.getTableTypes()));
+
+    final ResultSet resultSet = connection.getMetaData().getColumns(null, schemaPattern, null, null);
+
+    try
+    {
+      while (resultSet.next())
+      {
+        final String tableName = resultSet.getString("TABLE_NAME");
+
+        if (!tableName.equals(lastTableName))
+        {
+          numberOfTables++;
+          lastTableName = tableName;
+          tableMetaData = new TableMetaDataImpl(tableName, databaseMetaData);
+          tableAccepted = tableFilter.accept(tableMetaData);
+          update(digest, tableName, String.valueOf(tableAccepted));
+        }
+
+        if (tableAccepted)
+        {
+          final String columnName = resultSet.getString("COLUMN_NAME");
+          final String typeName = resultSet.getString("TYPE_NAME");
+          final int nullable = resultSet.getInt("NULLABLE");
+          final boolean columnAccepted = columnFilter.accept(new ColumnMetaDataImpl(resultSet.getInt("DATA_TYPE"), columnName,
+              typeName, "", nullable != java.sql.DatabaseMetaData.columnNoNulls, false, resultSet.getInt("COLUMN_SIZE"),
+              resultSet.getInt("DECIMAL_DIGITS"), tableMetaData));
+
+          update(digest, tableName, columnName, typeName, resultSet.getString("COLUMN_SIZE"), String.valueOf(nullable),
+              String.valueOf(columnAccepted));
+        }
+      }
+    }
+    finally
+    {
+      resultSet.close();
+    }
+
+    return numberOfTables + "/" + toHex(digest.digest()) + "/" + getLastDdlTime(connection, databaseType, schemaPattern);
+  }
+
+  @Override
+  public DatabaseMetaData load(final String connectorId, final String fingerprint)
+  {
+    final File file = getFile(connectorId);
+
+    if (!file.exists())
+    {
+      return null;
+    }
+
+    try
+    {
+      final ObjectInputStream inputStream = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)));
+
+      try
+      {
+        final String storedFingerprint = (String) inputStream.readObject();
+
+        if (fingerprint.equals(storedFingerprint))
+        {
+          return (DatabaseMetaData) inputStream.readObject();
+        }
+
+        LOG.info("Schema of " + connectorId + " has changed, cached meta data is outdated");
+        return null;
+      }
+      finally
+      {
+        inputStream.close();
+      }
+    }
+    catch (final Exception e)
+    {
+      // E.g. written by an incompatible version
+      LOG.warn("Cannot read cached meta data from " + file + ": " + e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * The file is written to a temporary file first and then renamed, so that concurrent processes never read an incomplete file.
+   */
+  @Override
+  public void store(final String connectorId, final String fingerprint, final DatabaseMetaData databaseMetaData)
+      throws SQLException
+  {
+    final File file = getFile(connectorId);
+
+    try
+    {
+      if (!_directory.isDirectory() && !_directory.mkdirs())
+      {
+        throw new IOException("Cannot create directory " + _directory);
+      }
+
+      final File tempFile = File.createTempFile("GB-META-" + connectorId, FILE_EXTENSION, _directory);
+      final ObjectOutputStream outputStream = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+
+      try
+      {
+        outputStream.writeObject(fingerprint);
+        outputStream.writeObject(databaseMetaData);
+      }
+      finally
+      {
+        outputStream.close();
+      }
+
+      if (!tempFile.renameTo(file) && !(file.delete() && tempFile.renameTo(file)))
+      {
+        tempFile.delete();
+        throw new IOException("Cannot rename " + tempFile + " to " + file);
+      }
+    }
+    catch (final IOException e)
+    {
+      throw new SQLException("Cannot write meta data cache file " + file, e);
+    }
+  }
+
+  private static String getSchemaPattern(final ConnectorRepository connectorRepository, final String connectorId)
+      throws SQLException
+  {
+    final String schemaPattern = connectorRepository.getConnectorHint(connectorId, DatabaseTableFilter.class).getValue()
+        .getSchemaPattern();
+    final String schema = connectorRepository.getConnectionInfo(connectorId).getSchema();
+
+    if (schemaPattern != null)
+    {
+      return schemaPattern;
+    }
+    else
+    {
+      return "".equals(Util.trim(schema)) ? null : schema;
+    }
+  }
+
+  /**
+   * @return time of the last DDL statement executed in the schema or an empty string if unknown
+   */
+  private static String getLastDdlTime(final Connection connection, final DatabaseType databaseType, final String schemaPattern)
+  {
+    final String lastDdlTimeStatement = getLastDdlTimeStatement(databaseType);
+
+    if (lastDdlTimeStatement == null)
+    {
+      return "";
+    }
+
+    try
+    {
+      final PreparedStatement statement = connection.prepareStatement(lastDdlTimeStatement);
+
+      try
+      {
+        statement.setString(1, schemaPattern == null ? "%" : schemaPattern);
+
+        final ResultSet resultSet = statement.executeQuery();
+        final String result = resultSet.next() ? resultSet.getString(1) : null;
+        resultSet.close();
+
+        return result == null ? "" : result;
+      }
+      finally
+      {
+        statement.close();
+      }
+    }
+    catch (final SQLException e)
+    {
+      LOG.warn("Could not read time of last DDL statement: " + e.getMessage());
+      return "";
+    }
+  }
+
+  private static String getLastDdlTimeStatement(final DatabaseType databaseType)
+  {
+    switch (databaseType)
+    {
+    case MSSQL:
+      return "SELECT MAX(o.modify_date) FROM sys.objects o JOIN sys.schemas s ON s.schema_id = o.schema_id WHERE s.name LIKE ?";
+    case ORACLE:
+      return "SELECT MAX(LAST_DDL_TIME) FROM ALL_OBJECTS WHERE OWNER LIKE ?";
+    case DB2:
+      return "SELECT MAX(ALTER_TIME) FROM SYSCAT.TABLES WHERE TABSCHEMA LIKE ?";
+    default:
+      return null;
+    }
+  }
+
+  private static void update(final MessageDigest digest, final String... values)
+  {
+    for (final String value : values)
+    {
+      digest.update(String.valueOf(value).getBytes(UTF8));
+      digest.update((byte) 0);
+    }
+  }
+
+  private static MessageDigest createDigest()
+  {
+    try
+    {
+      return MessageDigest.getInstance("SHA-256");
+    }
+    catch (final NoSuchAlgorithmException e)
+    {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  private static String toHex(final byte[] bytes)
+  {
+    final StringBuilder builder = new StringBuilder(bytes.length * 2);
+
+    for (final byte b : bytes)
+    {
+      builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+    }
+
+    return builder.toString();
+  }
+}
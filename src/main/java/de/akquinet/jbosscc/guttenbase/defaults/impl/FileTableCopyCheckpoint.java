@@ -0,0 +1,339 @@
+package de.akquinet.jbosscc.guttenbase.defaults.impl;
+
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.tools.TableCopyCheckpoint;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Records the progress of a copy in a journal file. Every event is appended as a line of text and synced to disk, so the journal
+ * survives a crash of the process. An incomplete last line is ignored when the journal is read again.
+ * <p>
+ * Entries are recorded per pair of source and target connector, so several copies may share the same file. When a copy has
+ * finished successfully its entries are discarded and the file is deleted, once no other copy has recorded any progress.
+ * </p>
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class FileTableCopyCheckpoint implements TableCopyCheckpoint
+{
+  private static final String ENCODING = "UTF-8";
+  private static final String SEPARATOR = "\t";
+  private static final String TABLE = "TABLE";
+  private static final String KEY = "KEY";
+  private static final String RANGE = "RANGE";
+  private static final String FINISHED = "FINISHED";
+
+  private final File _file;
+  private final Set<String> _copiedTables = new HashSet<String>();
+  private final Map<String, Long> _lastCopiedKeys = new HashMap<String, Long>();
+  /**
+   * Disjoint ranges of each table, mapped from start to end
+   */
+  private final Map<String, TreeMap<Long, Long>> _copiedRanges = new HashMap<String, TreeMap<Long, Long>>();
+  private boolean _loaded;
+
+  public FileTableCopyCheckpoint(final File file)
+  {
+    assert file != null : "file != null";
+    _file = file;
+  }
+
+  public File getFile()
+  {
+    return _file;
+  }
+
+  @Override
+  public synchronized boolean isTableCopied(final String sourceConnectorId, final String targetConnectorId,
+      final TableMetaData sourceTableMetaData) throws SQLException
+  {
+    load();
+
+    return _copiedTables.contains(getKey(sourceConnectorId, targetConnectorId, sourceTableMetaData));
+  }
+
+  @Override
+  public synchronized void tableCopied(final String sourceConnectorId, final String targetConnectorId,
+      final TableMetaData sourceTableMetaData) throws SQLException
+  {
+    load();
+
+    _copiedTables.add(getKey(sourceConnectorId, targetConnectorId, sourceTableMetaData));
+    append(TABLE, sourceConnectorId, targetConnectorId, getTableName(sourceTableMetaData));
+  }
+
+  @Override
+  public synchronized Long getLastCopiedKey(final String sourceConnectorId, final String targetConnectorId,
+      final TableMetaData sourceTableMetaData) throws SQLException
+  {
+    load();
+
+    return _lastCopiedKeys.get(getKey(sourceConnectorId, targetConnectorId, sourceTableMetaData));
+  }
+
+  @Override
+  public synchronized void keyCopied(final String sourceConnectorId, final String targetConnectorId,
+      final TableMetaData sourceTableMetaData, final long key) throws SQLException
+  {
+    load();
+
+    _lastCopiedKeys.put(getKey(sourceConnectorId, targetConnectorId, sourceTableMetaData), key);
+    append(KEY, sourceConnectorId, targetConnectorId, getTableName(sourceTableMetaData), String.valueOf(key));
+  }
+
+  @Override
+  public synchronized boolean isRangeCopied(final String sourceConnectorId, final String targetConnectorId,
+      final TableMetaData sourceTableMetaData, final long start, final long end) throws SQLException
+  {
+    load();
+
+    final TreeMap<Long, Long> copiedRanges = _copiedRanges.get(getKey(sourceConnectorId, targetConnectorId,
+        sourceTableMetaData));
+
+    if (copiedRanges != null)
+    {
+      // Ranges are disjoint, i.e. only the range starting right before may contain the given one
+      final Map.Entry<Long, Long> range = copiedRanges.floorEntry(start);
+
+      return range != null && end <= range.getValue();
+    }
+
+    return false;
+  }
+
+  @Override
+  public synchronized void rangeCopied(final String sourceConnectorId, final String targetConnectorId,
+      final TableMetaData sourceTableMetaData, final long start, final long end) throws SQLException
+  {
+    load();
+
+    addRange(getKey(sourceConnectorId, targetConnectorId, sourceTableMetaData), start, end);
+    append(RANGE, sourceConnectorId, targetConnectorId, getTableName(sourceTableMetaData), String.valueOf(start),
+        String.valueOf(end));
+  }
+
+  @Override
+  public synchronized void copyFinished(final String sourceConnectorId, final String targetConnectorId) throws SQLException
+  {
+    load();
+
+    removeEntries(getKey(sourceConnectorId, targetConnectorId, ""));
+
+    if (_copiedTables.isEmpty() && _lastCopiedKeys.isEmpty() && _copiedRanges.isEmpty())
+    {
+      if (_file.exists() && !_file.delete())
+      {
+        throw new SQLException("Cannot delete checkpoint file " + _file);
+      }
+    }
+    else
+    {
+      append(FINISHED, sourceConnectorId, targetConnectorId);
+    }
+  }
+
+  /**
+   * Merge the range with overlapping or adjacent ranges, so that the ranges stay disjoint. Keys are integral, i.e. [1, 10] and
+   * [11, 20] form [1, 20].
+   */
+  private void addRange(final String key, final long start, final long end)
+  {
+    TreeMap<Long, Long> copiedRanges = _copiedRanges.get(key);
+
+    if (copiedRanges == null)
+    {
+      copiedRanges = new TreeMap<Long, Long>();
+      _copiedRanges.put(key, copiedRanges);
+    }
+
+    long mergedStart = start;
+    long mergedEnd = end;
+    final Map.Entry<Long, Long> previous = copiedRanges.floorEntry(start);
+
+    if (previous != null && previous.getValue() >= start - 1)
+    {
+      mergedStart = previous.getKey();
+      mergedEnd = Math.max(mergedEnd, previous.getValue());
+    }
+
+    final Iterator<Map.Entry<Long, Long>> iterator = copiedRanges.tailMap(mergedStart, true).entrySet().iterator();
+
+    while (iterator.hasNext())
+    {
+      final Map.Entry<Long, Long> next = iterator.next();
+
+      if (next.getKey() > mergedEnd + 1)
+      {
+        break;
+      }
+
+      mergedEnd = Math.max(mergedEnd, next.getValue());
+      iterator.remove();
+    }
+
+    copiedRanges.put(mergedStart, mergedEnd);
+  }
+
+  private void removeEntries(final String prefix)
+  {
+    removeEntries(_copiedTables, prefix);
+    removeEntries(_lastCopiedKeys.keySet(), prefix);
+    removeEntries(_copiedRanges.keySet(), prefix);
+  }
+
+  private static void removeEntries(final Collection<String> keys, final String prefix)
+  {
+    for (final Iterator<String> iterator = keys.iterator(); iterator.hasNext(); )
+    {
+      if (iterator.next().startsWith(prefix))
+      {
+        iterator.remove();
+      }
+    }
+  }
+
+  private void load() throws SQLException
+  {
+    if (_loaded)
+    {
+      return;
+    }
+
+    _loaded = true;
+
+    if (!_file.exists())
+    {
+      return;
+    }
+
+    try
+    {
+      final Reader reader = new InputStreamReader(new FileInputStream(_file), ENCODING);
+      final StringBuilder builder = new StringBuilder();
+
+      try
+      {
+        final char[] buffer = new char[4096];
+        int count;
+
+        while ((count = reader.read(buffer)) >= 0)
+        {
+          builder.append(buffer, 0, count);
+        }
+      }
+      finally
+      {
+        reader.close();
+      }
+
+      // Ignore incomplete last line written when the process died
+      final String journal = builder.substring(0, builder.lastIndexOf("\n") + 1);
+
+      for (final String line : journal.split("\n"))
+      {
+        readLine(line.split(SEPARATOR));
+      }
+    }
+    catch (final IOException e)
+    {
+      throw new SQLException("Cannot read checkpoint file " + _file, e);
+    }
+  }
+
+  private void readLine(final String[] tokens)
+  {
+    try
+    {
+      if (TABLE.equals(tokens[0]) && tokens.length == 4)
+      {
+        _copiedTables.add(getKey(tokens[1], tokens[2], tokens[3]));
+      }
+      else if (KEY.equals(tokens[0]) && tokens.length == 5)
+      {
+        _lastCopiedKeys.put(getKey(tokens[1], tokens[2], tokens[3]), Long.parseLong(tokens[4]));
+      }
+      else if (RANGE.equals(tokens[0]) && tokens.length == 6)
+      {
+        addRange(getKey(tokens[1], tokens[2], tokens[3]), Long.parseLong(tokens[4]), Long.parseLong(tokens[5]));
+      }
+      else if (FINISHED.equals(tokens[0]) && tokens.length == 3)
+      {
+        removeEntries(getKey(tokens[1], tokens[2], ""));
+      }
+    }
+    catch (final NumberFormatException e)
+    {
+      // Ignore corrupt entry
+    }
+  }
+
+  private void append(final String... tokens) throws SQLException
+  {
+    final StringBuilder builder = new StringBuilder();
+
+    for (final String token : tokens)
+    {
+      if (builder.length() > 0)
+      {
+        builder.append(SEPARATOR);
+      }
+
+      builder.append(token);
+    }
+
+    builder.append('\n');
+
+    try
+    {
+      final FileOutputStream outputStream = new FileOutputStream(_file, true);
+
+      try
+      {
+        outputStream.write(builder.toString().getBytes(ENCODING));
+        outputStream.flush();
+        outputStream.getFD().sync();
+      }
+      finally
+      {
+        outputStream.close();
+      }
+    }
+    catch (final IOException e)
+    {
+      throw new SQLException("Cannot write checkpoint file " + _file, e);
+    }
+  }
+
+  private static String getTableName(final TableMetaData sourceTableMetaData)
+  {
+    return sourceTableMetaData.getTableName().toUpperCase();
+  }
+
+  private static String getKey(final String sourceConnectorId, final String targetConnectorId,
+      final TableMetaData sourceTableMetaData)
+  {
+    return getKey(sourceConnectorId, targetConnectorId, getTableName(sourceTableMetaData));
+  }
+
+  private static String getKey(final String sourceConnectorId, final String targetConnectorId, final String tableName)
+  {
+    return sourceConnectorId + SEPARATOR + targetConnectorId + SEPARATOR + tableName;
+  }
+}
@@ -0,0 +1,36 @@
+package de.akquinet.jbosscc.guttenbase.defaults.impl;
+
+import java.sql.Connection;
+
+import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+import de.akquinet.jbosscc.guttenbase.repository.DatabaseMetaDataCache;
+
+/**
+ * Caches nothing, i.e. the schema is inspected on every start.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class NoDatabaseMetaDataCache implements DatabaseMetaDataCache
+{
+  @Override
+  public String computeFingerprint(final ConnectorRepository connectorRepository, final String connectorId,
+      final Connection connection)
+  {
+    return null;
+  }
+
+  @Override
+  public DatabaseMetaData load(final String connectorId, final String fingerprint)
+  {
+    return null;
+  }
+
+  @Override
+  public void store(final String connectorId, final String fingerprint, final DatabaseMetaData databaseMetaData)
+  {
+  }
+}
@@ -0,0 +1,59 @@
+package de.akquinet.jbosscc.guttenbase.defaults.impl;
+
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.tools.TableCopyCheckpoint;
+
+/**
+ * Records nothing, i.e. a copy always starts from scratch.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class NoTableCopyCheckpoint implements TableCopyCheckpoint
+{
+  @Override
+  public boolean isTableCopied(final String sourceConnectorId, final String targetConnectorId,
+      final TableMetaData sourceTableMetaData)
+  {
+    return false;
+  }
+
+  @Override
+  public void tableCopied(final String sourceConnectorId, final String targetConnectorId,
+      final TableMetaData sourceTableMetaData)
+  {
+  }
+
+  @Override
+  public Long getLastCopiedKey(final String sourceConnectorId, final String targetConnectorId,
+      final TableMetaData sourceTableMetaData)
+  {
+    return null;
+  }
+
+  @Override
+  public void keyCopied(final String sourceConnectorId, final String targetConnectorId,
+      final TableMetaData sourceTableMetaData, final long key)
+  {
+  }
+
+  @Override
+  public boolean isRangeCopied(final String sourceConnectorId, final String targetConnectorId,
+      final TableMetaData sourceTableMetaData, final long start, final long end)
+  {
+    return false;
+  }
+
+  @Override
+  public void rangeCopied(final String sourceConnectorId, final String targetConnectorId,
+      final TableMetaData sourceTableMetaData, final long start, final long end)
+  {
+  }
+
+  @Override
+  public void copyFinished(final String sourceConnectorId, final String targetConnectorId)
+  {
+  }
+}
@@ -2,6 +2,8 @@ package de.akquinet.jbosscc.guttenbase.export;
 
 import org.apache.commons.io.IOUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.Externalizable;
 import java.io.File;
 import java.io.FileInputStream;
@@ -10,13 +12,19 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.sql.SQLException;
+import java.util.Arrays;
 
 /**
  * Since CLOBs/BLOBs may be quite big. we do not load them into memory
  * completely, but read them in chunks and write the data to the output stream
  * in a loop.
  * <p/>
+ * When reading, small objects are kept in memory, larger ones are stored in a {@link LobStorage} or, for older dumps, a
+ * temporary file.
+ * <p/>
  * <p>
  * &copy; 2012-2020 akquinet tech@spree
  * </p>
@@ -27,15 +35,19 @@ public abstract class AbstractExportDumpObject implements Externalizable
 {
   private static final long serialVersionUID = 1L;
 
-  public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024 * 10;
+  public static final int DEFAULT_BUFFER_SIZE = DumpRowFormat.CHUNK_SIZE;
   private transient final InputStream _inputStream;
 
+  private transient byte[] _data;
+  private transient LobStorage _lobStorage;
+  private transient long _offset;
+  private transient long _length;
   private transient File _tempFile;
-  private transient FileInputStream _fileInputStream;
+  private transient InputStream _fileInputStream;
 
   public AbstractExportDumpObject()
   {
-    this(null);
+    this((InputStream) null);
   }
 
   public AbstractExportDumpObject(final InputStream inputStream)
@@ -43,57 +55,100 @@ public abstract class AbstractExportDumpObject implements Externalizable
     _inputStream = inputStream;
   }
 
+  /**
+   * Use data kept in memory, e.g. by {@link DumpRowReader}.
+   */
+  public AbstractExportDumpObject(final byte[] data)
+  {
+    _inputStream = null;
+    _data = data;
+    _length = data.length;
+  }
+
+  /**
+   * Use data stored in region of {@link LobSpillFile} or {@link DumpLobArea}, e.g. by {@link DumpRowReader}. The storage is owned by
+   * the importer.
+   */
+  public AbstractExportDumpObject(final LobStorage lobStorage, final long offset, final long length)
+  {
+    _inputStream = null;
+    _lobStorage = lobStorage;
+    _offset = offset;
+    _length = length;
+  }
+
   /**
    * Read data in chunks and write it to the outputstream to avoid out of memory
-   * errors.
+   * errors. Chunks are filled completely, only the last one may be shorter.
    */
   @Override
   public void writeExternal(final ObjectOutput output) throws IOException
   {
     final byte[] buffer = new byte[DEFAULT_BUFFER_SIZE];
 
-    for (int n = _inputStream.read(buffer); n > 0; n = _inputStream.read(buffer))
+    for (int n = IOUtils.read(_inputStream, buffer); n > 0; n = IOUtils.read(_inputStream, buffer))
     {
-      byte[] buf = buffer;
-
-      if (n < DEFAULT_BUFFER_SIZE)
+      if (n < buffer.length)
       {
-        buf = new byte[n];
-        System.arraycopy(buffer, 0, buf, 0, n);
+        output.writeObject(Arrays.copyOf(buffer, n));
+      }
+      else if (output instanceof ObjectOutputStream)
+      {
+        // The buffer is reused, thus it must not be written as a reference to the previous chunk
+        ((ObjectOutputStream) output).writeUnshared(buffer);
+      }
+      else
+      {
+        output.writeObject(buffer.clone());
       }
-
-      output.writeObject(buf);
-      output.flush();
     }
 
     output.writeObject(null);
   }
 
   /**
-   * Store read data in temporary file to avoid out of memory errors.
+   * Keep small objects in memory, store larger ones in temporary file to avoid out of memory errors.
    */
   @Override
   public void readExternal(final ObjectInput input) throws IOException, ClassNotFoundException
   {
-    if (_tempFile == null)
+    final ByteArrayOutputStream data = new ByteArrayOutputStream();
+    OutputStream outputStream = data;
+
+    try
     {
-      _tempFile = File.createTempFile("GB-DUMP-", null);
-      _tempFile.deleteOnExit();
+      for (byte[] buffer = (byte[]) input.readObject(); buffer != null; buffer = (byte[]) input.readObject())
+      {
+        if (_tempFile == null && data.size() + buffer.length > DEFAULT_BUFFER_SIZE)
+        {
+          _tempFile = File.createTempFile("GB-DUMP-", null);
+          _tempFile.deleteOnExit();
+          outputStream = new FileOutputStream(_tempFile);
+          data.writeTo(outputStream);
+        }
+
+        outputStream.write(buffer, 0, buffer.length);
+      }
     }
-
-    final FileOutputStream fileOutputStream = new FileOutputStream(_tempFile);
-
-    for (byte[] buffer = (byte[]) input.readObject(); buffer != null; buffer = (byte[]) input.readObject())
+    finally
     {
-      fileOutputStream.write(buffer, 0, buffer.length);
+      outputStream.close();
     }
 
-    fileOutputStream.close();
+    if (_tempFile == null)
+    {
+      _data = data.toByteArray();
+      _length = _data.length;
+    }
+    else
+    {
+      _length = _tempFile.length();
+    }
   }
 
   public long length() throws SQLException
   {
-    return _tempFile.length();
+    return _length;
   }
 
   public byte[] getBytes(final long pos, final int length) throws SQLException
@@ -122,8 +177,13 @@ public abstract class AbstractExportDumpObject implements Externalizable
   {
     try
     {
-      _fileInputStream = new FileInputStream(_tempFile);
-      _fileInputStream.skip(pos);
+      if (_data != null)
+      {
+        return new ByteArrayInputStream(_data, (int) pos, _data.length - (int) pos);
+      }
+
+      _fileInputStream = _lobStorage != null ? _lobStorage.getInputStream(_offset, _length) : new FileInputStream(_tempFile);
+      IOUtils.skipFully(_fileInputStream, pos);
       return _fileInputStream;
     }
     catch (final IOException e)
@@ -134,6 +194,9 @@ public abstract class AbstractExportDumpObject implements Externalizable
 
   public final void free() throws SQLException
   {
+    _data = null;
+    _lobStorage = null;
+
     if (_tempFile != null && _tempFile.exists())
     {
       _tempFile.delete();
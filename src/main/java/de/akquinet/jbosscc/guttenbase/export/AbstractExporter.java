@@ -0,0 +1,231 @@
+package de.akquinet.jbosscc.guttenbase.export;
+
+import de.akquinet.jbosscc.guttenbase.hints.ColumnOrderHint;
+import de.akquinet.jbosscc.guttenbase.hints.InlineLobSizeHint;
+import de.akquinet.jbosscc.guttenbase.hints.NumberOfRowsPerDumpChunkHint;
+import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.ColumnType;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+import de.akquinet.jbosscc.guttenbase.tools.CommonColumnTypeResolverTool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Write table data using a {@link DumpRowWriter}. The column values are written in the order given by the {@link ColumnOrderHint},
+ * which is the order used by {@link ImportDumpResultSet}, too.
+ * <p>
+ * The data of a table may be split into chunks that can be decoded independently. Each chunk is written by its own {@link
+ * DumpRowWriter} and described by a {@link DumpChunk}.
+ * </p>
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @Uses-Hint {@link ColumnOrderHint} to determine order of columns
+ * @Uses-Hint {@link NumberOfRowsPerDumpChunkHint} to determine size of chunks
+ * @Uses-Hint {@link InlineLobSizeHint} to determine which LOBs are spilled to disk while a row is written
+ */
+public abstract class AbstractExporter implements Exporter
+{
+  private final List<String> _columnNames = new ArrayList<String>();
+  private final List<ColumnType> _columnTypes = new ArrayList<ColumnType>();
+  private final List<DumpChunk> _chunks = new ArrayList<DumpChunk>();
+  private final LobSpillFile _lobSpillFile = new LobSpillFile();
+  private TableMetaData _tableMetaData;
+  private int _numberOfRowsPerChunk;
+  private int _maximumInlineLobSize;
+  private long _numberOfRows;
+  private long _numberOfBytes;
+  private DumpRowWriter _dumpRowWriter;
+
+  /**
+   * Prepare writing the data of the given table.
+   */
+  protected final void initializeTableData(final ConnectorRepository connectorRepository, final String connectorId,
+                                           final TableMetaData tableMetaData) throws SQLException
+  {
+    final CommonColumnTypeResolverTool columnTypeResolver = new CommonColumnTypeResolverTool(connectorRepository);
+
+    _tableMetaData = tableMetaData;
+    _numberOfRowsPerChunk = connectorRepository.getConnectorHint(connectorId, NumberOfRowsPerDumpChunk.class).getValue()
+        .getNumberOfRowsPerChunk(tableMetaData);
+    _maximumInlineLobSize = connectorRepository.getConnectorHint(connectorId, InlineLobSize.class).getValue()
+        .getMaximumInlineLobSize();
+    _numberOfRows = 0;
+    _numberOfBytes = 0;
+    _columnNames.clear();
+    _columnTypes.clear();
+    _chunks.clear();
+
+    for (final ColumnMetaData columnMetaData : ColumnOrderHint.getSortedColumns(connectorRepository, connectorId, tableMetaData))
+    {
+      _columnNames.add(columnMetaData.getColumnName());
+      _columnTypes.add(columnTypeResolver.getColumnType(connectorId, columnMetaData));
+    }
+  }
+
+  /**
+   * Start writing the next chunk of table data to the output stream.
+   */
+  protected final void openDumpRowWriter(final OutputStream outputStream) throws IOException
+  {
+    assert _tableMetaData != null : "_tableMetaData != null";
+
+    _dumpRowWriter = new DumpRowWriter(outputStream, _columnNames, _columnTypes, _lobSpillFile, _maximumInlineLobSize,
+        getDumpLobArea());
+  }
+
+  /**
+   * @return area where LOBs are stored once per distinct content or null if LOBs are written into the rows. Returns null by default.
+   */
+  protected DumpLobArea getDumpLobArea()
+  {
+    return null;
+  }
+
+  /**
+   * @return true if the current chunk has reached the configured size. Must be checked after a row has been written.
+   */
+  protected final boolean isChunkComplete()
+  {
+    return _dumpRowWriter != null && _dumpRowWriter.getNumberOfRows() >= _numberOfRowsPerChunk;
+  }
+
+  /**
+   * @return number of the chunk currently written
+   */
+  protected final int getChunkNumber()
+  {
+    return _chunks.size();
+  }
+
+  /**
+   * Mark the end of the current chunk and flush remaining data. The output stream is not closed.
+   */
+  protected final void closeDumpRowWriter() throws IOException
+  {
+    if (_dumpRowWriter != null)
+    {
+      _dumpRowWriter.finish();
+
+      final int rowCount = (int) _dumpRowWriter.getNumberOfRows();
+      final long byteCount = _dumpRowWriter.getNumberOfBytes();
+
+      _chunks.add(new DumpChunk(_chunks.size(), _numberOfRows, rowCount, _numberOfBytes, byteCount,
+          _dumpRowWriter.getMinimumValues(), _dumpRowWriter.getMaximumValues()));
+      _numberOfRows += rowCount;
+      _numberOfBytes += byteCount;
+      _dumpRowWriter = null;
+      _lobSpillFile.delete();
+    }
+  }
+
+  /**
+   * @return index of all chunks written for the current table
+   */
+  protected final DumpChunkIndex getDumpChunkIndex()
+  {
+    return new DumpChunkIndex(_tableMetaData.getTableName(), _columnNames, _chunks);
+  }
+
+  protected final DumpRowWriter getDumpRowWriter()
+  {
+    assert _dumpRowWriter != null : "_dumpRowWriter != null";
+    return _dumpRowWriter;
+  }
+
+  @Override
+  public void writeObject(final Object obj) throws IOException
+  {
+    getDumpRowWriter().writeObject(obj);
+  }
+
+  @Override
+  public void writeNull() throws IOException
+  {
+    getDumpRowWriter().writeNull();
+  }
+
+  @Override
+  public void writeBoolean(final boolean value) throws IOException
+  {
+    getDumpRowWriter().writeBoolean(value);
+  }
+
+  @Override
+  public void writeShort(final short value) throws IOException
+  {
+    getDumpRowWriter().writeShort(value);
+  }
+
+  @Override
+  public void writeInt(final int value) throws IOException
+  {
+    getDumpRowWriter().writeInt(value);
+  }
+
+  @Override
+  public void writeLong(final long value) throws IOException
+  {
+    getDumpRowWriter().writeLong(value);
+  }
+
+  @Override
+  public void writeFloat(final float value) throws IOException
+  {
+    getDumpRowWriter().writeFloat(value);
+  }
+
+  @Override
+  public void writeDouble(final double value) throws IOException
+  {
+    getDumpRowWriter().writeDouble(value);
+  }
+
+  @Override
+  public void writeString(final String value) throws IOException
+  {
+    getDumpRowWriter().writeString(value);
+  }
+
+  @Override
+  public void writeBigDecimal(final BigDecimal value) throws IOException
+  {
+    getDumpRowWriter().writeBigDecimal(value);
+  }
+
+  @Override
+  public void writeDate(final Date value) throws IOException
+  {
+    getDumpRowWriter().writeDate(value);
+  }
+
+  @Override
+  public void writeTime(final Time value) throws IOException
+  {
+    getDumpRowWriter().writeTime(value);
+  }
+
+  @Override
+  public void writeTimestamp(final Timestamp value) throws IOException
+  {
+    getDumpRowWriter().writeTimestamp(value);
+  }
+
+  @Override
+  public void writeStream(final InputStream value) throws IOException
+  {
+    getDumpRowWriter().writeStream(value);
+  }
+}
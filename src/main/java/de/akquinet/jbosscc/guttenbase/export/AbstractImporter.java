@@ -0,0 +1,170 @@
+package de.akquinet.jbosscc.guttenbase.export;
+
+import de.akquinet.jbosscc.guttenbase.meta.ColumnType;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Read table data using a {@link DumpRowReader}, the counterpart of {@link AbstractExporter}. Dumps written by older versions
+ * contain serialized objects instead, their values are read with {@link #readObject()} and converted.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public abstract class AbstractImporter implements Importer
+{
+  private boolean _wasNull;
+
+  /**
+   * @return reader positioned at the next column value or null if the current table data consists of serialized objects
+   */
+  protected abstract DumpRowReader getDumpRowReader() throws Exception;
+
+  @Override
+  public boolean hasNextRow(final TableMetaData tableMetaData, final long numberOfRowsRead) throws Exception
+  {
+    final DumpRowReader dumpRowReader = getDumpRowReader();
+
+    return dumpRowReader != null ? dumpRowReader.hasNextRow() : numberOfRowsRead < tableMetaData.getRowCount();
+  }
+
+  @Override
+  public boolean readBoolean() throws Exception
+  {
+    final DumpRowReader dumpRowReader = getDumpRowReader();
+
+    if (dumpRowReader != null)
+    {
+      final boolean result = dumpRowReader.readBoolean();
+      _wasNull = dumpRowReader.wasNull();
+      return result;
+    }
+
+    final Object value = readValue();
+    return value instanceof Number ? ((Number) value).intValue() != 0 : Boolean.TRUE.equals(value);
+  }
+
+  @Override
+  public short readShort() throws Exception
+  {
+    return (short) readLong();
+  }
+
+  @Override
+  public int readInt() throws Exception
+  {
+    return (int) readLong();
+  }
+
+  @Override
+  public long readLong() throws Exception
+  {
+    final DumpRowReader dumpRowReader = getDumpRowReader();
+
+    if (dumpRowReader != null)
+    {
+      final long result = dumpRowReader.readLong();
+      _wasNull = dumpRowReader.wasNull();
+      return result;
+    }
+
+    final Object value = readValue();
+    return value == null ? 0 : DumpRowReader.toNumber(value).longValue();
+  }
+
+  @Override
+  public float readFloat() throws Exception
+  {
+    final DumpRowReader dumpRowReader = getDumpRowReader();
+
+    if (dumpRowReader != null)
+    {
+      final float result = dumpRowReader.readFloat();
+      _wasNull = dumpRowReader.wasNull();
+      return result;
+    }
+
+    final Object value = readValue();
+    return value == null ? 0 : DumpRowReader.toNumber(value).floatValue();
+  }
+
+  @Override
+  public double readDouble() throws Exception
+  {
+    final DumpRowReader dumpRowReader = getDumpRowReader();
+
+    if (dumpRowReader != null)
+    {
+      final double result = dumpRowReader.readDouble();
+      _wasNull = dumpRowReader.wasNull();
+      return result;
+    }
+
+    final Object value = readValue();
+    return value == null ? 0 : DumpRowReader.toNumber(value).doubleValue();
+  }
+
+  @Override
+  public String readString() throws Exception
+  {
+    final Object value = readValue();
+    return value == null ? null : value.toString();
+  }
+
+  @Override
+  public BigDecimal readBigDecimal() throws Exception
+  {
+    final Object value = readValue();
+    return value == null || value instanceof BigDecimal ? (BigDecimal) value : new BigDecimal(value.toString());
+  }
+
+  @Override
+  public Date readDate() throws Exception
+  {
+    return (Date) readValue();
+  }
+
+  @Override
+  public Time readTime() throws Exception
+  {
+    return (Time) readValue();
+  }
+
+  @Override
+  public Timestamp readTimestamp() throws Exception
+  {
+    return (Timestamp) readValue();
+  }
+
+  @Override
+  public boolean wasNull()
+  {
+    return _wasNull;
+  }
+
+  @Override
+  public List<ColumnType> getColumnTypes() throws Exception
+  {
+    final DumpRowReader dumpRowReader = getDumpRowReader();
+
+    return dumpRowReader != null ? dumpRowReader.getColumnTypes() : null;
+  }
+
+  /**
+   * Read value via {@link #readObject()}, used for types that are objects anyway and for dumps of serialized objects.
+   */
+  private Object readValue() throws Exception
+  {
+    final Object value = readObject();
+
+    _wasNull = value == null;
+    return value;
+  }
+}
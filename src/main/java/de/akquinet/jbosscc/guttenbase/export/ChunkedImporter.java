@@ -0,0 +1,25 @@
+package de.akquinet.jbosscc.guttenbase.export;
+
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+
+/**
+ * Importer for dumps where the table data is split into independently decodable chunks. Readers may thus skip to any chunk of a
+ * table, e.g. to resume an import or to import parts of a table in parallel.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public interface ChunkedImporter extends Importer {
+	/**
+	 * @return index of chunks the table data consists of or null if the table data has not been written in chunks
+	 */
+	DumpChunkIndex getChunkIndex(TableMetaData tableMetaData) throws Exception;
+
+	/**
+	 * Continue reading the table data at the first row of the given chunk. Following chunks will be read subsequently.
+	 */
+	void seekChunk(TableMetaData tableMetaData, int chunkNumber) throws Exception;
+}
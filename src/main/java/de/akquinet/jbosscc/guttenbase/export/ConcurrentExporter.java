@@ -0,0 +1,19 @@
+package de.akquinet.jbosscc.guttenbase.export;
+
+/**
+ * Exporter that allows several tables to be written concurrently. Each thread writes its tables using a worker exporter, the data
+ * of a table is added to the output of this exporter when the table has been finished.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public interface ConcurrentExporter extends Exporter
+{
+  /**
+   * Create exporter to be used by a single worker thread. Only the table and row related methods of the worker exporter will be
+   * called, the schema information is written by this exporter.
+   */
+  Exporter createWorkerExporter() throws Exception;
+}
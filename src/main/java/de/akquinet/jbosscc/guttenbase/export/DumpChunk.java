@@ -0,0 +1,99 @@
+package de.akquinet.jbosscc.guttenbase.export;
+
+import java.io.Serializable;
+
+/**
+ * Describes a chunk of table data in a dump: its position within the table and the minimum and maximum value of each column.
+ * <p>
+ * The statistics are available for numeric, string and date/time columns only. Integral numbers are stored as {@link Long},
+ * floating point numbers as {@link Double}. The minimum and maximum are null if the column has no comparable type, contains
+ * only NULL values or contains NaN in this chunk.
+ * </p>
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class DumpChunk implements Serializable
+{
+  private static final long serialVersionUID = 1L;
+
+  private final int _chunkNumber;
+  private final long _firstRow;
+  private final int _rowCount;
+  private final long _byteOffset;
+  private final long _byteCount;
+  private final Serializable[] _minimumValues;
+  private final Serializable[] _maximumValues;
+
+  public DumpChunk(final int chunkNumber, final long firstRow, final int rowCount, final long byteOffset, final long byteCount,
+                   final Serializable[] minimumValues, final Serializable[] maximumValues)
+  {
+    assert minimumValues.length == maximumValues.length : "minimumValues.length == maximumValues.length";
+
+    _chunkNumber = chunkNumber;
+    _firstRow = firstRow;
+    _rowCount = rowCount;
+    _byteOffset = byteOffset;
+    _byteCount = byteCount;
+    _minimumValues = minimumValues;
+    _maximumValues = maximumValues;
+  }
+
+  public int getChunkNumber()
+  {
+    return _chunkNumber;
+  }
+
+  /**
+   * @return index of the first row of this chunk within the table, starting with 0
+   */
+  public long getFirstRow()
+  {
+    return _firstRow;
+  }
+
+  public int getRowCount()
+  {
+    return _rowCount;
+  }
+
+  /**
+   * @return offset of the chunk within the uncompressed data of the table
+   */
+  public long getByteOffset()
+  {
+    return _byteOffset;
+  }
+
+  /**
+   * @return uncompressed size of chunk
+   */
+  public long getByteCount()
+  {
+    return _byteCount;
+  }
+
+  /**
+   * @param columnIndex column index starting with 0, ordered as in {@link DumpChunkIndex#getColumnNames()}
+   */
+  public Serializable getMinimumValue(final int columnIndex)
+  {
+    return _minimumValues[columnIndex];
+  }
+
+  /**
+   * @param columnIndex column index starting with 0, ordered as in {@link DumpChunkIndex#getColumnNames()}
+   */
+  public Serializable getMaximumValue(final int columnIndex)
+  {
+    return _maximumValues[columnIndex];
+  }
+
+  @Override
+  public String toString()
+  {
+    return "Chunk " + _chunkNumber + ": rows " + _firstRow + "-" + (_firstRow + _rowCount - 1);
+  }
+}
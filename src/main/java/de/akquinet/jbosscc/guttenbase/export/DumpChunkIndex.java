@@ -0,0 +1,95 @@
+package de.akquinet.jbosscc.guttenbase.export;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Index of the chunks a table's data consists of. Allows to start reading at any chunk, e.g. to resume an import or to read a table
+ * with several workers.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class DumpChunkIndex implements Serializable
+{
+  private static final long serialVersionUID = 1L;
+
+  private final String _tableName;
+  private final List<String> _columnNames;
+  private final List<DumpChunk> _chunks;
+
+  public DumpChunkIndex(final String tableName, final List<String> columnNames, final List<DumpChunk> chunks)
+  {
+    assert tableName != null : "tableName != null";
+
+    _tableName = tableName;
+    _columnNames = new ArrayList<String>(columnNames);
+    _chunks = new ArrayList<DumpChunk>(chunks);
+  }
+
+  public String getTableName()
+  {
+    return _tableName;
+  }
+
+  /**
+   * @return columns in the order they are written in a row
+   */
+  public List<String> getColumnNames()
+  {
+    return Collections.unmodifiableList(_columnNames);
+  }
+
+  /**
+   * @return index of given column starting with 0 or -1 if not found
+   */
+  public int getColumnIndex(final String columnName)
+  {
+    for (int i = 0; i < _columnNames.size(); i++)
+    {
+      if (_columnNames.get(i).equalsIgnoreCase(columnName))
+      {
+        return i;
+      }
+    }
+
+    return -1;
+  }
+
+  public List<DumpChunk> getChunks()
+  {
+    return Collections.unmodifiableList(_chunks);
+  }
+
+  public long getRowCount()
+  {
+    long result = 0;
+
+    for (final DumpChunk chunk : _chunks)
+    {
+      result += chunk.getRowCount();
+    }
+
+    return result;
+  }
+
+  /**
+   * @return chunk containing given row or null if row is out of range
+   */
+  public DumpChunk getChunkForRow(final long row)
+  {
+    for (final DumpChunk chunk : _chunks)
+    {
+      if (row >= chunk.getFirstRow() && row < chunk.getFirstRow() + chunk.getRowCount())
+      {
+        return chunk;
+      }
+    }
+
+    return null;
+  }
+}
@@ -0,0 +1,30 @@
+package de.akquinet.jbosscc.guttenbase.export;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Area of a dump where the contents of large BLOBs, CLOBs and XML values are stored once per distinct content. Rows contain only a
+ * reference to the content, identified by its SHA-256 digest while writing. Implementations may store the content compressed, the
+ * reference always contains the uncompressed length.
+ * <p>
+ * Implementations must be thread-safe, since the same area may be used by concurrent workers.
+ * </p>
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public interface DumpLobArea
+{
+  /**
+   * Store content unless content with the same digest has already been stored.
+   *
+   * @param digest  SHA-256 digest of content
+   * @param content read only if the content is not yet known
+   * @param length  length of content
+   * @return offset of content within the area
+   */
+  long addLob(byte[] digest, InputStream content, long length) throws IOException;
+}
@@ -0,0 +1,41 @@
+package de.akquinet.jbosscc.guttenbase.export;
+
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+
+import java.util.List;
+
+/**
+ * Select the rows of a table to be imported from a dump. The filter is evaluated while the dump is decoded, i.e. rejected rows are
+ * skipped before their remaining columns, especially LOBs, are decoded. They never reach the target database.
+ * <p>
+ * If the table data has been written in chunks (see {@link ChunkedImporter}), whole chunks are skipped without being decompressed if
+ * {@link #mayAccept(TableMetaData, Object[], Object[])} says that no row of the chunk can be accepted.
+ * </p>
+ * <p>
+ * Key values are passed in the order given by {@link #getKeyColumns(TableMetaData)}. Values have the Java type of their column, while
+ * chunk statistics are stored as described in {@link DumpChunk}, i.e. integral numbers as {@link Long} and floating point numbers as
+ * {@link Double}.
+ * </p>
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public interface DumpRowFilter
+{
+  /**
+   * @return names of columns the filter needs to decide whether a row is accepted. If the list is empty, all rows of the table are
+   * imported
+   */
+  List<String> getKeyColumns(TableMetaData tableMetaData);
+
+  /**
+   * @param minimumValues minimum value of each key column within the chunk, null if unknown
+   * @param maximumValues maximum value of each key column within the chunk, null if unknown
+   * @return false if no row within the given range can be accepted
+   */
+  boolean mayAccept(TableMetaData tableMetaData, Object[] minimumValues, Object[] maximumValues);
+
+  boolean accept(TableMetaData tableMetaData, Object[] keyValues);
+}
@@ -0,0 +1,134 @@
+package de.akquinet.jbosscc.guttenbase.export;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Binary format of table data in dumps, written by {@link DumpRowWriter} and read by {@link DumpRowReader}.
+ * <p>
+ * The table data starts with a schema header: {@link #MAGIC}, number of columns and name and {@link
+ * de.akquinet.jbosscc.guttenbase.meta.ColumnType} of every column. Each row then consists of {@link #ROW}, a bitmap marking NULL
+ * values and the non-NULL values in column order:
+ * </p>
+ * <ul>
+ * <li>Integral numbers, dates and times as variable length integers, signed values zigzag encoded</li>
+ * <li>Strings as length-prefixed UTF-8</li>
+ * <li>Floating point numbers with their fixed size IEEE 754 representation</li>
+ * <li>BLOBs, CLOBs and XML as {@link #LOB_INLINE} followed by the content up to the end of the value, or as {@link
+ * #LOB_REFERENCE} followed by offset and length of the content within the {@link DumpLobArea} of the dump</li>
+ * <li>Other objects length-prefixed using Java serialization</li>
+ * </ul>
+ * <p>
+ * Every non-NULL value is preceded by its length in bytes, so a reader may skip columns it is not interested in without decoding
+ * them.
+ * </p>
+ * <p>
+ * The table data ends with {@link #END_OF_DATA}, so the number of rows need not be known in advance.
+ * </p>
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public final class DumpRowFormat
+{
+  /**
+   * "GBR1"
+   */
+  public static final int MAGIC = 0x47425231;
+
+  public static final int END_OF_DATA = 0;
+  public static final int ROW = 1;
+
+  public static final int LOB_INLINE = 0;
+  public static final int LOB_REFERENCE = 1;
+
+  public static final int CHUNK_SIZE = 64 * 1024;
+
+  private DumpRowFormat()
+  {
+  }
+
+  public static boolean isMagic(final int magic)
+  {
+    return magic == MAGIC;
+  }
+
+  public static void writeVarLong(final DataOutput output, final long value) throws IOException
+  {
+    long remaining = value;
+
+    while ((remaining & ~0x7FL) != 0)
+    {
+      output.writeByte((int) ((remaining & 0x7F) | 0x80));
+      remaining >>>= 7;
+    }
+
+    output.writeByte((int) remaining);
+  }
+
+  public static long readVarLong(final DataInput input) throws IOException
+  {
+    long result = 0;
+
+    for (int shift = 0; shift < 64; shift += 7)
+    {
+      final byte b = input.readByte();
+      result |= (long) (b & 0x7F) << shift;
+
+      if ((b & 0x80) == 0)
+      {
+        return result;
+      }
+    }
+
+    throw new IOException("Malformed variable length integer");
+  }
+
+  public static void writeVarInt(final DataOutput output, final int value) throws IOException
+  {
+    writeVarLong(output, value & 0xFFFFFFFFL);
+  }
+
+  public static int readVarInt(final DataInput input) throws IOException
+  {
+    return (int) readVarLong(input);
+  }
+
+  public static void writeSignedVarLong(final DataOutput output, final long value) throws IOException
+  {
+    writeVarLong(output, (value << 1) ^ (value >> 63));
+  }
+
+  public static long readSignedVarLong(final DataInput input) throws IOException
+  {
+    final long value = readVarLong(input);
+
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  public static void writeBytes(final DataOutput output, final byte[] bytes) throws IOException
+  {
+    writeVarInt(output, bytes.length);
+    output.write(bytes);
+  }
+
+  public static byte[] readBytes(final DataInput input) throws IOException
+  {
+    final byte[] result = new byte[readVarInt(input)];
+    input.readFully(result);
+    return result;
+  }
+
+  public static void writeString(final DataOutput output, final String value) throws IOException
+  {
+    writeBytes(output, value.getBytes("UTF-8"));
+  }
+
+  public static String readString(final DataInput input) throws IOException
+  {
+    return new String(readBytes(input), "UTF-8");
+  }
+}
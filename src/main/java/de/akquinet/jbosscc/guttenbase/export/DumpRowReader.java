@@ -0,0 +1,501 @@
+package de.akquinet.jbosscc.guttenbase.export;
+
+import de.akquinet.jbosscc.guttenbase.meta.ColumnType;
+import de.akquinet.jbosscc.guttenbase.utils.Util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Read table data in the {@link DumpRowFormat} written by {@link DumpRowWriter}. Values are read in column order, the next row is
+ * started automatically when all columns of the current row have been read.
+ * <p>
+ * The typed methods return the primitive value without creating a wrapper object. If the column is NULL, they return 0 or null and
+ * {@link #wasNull()} returns true, just like a {@link java.sql.ResultSet}.
+ * </p>
+ * <p>
+ * BLOBs, CLOBs and XML are returned as {@link ExportDumpBlob}, {@link ExportDumpClob} or {@link ExportDumpSqlXML}. Small values are
+ * kept in memory, larger ones are appended to a {@link LobSpillFile} shared by all readers of an import.
+ * </p>
+ * <p>
+ * Columns that are not needed may be passed over using {@link #skipObject()}, they are skipped without being decoded at all.
+ * </p>
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class DumpRowReader
+{
+  private final DataInputStream _input;
+  private final List<String> _columnNames = new ArrayList<String>();
+  private final ColumnType[] _columnTypes;
+  private final byte[] _nullBitmap;
+  private int _columnIndex;
+  private boolean _rowStarted;
+  private boolean _rowMarkerRead;
+  private boolean _endOfData;
+  private boolean _wasNull;
+  private int _numberOfRows;
+  private final LobSpillFile _lobSpillFile;
+  private final int _maximumInlineLobSize;
+  private final byte[] _chunk = new byte[DumpRowFormat.CHUNK_SIZE];
+  private final LobStorage _lobArea;
+  private long _cellLength = -1;
+
+  /**
+   * Reads the schema header. LOBs of up to {@link DumpRowFormat#CHUNK_SIZE} bytes are kept in memory.
+   *
+   * @param inputStream should be buffered, it will not be closed by this class
+   */
+  public DumpRowReader(final InputStream inputStream) throws IOException
+  {
+    this(inputStream, new LobSpillFile(), DumpRowFormat.CHUNK_SIZE);
+  }
+
+  /**
+   * Reads the schema header.
+   *
+   * @param inputStream          should be buffered, it will not be closed by this class
+   * @param lobSpillFile         stores LOBs larger than maximumInlineLobSize, must not be deleted while LOBs are still in use
+   * @param maximumInlineLobSize LOBs up to this size are kept in memory
+   */
+  public DumpRowReader(final InputStream inputStream, final LobSpillFile lobSpillFile, final int maximumInlineLobSize)
+      throws IOException
+  {
+    this(inputStream, lobSpillFile, maximumInlineLobSize, null);
+  }
+
+  /**
+   * Reads the schema header.
+   *
+   * @param inputStream          should be buffered, it will not be closed by this class
+   * @param lobSpillFile         stores LOBs larger than maximumInlineLobSize, must not be deleted while LOBs are still in use
+   * @param maximumInlineLobSize LOBs up to this size are kept in memory
+   * @param lobArea              {@link DumpLobArea} of the dump, LOBs referencing it are read from there lazily. May be null if
+   *                             the dump has no LOB area
+   */
+  public DumpRowReader(final InputStream inputStream, final LobSpillFile lobSpillFile, final int maximumInlineLobSize,
+                       final LobStorage lobArea) throws IOException
+  {
+    assert inputStream != null : "inputStream != null";
+    assert lobSpillFile != null : "lobSpillFile != null";
+
+    _lobSpillFile = lobSpillFile;
+    _maximumInlineLobSize = maximumInlineLobSize;
+    _lobArea = lobArea;
+
+    _input = new DataInputStream(inputStream);
+
+    final int magic = _input.readInt();
+
+    if (!DumpRowFormat.isMagic(magic))
+    {
+      throw new IOException("Invalid table data header " + Integer.toHexString(magic));
+    }
+
+    final int columnCount = DumpRowFormat.readVarInt(_input);
+    _columnTypes = new ColumnType[columnCount];
+    _nullBitmap = new byte[(columnCount + 7) / 8];
+
+    for (int i = 0; i < columnCount; i++)
+    {
+      _columnNames.add(DumpRowFormat.readString(_input));
+      _columnTypes[i] = ColumnType.valueOf(DumpRowFormat.readString(_input));
+    }
+  }
+
+  public List<String> getColumnNames()
+  {
+    return Collections.unmodifiableList(_columnNames);
+  }
+
+  public List<ColumnType> getColumnTypes()
+  {
+    return Collections.unmodifiableList(Arrays.asList(_columnTypes));
+  }
+
+  /**
+   * @return number of rows read completely
+   */
+  public int getNumberOfRows()
+  {
+    return _numberOfRows;
+  }
+
+  /**
+   * @return false if all rows have been read and the end of the table data has been reached
+   */
+  public boolean hasNextRow() throws IOException
+  {
+    if (!_rowStarted && !_rowMarkerRead && !_endOfData)
+    {
+      final int marker = _input.readUnsignedByte();
+
+      if (marker != DumpRowFormat.ROW && marker != DumpRowFormat.END_OF_DATA)
+      {
+        throw new IOException("Invalid row marker " + marker);
+      }
+
+      _rowMarkerRead = marker == DumpRowFormat.ROW;
+      _endOfData = !_rowMarkerRead;
+    }
+
+    return !_endOfData;
+  }
+
+  /**
+   * @return true if some, but not all columns of the current row have been read
+   */
+  public boolean isRowStarted()
+  {
+    return _rowStarted;
+  }
+
+  /**
+   * @return true if the value read last was NULL
+   */
+  public boolean wasNull()
+  {
+    return _wasNull;
+  }
+
+  public boolean readBoolean() throws IOException
+  {
+    if (nextColumnType() == ColumnType.CLASS_BOOLEAN)
+    {
+      final boolean result = !_wasNull && _input.readBoolean();
+      columnRead();
+      return result;
+    }
+    else
+    {
+      final Object value = readObject();
+      return value instanceof Number ? ((Number) value).intValue() != 0 : Boolean.TRUE.equals(value);
+    }
+  }
+
+  public short readShort() throws IOException
+  {
+    return (short) readLong();
+  }
+
+  public int readInt() throws IOException
+  {
+    return (int) readLong();
+  }
+
+  public long readLong() throws IOException
+  {
+    final ColumnType columnType = nextColumnType();
+
+    if (columnType == ColumnType.CLASS_LONG || columnType == ColumnType.CLASS_INTEGER || columnType == ColumnType.CLASS_SHORT)
+    {
+      final long result = _wasNull ? 0 : DumpRowFormat.readSignedVarLong(_input);
+      columnRead();
+      return result;
+    }
+    else
+    {
+      final Object value = readObject();
+      return value == null ? 0 : toNumber(value).longValue();
+    }
+  }
+
+  public float readFloat() throws IOException
+  {
+    if (nextColumnType() == ColumnType.CLASS_FLOAT)
+    {
+      final float result = _wasNull ? 0 : _input.readFloat();
+      columnRead();
+      return result;
+    }
+    else
+    {
+      final Object value = readObject();
+      return value == null ? 0 : toNumber(value).floatValue();
+    }
+  }
+
+  public double readDouble() throws IOException
+  {
+    if (nextColumnType() == ColumnType.CLASS_DOUBLE)
+    {
+      final double result = _wasNull ? 0 : _input.readDouble();
+      columnRead();
+      return result;
+    }
+    else
+    {
+      final Object value = readObject();
+      return value == null ? 0 : toNumber(value).doubleValue();
+    }
+  }
+
+  public String readString() throws IOException
+  {
+    final Object value = readObject();
+    return value == null ? null : value.toString();
+  }
+
+  /**
+   * Read value of next column as an object of the class corresponding to the column type.
+   */
+  public Object readObject() throws IOException
+  {
+    final ColumnType columnType = nextColumnType();
+    final Object result = _wasNull ? null : readValue(columnType);
+
+    columnRead();
+    return result;
+  }
+
+  /**
+   * Pass over value of next column. LOBs are neither read into memory nor into the spill file.
+   */
+  public void skipObject() throws IOException
+  {
+    nextColumnType();
+
+    if (!_wasNull)
+    {
+      skipBytes(_cellLength);
+    }
+
+    columnRead();
+  }
+
+  private void skipBytes(final long length) throws IOException
+  {
+    for (long remaining = length; remaining > 0; )
+    {
+      final long skipped = _input.skip(remaining);
+
+      if (skipped > 0)
+      {
+        remaining -= skipped;
+      }
+      else
+      {
+        _input.readByte(); // Throws EOFException at end of stream
+        remaining--;
+      }
+    }
+  }
+
+  private Object readValue(final ColumnType columnType) throws IOException
+  {
+    switch (columnType)
+    {
+      case CLASS_STRING:
+        return DumpRowFormat.readString(_input);
+      case CLASS_BOOLEAN:
+        return _input.readBoolean();
+      case CLASS_SHORT:
+        return (short) DumpRowFormat.readSignedVarLong(_input);
+      case CLASS_INTEGER:
+        return (int) DumpRowFormat.readSignedVarLong(_input);
+      case CLASS_LONG:
+        return DumpRowFormat.readSignedVarLong(_input);
+      case CLASS_FLOAT:
+        return _input.readFloat();
+      case CLASS_DOUBLE:
+        return _input.readDouble();
+      case CLASS_BIGDECIMAL:
+        final int scale = (int) DumpRowFormat.readSignedVarLong(_input);
+        return new BigDecimal(new BigInteger(DumpRowFormat.readBytes(_input)), scale);
+      case CLASS_DATE:
+        return new Date(DumpRowFormat.readSignedVarLong(_input));
+      case CLASS_TIME:
+        return new Time(DumpRowFormat.readSignedVarLong(_input));
+      case CLASS_TIMESTAMP:
+        final Timestamp timestamp = new Timestamp(DumpRowFormat.readSignedVarLong(_input));
+        timestamp.setNanos(DumpRowFormat.readVarInt(_input));
+        return timestamp;
+      case CLASS_BLOB:
+      case CLASS_CLOB:
+      case CLASS_SQLXML:
+        return readLob(columnType);
+      default:
+        try
+        {
+          return Util.fromInputStream(Object.class, new ByteArrayInputStream(DumpRowFormat.readBytes(_input)));
+        }
+        catch (final IOException e)
+        {
+          throw e;
+        }
+        catch (final Exception e)
+        {
+          throw new IOException("Cannot deserialize column " + _columnNames.get(_columnIndex), e);
+        }
+    }
+  }
+
+  /**
+   * Keep data in memory until it exceeds the inline size, then move it to the spill file.
+   */
+  private Object readLob(final ColumnType columnType) throws IOException
+  {
+    if (DumpRowFormat.readVarInt(_input) == DumpRowFormat.LOB_REFERENCE)
+    {
+      final long offset = DumpRowFormat.readVarLong(_input);
+      final long length = DumpRowFormat.readVarLong(_input);
+
+      if (_lobArea == null)
+      {
+        throw new IOException("Column " + _columnNames.get(_columnIndex) + " refers to LOB area, but dump has none");
+      }
+
+      return createLob(columnType, _lobArea, offset, length);
+    }
+
+    final ByteArrayOutputStream data = new ByteArrayOutputStream();
+    long spillOffset = -1;
+
+    // Content follows up to the end of the value, LOB_INLINE tag occupies one byte
+    for (long remaining = _cellLength - 1; remaining > 0; )
+    {
+      final int n = (int) Math.min(remaining, _chunk.length);
+      _input.readFully(_chunk, 0, n);
+      spillOffset = appendLobData(data, spillOffset, _chunk, n);
+      remaining -= n;
+    }
+
+    if (spillOffset < 0)
+    {
+      final byte[] bytes = data.toByteArray();
+
+      switch (columnType)
+      {
+        case CLASS_BLOB:
+          return new ExportDumpBlob(bytes);
+        case CLASS_CLOB:
+          return new ExportDumpClob(bytes);
+        default:
+          return new ExportDumpSqlXML(bytes);
+      }
+    }
+    else
+    {
+      return createLob(columnType, _lobSpillFile, spillOffset, _lobSpillFile.size() - spillOffset);
+    }
+  }
+
+  /**
+   * @return offset of LOB within spill file or -1 if it is still kept in memory
+   */
+  private long appendLobData(final ByteArrayOutputStream data, final long spillOffset, final byte[] buffer, final int n)
+      throws IOException
+  {
+    long result = spillOffset;
+
+    if (result < 0 && data.size() + n > _maximumInlineLobSize)
+    {
+      result = _lobSpillFile.size();
+      _lobSpillFile.write(data.toByteArray(), 0, data.size());
+    }
+
+    if (result < 0)
+    {
+      data.write(buffer, 0, n);
+    }
+    else
+    {
+      _lobSpillFile.write(buffer, 0, n);
+    }
+
+    return result;
+  }
+
+  private static Object createLob(final ColumnType columnType, final LobStorage lobStorage, final long offset, final long length)
+  {
+    switch (columnType)
+    {
+      case CLASS_BLOB:
+        return new ExportDumpBlob(lobStorage, offset, length);
+      case CLASS_CLOB:
+        return new ExportDumpClob(lobStorage, offset, length);
+      default:
+        return new ExportDumpSqlXML(lobStorage, offset, length);
+    }
+  }
+
+  private ColumnType nextColumnType() throws IOException
+  {
+    if (_columnTypes.length == 0)
+    {
+      throw new IOException("Table has no columns");
+    }
+
+    if (!_rowStarted)
+    {
+      if (!hasNextRow())
+      {
+        throw new EOFException("No more rows");
+      }
+
+      _input.readFully(_nullBitmap);
+      _rowMarkerRead = false;
+      _rowStarted = true;
+    }
+
+    _wasNull = (_nullBitmap[_columnIndex >> 3] & (1 << (_columnIndex & 7))) != 0;
+
+    if (!_wasNull && _cellLength < 0)
+    {
+      _cellLength = DumpRowFormat.readVarLong(_input);
+    }
+
+    return _columnTypes[_columnIndex];
+  }
+
+  private void columnRead()
+  {
+    _cellLength = -1;
+
+    if (++_columnIndex == _columnTypes.length)
+    {
+      _columnIndex = 0;
+      _rowStarted = false;
+      _numberOfRows++;
+    }
+  }
+
+  static Number toNumber(final Object value) throws IOException
+  {
+    if (value instanceof Number)
+    {
+      return (Number) value;
+    }
+    else if (value instanceof Boolean)
+    {
+      return (Boolean) value ? 1 : 0;
+    }
+    else
+    {
+      try
+      {
+        return new BigDecimal(value.toString());
+      }
+      catch (final NumberFormatException e)
+      {
+        throw new IOException("Cannot convert " + value + " to number", e);
+      }
+    }
+  }
+}
@@ -0,0 +1,719 @@
+package de.akquinet.jbosscc.guttenbase.export;
+
+import de.akquinet.jbosscc.guttenbase.meta.ColumnType;
+import de.akquinet.jbosscc.guttenbase.utils.Util;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CountingOutputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.SQLXML;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Write table data in the {@link DumpRowFormat}. Values must be written in column order, a row is complete when a value has been
+ * written for every column.
+ * <p>
+ * Since the NULL bitmap precedes the values, the values of a row are collected in a buffer first. Small BLOBs, CLOBs and XML values
+ * are collected in that buffer, too. Larger ones are appended to a {@link LobSpillFile} instead, so they do not need to fit into
+ * memory. The spill file is truncated after each row.
+ * </p>
+ * <p>
+ * Every value is written with its length in bytes, so readers may skip columns without decoding them, see {@link
+ * DumpRowReader#skipObject()}.
+ * </p>
+ * <p>
+ * The writer keeps track of the minimum and maximum value of all numeric, string and date/time columns, see {@link DumpChunk}.
+ * </p>
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class DumpRowWriter
+{
+  private final CountingOutputStream _countingOutputStream;
+  private final DataOutputStream _output;
+  private final List<String> _columnNames;
+  private final ColumnType[] _columnTypes;
+  private final byte[] _nullBitmap;
+  private final int[] _cellEnds;
+  private final RowBuffer _rowBuffer = new RowBuffer();
+  private final DataOutputStream _rowOutput = new DataOutputStream(_rowBuffer);
+  private final List<LobSegment> _lobSegments = new ArrayList<LobSegment>();
+  private final LobSpillFile _lobSpillFile;
+  private final byte[] _lobBuffer;
+  private final int _maximumInlineLobSize;
+  private final DumpLobArea _lobArea;
+  private final boolean[] _hasStatistics;
+  private final boolean[] _unknownStatistics;
+  private final long[] _minimumLongs;
+  private final long[] _maximumLongs;
+  private final double[] _minimumDoubles;
+  private final double[] _maximumDoubles;
+  private final Object[] _minimumObjects;
+  private final Object[] _maximumObjects;
+  private int _columnIndex;
+  private long _numberOfRows;
+
+  /**
+   * Writes the schema header. LOBs of up to {@link DumpRowFormat#CHUNK_SIZE} bytes are kept in memory.
+   *
+   * @param outputStream should be buffered, it will not be closed by this class
+   */
+  public DumpRowWriter(final OutputStream outputStream, final List<String> columnNames, final List<ColumnType> columnTypes)
+      throws IOException
+  {
+    this(outputStream, columnNames, columnTypes, new LobSpillFile(), DumpRowFormat.CHUNK_SIZE);
+  }
+
+  /**
+   * Writes the schema header.
+   *
+   * @param outputStream         should be buffered, it will not be closed by this class
+   * @param lobSpillFile         stores LOBs larger than maximumInlineLobSize until the row is written
+   * @param maximumInlineLobSize LOBs up to this size are kept in memory
+   */
+  public DumpRowWriter(final OutputStream outputStream, final List<String> columnNames, final List<ColumnType> columnTypes,
+                       final LobSpillFile lobSpillFile, final int maximumInlineLobSize) throws IOException
+  {
+    this(outputStream, columnNames, columnTypes, lobSpillFile, maximumInlineLobSize, null);
+  }
+
+  /**
+   * Writes the schema header.
+   *
+   * @param outputStream         should be buffered, it will not be closed by this class
+   * @param lobSpillFile         stores LOBs larger than maximumInlineLobSize until the row is written
+   * @param maximumInlineLobSize LOBs up to this size are kept in memory
+   * @param lobArea              if not null, LOBs are stored there once per distinct content and referenced from the row
+   */
+  public DumpRowWriter(final OutputStream outputStream, final List<String> columnNames, final List<ColumnType> columnTypes,
+                       final LobSpillFile lobSpillFile, final int maximumInlineLobSize, final DumpLobArea lobArea)
+      throws IOException
+  {
+    assert outputStream != null : "outputStream != null";
+    assert lobSpillFile != null : "lobSpillFile != null";
+    assert maximumInlineLobSize >= 0 : "maximumInlineLobSize >= 0";
+    assert columnNames.size() == columnTypes.size() : "columnNames.size() == columnTypes.size()";
+
+    _countingOutputStream = new CountingOutputStream(outputStream);
+    _output = new DataOutputStream(_countingOutputStream);
+    _columnNames = new ArrayList<String>(columnNames);
+    _columnTypes = columnTypes.toArray(new ColumnType[columnTypes.size()]);
+    _nullBitmap = new byte[(_columnTypes.length + 7) / 8];
+    _cellEnds = new int[_columnTypes.length];
+    _lobSpillFile = lobSpillFile;
+    _maximumInlineLobSize = maximumInlineLobSize;
+    _lobArea = lobArea;
+    _lobBuffer = new byte[Math.max(maximumInlineLobSize + 1, DumpRowFormat.CHUNK_SIZE)];
+
+    final int columnCount = _columnTypes.length;
+    _hasStatistics = new boolean[columnCount];
+    _unknownStatistics = new boolean[columnCount];
+    _minimumLongs = new long[columnCount];
+    _maximumLongs = new long[columnCount];
+    _minimumDoubles = new double[columnCount];
+    _maximumDoubles = new double[columnCount];
+    _minimumObjects = new Object[columnCount];
+    _maximumObjects = new Object[columnCount];
+
+    _output.writeInt(DumpRowFormat.MAGIC);
+    DumpRowFormat.writeVarInt(_output, _columnTypes.length);
+
+    for (int i = 0; i < _columnTypes.length; i++)
+    {
+      DumpRowFormat.writeString(_output, _columnNames.get(i));
+      DumpRowFormat.writeString(_output, _columnTypes[i].name());
+    }
+  }
+
+  public long getNumberOfRows()
+  {
+    return _numberOfRows;
+  }
+
+  /**
+   * @return number of bytes written including the schema header
+   */
+  public long getNumberOfBytes()
+  {
+    return _countingOutputStream.getByteCount();
+  }
+
+  public List<String> getColumnNames()
+  {
+    return Collections.unmodifiableList(_columnNames);
+  }
+
+  /**
+   * @return minimum value of each column as described in {@link DumpChunk}
+   */
+  public Serializable[] getMinimumValues()
+  {
+    return getStatistics(_minimumLongs, _minimumDoubles, _minimumObjects);
+  }
+
+  /**
+   * @return maximum value of each column as described in {@link DumpChunk}
+   */
+  public Serializable[] getMaximumValues()
+  {
+    return getStatistics(_maximumLongs, _maximumDoubles, _maximumObjects);
+  }
+
+  public void writeNull() throws IOException
+  {
+    nextColumnType();
+    _nullBitmap[_columnIndex >> 3] |= 1 << (_columnIndex & 7);
+    columnWritten();
+  }
+
+  public void writeBoolean(final boolean value) throws IOException
+  {
+    if (nextColumnType() == ColumnType.CLASS_BOOLEAN)
+    {
+      _rowOutput.writeBoolean(value);
+      columnWritten();
+    }
+    else
+    {
+      writeObject(value);
+    }
+  }
+
+  public void writeShort(final short value) throws IOException
+  {
+    if (nextColumnType() == ColumnType.CLASS_SHORT)
+    {
+      DumpRowFormat.writeSignedVarLong(_rowOutput, value);
+      updateStatistics(value);
+      columnWritten();
+    }
+    else
+    {
+      writeObject(value);
+    }
+  }
+
+  public void writeInt(final int value) throws IOException
+  {
+    if (nextColumnType() == ColumnType.CLASS_INTEGER)
+    {
+      DumpRowFormat.writeSignedVarLong(_rowOutput, value);
+      updateStatistics(value);
+      columnWritten();
+    }
+    else
+    {
+      writeObject(value);
+    }
+  }
+
+  public void writeLong(final long value) throws IOException
+  {
+    if (nextColumnType() == ColumnType.CLASS_LONG)
+    {
+      DumpRowFormat.writeSignedVarLong(_rowOutput, value);
+      updateStatistics(value);
+      columnWritten();
+    }
+    else
+    {
+      writeObject(value);
+    }
+  }
+
+  public void writeFloat(final float value) throws IOException
+  {
+    if (nextColumnType() == ColumnType.CLASS_FLOAT)
+    {
+      _rowOutput.writeFloat(value);
+      updateStatistics(value);
+      columnWritten();
+    }
+    else
+    {
+      writeObject(value);
+    }
+  }
+
+  public void writeDouble(final double value) throws IOException
+  {
+    if (nextColumnType() == ColumnType.CLASS_DOUBLE)
+    {
+      _rowOutput.writeDouble(value);
+      updateStatistics(value);
+      columnWritten();
+    }
+    else
+    {
+      writeObject(value);
+    }
+  }
+
+  public void writeString(final String value) throws IOException
+  {
+    writeObject(value);
+  }
+
+  public void writeBigDecimal(final BigDecimal value) throws IOException
+  {
+    writeObject(value);
+  }
+
+  public void writeDate(final Date value) throws IOException
+  {
+    writeObject(value);
+  }
+
+  public void writeTime(final Time value) throws IOException
+  {
+    writeObject(value);
+  }
+
+  public void writeTimestamp(final Timestamp value) throws IOException
+  {
+    writeObject(value);
+  }
+
+  /**
+   * Write contents of BLOB, CLOB or XML column. The stream is read completely, but not closed.
+   */
+  public void writeStream(final InputStream value) throws IOException
+  {
+    writeObject(value);
+  }
+
+  /**
+   * Write value of next column, the value is converted to the type of the column if necessary.
+   */
+  public void writeObject(final Object value) throws IOException
+  {
+    if (value == null)
+    {
+      writeNull();
+      return;
+    }
+
+    final ColumnType columnType = nextColumnType();
+
+    try
+    {
+      writeValue(columnType, value);
+    }
+    catch (final ClassCastException e)
+    {
+      throw new IOException("Cannot write " + value.getClass().getName() + " to column " + _columnNames.get(_columnIndex) + " of type "
+          + columnType, e);
+    }
+    catch (final SQLException e)
+    {
+      throw new IOException("Cannot read LOB of column " + _columnNames.get(_columnIndex), e);
+    }
+
+    columnWritten();
+  }
+
+  public void flush() throws IOException
+  {
+    _output.flush();
+  }
+
+  /**
+   * Mark the end of the table data and flush. No more rows may be written afterwards.
+   */
+  public void finish() throws IOException
+  {
+    assert _columnIndex == 0 : "_columnIndex == 0";
+
+    _output.write(DumpRowFormat.END_OF_DATA);
+    _output.flush();
+  }
+
+  private void writeValue(final ColumnType columnType, final Object value) throws IOException, SQLException
+  {
+    switch (columnType)
+    {
+      case CLASS_STRING:
+        final String string = value.toString();
+        DumpRowFormat.writeString(_rowOutput, string);
+        updateStatistics(string);
+        break;
+      case CLASS_BOOLEAN:
+        _rowOutput.writeBoolean(value instanceof Number ? ((Number) value).intValue() != 0 : (Boolean) value);
+        break;
+      case CLASS_SHORT:
+      case CLASS_INTEGER:
+      case CLASS_LONG:
+        if (value instanceof BigInteger && ((BigInteger) value).bitLength() > 63)
+        {
+          throw new IOException("Value " + value + " of column " + _columnNames.get(_columnIndex) + " exceeds range of " + columnType);
+        }
+
+        final long longValue = ((Number) value).longValue();
+        DumpRowFormat.writeSignedVarLong(_rowOutput, longValue);
+        updateStatistics(longValue);
+        break;
+      case CLASS_FLOAT:
+        final float floatValue = ((Number) value).floatValue();
+        _rowOutput.writeFloat(floatValue);
+        updateStatistics(floatValue);
+        break;
+      case CLASS_DOUBLE:
+        final double doubleValue = ((Number) value).doubleValue();
+        _rowOutput.writeDouble(doubleValue);
+        updateStatistics(doubleValue);
+        break;
+      case CLASS_BIGDECIMAL:
+        final BigDecimal bigDecimal = value instanceof BigDecimal ? (BigDecimal) value : new BigDecimal(value.toString());
+        DumpRowFormat.writeSignedVarLong(_rowOutput, bigDecimal.scale());
+        DumpRowFormat.writeBytes(_rowOutput, bigDecimal.unscaledValue().toByteArray());
+        updateStatistics(bigDecimal);
+        break;
+      case CLASS_DATE:
+      case CLASS_TIME:
+        DumpRowFormat.writeSignedVarLong(_rowOutput, ((java.util.Date) value).getTime());
+        updateStatistics(value);
+        break;
+      case CLASS_TIMESTAMP:
+        final java.util.Date date = (java.util.Date) value;
+        final long millis = date.getTime();
+        final int nanos = value instanceof Timestamp ? ((Timestamp) value).getNanos() : (int) ((millis % 1000 + 1000) % 1000) * 1000000;
+        DumpRowFormat.writeSignedVarLong(_rowOutput, millis);
+        DumpRowFormat.writeVarInt(_rowOutput, nanos);
+        updateStatistics(value);
+        break;
+      case CLASS_BLOB:
+      case CLASS_CLOB:
+      case CLASS_SQLXML:
+        writeLob(getInputStream(value));
+        break;
+      default:
+        DumpRowFormat.writeBytes(_rowOutput, Util.toByteArray((Serializable) value));
+        break;
+    }
+  }
+
+  private void updateStatistics(final long value)
+  {
+    final int columnIndex = _columnIndex;
+
+    if (!_hasStatistics[columnIndex])
+    {
+      _hasStatistics[columnIndex] = true;
+      _minimumLongs[columnIndex] = value;
+      _maximumLongs[columnIndex] = value;
+    }
+    else if (value < _minimumLongs[columnIndex])
+    {
+      _minimumLongs[columnIndex] = value;
+    }
+    else if (value > _maximumLongs[columnIndex])
+    {
+      _maximumLongs[columnIndex] = value;
+    }
+  }
+
+  /**
+   * NaN is not ordered, i.e. the range of the column cannot be described by a minimum and maximum anymore.
+   */
+  private void updateStatistics(final double value)
+  {
+    final int columnIndex = _columnIndex;
+
+    if (Double.isNaN(value))
+    {
+      _unknownStatistics[columnIndex] = true;
+    }
+    else if (!_hasStatistics[columnIndex])
+    {
+      _hasStatistics[columnIndex] = true;
+      _minimumDoubles[columnIndex] = value;
+      _maximumDoubles[columnIndex] = value;
+    }
+    else if (value < _minimumDoubles[columnIndex])
+    {
+      _minimumDoubles[columnIndex] = value;
+    }
+    else if (value > _maximumDoubles[columnIndex])
+    {
+      _maximumDoubles[columnIndex] = value;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void updateStatistics(final Object value)
+  {
+    final int columnIndex = _columnIndex;
+
+    if (!_hasStatistics[columnIndex])
+    {
+      _hasStatistics[columnIndex] = true;
+      _minimumObjects[columnIndex] = value;
+      _maximumObjects[columnIndex] = value;
+    }
+    else if (((Comparable<Object>) value).compareTo(_minimumObjects[columnIndex]) < 0)
+    {
+      _minimumObjects[columnIndex] = value;
+    }
+    else if (((Comparable<Object>) value).compareTo(_maximumObjects[columnIndex]) > 0)
+    {
+      _maximumObjects[columnIndex] = value;
+    }
+  }
+
+  private Serializable[] getStatistics(final long[] longs, final double[] doubles, final Object[] objects)
+  {
+    final Serializable[] result = new Serializable[_columnTypes.length];
+
+    for (int i = 0; i < result.length; i++)
+    {
+      if (_hasStatistics[i] && !_unknownStatistics[i])
+      {
+        switch (_columnTypes[i])
+        {
+          case CLASS_SHORT:
+          case CLASS_INTEGER:
+          case CLASS_LONG:
+            result[i] = longs[i];
+            break;
+          case CLASS_FLOAT:
+          case CLASS_DOUBLE:
+            result[i] = doubles[i];
+            break;
+          default:
+            result[i] = (Serializable) objects[i];
+            break;
+        }
+      }
+    }
+
+    return result;
+  }
+
+  private static InputStream getInputStream(final Object value) throws SQLException
+  {
+    if (value instanceof InputStream)
+    {
+      return (InputStream) value;
+    }
+    else if (value instanceof Blob)
+    {
+      return ((Blob) value).getBinaryStream();
+    }
+    else if (value instanceof Clob)
+    {
+      return ((Clob) value).getAsciiStream();
+    }
+    else if (value instanceof SQLXML)
+    {
+      return ((SQLXML) value).getBinaryStream();
+    }
+    else
+    {
+      return new ByteArrayInputStream((byte[]) value);
+    }
+  }
+
+  private ColumnType nextColumnType() throws IOException
+  {
+    if (_columnTypes.length == 0)
+    {
+      throw new IOException("Table has no columns");
+    }
+
+    return _columnTypes[_columnIndex];
+  }
+
+  private void columnWritten() throws IOException
+  {
+    _cellEnds[_columnIndex] = _rowBuffer.size();
+
+    if (++_columnIndex == _columnTypes.length)
+    {
+      writeRow();
+    }
+  }
+
+  /**
+   * Write NULL bitmap and the non-NULL values prefixed by their length. Spilled LOBs are always the last part of their value.
+   */
+  private void writeRow() throws IOException
+  {
+    _output.write(DumpRowFormat.ROW);
+    _output.write(_nullBitmap);
+
+    final byte[] buffer = _rowBuffer.getBuffer();
+    int lobSegmentIndex = 0;
+
+    try
+    {
+      for (int columnIndex = 0, offset = 0; columnIndex < _columnTypes.length; offset = _cellEnds[columnIndex++])
+      {
+        if ((_nullBitmap[columnIndex >> 3] & (1 << (columnIndex & 7))) == 0)
+        {
+          final int length = _cellEnds[columnIndex] - offset;
+          final LobSegment lobSegment = lobSegmentIndex < _lobSegments.size()
+              && _lobSegments.get(lobSegmentIndex)._columnIndex == columnIndex ? _lobSegments.get(lobSegmentIndex++) : null;
+
+          DumpRowFormat.writeVarLong(_output, lobSegment != null ? length + lobSegment._length : length);
+          _output.write(buffer, offset, length);
+
+          if (lobSegment != null)
+          {
+            writeSpilledLob(lobSegment);
+          }
+        }
+      }
+    }
+    finally
+    {
+      if (!_lobSegments.isEmpty())
+      {
+        _lobSpillFile.truncate();
+      }
+    }
+
+    _rowBuffer.reset();
+    _lobSegments.clear();
+    Arrays.fill(_nullBitmap, (byte) 0);
+    _columnIndex = 0;
+    _numberOfRows++;
+  }
+
+  /**
+   * Small LOBs are written into the row buffer directly. Larger ones are appended to the spill file, or stored in the LOB area and
+   * only referenced if there is one.
+   */
+  private void writeLob(final InputStream inputStream) throws IOException
+  {
+    final MessageDigest messageDigest = _lobArea != null ? createMessageDigest() : null;
+    final InputStream lobInputStream = messageDigest != null ? new DigestInputStream(inputStream, messageDigest) : inputStream;
+    final int length = IOUtils.read(lobInputStream, _lobBuffer, 0, _maximumInlineLobSize + 1);
+
+    if (length <= _maximumInlineLobSize)
+    {
+      DumpRowFormat.writeVarInt(_rowOutput, DumpRowFormat.LOB_INLINE);
+      _rowOutput.write(_lobBuffer, 0, length);
+      return;
+    }
+
+    final long spillOffset = _lobSpillFile.size();
+    _lobSpillFile.write(_lobBuffer, 0, length);
+
+    for (int n = lobInputStream.read(_lobBuffer); n >= 0; n = lobInputStream.read(_lobBuffer))
+    {
+      _lobSpillFile.write(_lobBuffer, 0, n);
+    }
+
+    if (messageDigest != null)
+    {
+      writeLobReference(messageDigest.digest());
+    }
+    else
+    {
+      DumpRowFormat.writeVarInt(_rowOutput, DumpRowFormat.LOB_INLINE);
+      _lobSegments.add(new LobSegment(_columnIndex, spillOffset, _lobSpillFile.size() - spillOffset));
+    }
+  }
+
+  /**
+   * The content has been spilled completely, it is copied to the LOB area unless it is already known.
+   */
+  private void writeLobReference(final byte[] digest) throws IOException
+  {
+    // No other LOBs are spilled when there is a LOB area
+    final long totalLength = _lobSpillFile.size();
+    final long offset;
+
+    try
+    {
+      offset = _lobArea.addLob(digest, _lobSpillFile.getInputStream(0, totalLength), totalLength);
+    }
+    finally
+    {
+      _lobSpillFile.truncate();
+    }
+
+    DumpRowFormat.writeVarInt(_rowOutput, DumpRowFormat.LOB_REFERENCE);
+    DumpRowFormat.writeVarLong(_rowOutput, offset);
+    DumpRowFormat.writeVarLong(_rowOutput, totalLength);
+  }
+
+  private static MessageDigest createMessageDigest()
+  {
+    try
+    {
+      return MessageDigest.getInstance("SHA-256");
+    }
+    catch (final NoSuchAlgorithmException e)
+    {
+      throw new IllegalStateException("SHA-256 is supported by every JVM", e);
+    }
+  }
+
+  private void writeSpilledLob(final LobSegment lobSegment) throws IOException
+  {
+    final InputStream inputStream = _lobSpillFile.getInputStream(lobSegment._spillOffset, lobSegment._length);
+
+    try
+    {
+      IOUtils.copyLarge(inputStream, _output, _lobBuffer);
+    }
+    finally
+    {
+      inputStream.close();
+    }
+  }
+
+  private static final class LobSegment
+  {
+    private final int _columnIndex;
+    private final long _spillOffset;
+    private final long _length;
+
+    private LobSegment(final int columnIndex, final long spillOffset, final long length)
+    {
+      _columnIndex = columnIndex;
+      _spillOffset = spillOffset;
+      _length = length;
+    }
+  }
+
+  /**
+   * Gives access to the internal buffer, so it needs not to be copied.
+   */
+  private static final class RowBuffer extends ByteArrayOutputStream
+  {
+    private RowBuffer()
+    {
+      super(1024);
+    }
+
+    public byte[] getBuffer()
+    {
+      return buf;
+    }
+  }
+}
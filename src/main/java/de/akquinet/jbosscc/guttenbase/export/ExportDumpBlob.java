@@ -19,13 +19,21 @@ public class ExportDumpBlob extends AbstractExportDumpObject implements Blob {
 	private static final long serialVersionUID = 1L;
 
 	public ExportDumpBlob() {
-		this(null);
+		this((InputStream) null);
 	}
 
 	public ExportDumpBlob(final InputStream inputStream) {
 		super(inputStream);
 	}
 
+	public ExportDumpBlob(final byte[] data) {
+		super(data);
+	}
+
+	public ExportDumpBlob(final LobStorage lobStorage, final long offset, final long length) {
+		super(lobStorage, offset, length);
+	}
+
 	@Override
 	public long position(final byte[] pattern, final long start) throws SQLException {
 		throw new UnsupportedOperationException();
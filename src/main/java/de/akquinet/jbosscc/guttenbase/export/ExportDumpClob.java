@@ -22,13 +22,21 @@ public class ExportDumpClob extends AbstractExportDumpObject implements Clob {
   private static final long serialVersionUID = 1L;
 
   public ExportDumpClob() {
-    this(null);
+    this((InputStream) null);
   }
 
   public ExportDumpClob(final InputStream inputStream) {
     super(inputStream);
   }
 
+  public ExportDumpClob(final byte[] data) {
+    super(data);
+  }
+
+  public ExportDumpClob(final LobStorage lobStorage, final long offset, final long length) {
+    super(lobStorage, offset, length);
+  }
+
   @Override
   public InputStream getAsciiStream() throws SQLException {
     return getBinaryStream();
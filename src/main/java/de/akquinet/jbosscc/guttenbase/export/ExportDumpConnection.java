@@ -46,6 +46,28 @@ public class ExportDumpConnection implements Connection
     _exporter = exporter;
   }
 
+  /**
+   * Create connection for a worker thread that exports tables concurrently to this connection.
+   *
+   * @throws ExportException if the exporter is no {@link ConcurrentExporter}
+   */
+  public ExportDumpConnection createWorkerConnection() throws SQLException
+  {
+    if (!(_exporter instanceof ConcurrentExporter))
+    {
+      throw new ExportException(_exporter.getClass().getName() + " does not support concurrent export");
+    }
+
+    try
+    {
+      return new ExportDumpConnection(((ConcurrentExporter) _exporter).createWorkerExporter());
+    }
+    catch (final Exception e)
+    {
+      throw new ExportException("createWorkerConnection", e);
+    }
+  }
+
   /**
    * Returns PreparedStatement object for export. {@inheritDoc}
    */
@@ -2,6 +2,7 @@ package de.akquinet.jbosscc.guttenbase.export;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
 
 import de.akquinet.jbosscc.guttenbase.connector.impl.AbstractConnector;
 import de.akquinet.jbosscc.guttenbase.exceptions.ExportException;
@@ -24,12 +25,35 @@ import de.akquinet.jbosscc.guttenbase.utils.Util;
  */
 public class ExportDumpConnector extends AbstractConnector {
   private final ExportDumpConnectorInfo _exportDumpConnectionInfo;
+  private final ExportDumpConnector _parentConnector;
 
   public ExportDumpConnector(final ConnectorRepository connectorRepository, final String connectorId,
       final ExportDumpConnectorInfo exportDumpConnectionInfo) {
+    this(connectorRepository, connectorId, exportDumpConnectionInfo, null);
+  }
+
+  private ExportDumpConnector(final ConnectorRepository connectorRepository, final String connectorId,
+      final ExportDumpConnectorInfo exportDumpConnectionInfo, final ExportDumpConnector parentConnector) {
     super(connectorRepository, connectorId, exportDumpConnectionInfo);
 
     _exportDumpConnectionInfo = exportDumpConnectionInfo;
+    _parentConnector = parentConnector;
+  }
+
+  /**
+   * @return true if the configured exporter is able to export several tables concurrently
+   */
+  public boolean isConcurrentExportSupported() throws SQLException {
+    return _connectorRepository.getConnectorHint(_connectorId, ExporterFactory.class).getValue()
+        .createExporter() instanceof ConcurrentExporter;
+  }
+
+  /**
+   * Create connector to be used by a worker thread exporting tables concurrently. The connections of the worker connector write into the
+   * dump opened by this connector, which must not be closed before the worker connections.
+   */
+  public ExportDumpConnector createWorkerConnector() {
+    return new ExportDumpConnector(_connectorRepository, _connectorId, _exportDumpConnectionInfo, this);
   }
 
   /**
@@ -37,12 +61,20 @@ public class ExportDumpConnector extends AbstractConnector {
    */
   @Override
   public Connection openConnection() throws SQLException {
+    if (_parentConnector != null) {
+      if (_connection == null || _connection.isClosed()) {
+        _connection = ((ExportDumpConnection) _parentConnector.openConnection()).createWorkerConnection();
+      }
+
+      return _connection;
+    }
+
     if (_connection == null || _connection.isClosed()) {
       try {
         final Exporter exporter = _connectorRepository.getConnectorHint(_connectorId, ExporterFactory.class).getValue().createExporter();
 
         exporter.initializeExport(_connectorRepository, _connectorId, _exportDumpConnectionInfo);
-        exporter.writeDatabaseMetaData(retrieveSourceDatabaseMetaData());
+        exporter.writeDatabaseMetaData(retrieveSourceDatabaseMetaDataWithExactRowCounts());
         _connection = new ExportDumpConnection(exporter);
       } catch (final Exception e) {
         throw new ExportException("openConnection", e);
@@ -70,7 +102,41 @@ public class ExportDumpConnector extends AbstractConnector {
     return result;
   }
 
+  /**
+   * Table meta data is derived from the source connector, there is no data base to read it from.
+   * 
+   * {@inheritDoc}
+   */
+  @Override
+  public void refreshTableMetaData(final DatabaseMetaData databaseMetaData, final Collection<String> tableNames) {
+  }
+
+  /**
+   * The row counts stored in the meta data are used to plan and report the import, thus estimated row counts are replaced by exact
+   * ones. They are determined before the data is written and may differ from it, hence reading the data stops at the end of the
+   * table data, not after the given number of rows.
+   */
+  private DatabaseMetaData retrieveSourceDatabaseMetaDataWithExactRowCounts() throws SQLException {
+    final DatabaseMetaData result = retrieveSourceDatabaseMetaData();
+
+    for (final TableMetaData tableMetaData : result.getTableMetaData()) {
+      tableMetaData.getExactRowCount();
+    }
+
+    return result;
+  }
+
+  /**
+   * The meta data is serialized, thus lazily loaded tables are loaded completely.
+   */
   private DatabaseMetaData retrieveSourceDatabaseMetaData() throws SQLException {
-    return _connectorRepository.getDatabaseMetaData(_exportDumpConnectionInfo.getSourceConnectorId());
+    final DatabaseMetaData result = _connectorRepository.getDatabaseMetaData(_exportDumpConnectionInfo.getSourceConnectorId());
+
+    for (final TableMetaData tableMetaData : result.getTableMetaData()) {
+      tableMetaData.getImportedForeignKeys();
+      tableMetaData.getExportedForeignKeys();
+    }
+
+    return result;
   }
 }
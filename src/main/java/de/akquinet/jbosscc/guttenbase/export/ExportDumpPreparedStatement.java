@@ -70,55 +70,118 @@ public class ExportDumpPreparedStatement implements PreparedStatement
   @Override
   public void setBoolean(final int parameterIndex, final boolean x) throws SQLException
   {
-    setObject(parameterIndex, x);
+    try
+    {
+      _exporter.writeBoolean(x);
+    }
+    catch (final Exception e)
+    {
+      throw new ExportException("setBoolean", e);
+    }
   }
 
   @Override
   public void setByte(final int parameterIndex, final byte x) throws SQLException
   {
-    setObject(parameterIndex, x);
+    try
+    {
+      _exporter.writeShort(x);
+    }
+    catch (final Exception e)
+    {
+      throw new ExportException("setByte", e);
+    }
   }
 
   @Override
   public void setShort(final int parameterIndex, final short x) throws SQLException
   {
-    setObject(parameterIndex, x);
+    try
+    {
+      _exporter.writeShort(x);
+    }
+    catch (final Exception e)
+    {
+      throw new ExportException("setShort", e);
+    }
   }
 
   @Override
   public void setInt(final int parameterIndex, final int x) throws SQLException
   {
-    setObject(parameterIndex, x);
+    try
+    {
+      _exporter.writeInt(x);
+    }
+    catch (final Exception e)
+    {
+      throw new ExportException("setInt", e);
+    }
   }
 
   @Override
   public void setLong(final int parameterIndex, final long x) throws SQLException
   {
-    setObject(parameterIndex, x);
+    try
+    {
+      _exporter.writeLong(x);
+    }
+    catch (final Exception e)
+    {
+      throw new ExportException("setLong", e);
+    }
   }
 
   @Override
   public void setFloat(final int parameterIndex, final float x) throws SQLException
   {
-    setObject(parameterIndex, x);
+    try
+    {
+      _exporter.writeFloat(x);
+    }
+    catch (final Exception e)
+    {
+      throw new ExportException("setFloat", e);
+    }
   }
 
   @Override
   public void setDouble(final int parameterIndex, final double x) throws SQLException
   {
-    setObject(parameterIndex, x);
+    try
+    {
+      _exporter.writeDouble(x);
+    }
+    catch (final Exception e)
+    {
+      throw new ExportException("setDouble", e);
+    }
   }
 
   @Override
   public void setBigDecimal(final int parameterIndex, final BigDecimal x) throws SQLException
   {
-    setObject(parameterIndex, x);
+    try
+    {
+      _exporter.writeBigDecimal(x);
+    }
+    catch (final Exception e)
+    {
+      throw new ExportException("setBigDecimal", e);
+    }
   }
 
   @Override
   public void setString(final int parameterIndex, final String x) throws SQLException
   {
-    setObject(parameterIndex, x);
+    try
+    {
+      _exporter.writeString(x);
+    }
+    catch (final Exception e)
+    {
+      throw new ExportException("setString", e);
+    }
   }
 
   @Override
@@ -130,25 +193,53 @@ public class ExportDumpPreparedStatement implements PreparedStatement
   @Override
   public void setDate(final int parameterIndex, final Date x) throws SQLException
   {
-    setObject(parameterIndex, x);
+    try
+    {
+      _exporter.writeDate(x);
+    }
+    catch (final Exception e)
+    {
+      throw new ExportException("setDate", e);
+    }
   }
 
   @Override
   public void setTime(final int parameterIndex, final Time x) throws SQLException
   {
-    setObject(parameterIndex, x);
+    try
+    {
+      _exporter.writeTime(x);
+    }
+    catch (final Exception e)
+    {
+      throw new ExportException("setTime", e);
+    }
   }
 
   @Override
   public void setTimestamp(final int parameterIndex, final Timestamp x) throws SQLException
   {
-    setObject(parameterIndex, x);
+    try
+    {
+      _exporter.writeTimestamp(x);
+    }
+    catch (final Exception e)
+    {
+      throw new ExportException("setTimestamp", e);
+    }
   }
 
   @Override
   public void setNull(final int parameterIndex, final int sqlType) throws SQLException
   {
-    setObject(parameterIndex, null);
+    try
+    {
+      _exporter.writeNull();
+    }
+    catch (final Exception e)
+    {
+      throw new ExportException("setNull", e);
+    }
   }
 
   @Override
@@ -156,13 +247,12 @@ public class ExportDumpPreparedStatement implements PreparedStatement
   {
     if (clob != null)
     {
-      setObject(parameterIndex, new ExportDumpClob(clob.getAsciiStream()));
-      flush();
+      writeStream(clob.getAsciiStream());
       clob.free();
     }
     else
     {
-      setObject(parameterIndex, null);
+      setNull(parameterIndex, Types.CLOB);
     }
   }
 
@@ -171,8 +261,7 @@ public class ExportDumpPreparedStatement implements PreparedStatement
   {
     assert reader != null : "reader != null";
 
-    setObject(parameterIndex, new ExportDumpClob(new ReaderInputStream(reader)));
-    flush();
+    writeStream(new ReaderInputStream(reader));
   }
 
   @Override
@@ -180,13 +269,12 @@ public class ExportDumpPreparedStatement implements PreparedStatement
   {
     if (xmlObject != null)
     {
-      setObject(parameterIndex, new ExportDumpSqlXML(xmlObject.getBinaryStream()));
-      flush();
+      writeStream(xmlObject.getBinaryStream());
       xmlObject.free();
     }
     else
     {
-      setObject(parameterIndex, null);
+      setNull(parameterIndex, Types.SQLXML);
     }
   }
 
@@ -195,9 +283,7 @@ public class ExportDumpPreparedStatement implements PreparedStatement
   {
     assert inputStream != null : "inputStream != null";
 
-    setObject(parameterIndex, new ExportDumpBlob(inputStream));
-
-    flush();
+    writeStream(inputStream);
   }
 
   @Override
@@ -210,7 +296,7 @@ public class ExportDumpPreparedStatement implements PreparedStatement
     }
     else
     {
-      setObject(parameterIndex, null);
+      setNull(parameterIndex, Types.BLOB);
     }
   }
 
@@ -671,15 +757,15 @@ public class ExportDumpPreparedStatement implements PreparedStatement
     throw new UnsupportedOperationException();
   }
 
-  private void flush() throws SQLException
+  private void writeStream(final InputStream inputStream) throws SQLException
   {
     try
     {
-      _exporter.flush();
+      _exporter.writeStream(inputStream);
     }
     catch (final Exception e)
     {
-      throw new SQLException("flush", e);
+      throw new ExportException("writeStream", e);
     }
   }
 
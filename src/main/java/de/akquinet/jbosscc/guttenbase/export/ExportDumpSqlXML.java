@@ -28,13 +28,21 @@ public class ExportDumpSqlXML extends AbstractExportDumpObject implements SQLXML
 	private static final long serialVersionUID = 1L;
 
 	public ExportDumpSqlXML() {
-		this(null);
+		this((InputStream) null);
 	}
 
 	public ExportDumpSqlXML(final InputStream inputStream) {
 		super(inputStream);
 	}
 
+	public ExportDumpSqlXML(final byte[] data) {
+		super(data);
+	}
+
+	public ExportDumpSqlXML(final LobStorage lobStorage, final long offset, final long length) {
+		super(lobStorage, offset, length);
+	}
+
 	@Override
 	public Reader getCharacterStream() throws SQLException {
 		return new InputStreamReader(getBinaryStream());
@@ -13,4 +13,10 @@ import java.io.Serializable;
 public interface ExportTableHeader extends Serializable
 {
   String getTableName();
+
+  /**
+   * @return true if the table data following the header is written in {@link DumpRowFormat}, false if it consists of serialized
+   * objects as written by older versions
+   */
+  boolean isBinaryRowFormat();
 }
@@ -16,9 +16,15 @@ public class ExportTableHeaderImpl implements ExportTableHeader
 
   private final String _tableName;
 
+  /**
+   * Is false when reading headers written by older versions
+   */
+  private final boolean _binaryRowFormat;
+
   public ExportTableHeaderImpl(final TableMetaData tableMetaData)
   {
     _tableName = tableMetaData.getTableName();
+    _binaryRowFormat = true;
   }
 
   @Override
@@ -27,6 +33,12 @@ public class ExportTableHeaderImpl implements ExportTableHeader
     return _tableName;
   }
 
+  @Override
+  public boolean isBinaryRowFormat()
+  {
+    return _binaryRowFormat;
+  }
+
   @Override
   public String toString()
   {
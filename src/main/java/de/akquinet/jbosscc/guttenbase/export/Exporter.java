@@ -4,6 +4,12 @@ import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
 import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
 
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+
 /**
  * Export schema information and table data to some custom format.
  * 
@@ -61,5 +67,37 @@ public interface Exporter {
 	 */
 	void flush() throws Exception;
 
+	/**
+	 * Write value of next column. The value will be converted to the type of the column if necessary.
+	 */
 	void writeObject(Object obj) throws Exception;
+
+	void writeNull() throws Exception;
+
+	void writeBoolean(boolean value) throws Exception;
+
+	void writeShort(short value) throws Exception;
+
+	void writeInt(int value) throws Exception;
+
+	void writeLong(long value) throws Exception;
+
+	void writeFloat(float value) throws Exception;
+
+	void writeDouble(double value) throws Exception;
+
+	void writeString(String value) throws Exception;
+
+	void writeBigDecimal(BigDecimal value) throws Exception;
+
+	void writeDate(Date value) throws Exception;
+
+	void writeTime(Time value) throws Exception;
+
+	void writeTimestamp(Timestamp value) throws Exception;
+
+	/**
+	 * Write contents of BLOB, CLOB or XML column. The stream is read completely, but not closed.
+	 */
+	void writeStream(InputStream value) throws Exception;
 }
@@ -0,0 +1,28 @@
+package de.akquinet.jbosscc.guttenbase.export;
+
+/**
+ * How is a gzip compressed dump written? The data is split into blocks which are compressed concurrently and written as
+ * concatenated gzip members, similar to pigz. Larger blocks compress slightly better, smaller blocks need less memory per thread.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public interface GzipCompression
+{
+  /**
+   * @return compression level as used by {@link java.util.zip.Deflater}, i.e. between 0 and 9 or -1 for the default level
+   */
+  int getCompressionLevel();
+
+  /**
+   * @return size of uncompressed blocks in bytes
+   */
+  int getBlockSize();
+
+  /**
+   * @return number of threads compressing blocks, 1 means that data is compressed by the writing thread
+   */
+  int getNumberOfThreads();
+}
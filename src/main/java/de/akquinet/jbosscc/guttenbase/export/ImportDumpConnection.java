@@ -5,7 +5,9 @@ import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
 
 import java.sql.*;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
@@ -25,12 +27,21 @@ public class ImportDumpConnection implements Connection {
   private final Set<TableMetaData> _importedTables = new HashSet<TableMetaData>();
   private TableMetaData _currentTableMetaData;
   private final DatabaseMetaData _databaseMetaData;
+  private final DumpRowFilter _rowFilter;
 
   public ImportDumpConnection(final Importer importer, final DatabaseMetaData databaseMetaData) {
+    this(importer, databaseMetaData, null);
+  }
+
+  /**
+   * @param rowFilter may be null, if all rows shall be read
+   */
+  public ImportDumpConnection(final Importer importer, final DatabaseMetaData databaseMetaData, final DumpRowFilter rowFilter) {
     _databaseMetaData = databaseMetaData;
     assert importer != null : "importer != null";
 
     _importer = importer;
+    _rowFilter = rowFilter;
   }
 
   public void initializeReadTable(final TableMetaData table) {
@@ -51,7 +62,33 @@ public class ImportDumpConnection implements Connection {
       seekTableHeader(_currentTableMetaData);
     }
 
-    return new ImportDumpPreparedStatement(_importer, _databaseMetaData, _currentTableMetaData, sql);
+    return new ImportDumpPreparedStatement(_importer, _databaseMetaData, _currentTableMetaData, sql, _rowFilter);
+  }
+
+  /**
+   * Read the key columns of the given table to determine the number of rows accepted by the row filter. Other columns and chunks
+   * without any acceptable row are skipped.
+   */
+  public int countAcceptedRows(final TableMetaData tableMetaData) throws SQLException {
+    final List<String> keyColumns = new ArrayList<String>();
+
+    for (final String keyColumn : _rowFilter.getKeyColumns(tableMetaData)) {
+      keyColumns.add(keyColumn.toUpperCase());
+    }
+
+    // Table data must be read again when it is actually imported
+    _importedTables.remove(tableMetaData);
+    seekTableHeader(tableMetaData);
+
+    final ImportDumpResultSet resultSet = new ImportDumpResultSet(_importer, _databaseMetaData, tableMetaData, keyColumns, _rowFilter);
+    int result = 0;
+
+    while (resultSet.next()) {
+      result++;
+    }
+
+    resultSet.close();
+    return result;
   }
 
   private void seekTableHeader(final TableMetaData tableMetaData) throws ImportException {
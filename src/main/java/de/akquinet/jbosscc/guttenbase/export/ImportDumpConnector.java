@@ -2,11 +2,17 @@ package de.akquinet.jbosscc.guttenbase.export;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
 
+import de.akquinet.jbosscc.guttenbase.connector.Connector;
 import de.akquinet.jbosscc.guttenbase.connector.impl.AbstractConnector;
 import de.akquinet.jbosscc.guttenbase.exceptions.ImportException;
+import de.akquinet.jbosscc.guttenbase.hints.DumpRowFilterHint;
 import de.akquinet.jbosscc.guttenbase.hints.ImporterFactoryHint;
 import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.InternalTableMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.RowCounter;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
 import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
 
 /**
@@ -16,6 +22,7 @@ import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
  * </p>
  * 
  * @Uses-Hint {@link ImporterFactoryHint} to determine importer implementation
+ * @Uses-Hint {@link DumpRowFilterHint} to select the rows to be imported
  * @author M. Dahm
  */
 public class ImportDumpConnector extends AbstractConnector
@@ -49,7 +56,7 @@ public class ImportDumpConnector extends AbstractConnector
         importer.initializeImport(_connectorRepository, _connectorId, _importDumpConnectionInfo);
 
         _databaseMetaData = importer.readDatabaseMetaData();
-        _connection = new ImportDumpConnection(importer, _databaseMetaData);
+        _connection = new ImportDumpConnection(importer, _databaseMetaData, getRowFilter());
       }
       catch (final Exception e)
       {
@@ -68,8 +75,79 @@ public class ImportDumpConnector extends AbstractConnector
   {
     // Make sure the information is there
     openConnection();
-    closeConnection();
+
+    try
+    {
+      estimateRowCounts();
+    }
+    finally
+    {
+      closeConnection();
+    }
 
     return _databaseMetaData;
   }
+
+  /**
+   * The meta data stored in the dump does not change.
+   * 
+   * {@inheritDoc}
+   */
+  @Override
+  public void refreshTableMetaData(final DatabaseMetaData databaseMetaData, final Collection<String> tableNames)
+  {
+  }
+
+  /**
+   * The row counts stored in the dump have been determined before the data was written and may thus differ from it. They are
+   * regarded as estimates, the rows are counted by reading the dump on demand. The same applies to tables filtered by the
+   * {@link DumpRowFilter}, since reading the dump just to count the accepted rows would decode the key columns twice.
+   */
+  private void estimateRowCounts()
+  {
+    for (final TableMetaData tableMetaData : _databaseMetaData.getTableMetaData())
+    {
+      ((InternalTableMetaData) tableMetaData).setEstimatedRowCount(tableMetaData.getRowCount(), new DumpRowCounter(tableMetaData));
+    }
+  }
+
+  private DumpRowFilter getRowFilter()
+  {
+    return _connectorRepository.getConnectorHint(_connectorId, DumpRowFilter.class).getValue();
+  }
+
+  /**
+   * Counts the rows of a table accepted by the row filter over a connection of its own. The result is kept, since the counter is
+   * shared by all copies of the table meta data.
+   */
+  private final class DumpRowCounter implements RowCounter
+  {
+    private final TableMetaData _tableMetaData;
+    private Integer _rowCount;
+
+    private DumpRowCounter(final TableMetaData tableMetaData)
+    {
+      _tableMetaData = tableMetaData;
+    }
+
+    @Override
+    public synchronized int countRows() throws SQLException
+    {
+      if (_rowCount == null)
+      {
+        final Connector connector = _connectorRepository.createConnector(_connectorId);
+
+        try
+        {
+          _rowCount = ((ImportDumpConnection) connector.openConnection()).countAcceptedRows(_tableMetaData);
+        }
+        finally
+        {
+          connector.closeConnection();
+        }
+      }
+
+      return _rowCount;
+    }
+  }
 }
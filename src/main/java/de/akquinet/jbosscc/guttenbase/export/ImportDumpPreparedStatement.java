@@ -43,12 +43,26 @@ public class ImportDumpPreparedStatement implements PreparedStatement
   private final TableMetaData _tableMetaData;
   private final String _selectSql;
   private final DatabaseMetaData _databaseMetaData;
+  private final DumpRowFilter _rowFilter;
 
   public ImportDumpPreparedStatement(
       final Importer importer,
       final DatabaseMetaData databaseMetaData,
       final TableMetaData tableMetaData,
       final String selectSql)
+  {
+    this(importer, databaseMetaData, tableMetaData, selectSql, null);
+  }
+
+  /**
+   * @param rowFilter may be null, if all rows shall be read
+   */
+  public ImportDumpPreparedStatement(
+      final Importer importer,
+      final DatabaseMetaData databaseMetaData,
+      final TableMetaData tableMetaData,
+      final String selectSql,
+      final DumpRowFilter rowFilter)
   {
     assert importer != null : "importer != null";
     assert databaseMetaData != null : "databaseMetaData != null";
@@ -59,6 +73,7 @@ public class ImportDumpPreparedStatement implements PreparedStatement
     _tableMetaData = tableMetaData;
     _selectSql = selectSql;
     _databaseMetaData = databaseMetaData;
+    _rowFilter = rowFilter;
   }
 
   @Override
@@ -77,7 +92,8 @@ public class ImportDumpPreparedStatement implements PreparedStatement
       throw new MissingDataException("Invalid number of expected rows");
     }
 
-    return new ImportDumpResultSet(_importer, _databaseMetaData, _tableMetaData, Util.parseSelectedColumns(sql));
+    return new ImportDumpResultSet(_importer, _databaseMetaData, _tableMetaData, Util.parseSelectedColumns(sql),
+        _rowFilter);
   }
 
   @Override
@@ -20,15 +20,16 @@ import java.sql.Statement;
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import de.akquinet.jbosscc.guttenbase.defaults.impl.DefaultColumnComparator;
 import de.akquinet.jbosscc.guttenbase.exceptions.ImportException;
 import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.ColumnType;
 import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
 
@@ -36,6 +37,10 @@ import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
  * Special {@link ResultSet} that reads data from the given stream. Only few inherited getter methods have a meaningful
  * implementation, most methods will throw a {@link UnsupportedOperationException}.
  * <p>
+ * Only the selected columns are decoded. If a {@link DumpRowFilter} is given, rows are skipped as soon as their key columns have been
+ * decoded and rejected. Chunks of the table data that cannot contain any accepted row are skipped completely.
+ * </p>
+ * <p>
  * &copy; 2012-2020 akquinet tech@spree
  * </p>
  * 
@@ -50,17 +55,57 @@ public class ImportDumpResultSet implements ResultSet
 
   /**
    * Since _tableMetaData may contain a limited set of columns, but the dumped data contains all columns, we need to map the
-   * indices.
+   * indices: For each column of the dump this contains the zero-based index within the current row or -1 if the column has not been
+   * selected and will be skipped.
    */
-  private final Map<Integer, Integer> _columnIndexMap = new HashMap<Integer, Integer>();
-  private final List<Object> _currentRow = new ArrayList<Object>();
+  private final int[] _columnIndexMap;
+  private final Object[] _currentRow;
   private final TableMetaData _origTableMetaData;
 
+  /**
+   * Column types of the dump for each column of the dump, entries are null if the dump does not contain type information
+   */
+  private final ColumnType[] _dumpColumnTypes;
+
+  /**
+   * For each selected column the type, if the values are kept in {@link #_longValues} or {@link #_doubleValues} without boxing,
+   * or null if the values are kept in {@link #_currentRow}
+   */
+  private final ColumnType[] _primitiveColumnTypes;
+  private final long[] _longValues;
+  private final double[] _doubleValues;
+  private final boolean[] _nullValues;
+
+  /**
+   * Same as {@link #_columnIndexMap} for the key columns of the row filter
+   */
+  private final int[] _keyIndexMap;
+  private final Object[] _keyValues;
+  private final DumpRowFilter _rowFilter;
+  private int _lastKeyColumn = -1;
+  private DumpChunkIndex _dumpChunkIndex;
+  private int[] _chunkKeyColumns;
+  private int _nextChunk;
+  private long _dumpRowIndex;
+
   public ImportDumpResultSet(
       final Importer importer,
       final DatabaseMetaData databaseMetaData,
       final TableMetaData tableMetaData,
       final List<String> selectedColumns) throws SQLException
+  {
+    this(importer, databaseMetaData, tableMetaData, selectedColumns, null);
+  }
+
+  /**
+   * @param rowFilter may be null, if all rows shall be read
+   */
+  public ImportDumpResultSet(
+      final Importer importer,
+      final DatabaseMetaData databaseMetaData,
+      final TableMetaData tableMetaData,
+      final List<String> selectedColumns,
+      final DumpRowFilter rowFilter) throws SQLException
   {
     assert importer != null : "objectInputStream != null";
     assert tableMetaData != null : "tableMetaData != null";
@@ -71,10 +116,46 @@ public class ImportDumpResultSet implements ResultSet
 
     assert _origTableMetaData != null : "_origTableMetaData != null";
 
-    buildColumnIndexMap(selectedColumns);
+    final List<String> keyColumns = rowFilter != null ? toUpperCase(rowFilter.getKeyColumns(tableMetaData))
+        : Collections.<String>emptyList();
+
+    _rowFilter = keyColumns.isEmpty() ? null : rowFilter;
+    _currentRow = new Object[selectedColumns.size()];
+    _keyValues = new Object[keyColumns.size()];
+    _columnIndexMap = buildColumnIndexMap(selectedColumns);
+    _keyIndexMap = buildColumnIndexMap(keyColumns);
+    _dumpColumnTypes = buildDumpColumnTypes();
+    _primitiveColumnTypes = new ColumnType[selectedColumns.size()];
+    _longValues = new long[selectedColumns.size()];
+    _doubleValues = new double[selectedColumns.size()];
+    _nullValues = new boolean[selectedColumns.size()];
+
+    for (int originalColumnIndex = 0; originalColumnIndex < _columnIndexMap.length; originalColumnIndex++)
+    {
+      final int columnIndex = _columnIndexMap[originalColumnIndex];
+
+      // Values of key columns are passed to the row filter as objects anyway
+      if (columnIndex >= 0 && _keyIndexMap[originalColumnIndex] < 0 && isPrimitive(_dumpColumnTypes[originalColumnIndex]))
+      {
+        _primitiveColumnTypes[columnIndex] = _dumpColumnTypes[originalColumnIndex];
+      }
+    }
+
+    for (int originalColumnIndex = 0; originalColumnIndex < _keyIndexMap.length; originalColumnIndex++)
+    {
+      if (_keyIndexMap[originalColumnIndex] >= 0)
+      {
+        _lastKeyColumn = originalColumnIndex;
+      }
+    }
+
+    if (_rowFilter != null)
+    {
+      initializeChunkIndex(keyColumns);
+    }
   }
 
-  private void buildColumnIndexMap(final List<String> selectedColumns) throws SQLException
+  private int[] buildColumnIndexMap(final List<String> selectedColumns)
   {
     final List<ColumnMetaData> columnMetaData = _origTableMetaData.getColumnMetaData();
 
@@ -84,14 +165,90 @@ public class ImportDumpResultSet implements ResultSet
     // dump source connector, which will cause unpredictable results then
     Collections.sort(columnMetaData, new DefaultColumnComparator());
 
+    final int[] result = new int[columnMetaData.size()];
+
     for (int originalColumnIndex = 0; originalColumnIndex < columnMetaData.size(); originalColumnIndex++)
     {
       final String column = columnMetaData.get(originalColumnIndex).getColumnName().toUpperCase();
-      final int columnIndex = selectedColumns.indexOf(column);
 
-      if (columnIndex >= 0)
+      result[originalColumnIndex] = selectedColumns.indexOf(column);
+    }
+
+    return result;
+  }
+
+  private ColumnType[] buildDumpColumnTypes() throws SQLException
+  {
+    final ColumnType[] result = new ColumnType[_columnIndexMap.length];
+    final List<ColumnType> columnTypes;
+
+    try
+    {
+      columnTypes = _importer.getColumnTypes();
+    }
+    catch (final Exception e)
+    {
+      throw new ImportException("getColumnTypes", e);
+    }
+
+    if (columnTypes != null && columnTypes.size() == result.length)
+    {
+      columnTypes.toArray(result);
+    }
+
+    return result;
+  }
+
+  private static boolean isPrimitive(final ColumnType columnType)
+  {
+    if (columnType == null)
+    {
+      return false;
+    }
+
+    switch (columnType)
+    {
+      case CLASS_LONG:
+      case CLASS_INTEGER:
+      case CLASS_SHORT:
+      case CLASS_BOOLEAN:
+      case CLASS_FLOAT:
+      case CLASS_DOUBLE:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private void initializeChunkIndex(final List<String> keyColumns) throws SQLException
+  {
+    for (final String keyColumn : keyColumns)
+    {
+      if (_origTableMetaData.getColumnMetaData(keyColumn) == null)
       {
-        _columnIndexMap.put(columnIndex + 1, originalColumnIndex + 1);
+        throw new ImportException("Unknown key column " + keyColumn + " of row filter for " + _tableMetaData);
+      }
+    }
+
+    if (_importer instanceof ChunkedImporter)
+    {
+      try
+      {
+        _dumpChunkIndex = ((ChunkedImporter) _importer).getChunkIndex(_tableMetaData);
+      }
+      catch (final Exception e)
+      {
+        throw new ImportException("getChunkIndex", e);
+      }
+    }
+
+    if (_dumpChunkIndex != null)
+    {
+      _chunkKeyColumns = new int[keyColumns.size()];
+
+      for (int i = 0; i < _chunkKeyColumns.length; i++)
+      {
+        _chunkKeyColumns[i] = _dumpChunkIndex.getColumnIndex(keyColumns.get(i));
       }
     }
   }
@@ -99,31 +256,300 @@ public class ImportDumpResultSet implements ResultSet
   @Override
   public boolean next() throws SQLException
   {
-    _currentRow.clear();
-    final boolean hasNext = _rowCount++ < _tableMetaData.getRowCount();
+    if (_rowFilter == null)
+    {
+      final boolean hasNext = hasNextRow();
+
+      if (hasNext) // Prefetch selected columns of current row
+      {
+        _dumpRowIndex++;
+        _rowCount++;
+        readRow();
+      }
+
+      return hasNext;
+    }
+
+    while (skipRejectedChunks() && hasNextRow())
+    {
+      _dumpRowIndex++;
+
+      if (readRow())
+      {
+        _rowCount++;
+        return true;
+      }
+    }
+
+    Arrays.fill(_currentRow, null);
+    return false;
+  }
+
+  /**
+   * The end of the table data is detected while reading, the row count stored in the dump may differ, since it has been
+   * determined before the data has been written.
+   */
+  private boolean hasNextRow() throws SQLException
+  {
+    try
+    {
+      return _importer.hasNextRow(_origTableMetaData, _dumpRowIndex);
+    }
+    catch (final Exception e)
+    {
+      throw new ImportException("hasNextRow", e);
+    }
+  }
+
+  /**
+   * Decode selected and key columns only. Once the row has been rejected, the remaining columns are skipped.
+   *
+   * @return true if the row has been accepted by the row filter
+   */
+  private boolean readRow() throws SQLException
+  {
+    boolean accepted = true;
+
+    Arrays.fill(_currentRow, null);
+
+    for (int originalColumnIndex = 0; originalColumnIndex < _columnIndexMap.length; originalColumnIndex++)
+    {
+      final int columnIndex = _columnIndexMap[originalColumnIndex];
+      final int keyIndex = _keyIndexMap[originalColumnIndex];
+
+      if (!accepted || (columnIndex < 0 && keyIndex < 0))
+      {
+        skipObject();
+      }
+      else if (keyIndex < 0)
+      {
+        readColumn(originalColumnIndex, columnIndex);
+      }
+      else
+      {
+        final Object value = readObject();
+
+        if (columnIndex >= 0)
+        {
+          _currentRow[columnIndex] = value;
+        }
+
+        if (keyIndex >= 0)
+        {
+          _keyValues[keyIndex] = value;
+        }
+
+        if (originalColumnIndex == _lastKeyColumn)
+        {
+          accepted = _rowFilter.accept(_tableMetaData, _keyValues);
+        }
+      }
+    }
+
+    return accepted;
+  }
+
+  /**
+   * When the next row starts a new chunk, skip all subsequent chunks without any acceptable row according to their statistics.
+   *
+   * @return false if all remaining chunks have been skipped
+   */
+  private boolean skipRejectedChunks() throws SQLException
+  {
+    if (_dumpChunkIndex != null)
+    {
+      final List<DumpChunk> chunks = _dumpChunkIndex.getChunks();
+      boolean skipped = false;
+
+      while (_nextChunk < chunks.size() && _dumpRowIndex == chunks.get(_nextChunk).getFirstRow())
+      {
+        final DumpChunk chunk = chunks.get(_nextChunk++);
+
+        if (chunk.getRowCount() > 0)
+        {
+          if (mayAccept(chunk))
+          {
+            if (skipped)
+            {
+              seekChunk(chunk.getChunkNumber());
+            }
+
+            return true;
+          }
+
+          _dumpRowIndex += chunk.getRowCount();
+          skipped = true;
+        }
+      }
+
+      // All remaining chunks have been skipped
+      return !skipped;
+    }
+
+    return true;
+  }
+
+  private boolean mayAccept(final DumpChunk chunk)
+  {
+    final Object[] minimumValues = new Object[_chunkKeyColumns.length];
+    final Object[] maximumValues = new Object[_chunkKeyColumns.length];
 
-    if (hasNext) // Prefetch current row
+    for (int i = 0; i < _chunkKeyColumns.length; i++)
     {
-      for (int i = 0; i < _origTableMetaData.getColumnCount(); i++)
+      if (_chunkKeyColumns[i] >= 0)
       {
-        _currentRow.add(readObject());
+        minimumValues[i] = chunk.getMinimumValue(_chunkKeyColumns[i]);
+        maximumValues[i] = chunk.getMaximumValue(_chunkKeyColumns[i]);
       }
     }
 
-    return hasNext;
+    return _rowFilter.mayAccept(_tableMetaData, minimumValues, maximumValues);
+  }
+
+  private void seekChunk(final int chunkNumber) throws SQLException
+  {
+    try
+    {
+      ((ChunkedImporter) _importer).seekChunk(_tableMetaData, chunkNumber);
+    }
+    catch (final Exception e)
+    {
+      throw new ImportException("seekChunk", e);
+    }
+  }
+
+  private static List<String> toUpperCase(final List<String> columns)
+  {
+    final List<String> result = new ArrayList<String>();
+
+    for (final String column : columns)
+    {
+      result.add(column.toUpperCase());
+    }
+
+    return result;
+  }
+
+  /**
+   * Read value of a selected column using the typed read method matching the column type of the dump.
+   */
+  private void readColumn(final int originalColumnIndex, final int columnIndex) throws SQLException
+  {
+    final ColumnType columnType = _dumpColumnTypes[originalColumnIndex];
+
+    try
+    {
+      switch (columnType == null ? ColumnType.CLASS_UNKNOWN : columnType)
+      {
+        case CLASS_LONG:
+        case CLASS_INTEGER:
+        case CLASS_SHORT:
+          _longValues[columnIndex] = _importer.readLong();
+          _nullValues[columnIndex] = _importer.wasNull();
+          break;
+        case CLASS_BOOLEAN:
+          _longValues[columnIndex] = _importer.readBoolean() ? 1 : 0;
+          _nullValues[columnIndex] = _importer.wasNull();
+          break;
+        case CLASS_FLOAT:
+          _doubleValues[columnIndex] = _importer.readFloat();
+          _nullValues[columnIndex] = _importer.wasNull();
+          break;
+        case CLASS_DOUBLE:
+          _doubleValues[columnIndex] = _importer.readDouble();
+          _nullValues[columnIndex] = _importer.wasNull();
+          break;
+        case CLASS_STRING:
+          _currentRow[columnIndex] = _importer.readString();
+          break;
+        case CLASS_BIGDECIMAL:
+          _currentRow[columnIndex] = _importer.readBigDecimal();
+          break;
+        case CLASS_DATE:
+          _currentRow[columnIndex] = _importer.readDate();
+          break;
+        case CLASS_TIME:
+          _currentRow[columnIndex] = _importer.readTime();
+          break;
+        case CLASS_TIMESTAMP:
+          _currentRow[columnIndex] = _importer.readTimestamp();
+          break;
+        default:
+          _currentRow[columnIndex] = _importer.readObject();
+          break;
+      }
+    }
+    catch (final Exception e)
+    {
+      throw new ImportException("readColumn", e);
+    }
   }
 
   @Override
   public Object getObject(final int columnIndex) throws SQLException
   {
-    final int realIndex = _columnIndexMap.get(columnIndex);
-    final Object result = _currentRow.get(realIndex - 1);
+    final int index = columnIndex - 1;
+    final ColumnType columnType = _primitiveColumnTypes[index];
+
+    if (columnType != null)
+    {
+      _wasNull = _nullValues[index];
+
+      if (_wasNull)
+      {
+        return null;
+      }
+
+      switch (columnType)
+      {
+        case CLASS_INTEGER:
+          return (int) _longValues[index];
+        case CLASS_SHORT:
+          return (short) _longValues[index];
+        case CLASS_BOOLEAN:
+          return _longValues[index] != 0;
+        case CLASS_FLOAT:
+          return (float) _doubleValues[index];
+        case CLASS_DOUBLE:
+          return _doubleValues[index];
+        default:
+          return _longValues[index];
+      }
+    }
+
+    final Object result = _currentRow[index];
 
     _wasNull = result == null;
 
     return result;
   }
 
+  /**
+   * Value of a column kept without boxing, converted to long
+   */
+  private long getLongValue(final int index)
+  {
+    final ColumnType columnType = _primitiveColumnTypes[index];
+
+    _wasNull = _nullValues[index];
+
+    return columnType == ColumnType.CLASS_FLOAT || columnType == ColumnType.CLASS_DOUBLE ? (long) _doubleValues[index]
+        : _longValues[index];
+  }
+
+  /**
+   * Value of a column kept without boxing, converted to double
+   */
+  private double getDoubleValue(final int index)
+  {
+    final ColumnType columnType = _primitiveColumnTypes[index];
+
+    _wasNull = _nullValues[index];
+
+    return columnType == ColumnType.CLASS_FLOAT || columnType == ColumnType.CLASS_DOUBLE ? _doubleValues[index]
+        : _longValues[index];
+  }
+
   private Object readObject() throws SQLException
   {
     try
@@ -136,9 +562,26 @@ public class ImportDumpResultSet implements ResultSet
     }
   }
 
+  private void skipObject() throws SQLException
+  {
+    try
+    {
+      _importer.skipObject();
+    }
+    catch (final Exception e)
+    {
+      throw new ImportException("skipObject", e);
+    }
+  }
+
   @Override
   public boolean getBoolean(final int columnIndex) throws SQLException
   {
+    if (_primitiveColumnTypes[columnIndex - 1] != null)
+    {
+      return getLongValue(columnIndex - 1) != 0;
+    }
+
     final Boolean object = (Boolean) getObject(columnIndex);
     return object == null ? false : object;
   }
@@ -146,6 +589,11 @@ public class ImportDumpResultSet implements ResultSet
   @Override
   public byte getByte(final int columnIndex) throws SQLException
   {
+    if (_primitiveColumnTypes[columnIndex - 1] != null)
+    {
+      return (byte) getLongValue(columnIndex - 1);
+    }
+
     final Byte object = (Byte) getObject(columnIndex);
 
     return object == null ? 0 : object;
@@ -154,6 +602,11 @@ public class ImportDumpResultSet implements ResultSet
   @Override
   public short getShort(final int columnIndex) throws SQLException
   {
+    if (_primitiveColumnTypes[columnIndex - 1] != null)
+    {
+      return (short) getLongValue(columnIndex - 1);
+    }
+
     final Short object = (Short) getObject(columnIndex);
     return object == null ? 0 : object;
   }
@@ -161,6 +614,11 @@ public class ImportDumpResultSet implements ResultSet
   @Override
   public int getInt(final int columnIndex) throws SQLException
   {
+    if (_primitiveColumnTypes[columnIndex - 1] != null)
+    {
+      return (int) getLongValue(columnIndex - 1);
+    }
+
     final Integer object = (Integer) getObject(columnIndex);
     return object == null ? 0 : object;
   }
@@ -168,6 +626,11 @@ public class ImportDumpResultSet implements ResultSet
   @Override
   public long getLong(final int columnIndex) throws SQLException
   {
+    if (_primitiveColumnTypes[columnIndex - 1] != null)
+    {
+      return getLongValue(columnIndex - 1);
+    }
+
     final Long object = (Long) getObject(columnIndex);
     return object == null ? 0 : object;
   }
@@ -175,6 +638,11 @@ public class ImportDumpResultSet implements ResultSet
   @Override
   public float getFloat(final int columnIndex) throws SQLException
   {
+    if (_primitiveColumnTypes[columnIndex - 1] != null)
+    {
+      return (float) getDoubleValue(columnIndex - 1);
+    }
+
     final Float object = (Float) getObject(columnIndex);
     return object == null ? 0 : object;
   }
@@ -182,6 +650,11 @@ public class ImportDumpResultSet implements ResultSet
   @Override
   public double getDouble(final int columnIndex) throws SQLException
   {
+    if (_primitiveColumnTypes[columnIndex - 1] != null)
+    {
+      return getDoubleValue(columnIndex - 1);
+    }
+
     final Double object = (Double) getObject(columnIndex);
     return object == null ? 0 : object;
   }
@@ -255,7 +728,7 @@ public class ImportDumpResultSet implements ResultSet
   @Override
   public void close() throws SQLException
   {
-    _currentRow.clear();
+    Arrays.fill(_currentRow, null);
   }
 
   @Override
@@ -1,9 +1,16 @@
 package de.akquinet.jbosscc.guttenbase.export;
 
+import de.akquinet.jbosscc.guttenbase.meta.ColumnType;
 import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
 import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
 
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.List;
+
 /**
  * Import schema information and table data from some custom format.
  * 
@@ -23,5 +30,53 @@ public interface Importer {
 
 	Object readObject() throws Exception;
 
+	/**
+	 * Read value of next column. NULL is returned as false, 0 or null, respectively, see {@link #wasNull()}. The value will be
+	 * converted to the requested type if necessary.
+	 */
+	boolean readBoolean() throws Exception;
+
+	short readShort() throws Exception;
+
+	int readInt() throws Exception;
+
+	long readLong() throws Exception;
+
+	float readFloat() throws Exception;
+
+	double readDouble() throws Exception;
+
+	String readString() throws Exception;
+
+	BigDecimal readBigDecimal() throws Exception;
+
+	Date readDate() throws Exception;
+
+	Time readTime() throws Exception;
+
+	Timestamp readTimestamp() throws Exception;
+
+	/**
+	 * @return true if the value read last by one of the typed read methods was NULL
+	 */
+	boolean wasNull();
+
+	/**
+	 * @return types of the columns of the current table in the order of the dump or null if the types are not known, e.g. because
+	 * the dump has been written by an older version
+	 */
+	List<ColumnType> getColumnTypes() throws Exception;
+
+	/**
+	 * @return false if all rows of the current table have been read. Table data written by older versions does not mark its end,
+	 *         then the number of rows read so far is compared to the row count stored in the dump.
+	 */
+	boolean hasNextRow(TableMetaData tableMetaData, long numberOfRowsRead) throws Exception;
+
+	/**
+	 * Pass over next object without necessarily decoding it, e.g. because the column has not been selected.
+	 */
+	void skipObject() throws Exception;
+
 	void seekTableHeader(TableMetaData tableMetaData) throws Exception;
 }
\ No newline at end of file
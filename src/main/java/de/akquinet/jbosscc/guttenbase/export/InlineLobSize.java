@@ -0,0 +1,18 @@
+package de.akquinet.jbosscc.guttenbase.export;
+
+/**
+ * Up to which size are BLOBs, CLOBs and XML values kept in memory when writing or reading a dump? Larger values are stored in a
+ * single {@link LobSpillFile} per writer or importer instead of a temporary file per value.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public interface InlineLobSize
+{
+  /**
+   * @return maximum size in bytes of values kept in memory
+   */
+  int getMaximumInlineLobSize();
+}
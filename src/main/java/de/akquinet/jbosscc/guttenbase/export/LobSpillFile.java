@@ -0,0 +1,199 @@
+package de.akquinet.jbosscc.guttenbase.export;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.Checksum;
+
+/**
+ * Append-only temporary file holding the contents of large BLOBs, CLOBs and XML values. Instead of creating a temporary file for
+ * every LOB, all LOBs are appended to a single file and referenced by offset and length. The file is created lazily, i.e. only
+ * when the first LOB exceeds the size that is kept in memory.
+ * <p>
+ * Regions are read with positional reads into the buffer of the caller. Memory-mapped windows are not used, since the file is
+ * truncated and deleted while streams may still be open, and accessing a mapping beyond the end of the file crashes the VM.
+ * </p>
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class LobSpillFile implements LobStorage
+{
+  private File _file;
+  private RandomAccessFile _randomAccessFile;
+  private FileChannel _fileChannel;
+  private long _size;
+
+  /**
+   * @return current size of file, i.e. the offset of data appended next
+   */
+  public synchronized long size()
+  {
+    return _size;
+  }
+
+  /**
+   * Append data to end of file.
+   */
+  public synchronized void write(final byte[] data, final int offset, final int length) throws IOException
+  {
+    final ByteBuffer buffer = ByteBuffer.wrap(data, offset, length);
+
+    while (buffer.hasRemaining())
+    {
+      _size += getFileChannel().write(buffer, _size);
+    }
+  }
+
+  /**
+   * Append all data of another file to the end of this file. The given checksum is updated on the way, so the data need not be read
+   * again to compute the checksum of this file.
+   */
+  public synchronized void append(final LobSpillFile source, final Checksum checksum) throws IOException
+  {
+    final byte[] buffer = new byte[DumpRowFormat.CHUNK_SIZE];
+    final InputStream inputStream = source.getInputStream(0, source.size());
+
+    for (int n = inputStream.read(buffer); n >= 0; n = inputStream.read(buffer))
+    {
+      checksum.update(buffer, 0, n);
+      write(buffer, 0, n);
+    }
+  }
+
+  /**
+   * @return stream reading the given region of the file. The stream must be read before the file is truncated or deleted,
+   * otherwise reading fails with an {@link IOException}.
+   */
+  @Override
+  public InputStream getInputStream(final long offset, final long length)
+  {
+    assert offset >= 0 && offset + length <= _size : "offset >= 0 && offset + length <= _size";
+
+    return new RegionInputStream(offset, length);
+  }
+
+  /**
+   * Discard all data, the file may then be reused.
+   */
+  public synchronized void truncate() throws IOException
+  {
+    if (_fileChannel != null)
+    {
+      _fileChannel.truncate(0);
+    }
+
+    _size = 0;
+  }
+
+  /**
+   * Close and delete file. Regions previously written cannot be read anymore.
+   */
+  public synchronized void delete() throws IOException
+  {
+    if (_randomAccessFile != null)
+    {
+      try
+      {
+        _randomAccessFile.close();
+      }
+      finally
+      {
+        _file.delete();
+        _randomAccessFile = null;
+        _fileChannel = null;
+        _file = null;
+        _size = 0;
+      }
+    }
+  }
+
+  private FileChannel getFileChannel() throws IOException
+  {
+    if (_fileChannel == null)
+    {
+      _file = File.createTempFile("GB-LOB-", null);
+      _file.deleteOnExit();
+      _randomAccessFile = new RandomAccessFile(_file, "rw");
+      _fileChannel = _randomAccessFile.getChannel();
+    }
+
+    return _fileChannel;
+  }
+
+  private synchronized int read(final ByteBuffer buffer, final long position) throws IOException
+  {
+    if (_fileChannel == null || position >= _size)
+    {
+      throw new EOFException("Region of LOB spill file has been discarded");
+    }
+
+    return _fileChannel.read(buffer, position);
+  }
+
+  private final class RegionInputStream extends InputStream
+  {
+    private final byte[] _singleByte = new byte[1];
+    private long _position;
+    private long _remaining;
+
+    private RegionInputStream(final long offset, final long length)
+    {
+      _position = offset;
+      _remaining = length;
+    }
+
+    @Override
+    public int read() throws IOException
+    {
+      return read(_singleByte, 0, 1) < 0 ? -1 : _singleByte[0] & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException
+    {
+      if (len == 0)
+      {
+        return 0;
+      }
+
+      if (_remaining == 0)
+      {
+        return -1;
+      }
+
+      final int n = LobSpillFile.this.read(ByteBuffer.wrap(b, off, (int) Math.min(len, _remaining)), _position);
+
+      if (n < 0)
+      {
+        throw new EOFException("Region of LOB spill file has been discarded");
+      }
+
+      _position += n;
+      _remaining -= n;
+      return n;
+    }
+
+    @Override
+    public long skip(final long n)
+    {
+      final long skipped = Math.min(Math.max(n, 0), _remaining);
+
+      _position += skipped;
+      _remaining -= skipped;
+      return skipped;
+    }
+
+    @Override
+    public int available()
+    {
+      return (int) Math.min(Integer.MAX_VALUE, _remaining);
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package de.akquinet.jbosscc.guttenbase.export;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Storage holding the contents of BLOBs, CLOBs and XML values, which are referenced by offset and length.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public interface LobStorage
+{
+  /**
+   * @return stream reading the given region of the storage
+   */
+  InputStream getInputStream(long offset, long length) throws IOException;
+}
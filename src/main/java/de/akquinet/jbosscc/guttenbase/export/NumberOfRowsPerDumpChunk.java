@@ -0,0 +1,17 @@
+package de.akquinet.jbosscc.guttenbase.export;
+
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+
+/**
+ * How many rows are written into a single chunk of a dump? Chunks can be decoded independently of each other, i.e. an import may
+ * start at any chunk. Smaller chunks allow finer grained access, but add some overhead for compression and the chunk index.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public interface NumberOfRowsPerDumpChunk
+{
+  int getNumberOfRowsPerChunk(TableMetaData tableMetaData);
+}
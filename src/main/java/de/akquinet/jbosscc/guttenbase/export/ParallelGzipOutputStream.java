@@ -0,0 +1,239 @@
+package de.akquinet.jbosscc.guttenbase.export;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.LinkedList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Compresses data concurrently similar to pigz. The data is split into blocks of fixed size, each block is deflated by a worker
+ * thread into a gzip member of its own. The members are written in order, i.e. the result is a sequence of concatenated gzip
+ * members that can be read by {@link GZIPInputStream}.
+ * <p>
+ * The number of blocks waiting to be written is limited, so memory consumption is bounded by about twice the number of threads
+ * times the block size.
+ * </p>
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class ParallelGzipOutputStream extends OutputStream
+{
+  private static final byte[] HEADER = {(byte) GZIPInputStream.GZIP_MAGIC, (byte) (GZIPInputStream.GZIP_MAGIC >> 8), Deflater.DEFLATED,
+      0, 0, 0, 0, 0, 0, (byte) 0xFF};
+
+  private final OutputStream _outputStream;
+  private final int _compressionLevel;
+  private final int _numberOfThreads;
+  private final ExecutorService _executorService;
+  private final LinkedList<Future<byte[]>> _pendingBlocks = new LinkedList<Future<byte[]>>();
+  private byte[] _buffer;
+  private int _count;
+
+  /**
+   * @param outputStream will be closed by {@link #close()}
+   */
+  public ParallelGzipOutputStream(final OutputStream outputStream, final GzipCompression gzipCompression)
+  {
+    assert outputStream != null : "outputStream != null";
+    assert gzipCompression != null : "gzipCompression != null";
+    assert gzipCompression.getBlockSize() > 0 : "gzipCompression.getBlockSize() > 0";
+
+    _outputStream = outputStream;
+    _compressionLevel = gzipCompression.getCompressionLevel();
+    _numberOfThreads = gzipCompression.getNumberOfThreads();
+    _buffer = new byte[gzipCompression.getBlockSize()];
+    _executorService = _numberOfThreads > 1 ? Executors.newFixedThreadPool(_numberOfThreads, new ThreadFactory()
+    {
+      private final AtomicInteger _threadNumber = new AtomicInteger();
+
+      @Override
+      public Thread newThread(final Runnable runnable)
+      {
+        final Thread thread = new Thread(runnable, "GB-Gzip-" + _threadNumber.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    }) : null;
+  }
+
+  @Override
+  public void write(final int b) throws IOException
+  {
+    if (_count == _buffer.length)
+    {
+      submitBlock();
+    }
+
+    _buffer[_count++] = (byte) b;
+  }
+
+  @Override
+  public void write(final byte[] b, int off, int len) throws IOException
+  {
+    while (len > 0)
+    {
+      if (_count == _buffer.length)
+      {
+        submitBlock();
+      }
+
+      final int n = Math.min(len, _buffer.length - _count);
+      System.arraycopy(b, off, _buffer, _count, n);
+      _count += n;
+      off += n;
+      len -= n;
+    }
+  }
+
+  /**
+   * Does not compress the current block, since that would degrade compression. Use {@link #finish()} to write all data.
+   */
+  @Override
+  public void flush() throws IOException
+  {
+  }
+
+  /**
+   * Compress and write all data written so far. Subsequent data will start in a new gzip member.
+   */
+  public void finish() throws IOException
+  {
+    if (_count > 0)
+    {
+      submitBlock();
+    }
+
+    while (!_pendingBlocks.isEmpty())
+    {
+      writeBlock();
+    }
+
+    _outputStream.flush();
+  }
+
+  @Override
+  public void close() throws IOException
+  {
+    try
+    {
+      finish();
+    }
+    finally
+    {
+      if (_executorService != null)
+      {
+        _executorService.shutdownNow();
+      }
+
+      _outputStream.close();
+    }
+  }
+
+  private void submitBlock() throws IOException
+  {
+    final byte[] block = _buffer;
+    final int length = _count;
+
+    if (_executorService == null)
+    {
+      _outputStream.write(compress(block, length, _compressionLevel));
+    }
+    else
+    {
+      _pendingBlocks.add(_executorService.submit(new Callable<byte[]>()
+      {
+        @Override
+        public byte[] call()
+        {
+          return compress(block, length, _compressionLevel);
+        }
+      }));
+
+      if (_pendingBlocks.size() >= 2 * _numberOfThreads)
+      {
+        writeBlock();
+      }
+
+      // The submitted buffer is still being compressed
+      _buffer = new byte[_buffer.length];
+    }
+
+    _count = 0;
+  }
+
+  private void writeBlock() throws IOException
+  {
+    final Future<byte[]> future = _pendingBlocks.removeFirst();
+
+    try
+    {
+      _outputStream.write(future.get());
+    }
+    catch (final InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while compressing data");
+    }
+    catch (final ExecutionException e)
+    {
+      throw new IOException("Compressing data failed", e.getCause());
+    }
+  }
+
+  /**
+   * @return complete gzip member containing the given data
+   */
+  static byte[] compress(final byte[] data, final int length, final int compressionLevel)
+  {
+    final ByteArrayOutputStream result = new ByteArrayOutputStream(length / 2 + HEADER.length + 8);
+    final Deflater deflater = new Deflater(compressionLevel, true);
+    final byte[] buffer = new byte[DumpRowFormat.CHUNK_SIZE];
+    final CRC32 crc = new CRC32();
+
+    try
+    {
+      result.write(HEADER, 0, HEADER.length);
+
+      deflater.setInput(data, 0, length);
+      deflater.finish();
+
+      while (!deflater.finished())
+      {
+        final int n = deflater.deflate(buffer);
+        result.write(buffer, 0, n);
+      }
+    }
+    finally
+    {
+      deflater.end();
+    }
+
+    crc.update(data, 0, length);
+    writeInt(result, (int) crc.getValue());
+    writeInt(result, length);
+
+    return result.toByteArray();
+  }
+
+  private static void writeInt(final ByteArrayOutputStream outputStream, final int value)
+  {
+    for (int i = 0; i < 32; i += 8)
+    {
+      outputStream.write(value >>> i);
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package de.akquinet.jbosscc.guttenbase.export.plain;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -7,18 +8,30 @@ import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.sql.SQLException;
 import java.util.Map;
-import java.util.zip.GZIPOutputStream;
 
+import org.apache.commons.io.output.CountingOutputStream;
+
+import de.akquinet.jbosscc.guttenbase.export.AbstractExporter;
+import de.akquinet.jbosscc.guttenbase.export.DumpRowFormat;
 import de.akquinet.jbosscc.guttenbase.export.ExportDumpConnectorInfo;
 import de.akquinet.jbosscc.guttenbase.export.ExportDumpExtraInformation;
 import de.akquinet.jbosscc.guttenbase.export.ExportTableHeader;
-import de.akquinet.jbosscc.guttenbase.export.Exporter;
+import de.akquinet.jbosscc.guttenbase.export.GzipCompression;
+import de.akquinet.jbosscc.guttenbase.export.ParallelGzipOutputStream;
 import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
 import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
 
 /**
- * Export schema information and data into gzipped {@link ObjectOutputStream} file with serialized data.
+ * Export schema information and data into gzipped {@link ObjectOutputStream} file with serialized data. The table data following a
+ * table header is written as block data in the {@link DumpRowFormat}.
+ * <p>
+ * Every table is written into a gzip member of its own, the stream is reset before each table. The file ends with a
+ * {@link PlainGzipTableOfContents}, so that tables may be read in any order without decompressing the data in front of them.
+ * </p>
+ * <p>
+ * The data is compressed concurrently in blocks as configured by {@link de.akquinet.jbosscc.guttenbase.hints.GzipCompressionHint}.
+ * </p>
  * 
  * <p>
  * &copy; 2012-2020 akquinet tech@spree
@@ -26,8 +39,11 @@ import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
  * 
  * @author M. Dahm
  */
-public class PlainGzipExporter implements Exporter {
+public class PlainGzipExporter extends AbstractExporter {
 	private ObjectOutputStream _objectOutputStream;
+	private CountingOutputStream _fileOutputStream;
+	private ParallelGzipOutputStream _gzipOutputStream;
+	private final PlainGzipTableOfContents _tableOfContents = new PlainGzipTableOfContents();
 	private ConnectorRepository _connectorRepository;
 	private String _connectorId;
 	private ExportDumpConnectorInfo _exportDumpConnectionInfo;
@@ -54,14 +70,30 @@ public class PlainGzipExporter implements Exporter {
 	 */
 	@Override
 	public void finishExport() throws Exception {
+		_tableOfContents.setExtraInformationOffset(startMember());
 		writeExtraInformation();
-		_objectOutputStream.close();
+
+		final long tableOfContentsOffset = startMember();
+		_objectOutputStream.writeObject(_tableOfContents);
+		_objectOutputStream.flush();
+		_gzipOutputStream.finish();
+
+		PlainGzipTableOfContents.writeFooter(_fileOutputStream, tableOfContentsOffset);
+		_gzipOutputStream.close();
+
 		_objectOutputStream = null;
+		_gzipOutputStream = null;
+		_fileOutputStream = null;
 	}
 
+	/**
+	 * Start new gzip member, write header and start writing table data directly after it.
+	 */
 	@Override
-	public void writeTableHeader(final ExportTableHeader exportTableHeader) throws IOException {
+	public void writeTableHeader(final ExportTableHeader exportTableHeader) throws IOException, SQLException {
+		_tableOfContents.addTable(exportTableHeader.getTableName(), startMember());
 		_objectOutputStream.writeObject(exportTableHeader);
+		openDumpRowWriter(_objectOutputStream);
 	}
 
 	@Override
@@ -70,11 +102,13 @@ public class PlainGzipExporter implements Exporter {
 	}
 
 	@Override
-	public void initializeWriteTableData(final TableMetaData table) {
+	public void initializeWriteTableData(final TableMetaData table) throws SQLException {
+		initializeTableData(_connectorRepository, _connectorId, table);
 	}
 
 	@Override
-	public void finalizeWriteTableData(final TableMetaData table) {
+	public void finalizeWriteTableData(final TableMetaData table) throws IOException {
+		closeDumpRowWriter();
 	}
 
 	@Override
@@ -85,20 +119,11 @@ public class PlainGzipExporter implements Exporter {
 	public void finalizeWriteRowData(final TableMetaData table) {
 	}
 
-	/**
-	 * Resets the output stream which reduces memory foot print drastically. See {@link ObjectOutputStream#reset()} for details.
-	 */
 	@Override
 	public void flush() throws IOException {
-		_objectOutputStream.reset();
 		_objectOutputStream.flush();
 	}
 
-	@Override
-	public void writeObject(final Object obj) throws IOException {
-		_objectOutputStream.writeObject(obj);
-	}
-
 	private void writeExtraInformation() throws SQLException, IOException {
 		final ExportDumpExtraInformation exportDumpExtraInformation = _connectorRepository.getConnectorHint(_connectorId,
 				ExportDumpExtraInformation.class).getValue();
@@ -106,13 +131,30 @@ public class PlainGzipExporter implements Exporter {
 		final Map<String, Serializable> extraInformation = exportDumpExtraInformation.getExtraInformation(_connectorRepository, _connectorId,
 				_exportDumpConnectionInfo);
 
-		writeObject(extraInformation);
+		_objectOutputStream.writeObject(extraInformation);
 	}
 
-	private void openOutputStream(final ExportDumpConnectorInfo exportDumpConnectionInfo) throws IOException {
+	private void openOutputStream(final ExportDumpConnectorInfo exportDumpConnectionInfo) throws IOException, SQLException {
+		final GzipCompression gzipCompression = _connectorRepository.getConnectorHint(_connectorId, GzipCompression.class).getValue();
 		final File file = new File(exportDumpConnectionInfo.getPath());
-		final FileOutputStream fileOutputStream = new FileOutputStream(file);
-		final GZIPOutputStream gzipOutputStream = new GZIPOutputStream(fileOutputStream);
-		_objectOutputStream = new ObjectOutputStream(gzipOutputStream);
+		_fileOutputStream = new CountingOutputStream(new BufferedOutputStream(new FileOutputStream(file), DumpRowFormat.CHUNK_SIZE));
+		_gzipOutputStream = new ParallelGzipOutputStream(_fileOutputStream, gzipCompression);
+		_objectOutputStream = new ObjectOutputStream(_gzipOutputStream);
+	}
+
+	/**
+	 * Finish current gzip member and start a new one. The object stream is reset, so that objects in the new member do not refer to
+	 * objects written before.
+	 * 
+	 * @return file offset of the new member
+	 */
+	private long startMember() throws IOException {
+		_objectOutputStream.flush();
+		_gzipOutputStream.finish();
+
+		final long offset = _fileOutputStream.getByteCount();
+		_objectOutputStream.reset();
+
+		return offset;
 	}
 }
@@ -1,21 +1,44 @@
 package de.akquinet.jbosscc.guttenbase.export.plain;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
+import java.io.ObjectStreamConstants;
+import java.io.OptionalDataException;
+import java.io.RandomAccessFile;
+import java.io.SequenceInputStream;
 import java.io.Serializable;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.util.Map;
 import java.util.zip.GZIPInputStream;
 
+import org.apache.commons.io.input.CloseShieldInputStream;
+
+import de.akquinet.jbosscc.guttenbase.exceptions.ImportException;
+import de.akquinet.jbosscc.guttenbase.export.AbstractImporter;
+import de.akquinet.jbosscc.guttenbase.export.DumpRowFormat;
+import de.akquinet.jbosscc.guttenbase.export.DumpRowReader;
 import de.akquinet.jbosscc.guttenbase.export.ExportTableHeader;
 import de.akquinet.jbosscc.guttenbase.export.ImportDumpConnectionInfo;
 import de.akquinet.jbosscc.guttenbase.export.ImportDumpExtraInformation;
-import de.akquinet.jbosscc.guttenbase.export.Importer;
+import de.akquinet.jbosscc.guttenbase.export.InlineLobSize;
+import de.akquinet.jbosscc.guttenbase.export.LobSpillFile;
 import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
 import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
 
 /**
  * Import schema information and data from gzipped {@link ObjectInputStream} file with serialized data.
+ * <p>
+ * If the dump is a local file ending with a {@link PlainGzipTableOfContents}, tables are read by seeking to their gzip member
+ * directly. Otherwise, e.g. for dumps written by older versions, the file is read sequentially.
+ * </p>
  * 
  * <p>
  * &copy; 2012-2020 akquinet tech@spree
@@ -23,34 +46,77 @@ import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
  * 
  * @author M. Dahm
  */
-public class PlainGzipImporter implements Importer {
+public class PlainGzipImporter extends AbstractImporter {
+  private static final byte[] STREAM_HEADER = { (byte) (ObjectStreamConstants.STREAM_MAGIC >> 8),
+      (byte) ObjectStreamConstants.STREAM_MAGIC, (byte) (ObjectStreamConstants.STREAM_VERSION >> 8),
+      (byte) ObjectStreamConstants.STREAM_VERSION };
+
   private ObjectInputStream _objectInputStream;
+  private DumpRowReader _dumpRowReader;
   private ConnectorRepository _connectorRepository;
   private String _connectorId;
   // Ensure that table data has been read when seeking the extra informations
   private boolean _tableDataRead = false;
+  private FileChannel _fileChannel;
+  private PlainGzipTableOfContents _tableOfContents;
+  private final LobSpillFile _lobSpillFile = new LobSpillFile();
+  private int _maximumInlineLobSize;
 
   @Override
   public void initializeImport(final ConnectorRepository connectorRepository, final String connectorId,
-      final ImportDumpConnectionInfo importDumpConnectionInfo) throws IOException {
+      final ImportDumpConnectionInfo importDumpConnectionInfo) throws Exception {
     assert importDumpConnectionInfo != null : "importDumpConnectionInfo != null";
     assert connectorId != null : "connectorId != null";
     assert connectorRepository != null : "connectorRepository != null";
 
     _connectorRepository = connectorRepository;
     _connectorId = connectorId;
-    final GZIPInputStream gzipInputStream = new GZIPInputStream(importDumpConnectionInfo.getPath().openStream());
+    _maximumInlineLobSize = connectorRepository.getConnectorHint(connectorId, InlineLobSize.class).getValue()
+        .getMaximumInlineLobSize();
+
+    final URL url = importDumpConnectionInfo.getPath();
+    final File file = toFile(url);
+
+    if (file != null) {
+      _fileChannel = new RandomAccessFile(file, "r").getChannel();
+      final long tableOfContentsOffset = PlainGzipTableOfContents.readFooter(_fileChannel);
+
+      if (tableOfContentsOffset >= 0) {
+        final ObjectInputStream objectInputStream = openMember(tableOfContentsOffset);
+        _tableOfContents = (PlainGzipTableOfContents) objectInputStream.readObject();
+        objectInputStream.close();
+
+        _objectInputStream = new ObjectInputStream(openMemberStream(0));
+        return;
+      }
+
+      _fileChannel.close();
+      _fileChannel = null;
+    }
+
+    final GZIPInputStream gzipInputStream = new GZIPInputStream(url.openStream());
     _objectInputStream = new ObjectInputStream(gzipInputStream);
   }
 
   @Override
   public void finishImport() throws Exception {
-    if (_tableDataRead) { // At end
+    if (_tableOfContents != null) {
+      _objectInputStream.close();
+      _objectInputStream = openMember(_tableOfContents.getExtraInformationOffset());
       readExtraInformation();
+      _objectInputStream.close();
+      _fileChannel.close();
+      _fileChannel = null;
+    } else {
+      if (_tableDataRead) { // At end
+        readExtraInformation();
+      }
+
+      _objectInputStream.close();
     }
 
-    _objectInputStream.close();
     _objectInputStream = null;
+    _lobSpillFile.delete();
   }
 
   @Override
@@ -63,32 +129,107 @@ public class PlainGzipImporter implements Importer {
     _tableDataRead = true;
     ExportTableHeader exportTableHeader;
 
-    do {
+    if (_tableOfContents != null) {
+      final long offset = _tableOfContents.getTableOffset(tableMetaData.getTableName());
+
+      if (offset < 0) {
+        throw new ImportException("Table " + tableMetaData.getTableName() + " not contained in dump");
+      }
+
+      _objectInputStream.close();
+      _objectInputStream = openMember(offset);
       exportTableHeader = seekNextTableHeader();
-    } while (!tableMetaData.getTableName().equalsIgnoreCase(exportTableHeader.getTableName()));
+    } else {
+      do {
+        exportTableHeader = seekNextTableHeader();
+      } while (!tableMetaData.getTableName().equalsIgnoreCase(exportTableHeader.getTableName()));
+    }
+
+    _dumpRowReader = exportTableHeader.isBinaryRowFormat() ? new DumpRowReader(_objectInputStream, _lobSpillFile,
+        _maximumInlineLobSize) : null;
   }
 
   @Override
   public Object readObject() throws Exception {
-    return _objectInputStream.readObject();
+    return _dumpRowReader != null ? _dumpRowReader.readObject() : _objectInputStream.readObject();
+  }
+
+  @Override
+  public void skipObject() throws Exception {
+    if (_dumpRowReader != null) {
+      _dumpRowReader.skipObject();
+    } else {
+      _objectInputStream.readObject();
+    }
+  }
+
+  @Override
+  protected DumpRowReader getDumpRowReader() {
+    return _dumpRowReader;
   }
 
   private ExportTableHeader seekNextTableHeader() throws Exception {
     Object value;
 
     do {
-      value = _objectInputStream.readObject();
+      value = readNextObject();
     } while (!(value instanceof ExportTableHeader));
 
     return (ExportTableHeader) value;
   }
 
+  /**
+   * Skip table data not read yet.
+   */
+  private Object readNextObject() throws Exception {
+    while (true) {
+      try {
+        return _objectInputStream.readObject();
+      } catch (final OptionalDataException e) {
+        if (e.eof) {
+          throw e;
+        }
+
+        _objectInputStream.skipBytes(e.length);
+      }
+    }
+  }
+
+  /**
+   * The gzip member does not start with a stream header, since it is part of the stream written by the exporter. Thus a header is
+   * prepended.
+   */
+  private ObjectInputStream openMember(final long offset) throws IOException {
+    return new ObjectInputStream(new SequenceInputStream(new ByteArrayInputStream(STREAM_HEADER), openMemberStream(offset)));
+  }
+
+  private InputStream openMemberStream(final long offset) throws IOException {
+    _fileChannel.position(offset);
+
+    // Closing the stream must not close the channel
+    final InputStream inputStream = new CloseShieldInputStream(Channels.newInputStream(_fileChannel));
+
+    return new BufferedInputStream(new GZIPInputStream(inputStream, DumpRowFormat.CHUNK_SIZE), DumpRowFormat.CHUNK_SIZE);
+  }
+
+  private static File toFile(final URL url) throws URISyntaxException {
+    if ("file".equals(url.getProtocol())) {
+      final File file = new File(url.toURI());
+
+      if (file.isFile()) {
+        return file;
+      }
+    }
+
+    return null;
+  }
+
   private void readExtraInformation() throws Exception {
     final ImportDumpExtraInformation importDumpExtraInformation = _connectorRepository.getConnectorHint(_connectorId,
         ImportDumpExtraInformation.class).getValue();
 
     @SuppressWarnings("unchecked")
-    final Map<String, Serializable> extraInformation = (Map<String, Serializable>) readObject();
+    final Map<String, Serializable> extraInformation = (Map<String, Serializable>) readNextObject();
 
     importDumpExtraInformation.processExtraInformation(extraInformation);
   }
@@ -0,0 +1,119 @@
+package de.akquinet.jbosscc.guttenbase.export.plain;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Table of contents of a plain dump. The dump consists of concatenated gzip members: one for the data base meta data, one per
+ * table, one for the extra information and one for the table of contents itself. The table of contents stores the file offsets of
+ * these members, so an importer may seek to a table directly.
+ * <p>
+ * The dump ends with a gzip member of fixed length containing the offset of the table of contents, i.e. the file is still a valid
+ * gzip file.
+ * </p>
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class PlainGzipTableOfContents implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * "GBTC"
+	 */
+	private static final int FOOTER_MAGIC = 0x47425443;
+	private static final int FOOTER_DATA_LENGTH = 12;
+	private static final int FOOTER_DATA_OFFSET = 15;
+	public static final int FOOTER_LENGTH = FOOTER_DATA_OFFSET + FOOTER_DATA_LENGTH + 8;
+
+	private final Map<String, Long> _tableOffsets = new LinkedHashMap<String, Long>();
+	private long _extraInformationOffset = -1;
+
+	public void addTable(final String tableName, final long offset) {
+		_tableOffsets.put(tableName.toUpperCase(), offset);
+	}
+
+	/**
+	 * @return offset of gzip member containing the table header and data or -1 if table is not contained in dump
+	 */
+	public long getTableOffset(final String tableName) {
+		final Long offset = _tableOffsets.get(tableName.toUpperCase());
+
+		return offset != null ? offset : -1;
+	}
+
+	public Map<String, Long> getTableOffsets() {
+		return Collections.unmodifiableMap(_tableOffsets);
+	}
+
+	public long getExtraInformationOffset() {
+		return _extraInformationOffset;
+	}
+
+	public void setExtraInformationOffset(final long extraInformationOffset) {
+		_extraInformationOffset = extraInformationOffset;
+	}
+
+	/**
+	 * Write gzip member with a single stored deflate block containing the offset of the table of contents.
+	 */
+	static void writeFooter(final OutputStream outputStream, final long tableOfContentsOffset) throws IOException {
+		final ByteBuffer data = ByteBuffer.allocate(FOOTER_DATA_LENGTH);
+		data.putInt(FOOTER_MAGIC).putLong(tableOfContentsOffset);
+
+		final CRC32 crc = new CRC32();
+		crc.update(data.array());
+
+		final ByteBuffer footer = ByteBuffer.allocate(FOOTER_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+		footer.putShort((short) GZIPInputStream.GZIP_MAGIC).put((byte) 8).put((byte) 0).putInt(0).put((byte) 0).put((byte) 0xFF);
+		footer.put((byte) 1).putShort((short) FOOTER_DATA_LENGTH).putShort((short) ~FOOTER_DATA_LENGTH);
+		footer.put(data.array());
+		footer.putInt((int) crc.getValue()).putInt(FOOTER_DATA_LENGTH);
+
+		outputStream.write(footer.array());
+	}
+
+	/**
+	 * @return offset of the table of contents or -1 if the file does not end with a footer, e.g. because it has been written by an
+	 *         older version
+	 */
+	static long readFooter(final FileChannel fileChannel) throws IOException {
+		final long size = fileChannel.size();
+
+		if (size < FOOTER_LENGTH) {
+			return -1;
+		}
+
+		final ByteBuffer footer = ByteBuffer.allocate(FOOTER_LENGTH);
+
+		while (footer.hasRemaining()) {
+			if (fileChannel.read(footer, size - FOOTER_LENGTH + footer.position()) < 0) {
+				return -1;
+			}
+		}
+
+		footer.flip();
+		footer.order(ByteOrder.LITTLE_ENDIAN);
+
+		if (footer.getShort(0) != (short) GZIPInputStream.GZIP_MAGIC || footer.get(10) != 1
+				|| footer.getShort(11) != FOOTER_DATA_LENGTH) {
+			return -1;
+		}
+
+		footer.order(ByteOrder.BIG_ENDIAN);
+
+		return footer.getInt(FOOTER_DATA_OFFSET) == FOOTER_MAGIC ? footer.getLong(FOOTER_DATA_OFFSET + 4) : -1;
+	}
+}
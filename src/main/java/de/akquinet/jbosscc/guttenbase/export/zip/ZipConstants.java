@@ -16,14 +16,17 @@ public interface ZipConstants {
   String INDEX_NAME = "INDEXES";
   String GUTTEN_BASE_NAME = "GuttenBase";
   String TABLE_DATA_NAME = "DATA";
+  String CHUNK_INDEX_NAME = "CHUNKS";
   char PATH_SEPARATOR = '/';
   String METADATA_NAME = "METADATA";
   String EXTRA_INFO_NAME = "EXTRA-INFO";
+  String LOB_AREA_NAME = "LOBS";
 
   String PREFIX = GUTTEN_BASE_NAME + PATH_SEPARATOR;
 
   String META_DATA = PREFIX + METADATA_NAME;
   String EXTRA_INFO = PREFIX + EXTRA_INFO_NAME;
+  String LOB_AREA = PREFIX + LOB_AREA_NAME;
   String META_INF = "META-INF";
   String MANIFEST_NAME = META_INF + PATH_SEPARATOR + "MANIFEST.MF";
 }
@@ -1,9 +1,15 @@
 package de.akquinet.jbosscc.guttenbase.export.zip;
 
+import de.akquinet.jbosscc.guttenbase.export.AbstractExporter;
+import de.akquinet.jbosscc.guttenbase.export.ConcurrentExporter;
+import de.akquinet.jbosscc.guttenbase.export.DumpChunkIndex;
+import de.akquinet.jbosscc.guttenbase.export.DumpLobArea;
+import de.akquinet.jbosscc.guttenbase.export.DumpRowFormat;
 import de.akquinet.jbosscc.guttenbase.export.ExportDumpConnectorInfo;
 import de.akquinet.jbosscc.guttenbase.export.ExportDumpExtraInformation;
 import de.akquinet.jbosscc.guttenbase.export.ExportTableHeader;
 import de.akquinet.jbosscc.guttenbase.export.Exporter;
+import de.akquinet.jbosscc.guttenbase.export.LobSpillFile;
 import de.akquinet.jbosscc.guttenbase.hints.ExportDumpExtraInformationHint;
 import de.akquinet.jbosscc.guttenbase.hints.ZipExporterClassResourcesHint;
 import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
@@ -12,14 +18,20 @@ import de.akquinet.jbosscc.guttenbase.meta.IndexMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
 import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
 import de.akquinet.jbosscc.guttenbase.utils.Util;
-import org.apache.commons.io.IOUtils;
 import org.apache.log4j.Logger;
 
 import java.io.*;
 import java.net.URL;
+import java.nio.ByteBuffer;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -27,6 +39,14 @@ import java.util.zip.ZipOutputStream;
  * Export schema information and data into executable JAR file. Since it is in ZIP file format the resulting file may as well be
  * inspected with a ZIP tool. The structure of the ZIP is based on the structure of a data base.
  * <p/>
+ * When tables are exported concurrently, the table data is compressed by the {@link ZipWorkerExporter}s and stored as gzip data in
+ * the ZIP file without compressing it again.
+ * <p/>
+ * BLOBs, CLOBs and XML values larger than the {@link de.akquinet.jbosscc.guttenbase.export.InlineLobSize} are stored once per
+ * distinct content in a LOB area and referenced from the rows. Every content is deflated on its own and the area entry itself is
+ * not compressed again, so a LOB can be read by seeking to its offset. The area is written as a sequence of ZIP entries, a segment is
+ * staged in a temporary file only until it is large enough and no other entry is open.
+ * <p/>
  * <p>
  * &copy; 2012-2020 akquinet tech@spree
  * </p>
@@ -36,16 +56,41 @@ import java.util.zip.ZipOutputStream;
  * META-INF/MANIFEST.MF Main-Class entry
  * @Uses-Hint {@link ExportDumpExtraInformationHint} to add custom information to the generated JAR
  */
-public class ZipExporter implements Exporter
+public class ZipExporter extends AbstractExporter implements ConcurrentExporter, DumpLobArea
 {
   private static final Logger LOG = Logger.getLogger(ZipExporter.class);
 
+  /**
+   * Bounds memory used for detecting duplicate LOBs. Contents not used for a long time are forgotten and stored again when they
+   * occur anew.
+   */
+  private static final int MAXIMUM_NUMBER_OF_KNOWN_LOBS = 100000;
+
+  /**
+   * Minimum size of a segment of the LOB area before it is written into its own ZIP entry
+   */
+  private static final long LOB_AREA_SEGMENT_SIZE = 16L * 1024 * 1024;
+
   private ZipOutputStream _zipOutputStream;
-  private ObjectOutputStream _objectOutputStream;
-  private File _tempFile;
+  private OutputStream _tableDataOutputStream;
   private ConnectorRepository _connectorRepository;
   private String _connectorId;
   private ExportDumpConnectorInfo _exportDumpConnectionInfo;
+  private final LobSpillFile _lobAreaSegment = new LobSpillFile();
+  private final CRC32 _lobAreaSegmentCrc = new CRC32();
+  private long _lobAreaSegmentOffset;
+  private int _lobAreaSegmentNumber;
+  private final List<LobSpillFile> _idleCompressionBuffers = new ArrayList<LobSpillFile>();
+  private final Map<ByteBuffer, Long> _lobOffsets = new LinkedHashMap<ByteBuffer, Long>(16, 0.75f, true)
+  {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<ByteBuffer, Long> eldest)
+    {
+      return size() > MAXIMUM_NUMBER_OF_KNOWN_LOBS;
+    }
+  };
 
   /**
    * {@inheritDoc}
@@ -77,8 +122,10 @@ public class ZipExporter implements Exporter
    * {@inheritDoc}
    */
   @Override
-  public void finishExport() throws Exception
+  public synchronized void finishExport() throws Exception
   {
+    writeLobAreaSegment(1);
+    deleteLobArea();
     writeExtraInformation();
 
     final ZipExporterClassResources zipExporterClassResources = _connectorRepository.getConnectorHint(_connectorId,
@@ -117,47 +164,41 @@ public class ZipExporter implements Exporter
   /**
    * {@inheritDoc}
    * <p/>
-   * Open new ZIP entry. Data will be written to a temporary file first, because otherwise it may exceed the memory.
+   * Open new ZIP entry for the first chunk. Data is written directly into the entry, the ZIP entry is compressed on the fly, so the
+   * data need neither fit into memory nor be staged in a temporary file.
    */
   @Override
-  public void initializeWriteTableData(final TableMetaData tableMetaData) throws IOException
+  public void initializeWriteTableData(final TableMetaData tableMetaData) throws IOException, SQLException
   {
-    newEntry(ZipConstants.PREFIX + tableMetaData.getTableName() + ZipConstants.PATH_SEPARATOR + ZipConstants.TABLE_DATA_NAME);
-
-    _tempFile = File.createTempFile("GB-JAR-", null);
-    _tempFile.deleteOnExit();
-
-    _objectOutputStream = new ObjectOutputStream(new FileOutputStream(_tempFile));
+    initializeTableData(_connectorRepository, _connectorId, tableMetaData);
+    openChunk(tableMetaData);
   }
 
   /**
    * {@inheritDoc}
    * <p/>
-   * Close current ZIP entry.
+   * Close current ZIP entry and write chunk index.
    */
   @Override
   public void finalizeWriteTableData(final TableMetaData table) throws IOException
   {
-    _objectOutputStream.close();
-
-    final FileInputStream fis = new FileInputStream(_tempFile);
-    Util.copy(fis, _zipOutputStream);
-    IOUtils.closeQuietly(fis);
-    closeEntry();
-
-    _tempFile.delete();
-    _tempFile = null;
-    _objectOutputStream = null;
+    closeChunk();
+    writeChunkIndex(table, getDumpChunkIndex());
   }
 
   /**
    * {@inheritDoc}
    * <p/>
-   * Does nothing.
+   * Start new chunk if the current one is complete.
    */
   @Override
-  public void initializeWriteRowData(final TableMetaData table)
+  public void initializeWriteRowData(final TableMetaData table) throws IOException
   {
+    if (isChunkComplete())
+    {
+      closeChunk();
+      openChunk(table);
+    }
   }
 
   /**
@@ -170,23 +211,244 @@ public class ZipExporter implements Exporter
   {
   }
 
+  @Override
+  public void flush() throws IOException
+  {
+    if (_tableDataOutputStream != null)
+    {
+      _tableDataOutputStream.flush();
+    }
+  }
+
   /**
-   * Resets the output stream which reduces memory foot print drastically. See {@link ObjectOutputStream#reset()} for details.
+   * {@inheritDoc}
    */
   @Override
-  public void flush() throws IOException
+  public Exporter createWorkerExporter()
   {
-    if (_objectOutputStream != null)
+    return new ZipWorkerExporter(this, _connectorRepository, _connectorId);
+  }
+
+  /**
+   * Add chunk of table data compressed by a {@link ZipWorkerExporter}. The gzip data is stored in the ZIP file as is.
+   */
+  public synchronized void addCompressedTableData(final TableMetaData tableMetaData, final int chunkNumber, final File file,
+                                                  final long crc) throws IOException
+  {
+    final ZipEntry zipEntry = new ZipEntry(getTableDataEntryName(tableMetaData.getTableName(), chunkNumber));
+    zipEntry.setMethod(ZipEntry.STORED);
+    zipEntry.setSize(file.length());
+    zipEntry.setCompressedSize(file.length());
+    zipEntry.setCrc(crc);
+
+    _zipOutputStream.putNextEntry(zipEntry);
+
+    final InputStream inputStream = new FileInputStream(file);
+
+    try
+    {
+      Util.copy(inputStream, _zipOutputStream);
+    }
+    finally
+    {
+      inputStream.close();
+    }
+
+    closeEntry();
+    writeLobAreaSegment(LOB_AREA_SEGMENT_SIZE);
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p/>
+   * The content is compressed into a buffer file of the caller first, so concurrent workers hold the lock only while the compressed
+   * data is appended to the LOB area. The buffer files are reused.
+   */
+  @Override
+  public long addLob(final byte[] digest, final InputStream content, final long length) throws IOException
+  {
+    final ByteBuffer key = ByteBuffer.wrap(digest);
+    final Long knownOffset = getLobOffset(key);
+
+    if (knownOffset != null)
+    {
+      return knownOffset;
+    }
+
+    final LobSpillFile compressedContent = takeCompressionBuffer();
+
+    try
+    {
+      deflate(content, compressedContent);
+
+      synchronized (this)
+      {
+        // May have been stored by another worker in the meantime
+        final Long offset = _lobOffsets.get(key);
+
+        if (offset != null)
+        {
+          return offset;
+        }
+
+        final long result = _lobAreaSegmentOffset + _lobAreaSegment.size();
+        _lobAreaSegment.append(compressedContent, _lobAreaSegmentCrc);
+        _lobOffsets.put(key, result);
+        return result;
+      }
+    }
+    finally
     {
-      _objectOutputStream.reset();
-      _objectOutputStream.flush();
+      releaseCompressionBuffer(compressedContent);
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
   @Override
-  public void writeObject(final Object obj) throws IOException
+  protected DumpLobArea getDumpLobArea()
+  {
+    return this;
+  }
+
+  /**
+   * Write index of the chunks a table's data consists of.
+   */
+  public synchronized void writeChunkIndex(final TableMetaData tableMetaData, final DumpChunkIndex dumpChunkIndex) throws IOException
   {
-    _objectOutputStream.writeObject(obj);
+    newEntry(ZipConstants.PREFIX + tableMetaData.getTableName() + ZipConstants.PATH_SEPARATOR + ZipConstants.CHUNK_INDEX_NAME);
+    _zipOutputStream.write(Util.toByteArray(dumpChunkIndex));
+    closeEntry();
+    writeLobAreaSegment(LOB_AREA_SEGMENT_SIZE);
+  }
+
+  /**
+   * @return name of ZIP entry containing the given chunk of a table. The first chunk is named like the entry containing the whole
+   * table data in older versions.
+   */
+  static String getTableDataEntryName(final String tableName, final int chunkNumber)
+  {
+    final String result = ZipConstants.PREFIX + tableName + ZipConstants.PATH_SEPARATOR + ZipConstants.TABLE_DATA_NAME;
+
+    return chunkNumber == 0 ? result : result + "-" + chunkNumber;
+  }
+
+  /**
+   * @return name of ZIP entry containing the given segment of the LOB area. The first segment is named like the entry containing the
+   * whole LOB area in older versions.
+   */
+  static String getLobAreaEntryName(final int segmentNumber)
+  {
+    return segmentNumber == 0 ? ZipConstants.LOB_AREA : ZipConstants.LOB_AREA + "-" + segmentNumber;
+  }
+
+  private synchronized Long getLobOffset(final ByteBuffer key)
+  {
+    return _lobOffsets.get(key);
+  }
+
+  private synchronized LobSpillFile takeCompressionBuffer()
+  {
+    return _idleCompressionBuffers.isEmpty() ? new LobSpillFile()
+            : _idleCompressionBuffers.remove(_idleCompressionBuffers.size() - 1);
+  }
+
+  private synchronized void releaseCompressionBuffer(final LobSpillFile compressionBuffer) throws IOException
+  {
+    compressionBuffer.truncate();
+    _idleCompressionBuffers.add(compressionBuffer);
+  }
+
+  private static void deflate(final InputStream content, final LobSpillFile compressedContent) throws IOException
+  {
+    final Deflater deflater = new Deflater();
+    final OutputStream outputStream = new DeflaterOutputStream(new OutputStream()
+    {
+      @Override
+      public void write(final int b) throws IOException
+      {
+        write(new byte[]{(byte) b}, 0, 1);
+      }
+
+      @Override
+      public void write(final byte[] b, final int off, final int len) throws IOException
+      {
+        compressedContent.write(b, off, len);
+      }
+    }, deflater, DumpRowFormat.CHUNK_SIZE);
+
+    try
+    {
+      Util.copy(content, outputStream);
+      outputStream.close();
+    }
+    finally
+    {
+      deflater.end();
+    }
+  }
+
+  private void openChunk(final TableMetaData tableMetaData) throws IOException
+  {
+    newEntry(getTableDataEntryName(tableMetaData.getTableName(), getChunkNumber()));
+
+    // Must not be closed, since that would close the ZIP file, too
+    _tableDataOutputStream = new BufferedOutputStream(_zipOutputStream, DumpRowFormat.CHUNK_SIZE);
+    openDumpRowWriter(_tableDataOutputStream);
+  }
+
+  private void closeChunk() throws IOException
+  {
+    closeDumpRowWriter();
+    _tableDataOutputStream.flush();
+    closeEntry();
+
+    _tableDataOutputStream = null;
+    writeLobAreaSegment(LOB_AREA_SEGMENT_SIZE);
+  }
+
+  /**
+   * Write the staged segment of the LOB area into its own ZIP entry, if it has reached the given size. Must only be called when no
+   * other entry is open. The LOB area is not compressed again, so the LOBs can be read by skipping to their offset. The CRC has been
+   * computed while the segment was filled, i.e. the segment is read only once.
+   */
+  private synchronized void writeLobAreaSegment(final long minimumSize) throws IOException
+  {
+    final long size = _lobAreaSegment.size();
+
+    if (size > 0 && size >= minimumSize)
+    {
+      final ZipEntry zipEntry = new ZipEntry(getLobAreaEntryName(_lobAreaSegmentNumber));
+      zipEntry.setMethod(ZipEntry.STORED);
+      zipEntry.setSize(size);
+      zipEntry.setCompressedSize(size);
+      zipEntry.setCrc(_lobAreaSegmentCrc.getValue());
+
+      _zipOutputStream.putNextEntry(zipEntry);
+      Util.copy(_lobAreaSegment.getInputStream(0, size), _zipOutputStream);
+      closeEntry();
+
+      _lobAreaSegmentOffset += size;
+      _lobAreaSegmentNumber++;
+      _lobAreaSegment.truncate();
+      _lobAreaSegmentCrc.reset();
+    }
+  }
+
+  private void deleteLobArea() throws IOException
+  {
+    _lobAreaSegment.delete();
+
+    for (final LobSpillFile compressionBuffer : _idleCompressionBuffers)
+    {
+      compressionBuffer.delete();
+    }
+
+    _idleCompressionBuffers.clear();
+    _lobOffsets.clear();
+    _lobAreaSegmentOffset = 0;
+    _lobAreaSegmentNumber = 0;
   }
 
   private void writeIndexEntries(final TableMetaData tableMetaData) throws IOException
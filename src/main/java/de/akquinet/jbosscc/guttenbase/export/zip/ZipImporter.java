@@ -1,8 +1,15 @@
 package de.akquinet.jbosscc.guttenbase.export.zip;
 
+import de.akquinet.jbosscc.guttenbase.export.AbstractImporter;
+import de.akquinet.jbosscc.guttenbase.export.ChunkedImporter;
+import de.akquinet.jbosscc.guttenbase.export.DumpChunkIndex;
+import de.akquinet.jbosscc.guttenbase.export.DumpRowFormat;
+import de.akquinet.jbosscc.guttenbase.export.DumpRowReader;
 import de.akquinet.jbosscc.guttenbase.export.ImportDumpConnectionInfo;
 import de.akquinet.jbosscc.guttenbase.export.ImportDumpExtraInformation;
-import de.akquinet.jbosscc.guttenbase.export.Importer;
+import de.akquinet.jbosscc.guttenbase.export.InlineLobSize;
+import de.akquinet.jbosscc.guttenbase.export.LobSpillFile;
+import de.akquinet.jbosscc.guttenbase.export.LobStorage;
 import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
 import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
@@ -11,14 +18,19 @@ import org.apache.commons.io.IOUtils;
 
 import java.io.*;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
 /**
- * Read database information and data from ZIP file.
+ * Read database information and data from ZIP file. Table data written in chunks is read chunk by chunk, reading may also start at
+ * any chunk.
  * <p/>
  * <p>
  * &copy; 2012-2020 akquinet tech@spree
@@ -26,10 +38,18 @@ import java.util.zip.ZipFile;
  *
  * @author M. Dahm
  */
-public class ZipImporter implements Importer
+public class ZipImporter extends AbstractImporter implements ChunkedImporter
 {
   private ZipFile _zipFile;
+  private InputStream _tableDataInputStream;
+  private DumpRowReader _dumpRowReader;
   private ObjectInputStream _objectInputStream;
+  private TableMetaData _tableMetaData;
+  private DumpChunkIndex _dumpChunkIndex;
+  private int _chunkNumber;
+  private final LobSpillFile _lobSpillFile = new LobSpillFile();
+  private int _maximumInlineLobSize;
+  private LobStorage _lobArea;
   private ConnectorRepository _connectorRepository;
   private String _connectorId;
 
@@ -60,6 +80,18 @@ public class ZipImporter implements Importer
     _connectorRepository = connectorRepository;
     _connectorId = connectorId;
     _zipFile = new ZipFile(file);
+    _maximumInlineLobSize = connectorRepository.getConnectorHint(connectorId, InlineLobSize.class).getValue()
+            .getMaximumInlineLobSize();
+
+    final List<ZipEntry> lobAreaSegments = new ArrayList<ZipEntry>();
+
+    for (ZipEntry zipEntry = _zipFile.getEntry(ZipExporter.getLobAreaEntryName(0)); zipEntry != null;
+         zipEntry = _zipFile.getEntry(ZipExporter.getLobAreaEntryName(lobAreaSegments.size())))
+    {
+      lobAreaSegments.add(zipEntry);
+    }
+
+    _lobArea = lobAreaSegments.isEmpty() ? null : new ZipLobArea(lobAreaSegments);
   }
 
   @Override
@@ -67,6 +99,8 @@ public class ZipImporter implements Importer
   {
     _zipFile.close();
     _zipFile = null;
+    _lobArea = null;
+    _lobSpillFile.delete();
   }
 
   @Override
@@ -90,23 +124,168 @@ public class ZipImporter implements Importer
   @Override
   public Object readObject() throws Exception
   {
-    return _objectInputStream.readObject();
+    final DumpRowReader dumpRowReader = getDumpRowReader();
+
+    return dumpRowReader != null ? dumpRowReader.readObject() : _objectInputStream.readObject();
+  }
+
+  @Override
+  public void skipObject() throws Exception
+  {
+    final DumpRowReader dumpRowReader = getDumpRowReader();
+
+    if (dumpRowReader != null)
+    {
+      dumpRowReader.skipObject();
+    }
+    else
+    {
+      _objectInputStream.readObject();
+    }
+  }
+
+  /**
+   * Continue with the next chunk once the current one has been read completely.
+   */
+  @Override
+  protected DumpRowReader getDumpRowReader() throws IOException
+  {
+    if (_dumpRowReader != null && isChunkExhausted())
+    {
+      openChunk(_chunkNumber + 1);
+    }
+
+    return _dumpRowReader;
   }
 
   @Override
   public void seekTableHeader(final TableMetaData tableMetaData) throws Exception
   {
-    if (_objectInputStream != null)
+    _tableMetaData = tableMetaData;
+    _dumpChunkIndex = readChunkIndex(tableMetaData);
+
+    openChunk(0);
+  }
+
+  @Override
+  public DumpChunkIndex getChunkIndex(final TableMetaData tableMetaData) throws Exception
+  {
+    return _tableMetaData != null && _tableMetaData.equals(tableMetaData) ? _dumpChunkIndex : readChunkIndex(tableMetaData);
+  }
+
+  @Override
+  public void seekChunk(final TableMetaData tableMetaData, final int chunkNumber) throws Exception
+  {
+    if (_tableMetaData == null || !_tableMetaData.equals(tableMetaData))
+    {
+      seekTableHeader(tableMetaData);
+    }
+
+    if (_dumpChunkIndex == null ? chunkNumber != 0 : chunkNumber < 0 || chunkNumber >= _dumpChunkIndex.getChunks().size())
+    {
+      throw new IllegalArgumentException("Invalid chunk " + chunkNumber + " for " + tableMetaData);
+    }
+
+    if (chunkNumber != _chunkNumber || _dumpRowReader == null || _dumpRowReader.getNumberOfRows() > 0
+            || _dumpRowReader.isRowStarted())
     {
-      _objectInputStream.close();
+      openChunk(chunkNumber);
     }
+  }
 
+  /**
+   * The current chunk has been read completely and there are more chunks to read.
+   */
+  private boolean isChunkExhausted() throws IOException
+  {
+    return _dumpChunkIndex != null && _chunkNumber + 1 < _dumpChunkIndex.getChunks().size() && !_dumpRowReader.hasNextRow();
+  }
+
+  private DumpChunkIndex readChunkIndex(final TableMetaData tableMetaData) throws Exception
+  {
     final ZipEntry zipEntry = _zipFile.getEntry(ZipConstants.PREFIX + tableMetaData.getTableName() + ZipConstants.PATH_SEPARATOR
-            + ZipConstants.TABLE_DATA_NAME);
+            + ZipConstants.CHUNK_INDEX_NAME);
+
+    if (zipEntry == null) // Written by older version
+    {
+      return null;
+    }
+
+    final InputStream inputStream = _zipFile.getInputStream(zipEntry);
+
+    try
+    {
+      return Util.fromInputStream(DumpChunkIndex.class, inputStream);
+    }
+    finally
+    {
+      inputStream.close();
+    }
+  }
+
+  private void openChunk(final int chunkNumber) throws IOException
+  {
+    if (_tableDataInputStream != null)
+    {
+      _tableDataInputStream.close();
+    }
+
+    final ZipEntry zipEntry = _zipFile.getEntry(ZipExporter.getTableDataEntryName(_tableMetaData.getTableName(), chunkNumber));
 
     assert zipEntry != null : "zipEntry != null";
 
-    _objectInputStream = new ObjectInputStream(_zipFile.getInputStream(zipEntry));
+    _chunkNumber = chunkNumber;
+
+    _tableDataInputStream = new BufferedInputStream(_zipFile.getInputStream(zipEntry));
+
+    if (isCompressed(_tableDataInputStream)) // Written by ZipWorkerExporter
+    {
+      _tableDataInputStream = new BufferedInputStream(new GZIPInputStream(_tableDataInputStream, DumpRowFormat.CHUNK_SIZE));
+    }
+
+    _dumpRowReader = null;
+    _objectInputStream = null;
+
+    if (isBinaryRowFormat(_tableDataInputStream))
+    {
+      _dumpRowReader = new DumpRowReader(_tableDataInputStream, _lobSpillFile, _maximumInlineLobSize, _lobArea);
+    }
+    else // Written by older version
+    {
+      _objectInputStream = new ObjectInputStream(_tableDataInputStream);
+    }
+  }
+
+  private static boolean isCompressed(final InputStream inputStream) throws IOException
+  {
+    inputStream.mark(2);
+
+    try
+    {
+      return inputStream.read() == (GZIPInputStream.GZIP_MAGIC & 0xFF) && inputStream.read() == (GZIPInputStream.GZIP_MAGIC >> 8);
+    }
+    finally
+    {
+      inputStream.reset();
+    }
+  }
+
+  private static boolean isBinaryRowFormat(final InputStream inputStream) throws IOException
+  {
+    inputStream.mark(4);
+
+    try
+    {
+      return DumpRowFormat.isMagic(new DataInputStream(inputStream).readInt());
+    }
+    catch (final EOFException e)
+    {
+      return false;
+    }
+    finally
+    {
+      inputStream.reset();
+    }
   }
 
   private void readExtraInformation() throws Exception
@@ -135,4 +314,132 @@ public class ZipImporter implements Importer
 
     importDumpExtraInformation.processExtraInformation(extraInformation);
   }
+
+  /**
+   * The LOB area entries are stored without compression, so skipping to an offset does not need to read the data in front of it.
+   * Every LOB is deflated on its own and lies within a single segment of the area.
+   */
+  private final class ZipLobArea implements LobStorage
+  {
+    private final List<ZipEntry> _segments;
+    private final long[] _segmentOffsets;
+
+    private ZipLobArea(final List<ZipEntry> segments)
+    {
+      _segments = segments;
+      _segmentOffsets = new long[segments.size()];
+
+      for (int i = 1; i < segments.size(); i++)
+      {
+        _segmentOffsets[i] = _segmentOffsets[i - 1] + segments.get(i - 1).getSize();
+      }
+    }
+
+    @Override
+    public InputStream getInputStream(final long offset, final long length) throws IOException
+    {
+      int segmentNumber = _segments.size() - 1;
+
+      while (segmentNumber > 0 && _segmentOffsets[segmentNumber] > offset)
+      {
+        segmentNumber--;
+      }
+
+      final InputStream inputStream = _zipFile.getInputStream(_segments.get(segmentNumber));
+      IOUtils.skipFully(inputStream, offset - _segmentOffsets[segmentNumber]);
+
+      return new LobInputStream(new InflaterInputStream(inputStream), length);
+    }
+  }
+
+  /**
+   * Reads the given number of bytes and releases the inflater and the ZIP entry stream as soon as the content has been read
+   * completely. Consumers usually close LOBs only after the whole batch has been executed.
+   */
+  private static final class LobInputStream extends FilterInputStream
+  {
+    private final byte[] _singleByte = new byte[1];
+    private long _remaining;
+    private boolean _closed;
+
+    private LobInputStream(final InputStream inputStream, final long length)
+    {
+      super(inputStream);
+      _remaining = length;
+    }
+
+    @Override
+    public int read() throws IOException
+    {
+      return read(_singleByte, 0, 1) < 0 ? -1 : _singleByte[0] & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException
+    {
+      if (len == 0)
+      {
+        return 0;
+      }
+
+      if (_remaining <= 0)
+      {
+        close();
+        return -1;
+      }
+
+      final int n = super.read(b, off, (int) Math.min(len, _remaining));
+
+      if (n < 0)
+      {
+        close();
+        return -1;
+      }
+
+      _remaining -= n;
+
+      if (_remaining == 0)
+      {
+        close();
+      }
+
+      return n;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException
+    {
+      if (_remaining <= 0)
+      {
+        return 0;
+      }
+
+      final long skipped = super.skip(Math.min(n, _remaining));
+
+      _remaining -= skipped;
+      return skipped;
+    }
+
+    @Override
+    public int available() throws IOException
+    {
+      return _closed ? 0 : (int) Math.min(super.available(), _remaining);
+    }
+
+    @Override
+    public boolean markSupported()
+    {
+      return false;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+      if (!_closed)
+      {
+        _closed = true;
+        super.close();
+      }
+    }
+  }
 }
@@ -0,0 +1,196 @@
+package de.akquinet.jbosscc.guttenbase.export.zip;
+
+import de.akquinet.jbosscc.guttenbase.exceptions.ExportException;
+import de.akquinet.jbosscc.guttenbase.export.AbstractExporter;
+import de.akquinet.jbosscc.guttenbase.export.DumpLobArea;
+import de.akquinet.jbosscc.guttenbase.export.DumpRowFormat;
+import de.akquinet.jbosscc.guttenbase.export.ExportDumpConnectorInfo;
+import de.akquinet.jbosscc.guttenbase.export.ExportTableHeader;
+import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.SQLException;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes each chunk of table data into a gzip compressed temporary file, so that several tables can be compressed by different threads at
+ * the same time. When the table is finished, the compressed data is added to the ZIP file of the {@link ZipExporter} as is.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class ZipWorkerExporter extends AbstractExporter
+{
+  private final ZipExporter _zipExporter;
+  private final ConnectorRepository _connectorRepository;
+  private final String _connectorId;
+  private File _tempFile;
+  private CRC32 _crc;
+  private OutputStream _tableDataOutputStream;
+
+  public ZipWorkerExporter(final ZipExporter zipExporter, final ConnectorRepository connectorRepository, final String connectorId)
+  {
+    assert zipExporter != null : "zipExporter != null";
+    assert connectorRepository != null : "connectorRepository != null";
+    assert connectorId != null : "connectorId != null";
+
+    _zipExporter = zipExporter;
+    _connectorRepository = connectorRepository;
+    _connectorId = connectorId;
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p/>
+   * Nothing to initialize, the worker has been configured by the {@link ZipExporter} that created it and writes into its ZIP file.
+   */
+  @Override
+  public void initializeExport(final ConnectorRepository connectorRepository, final String connectorId,
+                               final ExportDumpConnectorInfo exportDumpConnectionInfo)
+  {
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p/>
+   * Close and delete the temporary file of an unfinished chunk, e.g. if the export of a table failed. The ZIP file is finished by
+   * the {@link ZipExporter}.
+   */
+  @Override
+  public void finishExport() throws IOException
+  {
+    if (_tempFile != null)
+    {
+      _tableDataOutputStream.close();
+      _tempFile.delete();
+      _tempFile = null;
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p/>
+   * Ignored, the ZIP entries of the table data are named after the table instead.
+   */
+  @Override
+  public void writeTableHeader(final ExportTableHeader exportTableHeader)
+  {
+  }
+
+  /**
+   * Not supported, the schema information is written by the {@link ZipExporter}.
+   *
+   * @throws ExportException always
+   */
+  @Override
+  public void writeDatabaseMetaData(final DatabaseMetaData sourceDatabaseMetaData) throws ExportException
+  {
+    throw new ExportException("Schema information must be written by the ZipExporter, not by one of its workers");
+  }
+
+  @Override
+  public void initializeWriteTableData(final TableMetaData tableMetaData) throws IOException, SQLException
+  {
+    initializeTableData(_connectorRepository, _connectorId, tableMetaData);
+    openChunk();
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p/>
+   * Add the last chunk and the chunk index to the ZIP file.
+   */
+  @Override
+  public void finalizeWriteTableData(final TableMetaData tableMetaData) throws IOException
+  {
+    closeChunk(tableMetaData);
+    _zipExporter.writeChunkIndex(tableMetaData, getDumpChunkIndex());
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p/>
+   * Add the current chunk to the ZIP file if it is complete.
+   */
+  @Override
+  public void initializeWriteRowData(final TableMetaData table) throws IOException
+  {
+    if (isChunkComplete())
+    {
+      closeChunk(table);
+      openChunk();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p/>
+   * Nothing to do, complete chunks are added to the ZIP file before the next row is written, see
+   * {@link #initializeWriteRowData(TableMetaData)}.
+   */
+  @Override
+  public void finalizeWriteRowData(final TableMetaData table)
+  {
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p/>
+   * LOBs are shared by all workers.
+   */
+  @Override
+  protected DumpLobArea getDumpLobArea()
+  {
+    return _zipExporter;
+  }
+
+  private void openChunk() throws IOException
+  {
+    _tempFile = File.createTempFile("GB-JAR-", ".gz");
+    _tempFile.deleteOnExit();
+    _crc = new CRC32();
+
+    final OutputStream outputStream = new CheckedOutputStream(new BufferedOutputStream(new FileOutputStream(_tempFile)), _crc);
+    _tableDataOutputStream = new BufferedOutputStream(new GZIPOutputStream(outputStream, DumpRowFormat.CHUNK_SIZE),
+        DumpRowFormat.CHUNK_SIZE);
+    openDumpRowWriter(_tableDataOutputStream);
+  }
+
+  private void closeChunk(final TableMetaData tableMetaData) throws IOException
+  {
+    final int chunkNumber = getChunkNumber();
+
+    closeDumpRowWriter();
+    _tableDataOutputStream.close();
+
+    try
+    {
+      _zipExporter.addCompressedTableData(tableMetaData, chunkNumber, _tempFile, _crc.getValue());
+    }
+    finally
+    {
+      _tempFile.delete();
+      _tempFile = null;
+      _tableDataOutputStream = null;
+    }
+  }
+
+  @Override
+  public void flush() throws IOException
+  {
+    if (_tableDataOutputStream != null)
+    {
+      _tableDataOutputStream.flush();
+    }
+  }
+}
@@ -0,0 +1,24 @@
+package de.akquinet.jbosscc.guttenbase.hints;
+
+import de.akquinet.jbosscc.guttenbase.connector.impl.AbstractConnector;
+import de.akquinet.jbosscc.guttenbase.repository.DatabaseMetaDataCache;
+
+/**
+ * Where to keep the meta data of a data base between processes?
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @Applicable-For-Source
+ * @Applicable-For-Target
+ * @Hint-Used-By {@link AbstractConnector} to use meta data cached by a previous process
+ */
+public abstract class DatabaseMetaDataCacheHint implements ConnectorHint<DatabaseMetaDataCache>
+{
+  @Override
+  public final Class<DatabaseMetaDataCache> getConnectorHintType()
+  {
+    return DatabaseMetaDataCache.class;
+  }
+}
@@ -0,0 +1,25 @@
+package de.akquinet.jbosscc.guttenbase.hints;
+
+import de.akquinet.jbosscc.guttenbase.repository.DatabaseMetaDataParallelism;
+import de.akquinet.jbosscc.guttenbase.repository.impl.DatabaseMetaDataInspectorTool;
+
+/**
+ * Number of connections used to inspect the tables of a data base. The data base must be able to handle the additional connections,
+ * of course.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @Applicable-For-Source
+ * @Applicable-For-Target
+ * @Hint-Used-By {@link DatabaseMetaDataInspectorTool} to retrieve table information over several connections
+ */
+public abstract class DatabaseMetaDataParallelismHint implements ConnectorHint<DatabaseMetaDataParallelism>
+{
+  @Override
+  public final Class<DatabaseMetaDataParallelism> getConnectorHintType()
+  {
+    return DatabaseMetaDataParallelism.class;
+  }
+}
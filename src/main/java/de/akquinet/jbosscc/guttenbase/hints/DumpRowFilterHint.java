@@ -0,0 +1,23 @@
+package de.akquinet.jbosscc.guttenbase.hints;
+
+import de.akquinet.jbosscc.guttenbase.export.DumpRowFilter;
+import de.akquinet.jbosscc.guttenbase.export.ImportDumpConnector;
+
+/**
+ * Select the rows of a table to be imported from a dump.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @Applicable-For-Source
+ * @Hint-Used-By {@link ImportDumpConnector} to skip rows and chunks while reading the dump
+ */
+public abstract class DumpRowFilterHint implements ConnectorHint<DumpRowFilter>
+{
+  @Override
+  public final Class<DumpRowFilter> getConnectorHintType()
+  {
+    return DumpRowFilter.class;
+  }
+}
@@ -0,0 +1,23 @@
+package de.akquinet.jbosscc.guttenbase.hints;
+
+import de.akquinet.jbosscc.guttenbase.export.GzipCompression;
+import de.akquinet.jbosscc.guttenbase.export.plain.PlainGzipExporter;
+
+/**
+ * Compression level, block size and number of threads used to compress a plain gzip dump.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @Applicable-For-Target
+ * @Hint-Used-By {@link PlainGzipExporter} to compress the dump concurrently
+ */
+public abstract class GzipCompressionHint implements ConnectorHint<GzipCompression>
+{
+  @Override
+  public final Class<GzipCompression> getConnectorHintType()
+  {
+    return GzipCompression.class;
+  }
+}
@@ -0,0 +1,24 @@
+package de.akquinet.jbosscc.guttenbase.hints;
+
+import de.akquinet.jbosscc.guttenbase.export.AbstractExporter;
+import de.akquinet.jbosscc.guttenbase.export.InlineLobSize;
+
+/**
+ * Maximum size of BLOBs, CLOBs and XML values kept in memory when writing or reading a dump.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @Applicable-For-Source
+ * @Applicable-For-Target
+ * @Hint-Used-By {@link AbstractExporter} and the importers to decide whether a LOB is spilled to disk
+ */
+public abstract class InlineLobSizeHint implements ConnectorHint<InlineLobSize>
+{
+  @Override
+  public final Class<InlineLobSize> getConnectorHintType()
+  {
+    return InlineLobSize.class;
+  }
+}
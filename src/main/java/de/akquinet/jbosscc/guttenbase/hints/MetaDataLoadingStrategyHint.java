@@ -0,0 +1,24 @@
+package de.akquinet.jbosscc.guttenbase.hints;
+
+import de.akquinet.jbosscc.guttenbase.repository.MetaDataLoadingStrategy;
+import de.akquinet.jbosscc.guttenbase.repository.impl.DatabaseMetaDataInspectorTool;
+
+/**
+ * Determine whether the details of a table are read up front or when they are accessed.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @Applicable-For-Source
+ * @Applicable-For-Target
+ * @Hint-Used-By {@link DatabaseMetaDataInspectorTool} to read table details eagerly or lazily
+ */
+public abstract class MetaDataLoadingStrategyHint implements ConnectorHint<MetaDataLoadingStrategy>
+{
+  @Override
+  public final Class<MetaDataLoadingStrategy> getConnectorHintType()
+  {
+    return MetaDataLoadingStrategy.class;
+  }
+}
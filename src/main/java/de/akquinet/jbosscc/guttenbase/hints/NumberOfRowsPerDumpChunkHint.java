@@ -0,0 +1,23 @@
+package de.akquinet.jbosscc.guttenbase.hints;
+
+import de.akquinet.jbosscc.guttenbase.export.NumberOfRowsPerDumpChunk;
+import de.akquinet.jbosscc.guttenbase.export.zip.ZipExporter;
+
+/**
+ * Number of rows written into a single independently decodable chunk of a dump.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @Applicable-For-Target
+ * @Hint-Used-By {@link ZipExporter} to split table data into chunks
+ */
+public abstract class NumberOfRowsPerDumpChunkHint implements ConnectorHint<NumberOfRowsPerDumpChunk>
+{
+  @Override
+  public final Class<NumberOfRowsPerDumpChunk> getConnectorHintType()
+  {
+    return NumberOfRowsPerDumpChunk.class;
+  }
+}
@@ -0,0 +1,23 @@
+package de.akquinet.jbosscc.guttenbase.hints;
+
+import de.akquinet.jbosscc.guttenbase.tools.ParallelSplitByRangeTableCopyTool;
+import de.akquinet.jbosscc.guttenbase.tools.RangeCopyParallelism;
+
+/**
+ * How many ranges of a single table will be copied at the same time by the {@link ParallelSplitByRangeTableCopyTool}?
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @Applicable-For-Target
+ * @Hint-Used-By {@link ParallelSplitByRangeTableCopyTool} to determine number of workers per table
+ */
+public abstract class RangeCopyParallelismHint implements ConnectorHint<RangeCopyParallelism>
+{
+  @Override
+  public final Class<RangeCopyParallelism> getConnectorHintType()
+  {
+    return RangeCopyParallelism.class;
+  }
+}
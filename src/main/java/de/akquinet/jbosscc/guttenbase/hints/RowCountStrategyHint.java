@@ -0,0 +1,24 @@
+package de.akquinet.jbosscc.guttenbase.hints;
+
+import de.akquinet.jbosscc.guttenbase.repository.RowCountStrategy;
+import de.akquinet.jbosscc.guttenbase.repository.impl.DatabaseMetaDataInspectorTool;
+
+/**
+ * Determine how the number of rows of a table is computed.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @Applicable-For-Source
+ * @Applicable-For-Target
+ * @Hint-Used-By {@link DatabaseMetaDataInspectorTool} to count rows exactly, estimate or defer counting
+ */
+public abstract class RowCountStrategyHint implements ConnectorHint<RowCountStrategy>
+{
+  @Override
+  public final Class<RowCountStrategy> getConnectorHintType()
+  {
+    return RowCountStrategy.class;
+  }
+}
@@ -21,6 +21,7 @@ import de.akquinet.jbosscc.guttenbase.tools.SplitColumn;
  * @Hint-Used-By {@link SplitByColumnSelectMinMaxStatementCreator}
  * @Hint-Used-By {@link SplitByColumnSelectStatementCreator}
  * @Hint-Used-By {@link SplitByRangeTableCopyTool}
+ * @Hint-Used-By {@link de.akquinet.jbosscc.guttenbase.defaults.impl.EqualCardinalitySplitRangePlanner}
  * 
  * @author M. Dahm
  */
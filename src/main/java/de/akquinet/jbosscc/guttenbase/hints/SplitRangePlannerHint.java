@@ -0,0 +1,25 @@
+package de.akquinet.jbosscc.guttenbase.hints;
+
+import de.akquinet.jbosscc.guttenbase.tools.ParallelSplitByRangeTableCopyTool;
+import de.akquinet.jbosscc.guttenbase.tools.SplitByRangeTableCopyTool;
+import de.akquinet.jbosscc.guttenbase.tools.SplitRangePlanner;
+
+/**
+ * Determine how the range of values of the split column is divided into ranges.
+ * 
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ * 
+ * @Applicable-For-Source
+ * @Hint-Used-By {@link SplitByRangeTableCopyTool}
+ * @Hint-Used-By {@link ParallelSplitByRangeTableCopyTool}
+ * 
+ * @author M. Dahm
+ */
+public abstract class SplitRangePlannerHint implements ConnectorHint<SplitRangePlanner> {
+  @Override
+  public final Class<SplitRangePlanner> getConnectorHintType() {
+    return SplitRangePlanner.class;
+  }
+}
@@ -0,0 +1,26 @@
+package de.akquinet.jbosscc.guttenbase.hints;
+
+import de.akquinet.jbosscc.guttenbase.tools.AbstractTableCopyTool;
+import de.akquinet.jbosscc.guttenbase.tools.TableCopyCheckpoint;
+
+/**
+ * Where to record the progress of a copy, so that it may be resumed after a failure? The hint must return the same instance on
+ * every call.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @Applicable-For-Target
+ * @Hint-Used-By {@link AbstractTableCopyTool} to skip tables already copied
+ * @Hint-Used-By {@link de.akquinet.jbosscc.guttenbase.tools.KeysetPaginationTableCopyTool} to continue after the last copied key
+ * @Hint-Used-By {@link de.akquinet.jbosscc.guttenbase.tools.SplitByRangeTableCopyTool} to skip ranges already copied
+ */
+public abstract class TableCopyCheckpointHint implements ConnectorHint<TableCopyCheckpoint>
+{
+  @Override
+  public final Class<TableCopyCheckpoint> getConnectorHintType()
+  {
+    return TableCopyCheckpoint.class;
+  }
+}
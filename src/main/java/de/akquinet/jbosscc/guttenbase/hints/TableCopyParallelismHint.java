@@ -0,0 +1,29 @@
+package de.akquinet.jbosscc.guttenbase.hints;
+
+import de.akquinet.jbosscc.guttenbase.tools.AbstractTableCopyTool;
+import de.akquinet.jbosscc.guttenbase.tools.TableCopyParallelism;
+
+/**
+ * How many tables will be copied at the same time? Copying tables in parallel reduces the time spent waiting for round trips, since
+ * both data base servers are otherwise mostly idle.
+ * <p>
+ * The data base must be able to handle the additional connections, of course. Tables cannot be read from dumps in parallel,
+ * exporting to a dump in parallel requires a {@link de.akquinet.jbosscc.guttenbase.export.ConcurrentExporter} such as the ZIP
+ * exporter.
+ * </p>
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @Applicable-For-Target
+ * @Hint-Used-By {@link AbstractTableCopyTool} to determine number of tables copied in parallel
+ */
+public abstract class TableCopyParallelismHint implements ConnectorHint<TableCopyParallelism>
+{
+  @Override
+  public final Class<TableCopyParallelism> getConnectorHintType()
+  {
+    return TableCopyParallelism.class;
+  }
+}
@@ -0,0 +1,24 @@
+package de.akquinet.jbosscc.guttenbase.hints;
+
+import de.akquinet.jbosscc.guttenbase.tools.DefaultTableCopyTool;
+import de.akquinet.jbosscc.guttenbase.tools.TableCopyPipeline;
+
+/**
+ * Read from source and write to target at the same time? Reading and writing then overlap, which is useful when the latency of
+ * either data base is high.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @Applicable-For-Target
+ * @Hint-Used-By {@link DefaultTableCopyTool} to determine number of batches read ahead
+ */
+public abstract class TableCopyPipelineHint implements ConnectorHint<TableCopyPipeline>
+{
+  @Override
+  public final Class<TableCopyPipeline> getConnectorHintType()
+  {
+    return TableCopyPipeline.class;
+  }
+}
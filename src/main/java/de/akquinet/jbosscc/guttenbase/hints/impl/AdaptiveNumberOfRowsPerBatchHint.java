@@ -0,0 +1,29 @@
+package de.akquinet.jbosscc.guttenbase.hints.impl;
+
+import de.akquinet.jbosscc.guttenbase.hints.NumberOfRowsPerBatchHint;
+import de.akquinet.jbosscc.guttenbase.tools.AdaptiveNumberOfRowsPerBatch;
+import de.akquinet.jbosscc.guttenbase.tools.NumberOfRowsPerBatch;
+
+/**
+ * Always returns the same {@link AdaptiveNumberOfRowsPerBatch} instance, so that measured latencies are kept between tables and
+ * batches.
+ * 
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ * 
+ * @author M. Dahm
+ */
+public class AdaptiveNumberOfRowsPerBatchHint extends NumberOfRowsPerBatchHint {
+	private final AdaptiveNumberOfRowsPerBatch _numberOfRowsPerBatch;
+
+	public AdaptiveNumberOfRowsPerBatchHint(final AdaptiveNumberOfRowsPerBatch numberOfRowsPerBatch) {
+		assert numberOfRowsPerBatch != null : "numberOfRowsPerBatch != null";
+		_numberOfRowsPerBatch = numberOfRowsPerBatch;
+	}
+
+	@Override
+	public NumberOfRowsPerBatch getValue() {
+		return _numberOfRowsPerBatch;
+	}
+}
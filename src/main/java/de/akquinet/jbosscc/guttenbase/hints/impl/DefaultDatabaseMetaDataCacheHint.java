@@ -0,0 +1,22 @@
+package de.akquinet.jbosscc.guttenbase.hints.impl;
+
+import de.akquinet.jbosscc.guttenbase.defaults.impl.NoDatabaseMetaDataCache;
+import de.akquinet.jbosscc.guttenbase.hints.DatabaseMetaDataCacheHint;
+import de.akquinet.jbosscc.guttenbase.repository.DatabaseMetaDataCache;
+
+/**
+ * By default meta data is not cached between processes.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class DefaultDatabaseMetaDataCacheHint extends DatabaseMetaDataCacheHint
+{
+  @Override
+  public DatabaseMetaDataCache getValue()
+  {
+    return new NoDatabaseMetaDataCache();
+  }
+}
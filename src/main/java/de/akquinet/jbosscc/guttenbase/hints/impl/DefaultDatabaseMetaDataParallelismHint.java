@@ -0,0 +1,28 @@
+package de.akquinet.jbosscc.guttenbase.hints.impl;
+
+import de.akquinet.jbosscc.guttenbase.hints.DatabaseMetaDataParallelismHint;
+import de.akquinet.jbosscc.guttenbase.repository.DatabaseMetaDataParallelism;
+
+/**
+ * By default tables are inspected over a single connection.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class DefaultDatabaseMetaDataParallelismHint extends DatabaseMetaDataParallelismHint
+{
+  @Override
+  public DatabaseMetaDataParallelism getValue()
+  {
+    return new DatabaseMetaDataParallelism()
+    {
+      @Override
+      public int getNumberOfConnections()
+      {
+        return 1;
+      }
+    };
+  }
+}
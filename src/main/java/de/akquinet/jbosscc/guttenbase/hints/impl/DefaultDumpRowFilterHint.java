@@ -0,0 +1,44 @@
+package de.akquinet.jbosscc.guttenbase.hints.impl;
+
+import de.akquinet.jbosscc.guttenbase.export.DumpRowFilter;
+import de.akquinet.jbosscc.guttenbase.hints.DumpRowFilterHint;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * By default all rows are imported.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class DefaultDumpRowFilterHint extends DumpRowFilterHint
+{
+  @Override
+  public DumpRowFilter getValue()
+  {
+    return new DumpRowFilter()
+    {
+      @Override
+      public List<String> getKeyColumns(final TableMetaData tableMetaData)
+      {
+        return Collections.emptyList();
+      }
+
+      @Override
+      public boolean mayAccept(final TableMetaData tableMetaData, final Object[] minimumValues, final Object[] maximumValues)
+      {
+        return true;
+      }
+
+      @Override
+      public boolean accept(final TableMetaData tableMetaData, final Object[] keyValues)
+      {
+        return true;
+      }
+    };
+  }
+}
@@ -0,0 +1,42 @@
+package de.akquinet.jbosscc.guttenbase.hints.impl;
+
+import java.util.zip.Deflater;
+
+import de.akquinet.jbosscc.guttenbase.export.GzipCompression;
+import de.akquinet.jbosscc.guttenbase.hints.GzipCompressionHint;
+
+/**
+ * By default blocks of 128 KB are compressed with the default compression level using one thread per available processor.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class DefaultGzipCompressionHint extends GzipCompressionHint
+{
+  @Override
+  public GzipCompression getValue()
+  {
+    return new GzipCompression()
+    {
+      @Override
+      public int getCompressionLevel()
+      {
+        return Deflater.DEFAULT_COMPRESSION;
+      }
+
+      @Override
+      public int getBlockSize()
+      {
+        return 128 * 1024;
+      }
+
+      @Override
+      public int getNumberOfThreads()
+      {
+        return Runtime.getRuntime().availableProcessors();
+      }
+    };
+  }
+}
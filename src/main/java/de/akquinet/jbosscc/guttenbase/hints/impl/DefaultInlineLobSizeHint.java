@@ -0,0 +1,29 @@
+package de.akquinet.jbosscc.guttenbase.hints.impl;
+
+import de.akquinet.jbosscc.guttenbase.export.DumpRowFormat;
+import de.akquinet.jbosscc.guttenbase.export.InlineLobSize;
+import de.akquinet.jbosscc.guttenbase.hints.InlineLobSizeHint;
+
+/**
+ * By default LOBs of up to 64 KB are kept in memory.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class DefaultInlineLobSizeHint extends InlineLobSizeHint
+{
+  @Override
+  public InlineLobSize getValue()
+  {
+    return new InlineLobSize()
+    {
+      @Override
+      public int getMaximumInlineLobSize()
+      {
+        return DumpRowFormat.CHUNK_SIZE;
+      }
+    };
+  }
+}
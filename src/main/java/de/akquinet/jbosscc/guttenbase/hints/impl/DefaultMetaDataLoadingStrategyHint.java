@@ -0,0 +1,21 @@
+package de.akquinet.jbosscc.guttenbase.hints.impl;
+
+import de.akquinet.jbosscc.guttenbase.hints.MetaDataLoadingStrategyHint;
+import de.akquinet.jbosscc.guttenbase.repository.MetaDataLoadingStrategy;
+
+/**
+ * By default all meta data is read up front.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class DefaultMetaDataLoadingStrategyHint extends MetaDataLoadingStrategyHint
+{
+  @Override
+  public MetaDataLoadingStrategy getValue()
+  {
+    return MetaDataLoadingStrategy.EAGER;
+  }
+}
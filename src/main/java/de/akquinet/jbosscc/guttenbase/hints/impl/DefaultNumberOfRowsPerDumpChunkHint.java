@@ -0,0 +1,29 @@
+package de.akquinet.jbosscc.guttenbase.hints.impl;
+
+import de.akquinet.jbosscc.guttenbase.export.NumberOfRowsPerDumpChunk;
+import de.akquinet.jbosscc.guttenbase.hints.NumberOfRowsPerDumpChunkHint;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+
+/**
+ * Default number of rows per dump chunk is 100000.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class DefaultNumberOfRowsPerDumpChunkHint extends NumberOfRowsPerDumpChunkHint
+{
+  @Override
+  public NumberOfRowsPerDumpChunk getValue()
+  {
+    return new NumberOfRowsPerDumpChunk()
+    {
+      @Override
+      public int getNumberOfRowsPerChunk(final TableMetaData tableMetaData)
+      {
+        return 100000;
+      }
+    };
+  }
+}
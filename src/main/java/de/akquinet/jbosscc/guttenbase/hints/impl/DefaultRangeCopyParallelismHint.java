@@ -0,0 +1,29 @@
+package de.akquinet.jbosscc.guttenbase.hints.impl;
+
+import de.akquinet.jbosscc.guttenbase.hints.RangeCopyParallelismHint;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.tools.RangeCopyParallelism;
+
+/**
+ * By default four ranges are copied at the same time.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class DefaultRangeCopyParallelismHint extends RangeCopyParallelismHint
+{
+  @Override
+  public RangeCopyParallelism getValue()
+  {
+    return new RangeCopyParallelism()
+    {
+      @Override
+      public int getNumberOfParallelRangeCopies(final TableMetaData targetTableMetaData)
+      {
+        return 4;
+      }
+    };
+  }
+}
@@ -0,0 +1,21 @@
+package de.akquinet.jbosscc.guttenbase.hints.impl;
+
+import de.akquinet.jbosscc.guttenbase.defaults.impl.DefaultSplitRangePlanner;
+import de.akquinet.jbosscc.guttenbase.hints.SplitRangePlannerHint;
+import de.akquinet.jbosscc.guttenbase.tools.SplitRangePlanner;
+
+/**
+ * By default split the range between MIN and MAX of the split column into ranges of equal size.
+ * 
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ * 
+ * @author M. Dahm
+ */
+public class DefaultSplitRangePlannerHint extends SplitRangePlannerHint {
+  @Override
+  public SplitRangePlanner getValue() {
+    return new DefaultSplitRangePlanner();
+  }
+}
@@ -0,0 +1,24 @@
+package de.akquinet.jbosscc.guttenbase.hints.impl;
+
+import de.akquinet.jbosscc.guttenbase.defaults.impl.NoTableCopyCheckpoint;
+import de.akquinet.jbosscc.guttenbase.hints.TableCopyCheckpointHint;
+import de.akquinet.jbosscc.guttenbase.tools.TableCopyCheckpoint;
+
+/**
+ * By default no progress is recorded. Use {@link FileTableCopyCheckpointHint} to make copies resumable.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class DefaultTableCopyCheckpointHint extends TableCopyCheckpointHint
+{
+  private static final TableCopyCheckpoint NO_CHECKPOINT = new NoTableCopyCheckpoint();
+
+  @Override
+  public TableCopyCheckpoint getValue()
+  {
+    return NO_CHECKPOINT;
+  }
+}
@@ -0,0 +1,28 @@
+package de.akquinet.jbosscc.guttenbase.hints.impl;
+
+import de.akquinet.jbosscc.guttenbase.hints.TableCopyParallelismHint;
+import de.akquinet.jbosscc.guttenbase.tools.TableCopyParallelism;
+
+/**
+ * By default tables are copied sequentially.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class DefaultTableCopyParallelismHint extends TableCopyParallelismHint
+{
+  @Override
+  public TableCopyParallelism getValue()
+  {
+    return new TableCopyParallelism()
+    {
+      @Override
+      public int getNumberOfParallelTableCopies()
+      {
+        return 1;
+      }
+    };
+  }
+}
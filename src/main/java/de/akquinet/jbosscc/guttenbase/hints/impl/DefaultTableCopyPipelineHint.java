@@ -0,0 +1,29 @@
+package de.akquinet.jbosscc.guttenbase.hints.impl;
+
+import de.akquinet.jbosscc.guttenbase.hints.TableCopyPipelineHint;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.tools.TableCopyPipeline;
+
+/**
+ * By default reading and writing is not pipelined.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class DefaultTableCopyPipelineHint extends TableCopyPipelineHint
+{
+  @Override
+  public TableCopyPipeline getValue()
+  {
+    return new TableCopyPipeline()
+    {
+      @Override
+      public int getQueueDepth(final TableMetaData targetTableMetaData)
+      {
+        return 0;
+      }
+    };
+  }
+}
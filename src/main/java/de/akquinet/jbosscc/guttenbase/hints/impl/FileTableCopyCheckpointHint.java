@@ -0,0 +1,31 @@
+package de.akquinet.jbosscc.guttenbase.hints.impl;
+
+import de.akquinet.jbosscc.guttenbase.defaults.impl.FileTableCopyCheckpoint;
+import de.akquinet.jbosscc.guttenbase.hints.TableCopyCheckpointHint;
+import de.akquinet.jbosscc.guttenbase.tools.TableCopyCheckpoint;
+
+import java.io.File;
+
+/**
+ * Record the progress of a copy in the given file. If the file exists, the copy resumes where the previous run stopped.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class FileTableCopyCheckpointHint extends TableCopyCheckpointHint
+{
+  private final TableCopyCheckpoint _checkpoint;
+
+  public FileTableCopyCheckpointHint(final File checkpointFile)
+  {
+    _checkpoint = new FileTableCopyCheckpoint(checkpointFile);
+  }
+
+  @Override
+  public TableCopyCheckpoint getValue()
+  {
+    return _checkpoint;
+  }
+}
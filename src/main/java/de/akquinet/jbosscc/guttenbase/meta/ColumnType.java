@@ -215,6 +215,44 @@ public enum ColumnType
     return result;
   }
 
+  /**
+   * Create object transferring values of this type directly from the result set to the INSERT statement. Primitive values are
+   * neither boxed nor unboxed. The source value must not need any conversion, i.e. the source column type must be this type, too,
+   * and no {@link de.akquinet.jbosscc.guttenbase.mapping.ColumnDataMapper} may transform it.
+   *
+   * @param sqlType SQL type of target column as used by {@link PreparedStatement#setNull(int, int)}
+   */
+  public ColumnValueTransfer createValueTransfer(final DatabaseType targetDatabaseType, final int sqlType)
+  {
+    switch (this)
+    {
+      case CLASS_STRING:
+        return new StringValueTransfer(sqlType);
+      case CLASS_INTEGER:
+        return new IntegerValueTransfer(sqlType);
+      case CLASS_LONG:
+        return new LongValueTransfer(sqlType);
+      case CLASS_DOUBLE:
+        return new DoubleValueTransfer(sqlType);
+      case CLASS_FLOAT:
+        return new FloatValueTransfer(sqlType);
+      case CLASS_SHORT:
+        return new ShortValueTransfer(sqlType);
+      case CLASS_BOOLEAN:
+        return new BooleanValueTransfer(sqlType);
+      case CLASS_BIGDECIMAL:
+        return new BigDecimalValueTransfer(sqlType);
+      case CLASS_TIMESTAMP:
+        return new TimestampValueTransfer(sqlType);
+      case CLASS_DATE:
+        return new DateValueTransfer(sqlType);
+      case CLASS_TIME:
+        return new TimeValueTransfer(sqlType);
+      default:
+        return new GenericValueTransfer(this, targetDatabaseType, sqlType);
+    }
+  }
+
   private boolean driverSupportsStream(final DatabaseType databaseType)
   {
     return !(DatabaseType.POSTGRESQL.equals(databaseType) || DatabaseType.DB2.equals(databaseType) || DatabaseType.MSSQL.equals(databaseType));
@@ -378,4 +416,335 @@ public enum ColumnType
       }
     }
   }
+
+  private static final class GenericValueTransfer implements ColumnValueTransfer
+  {
+    private final ColumnType _columnType;
+    private final DatabaseType _targetDatabaseType;
+    private final int _sqlType;
+
+    public GenericValueTransfer(final ColumnType columnType, final DatabaseType targetDatabaseType, final int sqlType)
+    {
+      _columnType = columnType;
+      _targetDatabaseType = targetDatabaseType;
+      _sqlType = sqlType;
+    }
+
+    @Override
+    public Closeable transfer(final ResultSet resultSet, final int sourceColumnIndex, final PreparedStatement insertStatement,
+                              final int targetColumnIndex) throws SQLException
+    {
+      final Object value = _columnType.getValue(resultSet, sourceColumnIndex);
+
+      return _columnType.setValue(insertStatement, targetColumnIndex, value, _targetDatabaseType, _sqlType);
+    }
+  }
+
+  private static final class StringValueTransfer implements ColumnValueTransfer
+  {
+    private final int _sqlType;
+
+    public StringValueTransfer(final int sqlType)
+    {
+      _sqlType = sqlType;
+    }
+
+    @Override
+    public Closeable transfer(final ResultSet resultSet, final int sourceColumnIndex, final PreparedStatement insertStatement,
+                              final int targetColumnIndex) throws SQLException
+    {
+      final String value = resultSet.getString(sourceColumnIndex);
+
+      if (resultSet.wasNull())
+      {
+        insertStatement.setNull(targetColumnIndex, _sqlType);
+      }
+      else
+      {
+        insertStatement.setString(targetColumnIndex, value);
+      }
+
+      return null;
+    }
+  }
+
+  private static final class IntegerValueTransfer implements ColumnValueTransfer
+  {
+    private final int _sqlType;
+
+    public IntegerValueTransfer(final int sqlType)
+    {
+      _sqlType = sqlType;
+    }
+
+    @Override
+    public Closeable transfer(final ResultSet resultSet, final int sourceColumnIndex, final PreparedStatement insertStatement,
+                              final int targetColumnIndex) throws SQLException
+    {
+      final int value = resultSet.getInt(sourceColumnIndex);
+
+      if (resultSet.wasNull())
+      {
+        insertStatement.setNull(targetColumnIndex, _sqlType);
+      }
+      else
+      {
+        insertStatement.setInt(targetColumnIndex, value);
+      }
+
+      return null;
+    }
+  }
+
+  private static final class LongValueTransfer implements ColumnValueTransfer
+  {
+    private final int _sqlType;
+
+    public LongValueTransfer(final int sqlType)
+    {
+      _sqlType = sqlType;
+    }
+
+    @Override
+    public Closeable transfer(final ResultSet resultSet, final int sourceColumnIndex, final PreparedStatement insertStatement,
+                              final int targetColumnIndex) throws SQLException
+    {
+      final long value = resultSet.getLong(sourceColumnIndex);
+
+      if (resultSet.wasNull())
+      {
+        insertStatement.setNull(targetColumnIndex, _sqlType);
+      }
+      else
+      {
+        insertStatement.setLong(targetColumnIndex, value);
+      }
+
+      return null;
+    }
+  }
+
+  private static final class DoubleValueTransfer implements ColumnValueTransfer
+  {
+    private final int _sqlType;
+
+    public DoubleValueTransfer(final int sqlType)
+    {
+      _sqlType = sqlType;
+    }
+
+    @Override
+    public Closeable transfer(final ResultSet resultSet, final int sourceColumnIndex, final PreparedStatement insertStatement,
+                              final int targetColumnIndex) throws SQLException
+    {
+      final double value = resultSet.getDouble(sourceColumnIndex);
+
+      if (resultSet.wasNull())
+      {
+        insertStatement.setNull(targetColumnIndex, _sqlType);
+      }
+      else
+      {
+        insertStatement.setDouble(targetColumnIndex, value);
+      }
+
+      return null;
+    }
+  }
+
+  private static final class FloatValueTransfer implements ColumnValueTransfer
+  {
+    private final int _sqlType;
+
+    public FloatValueTransfer(final int sqlType)
+    {
+      _sqlType = sqlType;
+    }
+
+    @Override
+    public Closeable transfer(final ResultSet resultSet, final int sourceColumnIndex, final PreparedStatement insertStatement,
+                              final int targetColumnIndex) throws SQLException
+    {
+      final float value = resultSet.getFloat(sourceColumnIndex);
+
+      if (resultSet.wasNull())
+      {
+        insertStatement.setNull(targetColumnIndex, _sqlType);
+      }
+      else
+      {
+        insertStatement.setFloat(targetColumnIndex, value);
+      }
+
+      return null;
+    }
+  }
+
+  private static final class ShortValueTransfer implements ColumnValueTransfer
+  {
+    private final int _sqlType;
+
+    public ShortValueTransfer(final int sqlType)
+    {
+      _sqlType = sqlType;
+    }
+
+    @Override
+    public Closeable transfer(final ResultSet resultSet, final int sourceColumnIndex, final PreparedStatement insertStatement,
+                              final int targetColumnIndex) throws SQLException
+    {
+      final short value = resultSet.getShort(sourceColumnIndex);
+
+      if (resultSet.wasNull())
+      {
+        insertStatement.setNull(targetColumnIndex, _sqlType);
+      }
+      else
+      {
+        insertStatement.setShort(targetColumnIndex, value);
+      }
+
+      return null;
+    }
+  }
+
+  private static final class BooleanValueTransfer implements ColumnValueTransfer
+  {
+    private final int _sqlType;
+
+    public BooleanValueTransfer(final int sqlType)
+    {
+      _sqlType = sqlType;
+    }
+
+    @Override
+    public Closeable transfer(final ResultSet resultSet, final int sourceColumnIndex, final PreparedStatement insertStatement,
+                              final int targetColumnIndex) throws SQLException
+    {
+      final boolean value = resultSet.getBoolean(sourceColumnIndex);
+
+      if (resultSet.wasNull())
+      {
+        insertStatement.setNull(targetColumnIndex, _sqlType);
+      }
+      else
+      {
+        insertStatement.setBoolean(targetColumnIndex, value);
+      }
+
+      return null;
+    }
+  }
+
+  private static final class BigDecimalValueTransfer implements ColumnValueTransfer
+  {
+    private final int _sqlType;
+
+    public BigDecimalValueTransfer(final int sqlType)
+    {
+      _sqlType = sqlType;
+    }
+
+    @Override
+    public Closeable transfer(final ResultSet resultSet, final int sourceColumnIndex, final PreparedStatement insertStatement,
+                              final int targetColumnIndex) throws SQLException
+    {
+      final BigDecimal value = resultSet.getBigDecimal(sourceColumnIndex);
+
+      if (resultSet.wasNull())
+      {
+        insertStatement.setNull(targetColumnIndex, _sqlType);
+      }
+      else
+      {
+        insertStatement.setBigDecimal(targetColumnIndex, value);
+      }
+
+      return null;
+    }
+  }
+
+  private static final class TimestampValueTransfer implements ColumnValueTransfer
+  {
+    private final int _sqlType;
+
+    public TimestampValueTransfer(final int sqlType)
+    {
+      _sqlType = sqlType;
+    }
+
+    @Override
+    public Closeable transfer(final ResultSet resultSet, final int sourceColumnIndex, final PreparedStatement insertStatement,
+                              final int targetColumnIndex) throws SQLException
+    {
+      final Timestamp value = resultSet.getTimestamp(sourceColumnIndex);
+
+      if (resultSet.wasNull())
+      {
+        insertStatement.setNull(targetColumnIndex, _sqlType);
+      }
+      else
+      {
+        insertStatement.setTimestamp(targetColumnIndex, value);
+      }
+
+      return null;
+    }
+  }
+
+  private static final class DateValueTransfer implements ColumnValueTransfer
+  {
+    private final int _sqlType;
+
+    public DateValueTransfer(final int sqlType)
+    {
+      _sqlType = sqlType;
+    }
+
+    @Override
+    public Closeable transfer(final ResultSet resultSet, final int sourceColumnIndex, final PreparedStatement insertStatement,
+                              final int targetColumnIndex) throws SQLException
+    {
+      final Date value = resultSet.getDate(sourceColumnIndex);
+
+      if (resultSet.wasNull())
+      {
+        insertStatement.setNull(targetColumnIndex, _sqlType);
+      }
+      else
+      {
+        insertStatement.setDate(targetColumnIndex, value);
+      }
+
+      return null;
+    }
+  }
+
+  private static final class TimeValueTransfer implements ColumnValueTransfer
+  {
+    private final int _sqlType;
+
+    public TimeValueTransfer(final int sqlType)
+    {
+      _sqlType = sqlType;
+    }
+
+    @Override
+    public Closeable transfer(final ResultSet resultSet, final int sourceColumnIndex, final PreparedStatement insertStatement,
+                              final int targetColumnIndex) throws SQLException
+    {
+      final Time value = resultSet.getTime(sourceColumnIndex);
+
+      if (resultSet.wasNull())
+      {
+        insertStatement.setNull(targetColumnIndex, _sqlType);
+      }
+      else
+      {
+        insertStatement.setTime(targetColumnIndex, value);
+      }
+
+      return null;
+    }
+  }
 }
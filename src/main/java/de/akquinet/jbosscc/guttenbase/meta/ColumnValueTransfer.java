@@ -0,0 +1,28 @@
+package de.akquinet.jbosscc.guttenbase.meta;
+
+import java.io.Closeable;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Transfer the value of a single column from the source result set to the INSERT statement, without the detour via
+ * {@link ColumnType#getValue(ResultSet, int)} and {@link ColumnType#setValue}. Primitive values are thus not boxed and NULL values are
+ * handled in the same step.
+ * <p>
+ * Instances are created once per column and table, see {@link ColumnType#createValueTransfer}.
+ * </p>
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public interface ColumnValueTransfer
+{
+  /**
+   * @return optional object to be closed after the batch has been executed, e.g. a stream of a BLOB, or null
+   */
+  Closeable transfer(ResultSet resultSet, int sourceColumnIndex, PreparedStatement insertStatement, int targetColumnIndex)
+          throws SQLException;
+}
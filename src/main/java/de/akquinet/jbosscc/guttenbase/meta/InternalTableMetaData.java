@@ -12,6 +12,43 @@ public interface InternalTableMetaData extends TableMetaData
 {
   void setRowCount(final int rowCount);
 
+  /**
+   * Set an estimated number of rows, -1 if unknown. The exact number will be computed by the given {@link RowCounter} on demand.
+   */
+  void setEstimatedRowCount(final int rowCount, final RowCounter rowCounter);
+
+  /**
+   * @return counter of rows or null if the row count is exact
+   */
+  RowCounter getRowCounter();
+
+  /**
+   * The row counter is not serialized, thus it needs to be passed on to copies of the meta data.
+   */
+  void setRowCounter(final RowCounter rowCounter);
+
+  /**
+   * @return loader of columns, indexes and foreign keys or null if the meta data has been read eagerly
+   */
+  TableMetaDataLoader getTableMetaDataLoader();
+
+  /**
+   * The loader is not serialized, thus it needs to be passed on to copies of the meta data.
+   */
+  void setTableMetaDataLoader(final TableMetaDataLoader tableMetaDataLoader);
+
+  boolean isColumnsLoaded();
+
+  /**
+   * Columns, primary key and indexes have (not) been read yet. If not, they are read by the {@link TableMetaDataLoader} on first
+   * access.
+   */
+  void setColumnsLoaded(final boolean columnsLoaded);
+
+  boolean isForeignKeysLoaded();
+
+  void setForeignKeysLoaded(final boolean foreignKeysLoaded);
+
   void addColumn(final ColumnMetaData column);
 
   void removeColumn(ColumnMetaData columnMetaData);
@@ -21,4 +58,8 @@ public interface InternalTableMetaData extends TableMetaData
   void addImportedForeignKey(ForeignKeyMetaData fkMetaData);
 
   void addExportedForeignKey(ForeignKeyMetaData fkMetaData);
+
+  void removeImportedForeignKey(ForeignKeyMetaData fkMetaData);
+
+  void removeExportedForeignKey(ForeignKeyMetaData fkMetaData);
 }
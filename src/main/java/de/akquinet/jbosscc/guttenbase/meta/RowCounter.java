@@ -0,0 +1,16 @@
+package de.akquinet.jbosscc.guttenbase.meta;
+
+import java.sql.SQLException;
+
+/**
+ * Counts the rows of a table when the exact number is needed, see {@link TableMetaData#getExactRowCount()}.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public interface RowCounter
+{
+  int countRows() throws SQLException;
+}
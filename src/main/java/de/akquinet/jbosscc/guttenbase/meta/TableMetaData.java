@@ -1,6 +1,7 @@
 package de.akquinet.jbosscc.guttenbase.meta;
 
 import java.io.Serializable;
+import java.sql.SQLException;
 import java.util.List;
 
 /**
@@ -13,8 +14,23 @@ import java.util.List;
  */
 public interface TableMetaData extends Comparable<TableMetaData>, Serializable
 {
+  /**
+   * @return number of rows. The number may be an estimate, see {@link #isRowCountExact()}, or -1 if it is not known yet. The data
+   *         base is never queried.
+   */
   int getRowCount();
 
+  /**
+   * @return false if the number of rows has been estimated or not been computed yet, see
+   *         {@link de.akquinet.jbosscc.guttenbase.repository.RowCountStrategy}
+   */
+  boolean isRowCountExact();
+
+  /**
+   * @return exact number of rows, the rows are counted if the row count is not exact yet
+   */
+  int getExactRowCount() throws SQLException;
+
   List<ColumnMetaData> getColumnMetaData();
 
   ColumnMetaData getColumnMetaData(String columnName);
@@ -0,0 +1,25 @@
+package de.akquinet.jbosscc.guttenbase.meta;
+
+/**
+ * Reads the details of a table when they are accessed the first time, see
+ * {@link de.akquinet.jbosscc.guttenbase.repository.MetaDataLoadingStrategy#LAZY}. Failures are reported as
+ * {@link IllegalStateException}, since the accessors of {@link TableMetaData} do not declare any exceptions.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public interface TableMetaDataLoader
+{
+  /**
+   * Read columns, primary key and indexes of the given table, unless already done.
+   */
+  void loadColumns(InternalTableMetaData tableMetaData);
+
+  /**
+   * Read foreign keys of the given table, unless already done. This implies reading the columns of the table and of the tables
+   * referenced by or referencing it.
+   */
+  void loadForeignKeys(InternalTableMetaData tableMetaData);
+}
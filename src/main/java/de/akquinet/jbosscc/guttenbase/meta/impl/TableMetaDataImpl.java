@@ -1,5 +1,6 @@
 package de.akquinet.jbosscc.guttenbase.meta.impl;
 
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -10,11 +11,16 @@ import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.ForeignKeyMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.IndexMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.InternalTableMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.RowCounter;
 import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaDataLoader;
 
 /**
  * Information about a table.
  * <p>
+ * If a {@link TableMetaDataLoader} is set, columns, primary key, indexes and foreign keys are read on first access.
+ * </p>
+ * <p>
  * &copy; 2012-2020 akquinet tech@spree
  * </p>
  * 
@@ -26,6 +32,11 @@ public class TableMetaDataImpl implements InternalTableMetaData
 
   private final String _tableName;
   private int _rowCount;
+  private boolean _rowCountEstimated;
+  private transient RowCounter _rowCounter;
+  private transient TableMetaDataLoader _tableMetaDataLoader;
+  private volatile boolean _columnsLoaded = true;
+  private volatile boolean _foreignKeysLoaded = true;
   private final Map<String, ColumnMetaData> _columns = new LinkedHashMap<String, ColumnMetaData>();
   private final Map<String, IndexMetaData> _indexes = new LinkedHashMap<String, IndexMetaData>();
   private final Map<String, ForeignKeyMetaData> _importedForeignKeys = new LinkedHashMap<String, ForeignKeyMetaData>();
@@ -46,6 +57,7 @@ public class TableMetaDataImpl implements InternalTableMetaData
   @Override
   public int getRowCount()
   {
+    loadRowCount();
     return _rowCount;
   }
 
@@ -56,6 +68,119 @@ public class TableMetaDataImpl implements InternalTableMetaData
   public void setRowCount(final int rowCount)
   {
     _rowCount = rowCount;
+    _rowCountEstimated = false;
+    _rowCounter = null;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void setEstimatedRowCount(final int rowCount, final RowCounter rowCounter)
+  {
+    assert rowCounter != null : "rowCounter != null";
+
+    _rowCount = rowCount;
+    _rowCountEstimated = true;
+    _rowCounter = rowCounter;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean isRowCountExact()
+  {
+    loadRowCount();
+    return !_rowCountEstimated;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getExactRowCount() throws SQLException
+  {
+    loadRowCount();
+    return countRows();
+  }
+
+  private synchronized int countRows() throws SQLException
+  {
+    if (_rowCountEstimated)
+    {
+      if (_rowCounter == null)
+      {
+        throw new IllegalStateException("Cannot count rows of " + _tableName);
+      }
+
+      setRowCount(_rowCounter.countRows());
+    }
+
+    return _rowCount;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public RowCounter getRowCounter()
+  {
+    return _rowCounter;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void setRowCounter(final RowCounter rowCounter)
+  {
+    _rowCounter = rowCounter;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public TableMetaDataLoader getTableMetaDataLoader()
+  {
+    return _tableMetaDataLoader;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void setTableMetaDataLoader(final TableMetaDataLoader tableMetaDataLoader)
+  {
+    _tableMetaDataLoader = tableMetaDataLoader;
+  }
+
+  @Override
+  public boolean isColumnsLoaded()
+  {
+    return _columnsLoaded;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void setColumnsLoaded(final boolean columnsLoaded)
+  {
+    _columnsLoaded = columnsLoaded;
+  }
+
+  @Override
+  public boolean isForeignKeysLoaded()
+  {
+    return _foreignKeysLoaded;
+  }
+
+  @Override
+  public void setForeignKeysLoaded(final boolean foreignKeysLoaded)
+  {
+    _foreignKeysLoaded = foreignKeysLoaded;
   }
 
   /**
@@ -64,6 +189,7 @@ public class TableMetaDataImpl implements InternalTableMetaData
   @Override
   public List<ColumnMetaData> getColumnMetaData()
   {
+    loadColumns();
     return new ArrayList<ColumnMetaData>(_columns.values());
   }
 
@@ -73,6 +199,7 @@ public class TableMetaDataImpl implements InternalTableMetaData
   @Override
   public ColumnMetaData getColumnMetaData(final String columnName)
   {
+    loadColumns();
     return _columns.get(columnName.toUpperCase());
   }
 
@@ -93,6 +220,7 @@ public class TableMetaDataImpl implements InternalTableMetaData
   public void removeColumn(final ColumnMetaData columnMetaData)
   {
     assert columnMetaData != null : "columnMetaData != null";
+    loadColumns();
     _columns.remove(columnMetaData.getColumnName().toUpperCase());
   }
 
@@ -108,13 +236,14 @@ public class TableMetaDataImpl implements InternalTableMetaData
   @Override
   public IndexMetaData getIndexMetaData(final String indexName)
   {
+    loadColumns();
     return _indexes.get(indexName.toUpperCase());
-
   }
 
   @Override
   public List<IndexMetaData> getIndexes()
   {
+    loadColumns();
     return new ArrayList<IndexMetaData>(_indexes.values());
   }
 
@@ -127,6 +256,7 @@ public class TableMetaDataImpl implements InternalTableMetaData
   @Override
   public List<ForeignKeyMetaData> getExportedForeignKeys()
   {
+    loadForeignKeys();
     return new ArrayList<ForeignKeyMetaData>(_exportedForeignKeys.values());
   }
 
@@ -139,6 +269,7 @@ public class TableMetaDataImpl implements InternalTableMetaData
   @Override
   public List<ForeignKeyMetaData> getImportedForeignKeys()
   {
+    loadForeignKeys();
     return new ArrayList<ForeignKeyMetaData>(_importedForeignKeys.values());
   }
 
@@ -148,6 +279,18 @@ public class TableMetaDataImpl implements InternalTableMetaData
     _importedForeignKeys.put(fkMetaData.getForeignKeyName().toUpperCase(), fkMetaData);
   }
 
+  @Override
+  public void removeImportedForeignKey(final ForeignKeyMetaData fkMetaData)
+  {
+    _importedForeignKeys.remove(fkMetaData.getForeignKeyName().toUpperCase());
+  }
+
+  @Override
+  public void removeExportedForeignKey(final ForeignKeyMetaData fkMetaData)
+  {
+    _exportedForeignKeys.remove(fkMetaData.getForeignKeyName().toUpperCase());
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -204,6 +347,37 @@ public class TableMetaDataImpl implements InternalTableMetaData
     return _databaseMetaData;
   }
 
+  /**
+   * Rows are counted along with reading the columns, unless the row count is estimated.
+   */
+  private void loadRowCount()
+  {
+    if (!_rowCountEstimated)
+    {
+      loadColumns();
+    }
+  }
+
+  private void loadColumns()
+  {
+    final TableMetaDataLoader tableMetaDataLoader = _tableMetaDataLoader;
+
+    if (!_columnsLoaded && tableMetaDataLoader != null)
+    {
+      tableMetaDataLoader.loadColumns(this);
+    }
+  }
+
+  private void loadForeignKeys()
+  {
+    final TableMetaDataLoader tableMetaDataLoader = _tableMetaDataLoader;
+
+    if (!_foreignKeysLoaded && tableMetaDataLoader != null)
+    {
+      tableMetaDataLoader.loadForeignKeys(this);
+    }
+  }
+
   @Override
   public int compareTo(final TableMetaData that)
   {
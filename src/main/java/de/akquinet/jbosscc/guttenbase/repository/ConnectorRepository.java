@@ -48,6 +48,17 @@ public interface ConnectorRepository extends Serializable {
 	 */
 	void refreshDatabaseMetaData(final String connectorId);
 
+	/**
+	 * Reset data of the given table only, i.e. it will be reread from the data base on next access to the meta data. The table may
+	 * also have been created or dropped.
+	 */
+	void refreshTableMetaData(final String connectorId, final String tableName);
+
+	/**
+	 * Set the number of rows of the given table, e.g. after data has been copied into it, without reading the meta data again.
+	 */
+	void updateRowCount(final String connectorId, final String tableName, final int rowCount);
+
 	/**
 	 * Create connector
 	 */
@@ -0,0 +1,34 @@
+package de.akquinet.jbosscc.guttenbase.repository;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
+
+/**
+ * Keeps the meta data of a data base across processes, so that the schema need not be inspected again on every start. Each
+ * entry is stored along with a fingerprint of the schema, an entry is only used if the fingerprint still matches.
+ * <p>
+ * Row counts are always computed again according to the configured {@link RowCountStrategy} when cached meta data is used.
+ * </p>
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public interface DatabaseMetaDataCache
+{
+  /**
+   * @return cheaply computed value that changes whenever the schema changes, or null to disable caching
+   */
+  String computeFingerprint(ConnectorRepository connectorRepository, String connectorId, Connection connection)
+      throws SQLException;
+
+  /**
+   * @return meta data stored with the given fingerprint or null if there is none
+   */
+  DatabaseMetaData load(String connectorId, String fingerprint) throws SQLException;
+
+  void store(String connectorId, String fingerprint, DatabaseMetaData databaseMetaData) throws SQLException;
+}
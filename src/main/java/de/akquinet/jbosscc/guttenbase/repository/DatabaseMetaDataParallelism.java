@@ -0,0 +1,21 @@
+package de.akquinet.jbosscc.guttenbase.repository;
+
+import de.akquinet.jbosscc.guttenbase.repository.impl.DatabaseMetaDataInspectorTool;
+
+/**
+ * How many connections may {@link DatabaseMetaDataInspectorTool} use to inspect the tables of a data base? Row counts and column
+ * information are retrieved per table, so with large schemas most of the time is spent waiting for round trips. These queries are
+ * distributed over the given number of connections.
+ * <p>
+ * A value of 1 means that all queries are executed sequentially over a single connection.
+ * </p>
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public interface DatabaseMetaDataParallelism
+{
+  int getNumberOfConnections();
+}
@@ -0,0 +1,30 @@
+package de.akquinet.jbosscc.guttenbase.repository;
+
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.impl.DatabaseMetaDataInspectorTool;
+
+/**
+ * When does {@link DatabaseMetaDataInspectorTool} read columns, primary keys, foreign keys and indexes of a table? With huge schemas
+ * of which only a few tables are used, e.g. selected by a {@link RepositoryTableFilter}, reading everything up front may take a
+ * long time.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public enum MetaDataLoadingStrategy
+{
+  /**
+   * Read the information of all tables while reading the meta data.
+   */
+  EAGER,
+
+  /**
+   * Read the list of tables only. Columns, primary keys and indexes of a table are read when they are accessed the first time,
+   * foreign keys when {@link TableMetaData#getImportedForeignKeys()} or {@link TableMetaData#getExportedForeignKeys()} are called.
+   * Exact row counts are computed along with the columns, so consider {@link RowCountStrategy#LAZY}, too. Lazily loaded meta data
+   * is not stored in a {@link DatabaseMetaDataCache}.
+   */
+  LAZY
+}
@@ -0,0 +1,32 @@
+package de.akquinet.jbosscc.guttenbase.repository;
+
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.impl.DatabaseMetaDataInspectorTool;
+
+/**
+ * How does {@link DatabaseMetaDataInspectorTool} determine the number of rows of a table? Counting the rows exactly requires a
+ * full scan of every table with most data bases.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public enum RowCountStrategy
+{
+  /**
+   * Execute SELECT COUNT(*) for every table while reading the meta data.
+   */
+  EXACT,
+
+  /**
+   * Read the estimates maintained by the data base statistics where available, e.g. pg_class.reltuples with PostgreSQL or
+   * INFORMATION_SCHEMA.TABLES with MySQL. The rows are counted only when {@link TableMetaData#getExactRowCount()} is called.
+   */
+  ESTIMATED,
+
+  /**
+   * Count the rows only when {@link TableMetaData#getExactRowCount()} is called. Until then the row count is unknown.
+   */
+  LAZY
+}
@@ -0,0 +1,142 @@
+package de.akquinet.jbosscc.guttenbase.repository.impl;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+import de.akquinet.jbosscc.guttenbase.meta.InternalTableMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaDataLoader;
+
+/**
+ * Loads table details at most once, even if they are requested by several threads concurrently. Tables requested while another
+ * thread is loading are read together in a single batch afterwards.
+ * <p>
+ * Accessing the table meta data while it is loaded, e.g. for looking up columns, does not trigger loading again. Other tables are
+ * loaded immediately, e.g. the tables referenced by foreign keys.
+ * </p>
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public abstract class AbstractTableMetaDataLoader implements TableMetaDataLoader {
+  private final ReentrantLock _lock;
+  private final Queue<InternalTableMetaData> _requestedTables = new ConcurrentLinkedQueue<InternalTableMetaData>();
+
+  // Guarded by _lock
+  private final Set<InternalTableMetaData> _loadingColumns = new HashSet<InternalTableMetaData>();
+  private final Set<InternalTableMetaData> _loadingForeignKeys = new HashSet<InternalTableMetaData>();
+
+  protected AbstractTableMetaDataLoader(final ReentrantLock lock) {
+    assert lock != null : "lock != null";
+    _lock = lock;
+  }
+
+  /**
+   * All modifications of the table meta data are made while holding this lock.
+   */
+  public ReentrantLock getLock() {
+    return _lock;
+  }
+
+  /**
+   * Load the columns of all given tables in a single batch.
+   */
+  public void loadColumns(final Collection<InternalTableMetaData> tables) {
+    if (!tables.isEmpty()) {
+      _requestedTables.addAll(tables);
+      loadColumns(tables.iterator().next());
+    }
+  }
+
+  @Override
+  public void loadColumns(final InternalTableMetaData tableMetaData) {
+    assert tableMetaData != null : "tableMetaData != null";
+
+    if (tableMetaData.isColumnsLoaded()) {
+      return;
+    }
+
+    _requestedTables.add(tableMetaData);
+    _lock.lock();
+
+    try {
+      if (tableMetaData.isColumnsLoaded() || _loadingColumns.contains(tableMetaData)) {
+        return;
+      }
+
+      final List<InternalTableMetaData> tables = new ArrayList<InternalTableMetaData>();
+      tables.add(tableMetaData);
+
+      for (InternalTableMetaData table = _requestedTables.poll(); table != null; table = _requestedTables.poll()) {
+        if (!table.isColumnsLoaded() && !_loadingColumns.contains(table) && !tables.contains(table)) {
+          tables.add(table);
+        }
+      }
+
+      _loadingColumns.addAll(tables);
+
+      try {
+        readColumns(tables);
+
+        for (final InternalTableMetaData table : tables) {
+          table.setColumnsLoaded(true);
+        }
+      } catch (final SQLException e) {
+        throw new IllegalStateException("Could not read meta data of " + tables, e);
+      } finally {
+        _loadingColumns.removeAll(tables);
+      }
+    } finally {
+      _lock.unlock();
+    }
+  }
+
+  @Override
+  public void loadForeignKeys(final InternalTableMetaData tableMetaData) {
+    assert tableMetaData != null : "tableMetaData != null";
+
+    if (tableMetaData.isForeignKeysLoaded()) {
+      return;
+    }
+
+    _lock.lock();
+
+    try {
+      if (tableMetaData.isForeignKeysLoaded() || _loadingForeignKeys.contains(tableMetaData)) {
+        return;
+      }
+
+      loadColumns(tableMetaData);
+      _loadingForeignKeys.add(tableMetaData);
+
+      try {
+        readForeignKeys(tableMetaData);
+        tableMetaData.setForeignKeysLoaded(true);
+      } catch (final SQLException e) {
+        throw new IllegalStateException("Could not read foreign keys of " + tableMetaData, e);
+      } finally {
+        _loadingForeignKeys.remove(tableMetaData);
+      }
+    } finally {
+      _lock.unlock();
+    }
+  }
+
+  /**
+   * Read columns, primary keys and indexes of the given tables. Called while holding the lock.
+   */
+  protected abstract void readColumns(List<InternalTableMetaData> tables) throws SQLException;
+
+  /**
+   * Read foreign keys from and to the given table, whose columns have been read already. Called while holding the lock.
+   */
+  protected abstract void readForeignKeys(InternalTableMetaData tableMetaData) throws SQLException;
+}
@@ -13,6 +13,7 @@ import de.akquinet.jbosscc.guttenbase.hints.RepositoryTableFilterHint;
 import de.akquinet.jbosscc.guttenbase.hints.impl.*;
 import de.akquinet.jbosscc.guttenbase.meta.*;
 import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+import de.akquinet.jbosscc.guttenbase.repository.MetaDataLoadingStrategy;
 import de.akquinet.jbosscc.guttenbase.repository.RepositoryColumnFilter;
 import de.akquinet.jbosscc.guttenbase.repository.RepositoryTableFilter;
 import de.akquinet.jbosscc.guttenbase.utils.Util;
@@ -40,6 +41,11 @@ public class ConnectorRepositoryImpl implements ConnectorRepository {
    * Hash meta data since some data base are very slow on retrieving it.
    */
   private final Map<String, DatabaseMetaData> _databaseMetaDataMap = new HashMap<String, DatabaseMetaData>();
+
+  /**
+   * Tables to be read again on next access to the hashed meta data.
+   */
+  private final Map<String, Set<String>> _refreshedTableNamesMap = new HashMap<String, Set<String>>();
   private final Map<String, Map<Class<?>, ConnectorHint<?>>> _connectionHintMap = new HashMap<String, Map<Class<?>, ConnectorHint<?>>>();
 
   public ConnectorRepositoryImpl() {
@@ -68,6 +74,7 @@ public class ConnectorRepositoryImpl implements ConnectorRepository {
     _connectionInfoMap.remove(connectorId);
     _connectionHintMap.remove(connectorId);
     _databaseMetaDataMap.remove(connectorId);
+    _refreshedTableNamesMap.remove(connectorId);
   }
 
   /**
@@ -153,6 +160,18 @@ public class ConnectorRepositoryImpl implements ConnectorRepository {
       final Connector connector = createConnector(connectorId);
       databaseMetaData = connector.retrieveDatabaseMetaData();
       _databaseMetaDataMap.put(connectorId, databaseMetaData);
+    } else if (_refreshedTableNamesMap.containsKey(connectorId)) {
+      final Connector connector = createConnector(connectorId);
+
+      // Reading the list of tables again is cheap, whereas refreshing single tables would load the remaining ones
+      if (getConnectorHint(connectorId, MetaDataLoadingStrategy.class).getValue() == MetaDataLoadingStrategy.LAZY) {
+        databaseMetaData = connector.retrieveDatabaseMetaData();
+        _databaseMetaDataMap.put(connectorId, databaseMetaData);
+      } else {
+        connector.refreshTableMetaData(databaseMetaData, _refreshedTableNamesMap.get(connectorId));
+      }
+
+      _refreshedTableNamesMap.remove(connectorId);
     }
 
     return createResultWithFilteredTables(connectorId, databaseMetaData);
@@ -166,6 +185,47 @@ public class ConnectorRepositoryImpl implements ConnectorRepository {
     assert connectorId != null : "connectorId != null";
 
     _databaseMetaDataMap.remove(connectorId);
+    _refreshedTableNamesMap.remove(connectorId);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void refreshTableMetaData(final String connectorId, final String tableName) {
+    assert connectorId != null : "connectorId != null";
+    assert tableName != null : "tableName != null";
+
+    // Otherwise everything will be read anyway
+    if (_databaseMetaDataMap.containsKey(connectorId)) {
+      Set<String> tableNames = _refreshedTableNamesMap.get(connectorId);
+
+      if (tableNames == null) {
+        tableNames = new HashSet<String>();
+        _refreshedTableNamesMap.put(connectorId, tableNames);
+      }
+
+      tableNames.add(tableName.toUpperCase());
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void updateRowCount(final String connectorId, final String tableName, final int rowCount) {
+    assert connectorId != null : "connectorId != null";
+    assert tableName != null : "tableName != null";
+
+    final DatabaseMetaData databaseMetaData = _databaseMetaDataMap.get(connectorId);
+
+    if (databaseMetaData != null) {
+      final InternalTableMetaData tableMetaData = (InternalTableMetaData) databaseMetaData.getTableMetaData(tableName);
+
+      if (tableMetaData != null) {
+        tableMetaData.setRowCount(rowCount);
+      }
+    }
   }
 
   /**
@@ -247,18 +307,35 @@ public class ConnectorRepositoryImpl implements ConnectorRepository {
     return new ArrayList<String>(_connectionInfoMap.keySet());
   }
 
+  /**
+   * Lazily loaded tables of the result are loaded from the hashed meta data, see {@link CopiedTableMetaDataLoader}.
+   */
   private DatabaseMetaData createResultWithFilteredTables(final String connectorId, final DatabaseMetaData databaseMetaData)
           throws SQLException {
-    final InternalDatabaseMetaData resultDatabaseMetaData = Util.copyObject(InternalDatabaseMetaData.class,
-            (InternalDatabaseMetaData) databaseMetaData);
+    final AbstractTableMetaDataLoader tableMetaDataLoader = getTableMetaDataLoader(databaseMetaData);
+    final InternalDatabaseMetaData resultDatabaseMetaData = copyDatabaseMetaData(databaseMetaData, tableMetaDataLoader);
     final RepositoryTableFilter tableFilter = getConnectorHint(connectorId, RepositoryTableFilter.class).getValue();
     final RepositoryColumnFilter columnFilter = getConnectorHint(connectorId, RepositoryColumnFilter.class).getValue();
+    final CopiedTableMetaDataLoader copiedTableMetaDataLoader = tableMetaDataLoader != null ? new CopiedTableMetaDataLoader(
+            tableMetaDataLoader, databaseMetaData, resultDatabaseMetaData, columnFilter) : null;
 
     for (final TableMetaData tableMetaData : resultDatabaseMetaData.getTableMetaData()) {
       if (tableFilter.accept(tableMetaData)) {
-        for (final ColumnMetaData columnMetaData : tableMetaData.getColumnMetaData()) {
-          if (!columnFilter.accept(columnMetaData)) {
-            ((InternalTableMetaData) tableMetaData).removeColumn(columnMetaData);
+        final InternalTableMetaData resultTableMetaData = (InternalTableMetaData) tableMetaData;
+        final InternalTableMetaData originalTableMetaData = (InternalTableMetaData) databaseMetaData.getTableMetaData(tableMetaData
+                .getTableName());
+        resultTableMetaData.setRowCounter(originalTableMetaData.getRowCounter());
+
+        if (!resultTableMetaData.isColumnsLoaded() || !resultTableMetaData.isForeignKeysLoaded()) {
+          resultTableMetaData.setTableMetaDataLoader(copiedTableMetaDataLoader);
+        }
+
+        // Otherwise filtered when loaded
+        if (resultTableMetaData.isColumnsLoaded()) {
+          for (final ColumnMetaData columnMetaData : tableMetaData.getColumnMetaData()) {
+            if (!columnFilter.accept(columnMetaData)) {
+              resultTableMetaData.removeColumn(columnMetaData);
+            }
           }
         }
 
@@ -270,6 +347,39 @@ public class ConnectorRepositoryImpl implements ConnectorRepository {
     return resultDatabaseMetaData;
   }
 
+  /**
+   * Lazily loaded meta data is copied while no table is being loaded.
+   */
+  private static InternalDatabaseMetaData copyDatabaseMetaData(final DatabaseMetaData databaseMetaData,
+                                                               final AbstractTableMetaDataLoader tableMetaDataLoader) {
+    if (tableMetaDataLoader == null) {
+      return Util.copyObject(InternalDatabaseMetaData.class, (InternalDatabaseMetaData) databaseMetaData);
+    }
+
+    tableMetaDataLoader.getLock().lock();
+
+    try {
+      return Util.copyObject(InternalDatabaseMetaData.class, (InternalDatabaseMetaData) databaseMetaData);
+    } finally {
+      tableMetaDataLoader.getLock().unlock();
+    }
+  }
+
+  /**
+   * @return loader of the given meta data or null if it has been read eagerly
+   */
+  private static AbstractTableMetaDataLoader getTableMetaDataLoader(final DatabaseMetaData databaseMetaData) {
+    for (final TableMetaData tableMetaData : databaseMetaData.getTableMetaData()) {
+      final TableMetaDataLoader tableMetaDataLoader = ((InternalTableMetaData) tableMetaData).getTableMetaDataLoader();
+
+      if (tableMetaDataLoader instanceof AbstractTableMetaDataLoader) {
+        return (AbstractTableMetaDataLoader) tableMetaDataLoader;
+      }
+    }
+
+    return null;
+  }
+
   private void initDefaultConfiguration() {
     addSourceDatabaseConfiguration(DatabaseType.GENERIC, new GenericSourceDatabaseConfiguration(this));
     addSourceDatabaseConfiguration(DatabaseType.MOCK, new GenericSourceDatabaseConfiguration(this));
@@ -309,6 +419,7 @@ public class ConnectorRepositoryImpl implements ConnectorRepository {
     addConnectorHint(connectorId, new DefaultNumberOfCheckedTableDataHint());
     addConnectorHint(connectorId, new DefaultMaxNumberOfDataItemsHint());
     addConnectorHint(connectorId, new DefaultSplitColumnHint());
+    addConnectorHint(connectorId, new DefaultSplitRangePlannerHint());
     addConnectorHint(connectorId, new DefaultColumnTypeResolverListHint());
     addConnectorHint(connectorId, new DefaultColumnNameMapperHint());
     addConnectorHint(connectorId, new DefaultEntityTableCheckerHint());
@@ -327,5 +438,17 @@ public class ConnectorRepositoryImpl implements ConnectorRepository {
     addConnectorHint(connectorId, new DefaultTableCopyProgressIndicatorHint());
     addConnectorHint(connectorId, new DefaultScriptExecutorProgressIndicatorHint());
     addConnectorHint(connectorId, new DefaultRefreshTargetConnectionHint());
+    addConnectorHint(connectorId, new DefaultTableCopyParallelismHint());
+    addConnectorHint(connectorId, new DefaultRangeCopyParallelismHint());
+    addConnectorHint(connectorId, new DefaultTableCopyPipelineHint());
+    addConnectorHint(connectorId, new DefaultTableCopyCheckpointHint());
+    addConnectorHint(connectorId, new DefaultNumberOfRowsPerDumpChunkHint());
+    addConnectorHint(connectorId, new DefaultGzipCompressionHint());
+    addConnectorHint(connectorId, new DefaultInlineLobSizeHint());
+    addConnectorHint(connectorId, new DefaultDumpRowFilterHint());
+    addConnectorHint(connectorId, new DefaultDatabaseMetaDataParallelismHint());
+    addConnectorHint(connectorId, new DefaultRowCountStrategyHint());
+    addConnectorHint(connectorId, new DefaultDatabaseMetaDataCacheHint());
+    addConnectorHint(connectorId, new DefaultMetaDataLoadingStrategyHint());
   }
 }
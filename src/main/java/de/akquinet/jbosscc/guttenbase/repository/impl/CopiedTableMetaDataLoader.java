@@ -0,0 +1,153 @@
+package de.akquinet.jbosscc.guttenbase.repository.impl;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.ForeignKeyMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.IndexMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.InternalTableMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.impl.ColumnMetaDataImpl;
+import de.akquinet.jbosscc.guttenbase.meta.impl.ForeignKeyMetaDataImpl;
+import de.akquinet.jbosscc.guttenbase.meta.impl.IndexMetaDataImpl;
+import de.akquinet.jbosscc.guttenbase.repository.RepositoryColumnFilter;
+
+/**
+ * The meta data returned by {@link ConnectorRepositoryImpl} is a copy of the hashed meta data. Tables of the copy that have not been
+ * loaded yet take their details from the hashed meta data, which is loaded from the data base if necessary. Thus every table is
+ * read from the data base only once.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class CopiedTableMetaDataLoader extends AbstractTableMetaDataLoader {
+  private final AbstractTableMetaDataLoader _originalTableMetaDataLoader;
+  private final DatabaseMetaData _originalDatabaseMetaData;
+  private final DatabaseMetaData _databaseMetaData;
+  private final RepositoryColumnFilter _columnFilter;
+
+  /**
+   * @param originalTableMetaDataLoader loader of the original meta data, its lock is shared
+   * @param originalDatabaseMetaData    meta data the given meta data has been copied from
+   * @param databaseMetaData            copied meta data
+   * @param columnFilter                filter applied to the columns of the copied tables
+   */
+  public CopiedTableMetaDataLoader(final AbstractTableMetaDataLoader originalTableMetaDataLoader,
+      final DatabaseMetaData originalDatabaseMetaData, final DatabaseMetaData databaseMetaData, final RepositoryColumnFilter columnFilter) {
+    super(originalTableMetaDataLoader.getLock());
+
+    assert originalDatabaseMetaData != null : "originalDatabaseMetaData != null";
+    assert databaseMetaData != null : "databaseMetaData != null";
+    assert columnFilter != null : "columnFilter != null";
+
+    _originalTableMetaDataLoader = originalTableMetaDataLoader;
+    _originalDatabaseMetaData = originalDatabaseMetaData;
+    _databaseMetaData = databaseMetaData;
+    _columnFilter = columnFilter;
+  }
+
+  @Override
+  protected void readColumns(final List<InternalTableMetaData> tables) throws SQLException {
+    final List<InternalTableMetaData> originalTables = new ArrayList<InternalTableMetaData>();
+
+    for (final InternalTableMetaData table : tables) {
+      final InternalTableMetaData originalTable = getOriginalTable(table);
+
+      if (originalTable != null) {
+        originalTables.add(originalTable);
+      }
+    }
+
+    _originalTableMetaDataLoader.loadColumns(originalTables);
+
+    for (final InternalTableMetaData table : tables) {
+      final InternalTableMetaData originalTable = getOriginalTable(table);
+
+      if (originalTable != null) {
+        copyColumns(originalTable, table);
+      }
+    }
+  }
+
+  @Override
+  protected void readForeignKeys(final InternalTableMetaData tableMetaData) {
+    final InternalTableMetaData originalTable = getOriginalTable(tableMetaData);
+
+    if (originalTable != null) {
+      for (final ForeignKeyMetaData foreignKey : originalTable.getImportedForeignKeys()) {
+        copyForeignKey(foreignKey);
+      }
+
+      for (final ForeignKeyMetaData foreignKey : originalTable.getExportedForeignKeys()) {
+        copyForeignKey(foreignKey);
+      }
+    }
+  }
+
+  private void copyColumns(final InternalTableMetaData originalTable, final InternalTableMetaData table) throws SQLException {
+    for (final ColumnMetaData column : originalTable.getColumnMetaData()) {
+      final ColumnMetaDataImpl columnMetaData = new ColumnMetaDataImpl(column.getColumnType(), column.getColumnName(),
+          column.getColumnTypeName(), column.getColumnClassName(), column.isNullable(), column.isAutoIncrement(), column.getPrecision(),
+          column.getScale(), table);
+      columnMetaData.setPrimaryKey(column.isPrimaryKey());
+
+      if (_columnFilter.accept(columnMetaData)) {
+        table.addColumn(columnMetaData);
+      }
+    }
+
+    for (final IndexMetaData index : originalTable.getIndexes()) {
+      final IndexMetaDataImpl indexMetaData = new IndexMetaDataImpl(table, index.getIndexName(), index.isAscending(), index.isUnique(),
+          index.isPrimaryKeyIndex());
+
+      for (final ColumnMetaData column : index.getColumnMetaData()) {
+        final ColumnMetaData columnMetaData = table.getColumnMetaData(column.getColumnName());
+
+        if (columnMetaData != null) {
+          indexMetaData.addColumn(columnMetaData);
+        }
+      }
+
+      table.addIndex(indexMetaData);
+    }
+
+    // Estimated row counts have been copied along with the table
+    if (table.isRowCountExact()) {
+      table.setRowCount(originalTable.getRowCount());
+    }
+  }
+
+  private void copyForeignKey(final ForeignKeyMetaData foreignKey) {
+    final ColumnMetaData referencingColumn = getColumn(foreignKey.getReferencingColumn());
+    final ColumnMetaData referencedColumn = getColumn(foreignKey.getReferencedColumn());
+
+    // Column or table filtered
+    if (referencingColumn != null && referencedColumn != null) {
+      final InternalTableMetaData fkTableMetaData = (InternalTableMetaData) referencingColumn.getTableMetaData();
+      final InternalTableMetaData pkTableMetaData = (InternalTableMetaData) referencedColumn.getTableMetaData();
+      final String fkName = foreignKey.getForeignKeyName();
+
+      pkTableMetaData.addExportedForeignKey(new ForeignKeyMetaDataImpl(pkTableMetaData, fkName, referencingColumn, referencedColumn));
+      fkTableMetaData.addImportedForeignKey(new ForeignKeyMetaDataImpl(fkTableMetaData, fkName, referencingColumn, referencedColumn));
+    }
+  }
+
+  private ColumnMetaData getColumn(final ColumnMetaData originalColumn) {
+    if (originalColumn == null) {
+      return null;
+    }
+
+    final InternalTableMetaData table = (InternalTableMetaData) _databaseMetaData.getTableMetaData(originalColumn.getTableMetaData()
+        .getTableName());
+
+    return table == null ? null : table.getColumnMetaData(originalColumn.getColumnName());
+  }
+
+  private InternalTableMetaData getOriginalTable(final InternalTableMetaData tableMetaData) {
+    return (InternalTableMetaData) _originalDatabaseMetaData.getTableMetaData(tableMetaData.getTableName());
+  }
+}
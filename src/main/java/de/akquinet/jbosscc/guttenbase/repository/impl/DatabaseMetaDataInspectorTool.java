@@ -1,20 +1,43 @@
 package de.akquinet.jbosscc.guttenbase.repository.impl;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
 
 import org.apache.log4j.Logger;
 
+import de.akquinet.jbosscc.guttenbase.configuration.SourceDatabaseConfiguration;
+import de.akquinet.jbosscc.guttenbase.connector.Connector;
 import de.akquinet.jbosscc.guttenbase.connector.ConnectorInfo;
+import de.akquinet.jbosscc.guttenbase.connector.DatabaseType;
 import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.ForeignKeyMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.InternalColumnMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.InternalDatabaseMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.InternalIndexMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.InternalTableMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.RowCounter;
 import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.impl.ColumnMetaDataImpl;
 import de.akquinet.jbosscc.guttenbase.meta.impl.DatabaseMetaDataImpl;
@@ -23,12 +46,24 @@ import de.akquinet.jbosscc.guttenbase.meta.impl.IndexMetaDataImpl;
 import de.akquinet.jbosscc.guttenbase.meta.impl.TableMetaDataImpl;
 import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
 import de.akquinet.jbosscc.guttenbase.repository.DatabaseColumnFilter;
+import de.akquinet.jbosscc.guttenbase.repository.DatabaseMetaDataParallelism;
 import de.akquinet.jbosscc.guttenbase.repository.DatabaseTableFilter;
+import de.akquinet.jbosscc.guttenbase.repository.MetaDataLoadingStrategy;
+import de.akquinet.jbosscc.guttenbase.repository.RowCountStrategy;
 import de.akquinet.jbosscc.guttenbase.utils.Util;
 
 /**
  * Get table meta data from connection. (C) 2012 by akquinet tech@spree
+ * <p>
+ * Primary keys, foreign keys and indexes are retrieved for all tables of the schema at once, if the driver supports it. Row counts
+ * and column information are queried per table, these queries may be distributed over several connections. Single tables may be
+ * read again, e.g. after they have been altered. With {@link MetaDataLoadingStrategy#LAZY} only the list of tables is read up front,
+ * the details of a table are read by a {@link DatabaseTableMetaDataLoader} when accessed.
+ * </p>
  * 
+ * @Uses-Hint {@link de.akquinet.jbosscc.guttenbase.hints.DatabaseMetaDataParallelismHint} to determine number of connections
+ * @Uses-Hint {@link de.akquinet.jbosscc.guttenbase.hints.RowCountStrategyHint} to determine how rows are counted
+ * @Uses-Hint {@link de.akquinet.jbosscc.guttenbase.hints.MetaDataLoadingStrategyHint} to determine when table details are read
  * @author M. Dahm
  */
 public class DatabaseMetaDataInspectorTool {
@@ -56,140 +91,446 @@ public class DatabaseMetaDataInspectorTool {
 
     final ConnectorInfo connectionInfo = _connectorRepository.getConnectionInfo(_connectorId);
     final String schema = connectionInfo.getSchema();
-    final String schemaPrefix = "".equals(Util.trim(schema)) ? "" : schema + ".";
     final java.sql.DatabaseMetaData metaData = connection.getMetaData();
 
     final DatabaseMetaDataImpl result = new DatabaseMetaDataImpl(schema, getProductName(metaData), getMajorVersion(metaData),
         getMinorVersion(metaData), connectionInfo.getDatabaseType());
 
-    loadTables(result, metaData);
+    loadTables(result, metaData, null);
 
-    updateTableMetaData(connection, metaData, result, schemaPrefix);
+    final MetaDataLoadingStrategy metaDataLoadingStrategy = _connectorRepository.getConnectorHint(_connectorId,
+        MetaDataLoadingStrategy.class).getValue();
+
+    if (metaDataLoadingStrategy == MetaDataLoadingStrategy.LAZY) {
+      prepareLazyLoading(connection, result);
+    } else {
+      updateTableMetaData(connection, metaData, result, result.getTableMetaData(), true);
+    }
 
     LOG.info("Retrieving meta data for " + _connectorId + " DONE");
 
     return result;
   }
 
+  /**
+   * Read the meta data of the given tables again and replace them within the given meta data, e.g. after they have been altered by
+   * a script. Tables that do not exist any more are removed, new tables are added. Other tables are left untouched, except for
+   * their foreign keys referencing the given tables.
+   */
+  public void refreshTableMetaData(final Connection connection, final InternalDatabaseMetaData databaseMetaData,
+      final Collection<String> tableNames) throws SQLException {
+    LOG.info("Retrieving meta data of " + tableNames + " for " + _connectorId);
+
+    final Set<String> upperCaseTableNames = new HashSet<String>();
+
+    for (final String tableName : tableNames) {
+      upperCaseTableNames.add(tableName.toUpperCase());
+    }
+
+    for (final TableMetaData table : databaseMetaData.getTableMetaData()) {
+      if (upperCaseTableNames.contains(table.getTableName().toUpperCase())) {
+        databaseMetaData.removeTableMetaData(table);
+      } else {
+        removeForeignKeys((InternalTableMetaData) table, upperCaseTableNames);
+      }
+    }
+
+    final java.sql.DatabaseMetaData metaData = connection.getMetaData();
+    final List<TableMetaData> tables = loadTables(databaseMetaData, metaData, upperCaseTableNames);
+
+    updateTableMetaData(connection, metaData, databaseMetaData, tables, false);
+  }
+
+  /**
+   * Compute the row counts of previously retrieved meta data again according to the configured {@link RowCountStrategy}, e.g.
+   * when the meta data has been read from a {@link de.akquinet.jbosscc.guttenbase.repository.DatabaseMetaDataCache}.
+   */
+  public void updateRowCounts(final Connection connection, final DatabaseMetaData databaseMetaData) throws SQLException {
+    final DatabaseTableFilter tableFilter = _connectorRepository.getConnectorHint(_connectorId, DatabaseTableFilter.class).getValue();
+
+    updateRowCounts(connection, databaseMetaData.getTableMetaData(), getSchemaPattern(databaseMetaData, tableFilter),
+        getSchemaPrefix(), false);
+  }
+
+  /**
+   * Read columns, primary keys and indexes of the given tables, and their row counts if rows are counted exactly. Used when the
+   * tables are loaded lazily.
+   */
+  public void updateColumnInformation(final Connection connection, final DatabaseMetaData databaseMetaData,
+      final List<TableMetaData> tables) throws SQLException {
+    final DatabaseTableFilter tableFilter = _connectorRepository.getConnectorHint(_connectorId, DatabaseTableFilter.class).getValue();
+    final RowCountStrategy rowCountStrategy = _connectorRepository.getConnectorHint(_connectorId, RowCountStrategy.class).getValue();
+    final String catalog = tableFilter.getCatalog();
+    final String schemaPattern = getSchemaPattern(databaseMetaData, tableFilter);
+    final java.sql.DatabaseMetaData metaData = connection.getMetaData();
+
+    inspectTables(connection, tables, getSchemaPrefix(), rowCountStrategy == RowCountStrategy.EXACT, true);
+
+    updateColumnsWithPrimaryKeyInformation(metaData, databaseMetaData, catalog, schemaPattern, tables, false);
+    updateTableWithIndexInformation(metaData, databaseMetaData, catalog, schemaPattern, tables, false);
+  }
+
+  /**
+   * Read foreign keys from and to the given tables. Used when the tables are loaded lazily, the columns of the referenced or
+   * referencing tables are loaded on demand.
+   */
+  public void updateForeignKeyInformation(final Connection connection, final DatabaseMetaData databaseMetaData,
+      final List<TableMetaData> tables) throws SQLException {
+    final DatabaseTableFilter tableFilter = _connectorRepository.getConnectorHint(_connectorId, DatabaseTableFilter.class).getValue();
+
+    updateColumnsWithForeignKeyInformation(connection.getMetaData(), databaseMetaData, tableFilter.getCatalog(),
+        getSchemaPattern(databaseMetaData, tableFilter), tables, false);
+  }
+
+  /**
+   * Only estimated row counts are retrieved up front, if configured. Everything else is read on first access.
+   */
+  private void prepareLazyLoading(final Connection connection, final DatabaseMetaData databaseMetaData) throws SQLException {
+    final DatabaseTableFilter tableFilter = _connectorRepository.getConnectorHint(_connectorId, DatabaseTableFilter.class).getValue();
+    final RowCountStrategy rowCountStrategy = _connectorRepository.getConnectorHint(_connectorId, RowCountStrategy.class).getValue();
+    final DatabaseTableMetaDataLoader tableMetaDataLoader = new DatabaseTableMetaDataLoader(_connectorRepository, _connectorId,
+        databaseMetaData);
+    final List<TableMetaData> tables = databaseMetaData.getTableMetaData();
+
+    if (rowCountStrategy != RowCountStrategy.EXACT) {
+      updateTablesWithEstimatedRowCount(connection, tables, getSchemaPattern(databaseMetaData, tableFilter), getSchemaPrefix(),
+          rowCountStrategy);
+    }
+
+    for (final TableMetaData table : tables) {
+      final InternalTableMetaData tableMetaData = (InternalTableMetaData) table;
+
+      tableMetaData.setColumnsLoaded(false);
+      tableMetaData.setForeignKeysLoaded(false);
+      tableMetaData.setTableMetaDataLoader(tableMetaDataLoader);
+    }
+  }
+
+  /**
+   * @param allTables the given tables are all tables of the schema, i.e. catalog information may be queried for the whole schema
+   */
   private void updateTableMetaData(final Connection connection, final java.sql.DatabaseMetaData metaData,
-      final DatabaseMetaData databaseMetaData, final String schemaPrefix) throws SQLException {
+      final DatabaseMetaData databaseMetaData, final List<TableMetaData> tables, final boolean allTables) throws SQLException {
+    final DatabaseTableFilter tableFilter = _connectorRepository.getConnectorHint(_connectorId, DatabaseTableFilter.class).getValue();
+    final String catalog = tableFilter.getCatalog();
+    final String schemaPattern = getSchemaPattern(databaseMetaData, tableFilter);
+
+    updateRowCounts(connection, tables, schemaPattern, getSchemaPrefix(), true);
+
+    updateColumnsWithPrimaryKeyInformation(metaData, databaseMetaData, catalog, schemaPattern, tables, allTables);
+    updateColumnsWithForeignKeyInformation(metaData, databaseMetaData, catalog, schemaPattern, tables, allTables);
+    updateTableWithIndexInformation(metaData, databaseMetaData, catalog, schemaPattern, tables, allTables);
+  }
+
+  /**
+   * Update row counts according to the configured {@link RowCountStrategy}, optionally along with the column information.
+   */
+  private void updateRowCounts(final Connection connection, final List<TableMetaData> tables, final String schemaPattern,
+      final String schemaPrefix, final boolean readColumns) throws SQLException {
+    final RowCountStrategy rowCountStrategy = _connectorRepository.getConnectorHint(_connectorId, RowCountStrategy.class).getValue();
+    final boolean countRows = rowCountStrategy == RowCountStrategy.EXACT;
+
+    if (!countRows) {
+      updateTablesWithEstimatedRowCount(connection, tables, schemaPattern, schemaPrefix, rowCountStrategy);
+    }
+
+    if ((countRows || readColumns) && !tables.isEmpty()) {
+      inspectTables(connection, tables, schemaPrefix, countRows, readColumns);
+    }
+  }
+
+  /**
+   * Retrieve row count and/or column information of the given tables. The tables are distributed over the configured number of
+   * connections, the given connection is used by the current thread.
+   */
+  private void inspectTables(final Connection connection, final List<TableMetaData> tables, final String schemaPrefix,
+      final boolean countRows, final boolean readColumns) throws SQLException {
+    final int numberOfConnections = Math.min(tables.size(),
+        _connectorRepository.getConnectorHint(_connectorId, DatabaseMetaDataParallelism.class).getValue().getNumberOfConnections());
+    final Queue<TableMetaData> queue = new ConcurrentLinkedQueue<TableMetaData>(tables);
+
+    if (numberOfConnections <= 1) {
+      inspectTables(connection, queue, schemaPrefix, countRows, readColumns);
+      return;
+    }
+
+    LOG.debug("Inspecting " + tables.size() + " tables with " + numberOfConnections + " connections");
+
+    final ExecutorService executorService = Executors.newFixedThreadPool(numberOfConnections - 1, new ThreadFactory() {
+      private final AtomicInteger _threadNumber = new AtomicInteger();
+
+      @Override
+      public Thread newThread(final Runnable runnable) {
+        final Thread thread = new Thread(runnable, "GB-Meta-Data-" + _threadNumber.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+
+    try {
+      final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+
+      for (int i = 1; i < numberOfConnections; i++) {
+        futures.add(executorService.submit(new Callable<Void>() {
+          @Override
+          public Void call() throws SQLException {
+            inspectTablesWithNewConnection(queue, schemaPrefix, countRows, readColumns);
+            return null;
+          }
+        }));
+      }
+
+      inspectTables(connection, queue, schemaPrefix, countRows, readColumns);
+
+      for (final Future<Void> future : futures) {
+        try {
+          future.get();
+        } catch (final ExecutionException e) {
+          throw e.getCause() instanceof SQLException ? (SQLException) e.getCause()
+              : new SQLException("Inspecting tables failed", e.getCause());
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new SQLException("Interrupted while inspecting tables", e);
+        }
+      }
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  private void inspectTablesWithNewConnection(final Queue<TableMetaData> queue, final String schemaPrefix, final boolean countRows,
+      final boolean readColumns) throws SQLException {
+    final SourceDatabaseConfiguration sourceDatabaseConfiguration = _connectorRepository.getSourceDatabaseConfiguration(_connectorId);
+    final Connector connector = _connectorRepository.createConnector(_connectorId);
+
+    try {
+      final Connection connection = connector.openConnection();
+
+      sourceDatabaseConfiguration.initializeSourceConnection(connection, _connectorId);
+      inspectTables(connection, queue, schemaPrefix, countRows, readColumns);
+      sourceDatabaseConfiguration.finalizeSourceConnection(connection, _connectorId);
+    } finally {
+      connector.closeConnection();
+    }
+  }
+
+  private void inspectTables(final Connection connection, final Queue<TableMetaData> queue, final String schemaPrefix,
+      final boolean countRows, final boolean readColumns) throws SQLException {
     final Statement statement = connection.createStatement();
 
     try {
-      for (final TableMetaData table : databaseMetaData.getTableMetaData()) {
+      for (TableMetaData table = queue.poll(); table != null; table = queue.poll()) {
         final InternalTableMetaData tableMetaData = (InternalTableMetaData) table;
-        updateTableWithRowCount(statement, tableMetaData, schemaPrefix);
 
-        updateTableMetaDataWithColumnInformation(statement, tableMetaData, schemaPrefix);
+        if (countRows) {
+          tableMetaData.setRowCount(countRows(statement, tableMetaData, schemaPrefix));
+        }
+
+        if (readColumns) {
+          updateTableMetaDataWithColumnInformation(statement, tableMetaData, schemaPrefix);
+        }
       }
     } finally {
       statement.close();
     }
+  }
 
-    try {
-      for (final TableMetaData table : databaseMetaData.getTableMetaData()) {
-        final TableMetaDataImpl tableMetaData = (TableMetaDataImpl) table;
+  private void updateColumnsWithForeignKeyInformation(final java.sql.DatabaseMetaData metaData, final DatabaseMetaData databaseMetaData,
+      final String catalog, final String schemaPattern, final List<TableMetaData> tables, final boolean allTables) {
+    LOG.debug("Retrieving foreign key information");
+
+    retrieveCatalogInformation(tables, allTables, new CatalogQuery() {
+      @Override
+      public ResultSet executeQuery(final String tableName) throws SQLException {
+        return tableName == null ? metaData.getImportedKeys(catalog, schemaPattern, null)
+            : metaData.getExportedKeys(catalog, schemaPattern, tableName);
+      }
 
-        updateColumnsWithPrimaryKeyInformation(metaData, databaseMetaData, tableMetaData);
-        updateColumnsWithForeignKeyInformation(metaData, databaseMetaData, tableMetaData);
-        updateTableWithIndexInformation(metaData, databaseMetaData, tableMetaData);
+      @Override
+      public void processRow(final ResultSet resultSet) throws SQLException {
+        if (isForeignKeyOfSchema(resultSet, catalog, schemaPattern)) {
+          addForeignKey(databaseMetaData, resultSet);
+        }
       }
-    } catch (final Exception e) {
-      // Some drivers such as JdbcOdbcBridge do not support this
-      LOG.warn("Could not update additional schema information", e);
+    });
+
+    if (!allTables) {
+      // Foreign keys referencing tables other than the given ones
+      retrieveCatalogInformation(tables, false, new CatalogQuery() {
+        @Override
+        public ResultSet executeQuery(final String tableName) throws SQLException {
+          return metaData.getImportedKeys(catalog, schemaPattern, tableName);
+        }
+
+        @Override
+        public void processRow(final ResultSet resultSet) throws SQLException {
+          if (isForeignKeyOfSchema(resultSet, catalog, schemaPattern)) {
+            addForeignKey(databaseMetaData, resultSet);
+          }
+        }
+      });
     }
   }
 
-  private void updateColumnsWithForeignKeyInformation(final java.sql.DatabaseMetaData metaData, final DatabaseMetaData databaseMetaData,
-      final TableMetaData table) throws SQLException {
-    LOG.debug("Retrieving foreign key information for " + table.getTableName());
-    final DatabaseTableFilter tableFilter = _connectorRepository.getConnectorHint(_connectorId, DatabaseTableFilter.class).getValue();
-    final ResultSet resultSet = metaData.getExportedKeys(null, getSchemaPattern(databaseMetaData, tableFilter), table.getTableName());
+  private static void addForeignKey(final DatabaseMetaData databaseMetaData, final ResultSet resultSet) throws SQLException {
+    final String pkTableName = resultSet.getString("PKTABLE_NAME");
+    final String pkColumnName = resultSet.getString("PKCOLUMN_NAME");
+    final String fkTableName = resultSet.getString("FKTABLE_NAME");
+    final String fkColumnName = resultSet.getString("FKCOLUMN_NAME");
+    final String fkName = resultSet.getString("FK_NAME");
 
-    while (resultSet.next()) {
-      final String pkTableName = resultSet.getString("PKTABLE_NAME");
-      final String pkColumnName = resultSet.getString("PKCOLUMN_NAME");
-      final String fkTableName = resultSet.getString("FKTABLE_NAME");
-      final String fkColumnName = resultSet.getString("FKCOLUMN_NAME");
-      final String fkName = resultSet.getString("FK_NAME");
+    final InternalTableMetaData pkTableMetaData = (InternalTableMetaData) databaseMetaData.getTableMetaData(pkTableName);
+    final InternalTableMetaData fkTableMetaData = (InternalTableMetaData) databaseMetaData.getTableMetaData(fkTableName);
 
-      final InternalTableMetaData pkTableMetaData = (InternalTableMetaData) databaseMetaData.getTableMetaData(pkTableName);
-      final InternalTableMetaData fkTableMetaData = (InternalTableMetaData) databaseMetaData.getTableMetaData(fkTableName);
+    if (fkTableMetaData == null || pkTableMetaData == null) {
+      // this table might have been excluded from the list of tables handled by this batch
+      LOG.warn("Unable to retrieve metadata information for table " + fkTableName + " referenced by " + pkTableName);
+    } else {
+      final ColumnMetaData pkColumn = pkTableMetaData.getColumnMetaData(pkColumnName);
+      final ColumnMetaData fkColumn = fkTableMetaData.getColumnMetaData(fkColumnName);
 
-      if (fkTableMetaData == null || pkTableMetaData == null) {
-        // this table might have been excluded from the list of tables handled by this batch
-        LOG.warn("Unable to retrieve metadata information for table " + fkTableName + " referenced by " + pkTableName);
+      if (pkColumn == null || fkColumn == null) {
+        // Column may have been excluded by the column filter
+        LOG.warn("Unable to retrieve column information for foreign key " + fkName + " of table " + fkTableName);
       } else {
-        final ColumnMetaData pkColumn = pkTableMetaData.getColumnMetaData(pkColumnName);
-        final ColumnMetaData fkColumn = fkTableMetaData.getColumnMetaData(fkColumnName);
-
         pkTableMetaData.addExportedForeignKey(new ForeignKeyMetaDataImpl(pkTableMetaData, fkName, fkColumn, pkColumn));
         fkTableMetaData.addImportedForeignKey(new ForeignKeyMetaDataImpl(fkTableMetaData, fkName, fkColumn, pkColumn));
       }
     }
-
-    resultSet.close();
   }
 
   private void updateTableWithIndexInformation(final java.sql.DatabaseMetaData metaData, final DatabaseMetaData databaseMetaData,
-      final InternalTableMetaData table) throws SQLException {
-    LOG.debug("Retrieving index information for " + table.getTableName());
+      final String catalog, final String schemaPattern, final List<TableMetaData> tables, final boolean allTables) {
+    LOG.debug("Retrieving index information");
 
-    final DatabaseTableFilter tableFilter = _connectorRepository.getConnectorHint(_connectorId, DatabaseTableFilter.class).getValue();
-    final ResultSet resultSet = metaData.getIndexInfo(null, getSchemaPattern(databaseMetaData, tableFilter), table.getTableName(), false,
-        true);
-
-    while (resultSet.next()) {
-      final boolean nonUnique = resultSet.getBoolean("NON_UNIQUE");
-      final String indexName = resultSet.getString("INDEX_NAME");
-      final String columnName = resultSet.getString("COLUMN_NAME");
-      final String ascOrDesc = resultSet.getString("ASC_OR_DESC");
-
-      if (columnName != null) {
-        final ColumnMetaData column = table.getColumnMetaData(columnName);
-
-        // May be strange SYS...$ column as with Oracle
-        if (column != null) {
-          InternalIndexMetaData indexMetaData = (InternalIndexMetaData) table.getIndexMetaData(indexName);
-
-          if (indexMetaData == null) {
-            final boolean ascending = ascOrDesc == null || "A".equals(ascOrDesc);
-            final boolean unique = !nonUnique;
-            indexMetaData = new IndexMetaDataImpl(table, indexName, ascending, unique, column.isPrimaryKey());
-            table.addIndex(indexMetaData);
-          }
+    retrieveCatalogInformation(tables, allTables, new CatalogQuery() {
+      @Override
+      public ResultSet executeQuery(final String tableName) throws SQLException {
+        return metaData.getIndexInfo(catalog, schemaPattern, tableName, false, true);
+      }
 
-          indexMetaData.addColumn(column);
+      @Override
+      public void processRow(final ResultSet resultSet) throws SQLException {
+        if (!isTableOfSchema(resultSet, "TABLE_CAT", "TABLE_SCHEM", catalog, schemaPattern)) {
+          return;
         }
-      }
-    }
 
-    resultSet.close();
+        final InternalTableMetaData table = (InternalTableMetaData) databaseMetaData.getTableMetaData(resultSet.getString("TABLE_NAME"));
+        final boolean nonUnique = resultSet.getBoolean("NON_UNIQUE");
+        final String indexName = resultSet.getString("INDEX_NAME");
+        final String columnName = resultSet.getString("COLUMN_NAME");
+        final String ascOrDesc = resultSet.getString("ASC_OR_DESC");
+
+        if (table != null && columnName != null) {
+          final ColumnMetaData column = table.getColumnMetaData(columnName);
+
+          // May be strange SYS...$ column as with Oracle
+          if (column != null) {
+            InternalIndexMetaData indexMetaData = (InternalIndexMetaData) table.getIndexMetaData(indexName);
+
+            if (indexMetaData == null) {
+              final boolean ascending = ascOrDesc == null || "A".equals(ascOrDesc);
+              final boolean unique = !nonUnique;
+              indexMetaData = new IndexMetaDataImpl(table, indexName, ascending, unique, column.isPrimaryKey());
+              table.addIndex(indexMetaData);
+            }
+
+            indexMetaData.addColumn(column);
+          }
+        }
+      }
+    });
   }
 
   private void updateColumnsWithPrimaryKeyInformation(final java.sql.DatabaseMetaData metaData, final DatabaseMetaData databaseMetaData,
-      final TableMetaData table) throws SQLException {
-    LOG.debug("Retrieving primary key information for " + table.getTableName());
+      final String catalog, final String schemaPattern, final List<TableMetaData> tables, final boolean allTables) {
+    LOG.debug("Retrieving primary key information");
 
-    final DatabaseTableFilter tableFilter = _connectorRepository.getConnectorHint(_connectorId, DatabaseTableFilter.class).getValue();
-    final ResultSet resultSet = metaData.getPrimaryKeys(null, getSchemaPattern(databaseMetaData, tableFilter), table.getTableName());
+    retrieveCatalogInformation(tables, allTables, new CatalogQuery() {
+      @Override
+      public ResultSet executeQuery(final String tableName) throws SQLException {
+        return metaData.getPrimaryKeys(catalog, schemaPattern, tableName);
+      }
 
-    while (resultSet.next()) {
-      final String pkName = resultSet.getString("PK_NAME");
-      final String columnName = resultSet.getString("COLUMN_NAME");
+      @Override
+      public void processRow(final ResultSet resultSet) throws SQLException {
+        if (!isTableOfSchema(resultSet, "TABLE_CAT", "TABLE_SCHEM", catalog, schemaPattern)) {
+          return;
+        }
+
+        final TableMetaData table = databaseMetaData.getTableMetaData(resultSet.getString("TABLE_NAME"));
+        final String pkName = resultSet.getString("PK_NAME");
+        final String columnName = resultSet.getString("COLUMN_NAME");
 
-      if (pkName != null) {
-        final InternalColumnMetaData columnMetaData = (InternalColumnMetaData) table.getColumnMetaData(columnName);
+        if (table != null && pkName != null) {
+          final InternalColumnMetaData columnMetaData = (InternalColumnMetaData) table.getColumnMetaData(columnName);
 
-        if (columnMetaData == null) {
-          throw new IllegalStateException("No column meta data for " + columnName);
+          if (columnMetaData == null) {
+            // Column may have been excluded by the column filter
+            LOG.warn("No column meta data for primary key column " + table.getTableName() + "." + columnName);
+          } else {
+            columnMetaData.setPrimaryKey(true);
+          }
         }
+      }
+    });
+  }
 
-        columnMetaData.setPrimaryKey(true);
+  /**
+   * Try to retrieve the information for all tables of the schema with a single query. Not all drivers support a null table name, in
+   * that case the tables are queried one by one. The same applies if only some tables of the schema are to be inspected.
+   * <p>
+   * Failures are logged only, so that the other kinds of catalog information are still retrieved.
+   * </p>
+   */
+  private static void retrieveCatalogInformation(final List<TableMetaData> tables, final boolean allTables,
+      final CatalogQuery catalogQuery) {
+    try {
+      if (!allTables || !processResultSet(executeBulkQuery(catalogQuery), catalogQuery)) {
+        for (final TableMetaData table : tables) {
+          processResultSet(catalogQuery.executeQuery(table.getTableName()), catalogQuery);
+        }
       }
+    } catch (final Exception e) {
+      // Some drivers such as JdbcOdbcBridge do not support this
+      LOG.warn("Could not update additional schema information", e);
     }
+  }
 
-    resultSet.close();
+  private static ResultSet executeBulkQuery(final CatalogQuery catalogQuery) {
+    try {
+      return catalogQuery.executeQuery(null);
+    } catch (final Exception e) {
+      LOG.debug("Catalog information cannot be retrieved for all tables at once: " + e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * @return true if the result set contained any rows
+   */
+  private static boolean processResultSet(final ResultSet resultSet, final CatalogQuery catalogQuery) throws SQLException {
+    if (resultSet == null) {
+      return false;
+    }
+
+    boolean result = false;
+
+    try {
+      while (resultSet.next()) {
+        try {
+          catalogQuery.processRow(resultSet);
+        } catch (final RuntimeException e) {
+          LOG.warn("Skipping invalid catalog information", e);
+        }
+
+        result = true;
+      }
+    } finally {
+      resultSet.close();
+    }
+
+    return result;
   }
 
   private void updateTableMetaDataWithColumnInformation(final Statement statement, final InternalTableMetaData tableMetaData,
@@ -224,7 +565,7 @@ public class DatabaseMetaDataInspectorTool {
     resultSet.close();
   }
 
-  private void updateTableWithRowCount(final Statement statement, final InternalTableMetaData tableMetaData, final String schemaPrefix)
+  private static int countRows(final Statement statement, final InternalTableMetaData tableMetaData, final String schemaPrefix)
       throws SQLException {
     final String tableName = escapeTableName(tableMetaData, schemaPrefix);
 
@@ -235,25 +576,142 @@ public class DatabaseMetaDataInspectorTool {
     countResultSet.next();
     final int totalCount = countResultSet.getInt(1);
     countResultSet.close();
-    tableMetaData.setRowCount(totalCount);
+    return totalCount;
+  }
+
+  /**
+   * Set estimated row counts read from the data base statistics, if requested and available. All other tables are marked as not
+   * counted yet. In any case the rows will be counted on demand.
+   */
+  private void updateTablesWithEstimatedRowCount(final Connection connection, final List<TableMetaData> tables,
+      final String schemaPattern, final String schemaPrefix, final RowCountStrategy rowCountStrategy) throws SQLException {
+    final Map<String, Integer> estimatedRowCounts = rowCountStrategy == RowCountStrategy.ESTIMATED
+        ? getEstimatedRowCounts(connection, schemaPattern) : new HashMap<String, Integer>();
+
+    for (final TableMetaData table : tables) {
+      final InternalTableMetaData tableMetaData = (InternalTableMetaData) table;
+      final Integer estimatedRowCount = estimatedRowCounts.get(tableMetaData.getTableName().toUpperCase());
+
+      tableMetaData.setEstimatedRowCount(estimatedRowCount != null ? estimatedRowCount : -1,
+          new ConnectorRowCounter(tableMetaData, schemaPrefix));
+    }
+  }
+
+  /**
+   * @return estimated row counts by upper case table name, empty if the data base keeps no statistics we know of
+   */
+  private Map<String, Integer> getEstimatedRowCounts(final Connection connection, final String schemaPattern) {
+    final Map<String, Integer> result = new HashMap<String, Integer>();
+    final DatabaseType databaseType = _connectorRepository.getConnectionInfo(_connectorId).getDatabaseType();
+    final String estimatedRowCountStatement = getEstimatedRowCountStatement(databaseType);
+
+    if (estimatedRowCountStatement != null) {
+      try {
+        final PreparedStatement statement = connection.prepareStatement(estimatedRowCountStatement);
+
+        try {
+          statement.setString(1, schemaPattern == null ? "%" : schemaPattern);
+
+          final ResultSet resultSet = statement.executeQuery();
+
+          while (resultSet.next()) {
+            final String tableName = resultSet.getString(1);
+            final long rowCount = resultSet.getLong(2);
+
+            // Negative or NULL if the table has not been analyzed yet
+            if (tableName != null && !resultSet.wasNull() && rowCount >= 0) {
+              result.put(tableName.toUpperCase(), (int) Math.min(rowCount, Integer.MAX_VALUE));
+            }
+          }
+
+          resultSet.close();
+        } finally {
+          statement.close();
+        }
+      } catch (final SQLException e) {
+        LOG.warn("Could not read estimated row counts: " + e.getMessage());
+      }
+    }
+
+    return result;
   }
 
-  private void loadTables(final InternalDatabaseMetaData databaseMetaData, final java.sql.DatabaseMetaData metaData) throws SQLException {
+  private static String getEstimatedRowCountStatement(final DatabaseType databaseType) {
+    switch (databaseType) {
+    case POSTGRESQL:
+      return "SELECT c.relname, CAST(c.reltuples AS BIGINT) FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace"
+          + " WHERE c.relkind IN ('r', 'p') AND n.nspname LIKE ?";
+    case MYSQL:
+      return "SELECT TABLE_NAME, TABLE_ROWS FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA LIKE ?";
+    case MSSQL:
+      return "SELECT t.name, SUM(p.rows) FROM sys.tables t JOIN sys.schemas s ON s.schema_id = t.schema_id"
+          + " JOIN sys.partitions p ON p.object_id = t.object_id AND p.index_id IN (0, 1) WHERE s.name LIKE ? GROUP BY t.name";
+    case ORACLE:
+      return "SELECT TABLE_NAME, NUM_ROWS FROM ALL_TABLES WHERE OWNER LIKE ?";
+    case DB2:
+      return "SELECT TABNAME, CARD FROM SYSCAT.TABLES WHERE TABSCHEMA LIKE ?";
+    case H2DB:
+      return "SELECT TABLE_NAME, ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA LIKE ?";
+    default:
+      return null;
+    }
+  }
+
+  /**
+   * @param tableNames upper case names of the tables to load, null for all tables
+   * @return added tables
+   */
+  private List<TableMetaData> loadTables(final InternalDatabaseMetaData databaseMetaData, final java.sql.DatabaseMetaData metaData,
+      final Set<String> tableNames) throws SQLException {
     final DatabaseTableFilter tableFilter = _connectorRepository.getConnectorHint(_connectorId, DatabaseTableFilter.class).getValue();
+    final List<TableMetaData> result = new ArrayList<TableMetaData>();
     LOG.debug("Searching tables in schema " + databaseMetaData.getSchema());
     final ResultSet rs = metaData.getTables(tableFilter.getCatalog(), getSchemaPattern(databaseMetaData, tableFilter),
         tableFilter.getTableNamePattern(), tableFilter.getTableTypes());
 
     while (rs.next()) {
       final String tableName = rs.getString("TABLE_NAME");
-      final InternalTableMetaData tableMetaData = new TableMetaDataImpl(tableName, databaseMetaData);
 
-      if (tableFilter.accept(tableMetaData)) {
-        databaseMetaData.addTableMetaData(tableMetaData);
+      if (tableNames == null || tableNames.contains(tableName.toUpperCase())) {
+        final InternalTableMetaData tableMetaData = new TableMetaDataImpl(tableName, databaseMetaData);
+
+        if (tableFilter.accept(tableMetaData)) {
+          databaseMetaData.addTableMetaData(tableMetaData);
+          result.add(tableMetaData);
+        }
       }
     }
 
-    LOG.info("Found tables: " + databaseMetaData.getTableMetaData());
+    rs.close();
+    LOG.info("Found tables: " + result);
+    return result;
+  }
+
+  /**
+   * Remove foreign keys from or to the given tables.
+   */
+  private static void removeForeignKeys(final InternalTableMetaData tableMetaData, final Set<String> tableNames) {
+    for (final ForeignKeyMetaData foreignKey : tableMetaData.getImportedForeignKeys()) {
+      if (isColumnOfTable(foreignKey.getReferencedColumn(), tableNames)) {
+        tableMetaData.removeImportedForeignKey(foreignKey);
+      }
+    }
+
+    for (final ForeignKeyMetaData foreignKey : tableMetaData.getExportedForeignKeys()) {
+      if (isColumnOfTable(foreignKey.getReferencingColumn(), tableNames)) {
+        tableMetaData.removeExportedForeignKey(foreignKey);
+      }
+    }
+  }
+
+  private static boolean isColumnOfTable(final ColumnMetaData columnMetaData, final Set<String> tableNames) {
+    return columnMetaData != null && tableNames.contains(columnMetaData.getTableMetaData().getTableName().toUpperCase());
+  }
+
+  private String getSchemaPrefix() {
+    final String schema = _connectorRepository.getConnectionInfo(_connectorId).getSchema();
+
+    return "".equals(Util.trim(schema)) ? "" : schema + ".";
   }
 
   private static String getSchemaPattern(final DatabaseMetaData databaseMetaData, final DatabaseTableFilter tableFilter)
@@ -269,6 +727,46 @@ public class DatabaseMetaDataInspectorTool {
 
   }
 
+  /**
+   * Bulk queries for all tables are not necessarily restricted to the given catalog and schema by every driver.
+   */
+  private static boolean isForeignKeyOfSchema(final ResultSet resultSet, final String catalog, final String schemaPattern)
+      throws SQLException {
+    return isTableOfSchema(resultSet, "FKTABLE_CAT", "FKTABLE_SCHEM", catalog, schemaPattern)
+        && isTableOfSchema(resultSet, "PKTABLE_CAT", "PKTABLE_SCHEM", catalog, schemaPattern);
+  }
+
+  /**
+   * @return false if the catalog or schema reported by the driver do not match the given ones. Unreported values are accepted.
+   */
+  private static boolean isTableOfSchema(final ResultSet resultSet, final String catalogColumn, final String schemaColumn,
+      final String catalog, final String schemaPattern) throws SQLException {
+    final String tableCatalog = resultSet.getString(catalogColumn);
+    final String tableSchema = resultSet.getString(schemaColumn);
+
+    return (catalog == null || tableCatalog == null || catalog.equalsIgnoreCase(tableCatalog))
+        && (schemaPattern == null || tableSchema == null || matchesPattern(tableSchema, schemaPattern));
+  }
+
+  /**
+   * Match name against JDBC search pattern, where "%" matches any substring and "_" any character.
+   */
+  private static boolean matchesPattern(final String name, final String pattern) {
+    final StringBuilder regex = new StringBuilder();
+
+    for (final char c : pattern.toCharArray()) {
+      if (c == '%') {
+        regex.append(".*");
+      } else if (c == '_') {
+        regex.append('.');
+      } else {
+        regex.append(Pattern.quote(String.valueOf(c)));
+      }
+    }
+
+    return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE).matcher(name).matches();
+  }
+
   // Some drivers such as JdbcOdbcBridge do not support this
   private static String getProductName(final java.sql.DatabaseMetaData metaData) {
     try {
@@ -307,4 +805,58 @@ public class DatabaseMetaDataInspectorTool {
 
     return tableName;
   }
+
+  /**
+   * Counts the rows of a table over a connection of its own. The result is kept, since the counter is shared by all copies of the
+   * table meta data.
+   */
+  private final class ConnectorRowCounter implements RowCounter {
+    private final InternalTableMetaData _tableMetaData;
+    private final String _schemaPrefix;
+    private Integer _rowCount;
+
+    private ConnectorRowCounter(final InternalTableMetaData tableMetaData, final String schemaPrefix) {
+      _tableMetaData = tableMetaData;
+      _schemaPrefix = schemaPrefix;
+    }
+
+    @Override
+    public synchronized int countRows() throws SQLException {
+      if (_rowCount == null) {
+        final SourceDatabaseConfiguration sourceDatabaseConfiguration = _connectorRepository.getSourceDatabaseConfiguration(_connectorId);
+        final Connector connector = _connectorRepository.createConnector(_connectorId);
+
+        try {
+          final Connection connection = connector.openConnection();
+          final Statement statement = connection.createStatement();
+
+          sourceDatabaseConfiguration.initializeSourceConnection(connection, _connectorId);
+
+          try {
+            _rowCount = DatabaseMetaDataInspectorTool.countRows(statement, _tableMetaData, _schemaPrefix);
+          } finally {
+            statement.close();
+          }
+
+          sourceDatabaseConfiguration.finalizeSourceConnection(connection, _connectorId);
+        } finally {
+          connector.closeConnection();
+        }
+      }
+
+      return _rowCount;
+    }
+  }
+
+  /**
+   * Query for JDBC catalog information such as primary keys that may be executed for a single table or all tables of the schema.
+   */
+  private interface CatalogQuery {
+    /**
+     * @param tableName null to query all tables at once
+     */
+    ResultSet executeQuery(String tableName) throws SQLException;
+
+    void processRow(ResultSet resultSet) throws SQLException;
+  }
 }
@@ -0,0 +1,82 @@
+package de.akquinet.jbosscc.guttenbase.repository.impl;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.log4j.Logger;
+
+import de.akquinet.jbosscc.guttenbase.configuration.SourceDatabaseConfiguration;
+import de.akquinet.jbosscc.guttenbase.connector.Connector;
+import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.InternalTableMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+
+/**
+ * Reads table details from the data base using {@link DatabaseMetaDataInspectorTool}. Every batch uses a connection of its own.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class DatabaseTableMetaDataLoader extends AbstractTableMetaDataLoader {
+  private static final Logger LOG = Logger.getLogger(DatabaseTableMetaDataLoader.class);
+
+  private final ConnectorRepository _connectorRepository;
+  private final String _connectorId;
+  private final DatabaseMetaData _databaseMetaData;
+
+  public DatabaseTableMetaDataLoader(final ConnectorRepository connectorRepository, final String connectorId,
+      final DatabaseMetaData databaseMetaData) {
+    super(new ReentrantLock());
+
+    assert connectorRepository != null : "connectorRepository != null";
+    assert connectorId != null : "connectorId != null";
+    assert databaseMetaData != null : "databaseMetaData != null";
+
+    _connectorRepository = connectorRepository;
+    _connectorId = connectorId;
+    _databaseMetaData = databaseMetaData;
+  }
+
+  @Override
+  protected void readColumns(final List<InternalTableMetaData> tables) throws SQLException {
+    LOG.debug("Loading meta data of " + tables + " for " + _connectorId);
+
+    inspectTables(new ArrayList<TableMetaData>(tables), false);
+  }
+
+  @Override
+  protected void readForeignKeys(final InternalTableMetaData tableMetaData) throws SQLException {
+    LOG.debug("Loading foreign keys of " + tableMetaData + " for " + _connectorId);
+
+    inspectTables(Collections.<TableMetaData>singletonList(tableMetaData), true);
+  }
+
+  private void inspectTables(final List<TableMetaData> tables, final boolean foreignKeys) throws SQLException {
+    final DatabaseMetaDataInspectorTool tableMetaDataInspector = new DatabaseMetaDataInspectorTool(_connectorRepository, _connectorId);
+    final SourceDatabaseConfiguration sourceDatabaseConfiguration = _connectorRepository.getSourceDatabaseConfiguration(_connectorId);
+    final Connector connector = _connectorRepository.createConnector(_connectorId);
+
+    try {
+      final Connection connection = connector.openConnection();
+
+      sourceDatabaseConfiguration.initializeSourceConnection(connection, _connectorId);
+
+      if (foreignKeys) {
+        tableMetaDataInspector.updateForeignKeyInformation(connection, _databaseMetaData, tables);
+      } else {
+        tableMetaDataInspector.updateColumnInformation(connection, _databaseMetaData, tables);
+      }
+
+      sourceDatabaseConfiguration.finalizeSourceConnection(connection, _connectorId);
+    } finally {
+      connector.closeConnection();
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package de.akquinet.jbosscc.guttenbase.sql;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Primitive detection of the tables whose meta data may be modified by SQL statements, such as CREATE TABLE, ALTER TABLE, CREATE
+ * INDEX or INSERT INTO. Any other statement except SELECT and UPDATE is regarded as modifying the whole schema, e.g. DROP INDEX,
+ * CREATE VIEW, SELECT ... INTO or procedure calls, since the tables they modify are unknown.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class SQLTableModificationDetector
+{
+  private static final String IDENTIFIER = "(?:\"[^\"]+\"|`[^`]+`|\\[[^\\]]+\\]|[\\w$#]+)";
+  private static final String NAME = "(" + IDENTIFIER + "(?:\\s*\\.\\s*" + IDENTIFIER + ")*)";
+  private static final int FLAGS = Pattern.CASE_INSENSITIVE | Pattern.DOTALL;
+
+  private static final Pattern TABLE_STATEMENT = Pattern.compile("^\\s*(?:CREATE|ALTER|DROP|TRUNCATE)\\s+(?:(?:GLOBAL|LOCAL)\\s+)?"
+      + "(?:(?:TEMPORARY|TEMP)\\s+)?TABLE\\s+(?:IF\\s+(?:NOT\\s+)?EXISTS\\s+)?" + NAME, FLAGS);
+  private static final Pattern RENAME_TO = Pattern.compile("\\sRENAME\\s+TO\\s+" + NAME, FLAGS);
+  private static final Pattern RENAME_TABLE_STATEMENT = Pattern.compile("^\\s*RENAME\\s+TABLE\\s+" + NAME + "\\s+TO\\s+" + NAME,
+      FLAGS);
+  private static final Pattern CREATE_INDEX_STATEMENT = Pattern.compile("^\\s*CREATE\\s+(?:UNIQUE\\s+)?(?:(?:NON)?CLUSTERED\\s+)?"
+      + "INDEX\\s+" + NAME + "\\s+ON\\s+" + NAME, FLAGS);
+  private static final Pattern DATA_STATEMENT = Pattern.compile("^\\s*(?:INSERT\\s+(?:IGNORE\\s+)?INTO|REPLACE\\s+INTO|UPSERT\\s+INTO"
+      + "|DELETE\\s+FROM|MERGE\\s+INTO)\\s+" + NAME, FLAGS);
+  private static final Pattern UNMODIFYING_STATEMENT = Pattern.compile("^\\s*(?:SELECT|UPDATE)\\s", FLAGS);
+  private static final Pattern SELECT_INTO_STATEMENT = Pattern.compile("^\\s*SELECT\\s.*\\sINTO\\s", FLAGS);
+
+  private final Set<String> _tableNames = new LinkedHashSet<String>();
+  private boolean _schemaModified;
+
+  /**
+   * Record the tables modified by the given SQL statement.
+   */
+  public void addStatement(final String sql)
+  {
+    assert sql != null : "sql != null";
+
+    final Matcher tableMatcher = TABLE_STATEMENT.matcher(sql);
+    final Matcher renameTableMatcher = RENAME_TABLE_STATEMENT.matcher(sql);
+    final Matcher createIndexMatcher = CREATE_INDEX_STATEMENT.matcher(sql);
+    final Matcher dataMatcher = DATA_STATEMENT.matcher(sql);
+
+    if (tableMatcher.find())
+    {
+      addTableName(tableMatcher.group(1));
+
+      final Matcher renameToMatcher = RENAME_TO.matcher(sql);
+
+      if (renameToMatcher.find())
+      {
+        addTableName(renameToMatcher.group(1));
+      }
+    }
+    else if (renameTableMatcher.find())
+    {
+      addTableName(renameTableMatcher.group(1));
+      addTableName(renameTableMatcher.group(2));
+    }
+    else if (createIndexMatcher.find())
+    {
+      addTableName(createIndexMatcher.group(2));
+    }
+    else if (dataMatcher.find())
+    {
+      addTableName(dataMatcher.group(1));
+    }
+    else if (!UNMODIFYING_STATEMENT.matcher(sql).find() || SELECT_INTO_STATEMENT.matcher(sql).find())
+    {
+      _schemaModified = true;
+    }
+  }
+
+  /**
+   * @return upper case names of the modified tables, without schema prefix
+   */
+  public Set<String> getTableNames()
+  {
+    return Collections.unmodifiableSet(_tableNames);
+  }
+
+  /**
+   * @return true if any statement may have modified the schema in a way that cannot be attributed to single tables
+   */
+  public boolean isSchemaModified()
+  {
+    return _schemaModified;
+  }
+
+  private void addTableName(final String name)
+  {
+    String tableName = name.substring(name.lastIndexOf('.') + 1).trim();
+
+    if (tableName.startsWith("\"") || tableName.startsWith("`") || tableName.startsWith("["))
+    {
+      tableName = tableName.substring(1, tableName.length() - 1);
+    }
+
+    _tableNames.add(tableName.toUpperCase());
+  }
+}
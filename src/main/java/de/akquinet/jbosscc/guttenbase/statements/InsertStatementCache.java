@@ -0,0 +1,165 @@
+package de.akquinet.jbosscc.guttenbase.statements;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+
+/**
+ * Bounded cache of prepared INSERT statements for a single target connection, keyed by table and number of VALUES tuples.
+ * <p>
+ * Data is usually not a multiple of the number of rows per batch. Instead of preparing a statement of arbitrary size for the
+ * remaining rows, the remainder is split into chunks whose sizes are powers of two, see {@link #getChunkSizes(int, int, boolean)}.
+ * Thus only a handful of different statements exist per table, which can be reused by the JDBC driver and the data base.
+ * </p>
+ * <p>
+ * The least recently used statement is closed when the cache is full. The cache is not thread-safe, just like the connection.
+ * </p>
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class InsertStatementCache
+{
+  private static final Logger LOG = Logger.getLogger(InsertStatementCache.class);
+
+  public static final int DEFAULT_MAXIMUM_SIZE = 32;
+
+  private final AbstractInsertStatementCreator _insertStatementCreator;
+  private final Connection _targetConnection;
+  private final Map<String, PreparedStatement> _statements;
+
+  public InsertStatementCache(final AbstractInsertStatementCreator insertStatementCreator, final Connection targetConnection)
+  {
+    this(insertStatementCreator, targetConnection, DEFAULT_MAXIMUM_SIZE);
+  }
+
+  public InsertStatementCache(final AbstractInsertStatementCreator insertStatementCreator, final Connection targetConnection,
+                              final int maximumSize)
+  {
+    assert insertStatementCreator != null : "insertStatementCreator != null";
+    assert targetConnection != null : "targetConnection != null";
+    assert maximumSize > 0 : "maximumSize > 0";
+
+    _insertStatementCreator = insertStatementCreator;
+    _targetConnection = targetConnection;
+    _statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true)
+    {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<String, PreparedStatement> eldest)
+      {
+        if (size() > maximumSize)
+        {
+          closeStatement(eldest.getValue());
+          return true;
+        }
+        else
+        {
+          return false;
+        }
+      }
+    };
+  }
+
+  /**
+   * Split the given number of rows into chunks, each of which is inserted with a single (cached) statement. There are as many chunks
+   * of numberOfRowsPerBatch as possible. With multiple VALUES clauses the remainder is split into powers of two, otherwise the
+   * remainder is a single chunk, since the statement has a single VALUES clause anyway.
+   */
+  public static List<Integer> getChunkSizes(final int numberOfRows, final int numberOfRowsPerBatch,
+                                            final boolean useMultipleValuesClauses)
+  {
+    assert numberOfRowsPerBatch > 0 : "numberOfRowsPerBatch > 0";
+
+    final List<Integer> result = new ArrayList<Integer>();
+    int remainder = numberOfRows;
+
+    for (; remainder >= numberOfRowsPerBatch; remainder -= numberOfRowsPerBatch)
+    {
+      result.add(numberOfRowsPerBatch);
+    }
+
+    if (!useMultipleValuesClauses)
+    {
+      if (remainder > 0)
+      {
+        result.add(remainder);
+      }
+
+      return result;
+    }
+
+    for (int bucketSize = Integer.highestOneBit(Math.max(remainder, 1)); remainder > 0; bucketSize >>= 1)
+    {
+      if (remainder >= bucketSize)
+      {
+        result.add(bucketSize);
+        remainder -= bucketSize;
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Get statement from cache or create a new one. The statement must not be closed by the caller.
+   */
+  public PreparedStatement getInsertStatement(final String sourceConnectorId, final TableMetaData sourceTableMetaData,
+                                              final String targetTableName, final TableMetaData targetTableMetaData, final int numberOfRows,
+                                              final boolean useMultipleValuesClauses) throws SQLException
+  {
+    final int numberOfValuesClauses = useMultipleValuesClauses ? numberOfRows : 1;
+    final String key = targetTableName + ":" + numberOfValuesClauses;
+    PreparedStatement result = _statements.get(key);
+
+    if (result == null)
+    {
+      result = _insertStatementCreator.createInsertStatement(sourceConnectorId, sourceTableMetaData, targetTableName,
+              targetTableMetaData, _targetConnection, numberOfValuesClauses, useMultipleValuesClauses);
+      _statements.put(key, result);
+    }
+
+    return result;
+  }
+
+  public int size()
+  {
+    return _statements.size();
+  }
+
+  /**
+   * Close all cached statements.
+   */
+  public void close()
+  {
+    for (final Iterator<PreparedStatement> iterator = _statements.values().iterator(); iterator.hasNext(); )
+    {
+      closeStatement(iterator.next());
+      iterator.remove();
+    }
+  }
+
+  private static void closeStatement(final PreparedStatement statement)
+  {
+    try
+    {
+      statement.close();
+    }
+    catch (final SQLException e)
+    {
+      LOG.warn("While closing " + statement, e);
+    }
+  }
+}
@@ -5,13 +5,12 @@ import de.akquinet.jbosscc.guttenbase.connector.DatabaseType;
 import de.akquinet.jbosscc.guttenbase.exceptions.IncompatibleColumnsException;
 import de.akquinet.jbosscc.guttenbase.exceptions.MissingDataException;
 import de.akquinet.jbosscc.guttenbase.hints.ColumnOrderHint;
-import de.akquinet.jbosscc.guttenbase.mapping.ColumnMapper;
-import de.akquinet.jbosscc.guttenbase.mapping.ColumnMapper.ColumnMapperResult;
-import de.akquinet.jbosscc.guttenbase.mapping.ColumnTypeMapping;
 import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.ColumnValueTransfer;
 import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
 import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
-import de.akquinet.jbosscc.guttenbase.tools.CommonColumnTypeResolverTool;
+import de.akquinet.jbosscc.guttenbase.statements.TableCopyPlan.SourceColumnPlan;
+import de.akquinet.jbosscc.guttenbase.statements.TableCopyPlan.TargetColumnPlan;
 import org.apache.log4j.Logger;
 
 import java.io.Closeable;
@@ -24,7 +23,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Fill previously created INSERT statement with data from source connector.
+ * Fill previously created INSERT statement with data from source connector. Column mappings and types are resolved only once
+ * per table, see {@link TableCopyPlan}. Values that need no conversion are transferred by a {@link ColumnValueTransfer}.
  * <p>
  * &copy; 2012-2020 akquinet tech@spree
  * </p>
@@ -38,6 +38,7 @@ public class InsertStatementFiller
 
   private final ConnectorRepository _connectorRepository;
   private final List<Closeable> _closeableObjects = new ArrayList<Closeable>();
+  private TableCopyPlan _tableCopyPlan;
 
   public InsertStatementFiller(final ConnectorRepository connectorRepository)
   {
@@ -51,12 +52,26 @@ public class InsertStatementFiller
                                                final PreparedStatement insertStatement, final int numberOfRowsPerBatch, final boolean useMultipleValuesClauses)
           throws SQLException
   {
-    final CommonColumnTypeResolverTool commonColumnTypeResolver = new CommonColumnTypeResolverTool(_connectorRepository);
-    final List<ColumnMetaData> sourceColumns = ColumnOrderHint.getSortedColumns(_connectorRepository, sourceConnectorId,
-            sourceTableMetaData);
-    final ColumnMapper columnMapper = _connectorRepository.getConnectorHint(targetConnectorId, ColumnMapper.class).getValue();
-    final DatabaseType targetDatabaseType = targetTableMetaData.getDatabaseMetaData().getDatabaseType();
-    int targetColumnIndex = 1;
+    if (_tableCopyPlan == null || !_tableCopyPlan.isPlanFor(sourceConnectorId, sourceTableMetaData, targetConnectorId, targetTableMetaData))
+    {
+      _tableCopyPlan = new TableCopyPlan(_connectorRepository, sourceConnectorId, sourceTableMetaData, targetConnectorId,
+              targetTableMetaData);
+    }
+
+    fillInsertStatementFromResultSet(_tableCopyPlan, targetDatabaseConfiguration, targetConnection, rs, insertStatement,
+            numberOfRowsPerBatch, useMultipleValuesClauses);
+  }
+
+  /**
+   * Fill INSERT statement using the given precompiled plan, i.e. without resolving column mappings and types again.
+   */
+  public void fillInsertStatementFromResultSet(final TableCopyPlan tableCopyPlan,
+                                               final TargetDatabaseConfiguration targetDatabaseConfiguration, final Connection targetConnection, final ResultSet rs,
+                                               final PreparedStatement insertStatement, final int numberOfRowsPerBatch, final boolean useMultipleValuesClauses)
+          throws SQLException
+  {
+    final int numberOfTargetColumns = tableCopyPlan.getNumberOfTargetColumns();
+    int targetColumnOffset = 0;
     int dataItemsCount = 0;
 
     for (int currentRow = 0; currentRow < numberOfRowsPerBatch; currentRow++)
@@ -68,86 +83,255 @@ public class InsertStatementFiller
         throw new MissingDataException("No more data in row " + currentRow + "/" + numberOfRowsPerBatch);
       }
 
-      targetDatabaseConfiguration.beforeNewRow(targetConnection, targetConnectorId, targetTableMetaData);
+      dataItemsCount += fillRow(tableCopyPlan, targetDatabaseConfiguration, targetConnection, rs, insertStatement,
+              targetColumnOffset);
 
-      for (int columnIndex = 1; columnIndex <= sourceColumns.size(); columnIndex++)
+      if (useMultipleValuesClauses)
       {
-        final ColumnMetaData sourceColumnMetaData = sourceColumns.get(columnIndex - 1);
-        final ColumnMapperResult mapping = columnMapper.map(sourceColumnMetaData, targetTableMetaData);
+        targetColumnOffset += numberOfTargetColumns;
+      }
+      else
+      {
+        // Add another INSERT with one VALUES clause to BATCH
+        insertStatement.addBatch();
+      }
+    }
+
+    // Add single INSERT with many VALUES clauses to BATCH
+    if (useMultipleValuesClauses)
+    {
+      insertStatement.addBatch();
+    }
 
-        if (mapping.getColumns().isEmpty())
+    LOG.debug("Number of data items: " + dataItemsCount);
+  }
+
+  /**
+   * Add the next rows of the result set to the BATCH of an INSERT statement with a single VALUES clause. Unlike
+   * {@link #fillInsertStatementFromResultSet(TableCopyPlan, TargetDatabaseConfiguration, Connection, ResultSet, PreparedStatement, int, boolean)}
+   * the number of remaining rows need not be known in advance.
+   *
+   * @return number of rows added, less than the given maximum if the result set is exhausted
+   */
+  public int fillInsertStatementFromNextRows(final TableCopyPlan tableCopyPlan,
+                                             final TargetDatabaseConfiguration targetDatabaseConfiguration, final Connection targetConnection, final ResultSet rs,
+                                             final PreparedStatement insertStatement, final int maxNumberOfRows)
+          throws SQLException
+  {
+    int dataItemsCount = 0;
+    int result = 0;
+
+    while (result < maxNumberOfRows && rs.next())
+    {
+      dataItemsCount += fillRow(tableCopyPlan, targetDatabaseConfiguration, targetConnection, rs, insertStatement, 0);
+      insertStatement.addBatch();
+      result++;
+    }
+
+    LOG.debug("Number of data items: " + dataItemsCount);
+
+    return result;
+  }
+
+  /**
+   * Set the values of the current row of the result set as parameters of the INSERT statement, starting after the given offset.
+   *
+   * @return number of data items set
+   */
+  private int fillRow(final TableCopyPlan tableCopyPlan, final TargetDatabaseConfiguration targetDatabaseConfiguration,
+                      final Connection targetConnection, final ResultSet rs, final PreparedStatement insertStatement,
+                      final int targetColumnOffset) throws SQLException
+  {
+    final String targetConnectorId = tableCopyPlan.getTargetConnectorId();
+    final TableMetaData targetTableMetaData = tableCopyPlan.getTargetTableMetaData();
+    final DatabaseType targetDatabaseType = tableCopyPlan.getTargetDatabaseType();
+    final List<SourceColumnPlan> sourceColumnPlans = tableCopyPlan.getSourceColumnPlans();
+    final int numberOfSourceColumns = sourceColumnPlans.size();
+    int dataItemsCount = 0;
+
+    targetDatabaseConfiguration.beforeNewRow(targetConnection, targetConnectorId, targetTableMetaData);
+
+    for (int i = 0; i < numberOfSourceColumns; i++)
+    {
+      final SourceColumnPlan sourceColumnPlan = sourceColumnPlans.get(i);
+      final ColumnMetaData sourceColumnMetaData = sourceColumnPlan.getSourceColumnMetaData();
+      final int columnIndex = sourceColumnPlan.getSourceColumnIndex();
+      final List<TargetColumnPlan> targetColumnPlans = sourceColumnPlan.getTargetColumnPlans();
+
+      if (targetColumnPlans.isEmpty())
+      {
+        if (sourceColumnPlan.isEmptyColumnListOk())
         {
-          if (mapping.isEmptyColumnListOk())
-          {
-            // Unused result, but we may have to skip the next data item from an underlying stream implementation
-            rs.getObject(columnIndex);
-          }
-          else
-          {
-            throw new IncompatibleColumnsException("Cannot map column " + targetTableMetaData
-                    + ":"
-                    + sourceColumnMetaData
-                    + ": Target column list empty");
-          }
+          // Unused result, but we may have to skip the next data item from an underlying stream implementation
+          rs.getObject(columnIndex);
+        }
+        else
+        {
+          throw new IncompatibleColumnsException("Cannot map column " + targetTableMetaData
+                  + ":"
+                  + sourceColumnMetaData
+                  + ": Target column list empty");
+        }
+      }
+
+      for (int j = 0; j < targetColumnPlans.size(); j++)
+      {
+        final TargetColumnPlan targetColumnPlan = targetColumnPlans.get(j);
+        final ColumnValueTransfer valueTransfer = targetColumnPlan.getValueTransfer();
+        final int targetColumnIndex = targetColumnOffset + targetColumnPlan.getTargetColumnIndex();
+        final Closeable optionalCloseableObject;
+
+        if (valueTransfer != null)
+        {
+          optionalCloseableObject = valueTransfer.transfer(rs, columnIndex, insertStatement, targetColumnIndex);
+        }
+        else
+        {
+          final ColumnMetaData targetColumnMetaData = targetColumnPlan.getTargetColumnMetaData();
+          Object value = targetColumnPlan.getSourceColumnType().getValue(rs, columnIndex);
+          value = targetColumnPlan.getColumnDataMapper().map(sourceColumnMetaData, targetColumnMetaData, value);
+          optionalCloseableObject = targetColumnPlan.getTargetColumnType().setValue(insertStatement, targetColumnIndex, value,
+                  targetDatabaseType, targetColumnMetaData.getColumnType());
         }
 
-        for (final ColumnMetaData targetColumnMetaData : mapping.getColumns())
+        if (optionalCloseableObject != null)
         {
-          final ColumnTypeMapping columnTypeMapping = findMapping(sourceConnectorId, targetConnectorId, commonColumnTypeResolver,
-                  sourceColumnMetaData, targetColumnMetaData);
+          _closeableObjects.add(optionalCloseableObject);
+        }
+
+        dataItemsCount++;
+      }
+    }
+
+    targetDatabaseConfiguration.afterNewRow(targetConnection, targetConnectorId, targetTableMetaData);
+
+    return dataItemsCount;
+  }
+
+  /**
+   * Read at most the given number of rows from the result set and map them to the target columns. The returned rows contain the
+   * values in the order of the target columns, i.e. value i belongs to the column with {@link TargetColumnPlan#getTargetColumnIndex()}
+   * i + 1.
+   * <p>
+   * This method does not modify the state of this object and may thus be called by a different thread than
+   * {@link #fillInsertStatementFromRows}.
+   * </p>
+   *
+   * @return rows read, fewer than the given maximum if the result set is exhausted
+   */
+  public List<Object[]> readNextRowsFromResultSet(final TableCopyPlan tableCopyPlan, final ResultSet rs, final int maxNumberOfRows)
+          throws SQLException
+  {
+    final List<Object[]> result = new ArrayList<Object[]>(maxNumberOfRows);
 
-          Object value = columnTypeMapping.getSourceColumnType().getValue(rs, columnIndex);
-          value = columnTypeMapping.getColumnDataMapper().map(sourceColumnMetaData, targetColumnMetaData, value);
-          Closeable optionalCloseableObject = columnTypeMapping.getTargetColumnType().setValue(insertStatement, targetColumnIndex++, value, targetDatabaseType,
-                  targetColumnMetaData.getColumnType());
+    while (result.size() < maxNumberOfRows && rs.next())
+    {
+      result.add(readRow(tableCopyPlan, rs));
+    }
+
+    return result;
+  }
+
+  /**
+   * Read the current row of the result set and map it to the target columns.
+   *
+   * @see #readNextRowsFromResultSet(TableCopyPlan, ResultSet, int)
+   */
+  public Object[] readRow(final TableCopyPlan tableCopyPlan, final ResultSet rs) throws SQLException
+  {
+    final TableMetaData targetTableMetaData = tableCopyPlan.getTargetTableMetaData();
+    final List<SourceColumnPlan> sourceColumnPlans = tableCopyPlan.getSourceColumnPlans();
+    final Object[] row = new Object[tableCopyPlan.getNumberOfTargetColumns()];
+
+    for (int i = 0; i < sourceColumnPlans.size(); i++)
+    {
+      final SourceColumnPlan sourceColumnPlan = sourceColumnPlans.get(i);
+      final ColumnMetaData sourceColumnMetaData = sourceColumnPlan.getSourceColumnMetaData();
+      final int columnIndex = sourceColumnPlan.getSourceColumnIndex();
+      final List<TargetColumnPlan> targetColumnPlans = sourceColumnPlan.getTargetColumnPlans();
+
+      if (targetColumnPlans.isEmpty())
+      {
+        if (sourceColumnPlan.isEmptyColumnListOk())
+        {
+          // Unused result, but we may have to skip the next data item from an underlying stream implementation
+          rs.getObject(columnIndex);
+        }
+        else
+        {
+          throw new IncompatibleColumnsException("Cannot map column " + targetTableMetaData
+                  + ":"
+                  + sourceColumnMetaData
+                  + ": Target column list empty");
+        }
+      }
+
+      for (int j = 0; j < targetColumnPlans.size(); j++)
+      {
+        final TargetColumnPlan targetColumnPlan = targetColumnPlans.get(j);
+        final Object value = targetColumnPlan.getSourceColumnType().getValue(rs, columnIndex);
+
+        row[targetColumnPlan.getTargetColumnIndex() - 1] = targetColumnPlan.getColumnDataMapper().map(sourceColumnMetaData,
+                targetColumnPlan.getTargetColumnMetaData(), value);
+      }
+    }
+
+    return row;
+  }
+
+  /**
+   * Fill INSERT statement with rows previously read by {@link #readNextRowsFromResultSet}.
+   */
+  public void fillInsertStatementFromRows(final TableCopyPlan tableCopyPlan,
+                                          final TargetDatabaseConfiguration targetDatabaseConfiguration, final Connection targetConnection, final List<Object[]> rows,
+                                          final PreparedStatement insertStatement, final boolean useMultipleValuesClauses)
+          throws SQLException
+  {
+    final String targetConnectorId = tableCopyPlan.getTargetConnectorId();
+    final TableMetaData targetTableMetaData = tableCopyPlan.getTargetTableMetaData();
+    final DatabaseType targetDatabaseType = tableCopyPlan.getTargetDatabaseType();
+    final List<SourceColumnPlan> sourceColumnPlans = tableCopyPlan.getSourceColumnPlans();
+    final int numberOfTargetColumns = tableCopyPlan.getNumberOfTargetColumns();
+    int targetColumnOffset = 0;
+
+    for (final Object[] row : rows)
+    {
+      targetDatabaseConfiguration.beforeNewRow(targetConnection, targetConnectorId, targetTableMetaData);
+
+      for (final SourceColumnPlan sourceColumnPlan : sourceColumnPlans)
+      {
+        for (final TargetColumnPlan targetColumnPlan : sourceColumnPlan.getTargetColumnPlans())
+        {
+          final int targetColumnIndex = targetColumnPlan.getTargetColumnIndex();
+          final Closeable optionalCloseableObject = targetColumnPlan.getTargetColumnType().setValue(insertStatement,
+                  targetColumnOffset + targetColumnIndex, row[targetColumnIndex - 1], targetDatabaseType,
+                  targetColumnPlan.getTargetColumnMetaData().getColumnType());
 
           if (optionalCloseableObject != null)
           {
             _closeableObjects.add(optionalCloseableObject);
           }
-
-          dataItemsCount++;
         }
       }
 
-      // Add another INSERT with one VALUES clause to BATCH
-      if (!useMultipleValuesClauses)
+      if (useMultipleValuesClauses)
+      {
+        targetColumnOffset += numberOfTargetColumns;
+      }
+      else
       {
         insertStatement.addBatch();
-        targetColumnIndex = 1;
       }
 
       targetDatabaseConfiguration.afterNewRow(targetConnection, targetConnectorId, targetTableMetaData);
     }
 
-    // Add single INSERT with many VALUES clauses to BATCH
     if (useMultipleValuesClauses)
     {
       insertStatement.addBatch();
     }
 
-    LOG.debug("Number of data items: " + dataItemsCount);
-  }
-
-  private ColumnTypeMapping findMapping(final String sourceConnectorId, final String targetConnectorId,
-                                        final CommonColumnTypeResolverTool commonColumnTypeResolver, final ColumnMetaData columnMetaData1,
-                                        final ColumnMetaData columnMetaData2) throws SQLException
-  {
-    final ColumnTypeMapping columnTypeMapping = commonColumnTypeResolver.getCommonColumnTypeMapping(sourceConnectorId,
-            columnMetaData1, targetConnectorId, columnMetaData2);
-
-    if (columnTypeMapping == null)
-    {
-      throw new IncompatibleColumnsException("Columns have incompatible types: " + columnMetaData1.getColumnName()
-              + "/"
-              + columnMetaData1.getColumnTypeName()
-              + " vs. "
-              + columnMetaData2.getColumnName()
-              + "/"
-              + columnMetaData2.getColumnTypeName());
-    }
-
-    return columnTypeMapping;
+    LOG.debug("Number of data items: " + rows.size() * numberOfTargetColumns);
   }
 
   /**
@@ -0,0 +1,50 @@
+package de.akquinet.jbosscc.guttenbase.statements;
+
+import java.sql.SQLException;
+
+import de.akquinet.jbosscc.guttenbase.hints.SplitColumnHint;
+import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+import de.akquinet.jbosscc.guttenbase.tools.SplitColumn;
+
+/**
+ * Read data page by page ordered by the split column, usually the primary key. Each page starts after the last key of the previous
+ * page. The page size is limited via {@link java.sql.Statement#setMaxRows(int)}.
+ * 
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ * 
+ * @Uses-Hint {@link SplitColumnHint}
+ * @author M. Dahm
+ */
+public class KeysetSelectStatementCreator extends AbstractSelectStatementCreator {
+  private final boolean _firstPage;
+
+  /**
+   * @param firstPage if true, the statement has no lower bound, otherwise the last key of the previous page must be set as parameter
+   */
+  public KeysetSelectStatementCreator(final ConnectorRepository connectorRepository, final String connectorId, final boolean firstPage) {
+    super(connectorRepository, connectorId);
+    _firstPage = firstPage;
+  }
+
+  @Override
+  protected String createWhereClause(final TableMetaData tableMetaData) throws SQLException {
+    if (_firstPage) {
+      return "";
+    } else {
+      return "WHERE " + getSplitColumn(tableMetaData).getColumnName() + " > ?";
+    }
+  }
+
+  @Override
+  protected String createOrderBy(final TableMetaData tableMetaData) throws SQLException {
+    return "ORDER BY " + getSplitColumn(tableMetaData).getColumnName();
+  }
+
+  private ColumnMetaData getSplitColumn(final TableMetaData tableMetaData) throws SQLException {
+    return _connectorRepository.getConnectorHint(_connectorId, SplitColumn.class).getValue().getSplitColumn(tableMetaData);
+  }
+}
@@ -0,0 +1,277 @@
+package de.akquinet.jbosscc.guttenbase.statements;
+
+import de.akquinet.jbosscc.guttenbase.connector.DatabaseType;
+import de.akquinet.jbosscc.guttenbase.defaults.impl.DefaultColumnDataMapper;
+import de.akquinet.jbosscc.guttenbase.exceptions.IncompatibleColumnsException;
+import de.akquinet.jbosscc.guttenbase.hints.ColumnMapperHint;
+import de.akquinet.jbosscc.guttenbase.hints.ColumnOrderHint;
+import de.akquinet.jbosscc.guttenbase.mapping.ColumnDataMapper;
+import de.akquinet.jbosscc.guttenbase.mapping.ColumnMapper;
+import de.akquinet.jbosscc.guttenbase.mapping.ColumnMapper.ColumnMapperResult;
+import de.akquinet.jbosscc.guttenbase.mapping.ColumnTypeMapping;
+import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.ColumnType;
+import de.akquinet.jbosscc.guttenbase.meta.ColumnValueTransfer;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+import de.akquinet.jbosscc.guttenbase.tools.CommonColumnTypeResolverTool;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable plan how to copy the data of a single table. Column order, column mapping, source/target column types and the
+ * {@link ColumnDataMapper} to use are resolved once per table and then reused for every row of every batch. Columns whose values
+ * are copied unchanged get a {@link ColumnValueTransfer} moving the value without boxing.
+ * <p>
+ * Looking up hints is cheap to write, but expensive when done for every single data item, since most hints create new objects
+ * on each call of {@link de.akquinet.jbosscc.guttenbase.hints.ConnectorHint#getValue()}.
+ * </p>
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @Uses-Hint {@link ColumnOrderHint} to determine column order
+ * @Uses-Hint {@link ColumnMapperHint} to map source columns to target columns
+ */
+public class TableCopyPlan
+{
+  private final String _sourceConnectorId;
+  private final TableMetaData _sourceTableMetaData;
+  private final String _targetConnectorId;
+  private final TableMetaData _targetTableMetaData;
+  private final DatabaseType _targetDatabaseType;
+  private final List<SourceColumnPlan> _sourceColumnPlans;
+  private final int _numberOfTargetColumns;
+
+  public TableCopyPlan(final ConnectorRepository connectorRepository, final String sourceConnectorId,
+                       final TableMetaData sourceTableMetaData, final String targetConnectorId, final TableMetaData targetTableMetaData)
+          throws SQLException
+  {
+    assert connectorRepository != null : "connectorRepository != null";
+    assert sourceConnectorId != null : "sourceConnectorId != null";
+    assert sourceTableMetaData != null : "sourceTableMetaData != null";
+    assert targetConnectorId != null : "targetConnectorId != null";
+    assert targetTableMetaData != null : "targetTableMetaData != null";
+
+    _sourceConnectorId = sourceConnectorId;
+    _sourceTableMetaData = sourceTableMetaData;
+    _targetConnectorId = targetConnectorId;
+    _targetTableMetaData = targetTableMetaData;
+    _targetDatabaseType = targetTableMetaData.getDatabaseMetaData().getDatabaseType();
+
+    final CommonColumnTypeResolverTool commonColumnTypeResolver = new CommonColumnTypeResolverTool(connectorRepository);
+    final List<ColumnMetaData> sourceColumns = ColumnOrderHint.getSortedColumns(connectorRepository, sourceConnectorId,
+            sourceTableMetaData);
+    final ColumnMapper columnMapper = connectorRepository.getConnectorHint(targetConnectorId, ColumnMapper.class).getValue();
+    final List<SourceColumnPlan> sourceColumnPlans = new ArrayList<SourceColumnPlan>(sourceColumns.size());
+    int targetColumnIndex = 1;
+
+    for (int columnIndex = 1; columnIndex <= sourceColumns.size(); columnIndex++)
+    {
+      final ColumnMetaData sourceColumnMetaData = sourceColumns.get(columnIndex - 1);
+      final ColumnMapperResult mapping = columnMapper.map(sourceColumnMetaData, targetTableMetaData);
+      final List<TargetColumnPlan> targetColumnPlans = new ArrayList<TargetColumnPlan>(mapping.getColumns().size());
+
+      for (final ColumnMetaData targetColumnMetaData : mapping.getColumns())
+      {
+        final ColumnTypeMapping columnTypeMapping = findMapping(sourceConnectorId, targetConnectorId, commonColumnTypeResolver,
+                sourceColumnMetaData, targetColumnMetaData);
+
+        targetColumnPlans.add(new TargetColumnPlan(targetColumnMetaData, targetColumnIndex++, columnTypeMapping,
+                _targetDatabaseType));
+      }
+
+      sourceColumnPlans.add(new SourceColumnPlan(sourceColumnMetaData, columnIndex, mapping.isEmptyColumnListOk(),
+              targetColumnPlans));
+    }
+
+    _sourceColumnPlans = Collections.unmodifiableList(sourceColumnPlans);
+    _numberOfTargetColumns = targetColumnIndex - 1;
+  }
+
+  private static ColumnTypeMapping findMapping(final String sourceConnectorId, final String targetConnectorId,
+                                               final CommonColumnTypeResolverTool commonColumnTypeResolver, final ColumnMetaData columnMetaData1,
+                                               final ColumnMetaData columnMetaData2) throws SQLException
+  {
+    final ColumnTypeMapping columnTypeMapping = commonColumnTypeResolver.getCommonColumnTypeMapping(sourceConnectorId,
+            columnMetaData1, targetConnectorId, columnMetaData2);
+
+    if (columnTypeMapping == null)
+    {
+      throw new IncompatibleColumnsException("Columns have incompatible types: " + columnMetaData1.getColumnName()
+              + "/"
+              + columnMetaData1.getColumnTypeName()
+              + " vs. "
+              + columnMetaData2.getColumnName()
+              + "/"
+              + columnMetaData2.getColumnTypeName());
+    }
+
+    return columnTypeMapping;
+  }
+
+  /**
+   * Plan has been created for the given tables and connectors?
+   */
+  public boolean isPlanFor(final String sourceConnectorId, final TableMetaData sourceTableMetaData, final String targetConnectorId,
+                           final TableMetaData targetTableMetaData)
+  {
+    return _sourceTableMetaData == sourceTableMetaData && _targetTableMetaData == targetTableMetaData
+            && _sourceConnectorId.equals(sourceConnectorId) && _targetConnectorId.equals(targetConnectorId);
+  }
+
+  public String getSourceConnectorId()
+  {
+    return _sourceConnectorId;
+  }
+
+  public TableMetaData getSourceTableMetaData()
+  {
+    return _sourceTableMetaData;
+  }
+
+  public String getTargetConnectorId()
+  {
+    return _targetConnectorId;
+  }
+
+  public TableMetaData getTargetTableMetaData()
+  {
+    return _targetTableMetaData;
+  }
+
+  public DatabaseType getTargetDatabaseType()
+  {
+    return _targetDatabaseType;
+  }
+
+  /**
+   * @return source columns in the order of the SELECT statement
+   */
+  public List<SourceColumnPlan> getSourceColumnPlans()
+  {
+    return _sourceColumnPlans;
+  }
+
+  /**
+   * @return number of placeholders per VALUES clause of the INSERT statement
+   */
+  public int getNumberOfTargetColumns()
+  {
+    return _numberOfTargetColumns;
+  }
+
+  /**
+   * How to handle a single column of the source result set.
+   */
+  public static class SourceColumnPlan
+  {
+    private final ColumnMetaData _sourceColumnMetaData;
+    private final int _sourceColumnIndex;
+    private final boolean _emptyColumnListOk;
+    private final List<TargetColumnPlan> _targetColumnPlans;
+
+    private SourceColumnPlan(final ColumnMetaData sourceColumnMetaData, final int sourceColumnIndex,
+                             final boolean emptyColumnListOk, final List<TargetColumnPlan> targetColumnPlans)
+    {
+      _sourceColumnMetaData = sourceColumnMetaData;
+      _sourceColumnIndex = sourceColumnIndex;
+      _emptyColumnListOk = emptyColumnListOk;
+      _targetColumnPlans = Collections.unmodifiableList(targetColumnPlans);
+    }
+
+    public ColumnMetaData getSourceColumnMetaData()
+    {
+      return _sourceColumnMetaData;
+    }
+
+    /**
+     * @return index of column in source result set, starting with 1
+     */
+    public int getSourceColumnIndex()
+    {
+      return _sourceColumnIndex;
+    }
+
+    /**
+     * @see ColumnMapperResult#isEmptyColumnListOk()
+     */
+    public boolean isEmptyColumnListOk()
+    {
+      return _emptyColumnListOk;
+    }
+
+    public List<TargetColumnPlan> getTargetColumnPlans()
+    {
+      return _targetColumnPlans;
+    }
+  }
+
+  /**
+   * How to transfer a source value into a single target column.
+   */
+  public static class TargetColumnPlan
+  {
+    private final ColumnMetaData _targetColumnMetaData;
+    private final int _targetColumnIndex;
+    private final ColumnTypeMapping _columnTypeMapping;
+    private final ColumnValueTransfer _valueTransfer;
+
+    private TargetColumnPlan(final ColumnMetaData targetColumnMetaData, final int targetColumnIndex,
+                             final ColumnTypeMapping columnTypeMapping, final DatabaseType targetDatabaseType)
+    {
+      _targetColumnMetaData = targetColumnMetaData;
+      _targetColumnIndex = targetColumnIndex;
+      _columnTypeMapping = columnTypeMapping;
+      _valueTransfer = isDirectTransfer(columnTypeMapping) ? columnTypeMapping.getTargetColumnType()
+              .createValueTransfer(targetDatabaseType, targetColumnMetaData.getColumnType()) : null;
+    }
+
+    private static boolean isDirectTransfer(final ColumnTypeMapping columnTypeMapping)
+    {
+      return columnTypeMapping.getSourceColumnType() == columnTypeMapping.getTargetColumnType()
+              && columnTypeMapping.getColumnDataMapper().getClass() == DefaultColumnDataMapper.class;
+    }
+
+    public ColumnMetaData getTargetColumnMetaData()
+    {
+      return _targetColumnMetaData;
+    }
+
+    /**
+     * @return index of column within a single VALUES clause, starting with 1
+     */
+    public int getTargetColumnIndex()
+    {
+      return _targetColumnIndex;
+    }
+
+    public ColumnType getSourceColumnType()
+    {
+      return _columnTypeMapping.getSourceColumnType();
+    }
+
+    public ColumnType getTargetColumnType()
+    {
+      return _columnTypeMapping.getTargetColumnType();
+    }
+
+    public ColumnDataMapper getColumnDataMapper()
+    {
+      return _columnTypeMapping.getColumnDataMapper();
+    }
+
+    /**
+     * @return object transferring the value from the result set directly to the INSERT statement or null if the value has to be
+     * converted or mapped
+     */
+    public ColumnValueTransfer getValueTransfer()
+    {
+      return _valueTransfer;
+    }
+  }
+}
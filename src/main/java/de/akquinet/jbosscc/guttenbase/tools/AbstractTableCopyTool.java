@@ -3,9 +3,15 @@ package de.akquinet.jbosscc.guttenbase.tools;
 import de.akquinet.jbosscc.guttenbase.configuration.SourceDatabaseConfiguration;
 import de.akquinet.jbosscc.guttenbase.configuration.TargetDatabaseConfiguration;
 import de.akquinet.jbosscc.guttenbase.connector.Connector;
+import de.akquinet.jbosscc.guttenbase.connector.DatabaseType;
+import de.akquinet.jbosscc.guttenbase.defaults.impl.NoTableCopyCheckpoint;
 import de.akquinet.jbosscc.guttenbase.exceptions.TableConfigurationException;
+import de.akquinet.jbosscc.guttenbase.export.ConcurrentExporter;
+import de.akquinet.jbosscc.guttenbase.export.ExportDumpConnector;
 import de.akquinet.jbosscc.guttenbase.hints.MaxNumberOfDataItemsHint;
 import de.akquinet.jbosscc.guttenbase.hints.NumberOfRowsPerBatchHint;
+import de.akquinet.jbosscc.guttenbase.hints.TableCopyCheckpointHint;
+import de.akquinet.jbosscc.guttenbase.hints.TableCopyParallelismHint;
 import de.akquinet.jbosscc.guttenbase.hints.TableNameMapperHint;
 import de.akquinet.jbosscc.guttenbase.hints.TableOrderHint;
 import de.akquinet.jbosscc.guttenbase.mapping.TableMapper;
@@ -13,15 +19,42 @@ import de.akquinet.jbosscc.guttenbase.mapping.TableNameMapper;
 import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
 import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+import de.akquinet.jbosscc.guttenbase.statements.InsertStatementCache;
+import de.akquinet.jbosscc.guttenbase.statements.InsertStatementCreator;
+import de.akquinet.jbosscc.guttenbase.utils.ConcurrentTableCopyProgressIndicator;
 import de.akquinet.jbosscc.guttenbase.utils.TableCopyProgressIndicator;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Copy all tables from one connection to the other.
  * <p>
+ * Tables may also be copied in parallel, each concurrent table copy using its own pair of source and target connections. In that
+ * case implementations of {@link #copyTable} must be thread-safe. When exporting to a dump, the target connections of the workers
+ * write into the same dump file, provided the exporter is a {@link ConcurrentExporter}.
+ * </p>
+ * <p>
+ * Implementations report the rows written via {@link #rowsCopied}, so the row counts of the target tables are updated afterwards
+ * without inspecting the target data base again.
+ * </p>
+ * <p>
  * &copy; 2012-2020 akquinet tech@spree
  * </p>
  *
@@ -30,11 +63,30 @@ import java.util.List;
  * @Uses-Hint {@link NumberOfRowsPerBatchHint} to determine number of VALUES clauses in INSERT statement
  * @Uses-Hint {@link MaxNumberOfDataItemsHint} to determine maximum number of data items in INSERT statement
  * @Uses-Hint {@link TableOrderHint} to determine order of tables
+ * @Uses-Hint {@link TableCopyParallelismHint} to determine number of tables copied in parallel
+ * @Uses-Hint {@link TableCopyCheckpointHint} to skip tables copied by a previous run
  */
 public abstract class AbstractTableCopyTool {
+  private static final TableCopyCheckpoint NO_CHECKPOINT = new NoTableCopyCheckpoint();
+
   protected final ConnectorRepository _connectorRepository;
   protected TableCopyProgressIndicator _progressIndicator;
 
+  /**
+   * Target tables copied during the current copy
+   */
+  private final Set<TableMetaData> _copiedTables = Collections.newSetFromMap(new ConcurrentHashMap<TableMetaData, Boolean>());
+
+  /**
+   * Number of rows written into each target table during the current copy, as far as reported via {@link #rowsCopied}
+   */
+  private final ConcurrentMap<TableMetaData, AtomicLong> _copiedRows = new ConcurrentHashMap<TableMetaData, AtomicLong>();
+
+  /**
+   * Prepared INSERT statements of each target connection, reused for all tables copied via that connection
+   */
+  private final ConcurrentMap<Connection, InsertStatementCache> _insertStatementCaches = new ConcurrentHashMap<Connection, InsertStatementCache>();
+
   public AbstractTableCopyTool(final ConnectorRepository connectorRepository) {
     assert connectorRepository != null : "connectorRepository != null";
     _connectorRepository = connectorRepository;
@@ -46,20 +98,67 @@ public abstract class AbstractTableCopyTool {
   public final void copyTables(final String sourceConnectorId, final String targetConnectorId) throws SQLException {
     _progressIndicator = _connectorRepository.getConnectorHint(targetConnectorId, TableCopyProgressIndicator.class).getValue();
     _progressIndicator.initializeIndicator();
+    _copiedTables.clear();
+    _copiedRows.clear();
 
     final List<TableMetaData> tableSourceMetaDatas = TableOrderHint.getSortedTables(_connectorRepository, sourceConnectorId);
-    final NumberOfRowsPerBatch numberOfRowsPerInsertionHint = _connectorRepository.getConnectorHint(targetConnectorId, NumberOfRowsPerBatch.class).getValue();
-    final MaxNumberOfDataItems maxNumberOfDataItemsHint = _connectorRepository.getConnectorHint(targetConnectorId, MaxNumberOfDataItems.class).getValue();
+    final int numberOfParallelTableCopies = _connectorRepository.getConnectorHint(targetConnectorId, TableCopyParallelism.class)
+            .getValue().getNumberOfParallelTableCopies();
+
+    _progressIndicator.startProcess(tableSourceMetaDatas.size());
+    boolean successful = false;
+
+    try {
+      if (numberOfParallelTableCopies > 1 && tableSourceMetaDatas.size() > 1
+              && isParallelCopySupported(sourceConnectorId, targetConnectorId)) {
+        copyTablesInParallel(sourceConnectorId, targetConnectorId, tableSourceMetaDatas,
+                Math.min(numberOfParallelTableCopies, tableSourceMetaDatas.size()));
+      } else {
+        copyTablesSequentially(sourceConnectorId, targetConnectorId, tableSourceMetaDatas);
+      }
+
+      successful = true;
+    } finally {
+      closeInsertStatementCaches();
+      updateTargetRowCounts(targetConnectorId, successful);
+      afterCopyTables(sourceConnectorId, targetConnectorId);
+    }
+
+    getTableCopyCheckpoint(targetConnectorId).copyFinished(sourceConnectorId, targetConnectorId);
+
+    _progressIndicator.finalizeIndicator();
+  }
+
+  /**
+   * The row count of a target table is its previous row count plus the number of copied rows. If the previous row count has not been
+   * exact, no rows have been reported for the table or copying failed, e.g. rows may have been rolled back, the table will be
+   * inspected again.
+   */
+  private void updateTargetRowCounts(final String targetConnectorId, final boolean successful) {
+    for (final TableMetaData targetTableMetaData : _copiedTables) {
+      final AtomicLong copiedRows = _copiedRows.get(targetTableMetaData);
 
+      if (successful && copiedRows != null && targetTableMetaData.isRowCountExact()) {
+        final long rowCount = targetTableMetaData.getRowCount() + copiedRows.get();
+
+        _connectorRepository.updateRowCount(targetConnectorId, targetTableMetaData.getTableName(),
+                (int) Math.min(rowCount, Integer.MAX_VALUE));
+      } else {
+        _connectorRepository.refreshTableMetaData(targetConnectorId, targetTableMetaData.getTableName());
+      }
+    }
+
+    _copiedTables.clear();
+    _copiedRows.clear();
+  }
+
+  private void copyTablesSequentially(final String sourceConnectorId, final String targetConnectorId,
+                                      final List<TableMetaData> tableSourceMetaDatas) throws SQLException {
     final SourceDatabaseConfiguration sourceDatabaseConfiguration = _connectorRepository
             .getSourceDatabaseConfiguration(sourceConnectorId);
     final TargetDatabaseConfiguration targetDatabaseConfiguration = _connectorRepository
             .getTargetDatabaseConfiguration(targetConnectorId);
-    final TableNameMapper sourceTableNameMapper = _connectorRepository.getConnectorHint(sourceConnectorId, TableNameMapper.class).getValue();
-    final TableNameMapper targetTableNameMapper = _connectorRepository.getConnectorHint(targetConnectorId, TableNameMapper.class).getValue();
     final RefreshTargetConnection refreshTargetConnection = _connectorRepository.getConnectorHint(targetConnectorId, RefreshTargetConnection.class).getValue();
-    final TableMapper tableMapper = _connectorRepository.getConnectorHint(targetConnectorId, TableMapper.class).getValue();
-    final DatabaseMetaData targetDatabaseMetaData = _connectorRepository.getDatabaseMetaData(targetConnectorId);
 
     final Connector sourceConnector = _connectorRepository.createConnector(sourceConnectorId);
     final Connector targetConnector = _connectorRepository.createConnector(targetConnectorId);
@@ -69,75 +168,335 @@ public abstract class AbstractTableCopyTool {
     sourceDatabaseConfiguration.initializeSourceConnection(sourceConnection, sourceConnectorId);
     targetDatabaseConfiguration.initializeTargetConnection(targetConnection, targetConnectorId);
 
-    _progressIndicator.startProcess(tableSourceMetaDatas.size());
-
     int noCopiedTables = 0;
 
     for (final TableMetaData sourceTableMetaData : tableSourceMetaDatas) {
-      final TableMetaData targetTableMetaData = tableMapper.map(sourceTableMetaData, targetDatabaseMetaData);
-      final int defaultNumberOfRowsPerBatch = numberOfRowsPerInsertionHint.getNumberOfRowsPerBatch(targetTableMetaData);
-      final boolean useMultipleValuesClauses = numberOfRowsPerInsertionHint.useMultipleValuesClauses(targetTableMetaData);
-      final int maxNumberOfDataItems = maxNumberOfDataItemsHint.getMaxNumberOfDataItems(targetTableMetaData);
+      copyTable(sourceConnectorId, sourceConnection, sourceTableMetaData, targetConnectorId, targetConnection);
+
+      if (refreshTargetConnection.refreshConnection(noCopiedTables++, sourceTableMetaData)) {
+        _progressIndicator.info("Refreshing target connection.");
+        closeInsertStatementCache(targetConnection);
+        targetDatabaseConfiguration.finalizeTargetConnection(targetConnection, targetConnectorId);
 
-      if (targetTableMetaData == null) {
-        throw new TableConfigurationException("No matching table for " + sourceTableMetaData + " in target data base!!!");
+        targetConnector.closeConnection();
+        targetConnection = targetConnector.openConnection();
+        targetDatabaseConfiguration.initializeTargetConnection(targetConnection, targetConnectorId);
       }
+    }
 
-      final String sourceTableName = sourceTableNameMapper.mapTableName(sourceTableMetaData);
-      final String targetTableName = targetTableNameMapper.mapTableName(targetTableMetaData);
-      final int targetRowCount = targetTableMetaData.getRowCount();
+    closeInsertStatementCache(targetConnection);
+    sourceDatabaseConfiguration.finalizeSourceConnection(sourceConnection, sourceConnectorId);
+    targetDatabaseConfiguration.finalizeTargetConnection(targetConnection, targetConnectorId);
+
+    sourceConnector.closeConnection();
+    targetConnector.closeConnection();
+  }
+
+  /**
+   * Copy tables using a pool of workers, each with its own pair of connections. The connections are initialized and finalized
+   * one after another by the calling thread, since data base configurations are shared and may change the state of the whole
+   * data base, such as disabling foreign keys. For the same reason the connections are kept until all tables have been copied, i.e.
+   * {@link RefreshTargetConnection} is not applied.
+   */
+  private void copyTablesInParallel(final String sourceConnectorId, final String targetConnectorId,
+                                    final List<TableMetaData> tableSourceMetaDatas, final int numberOfWorkers) throws SQLException {
+    final SourceDatabaseConfiguration sourceDatabaseConfiguration = _connectorRepository
+            .getSourceDatabaseConfiguration(sourceConnectorId);
+    final TargetDatabaseConfiguration targetDatabaseConfiguration = _connectorRepository
+            .getTargetDatabaseConfiguration(targetConnectorId);
+    final Map<TableMetaData, List<TableMetaData>> referencedTables = targetDatabaseConfiguration.isReferentialIntegrityDisabled()
+            || isDumpConnector(targetConnectorId) ? new HashMap<TableMetaData, List<TableMetaData>>()
+            : new TableOrderTool().getReferencedTables(tableSourceMetaDatas);
+    final TableCopyScheduler scheduler = new TableCopyScheduler(tableSourceMetaDatas, referencedTables);
+    final ConcurrentTableCopyProgressIndicator progressIndicator = new ConcurrentTableCopyProgressIndicator(_progressIndicator);
+    final AtomicInteger noCopiedTables = new AtomicInteger();
+    final List<TableCopyWorker> workers = new ArrayList<TableCopyWorker>();
+    final Connector exportConnector = isDumpConnector(targetConnectorId) ? _connectorRepository.createConnector(targetConnectorId) : null;
+
+    // Make sure meta data is cached before workers access it concurrently
+    _connectorRepository.getDatabaseMetaData(targetConnectorId);
 
-      if (targetRowCount > 0) {
-        _progressIndicator.warn("Target table " + targetTableMetaData.getTableName() + " is not empty!");
+    _progressIndicator.info("Copying " + tableSourceMetaDatas.size() + " tables with " + numberOfWorkers + " parallel workers");
+    _progressIndicator = progressIndicator;
+
+    try {
+      if (exportConnector != null) {
+        // Writes the schema information, the workers write the table data into the same file
+        exportConnector.openConnection();
       }
 
-      int numberOfRowsPerBatch = defaultNumberOfRowsPerBatch;
-      final int columnCount = targetTableMetaData.getColumnCount();
-
-      if (columnCount * numberOfRowsPerBatch > maxNumberOfDataItems) {
-        numberOfRowsPerBatch = maxNumberOfDataItems / columnCount;
-        _progressIndicator.debug("Max number of data items " + maxNumberOfDataItems
-                + " exceeds numberOfValuesClauses * columns="
-                + defaultNumberOfRowsPerBatch
-                + " * "
-                + columnCount
-                + ". Trim number of VALUES clauses to "
-                + numberOfRowsPerBatch);
+      for (int i = 0; i < numberOfWorkers; i++) {
+        final Connector targetConnector = exportConnector != null ? ((ExportDumpConnector) exportConnector).createWorkerConnector()
+                : _connectorRepository.createConnector(targetConnectorId);
+        final TableCopyWorker worker = new TableCopyWorker(sourceConnectorId, targetConnectorId, targetConnector, scheduler,
+                progressIndicator, noCopiedTables, tableSourceMetaDatas.size());
+        workers.add(worker);
+        worker.openConnections(sourceDatabaseConfiguration, targetDatabaseConfiguration);
       }
 
-      sourceDatabaseConfiguration.beforeTableCopy(sourceConnection, sourceConnectorId, sourceTableMetaData);
-      targetDatabaseConfiguration.beforeTableCopy(targetConnection, targetConnectorId, targetTableMetaData);
+      runWorkers(workers, scheduler);
+    } finally {
+      _progressIndicator = progressIndicator.getMainIndicator();
 
-      _progressIndicator.startCopyTable(sourceTableName, sourceTableMetaData.getRowCount(), targetTableName);
+      try {
+        for (final TableCopyWorker worker : workers) {
+          worker.closeConnections(sourceDatabaseConfiguration, targetDatabaseConfiguration);
+        }
+      } finally {
+        if (exportConnector != null) {
+          exportConnector.closeConnection();
+        }
+      }
+    }
+  }
 
-      copyTable(sourceConnectorId, sourceConnection, sourceDatabaseConfiguration, sourceTableMetaData, sourceTableName,
-              targetConnectorId, targetConnection, targetDatabaseConfiguration, targetTableMetaData, targetTableName,
-              numberOfRowsPerBatch, useMultipleValuesClauses);
+  private void runWorkers(final List<TableCopyWorker> workers, final TableCopyScheduler scheduler) throws SQLException {
+    final ExecutorService executorService = Executors.newFixedThreadPool(workers.size(), new ThreadFactory() {
+      private final AtomicInteger _threadNumber = new AtomicInteger();
 
-      sourceDatabaseConfiguration.afterTableCopy(sourceConnection, sourceConnectorId, sourceTableMetaData);
-      targetDatabaseConfiguration.afterTableCopy(targetConnection, targetConnectorId, targetTableMetaData);
+      @Override
+      public Thread newThread(final Runnable runnable) {
+        final Thread thread = new Thread(runnable, "GB-Table-Copy-" + _threadNumber.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
 
-      _progressIndicator.endProcess();
+    try {
+      final List<Future<Void>> futures = new ArrayList<Future<Void>>();
 
-      if (refreshTargetConnection.refreshConnection(noCopiedTables++, sourceTableMetaData)) {
-        _progressIndicator.info("Refreshing target connection.");
-        targetDatabaseConfiguration.finalizeTargetConnection(targetConnection, targetConnectorId);
+      for (final TableCopyWorker worker : workers) {
+        futures.add(executorService.submit(worker));
+      }
 
-        targetConnector.closeConnection();
-        targetConnection = targetConnector.openConnection();
-        targetDatabaseConfiguration.initializeTargetConnection(targetConnection, targetConnectorId);
+      SQLException exception = null;
+
+      for (final Future<Void> future : futures) {
+        try {
+          future.get();
+        } catch (final ExecutionException e) {
+          scheduler.abort();
+
+          if (exception == null) {
+            exception = toSQLException(e.getCause());
+          }
+        } catch (final InterruptedException e) {
+          scheduler.abort();
+          Thread.currentThread().interrupt();
+
+          if (exception == null) {
+            exception = new SQLException("Interrupted while copying tables", e);
+          }
+        }
+      }
+
+      if (exception != null) {
+        throw exception;
       }
+    } finally {
+      executorService.shutdownNow();
     }
+  }
 
-    sourceDatabaseConfiguration.finalizeSourceConnection(sourceConnection, sourceConnectorId);
-    targetDatabaseConfiguration.finalizeTargetConnection(targetConnection, targetConnectorId);
+  private static SQLException toSQLException(final Throwable throwable) {
+    if (throwable instanceof SQLException) {
+      return (SQLException) throwable;
+    } else {
+      return new SQLException("Copying table failed", throwable);
+    }
+  }
 
-    sourceConnector.closeConnection();
-    targetConnector.closeConnection();
+  /**
+   * Tables cannot be read from a dump concurrently, writing to a dump is supported by {@link ConcurrentExporter}s only.
+   */
+  private boolean isParallelCopySupported(final String sourceConnectorId, final String targetConnectorId) throws SQLException {
+    if (isDumpConnector(sourceConnectorId)) {
+      return false;
+    } else if (isDumpConnector(targetConnectorId)) {
+      final Connector targetConnector = _connectorRepository.createConnector(targetConnectorId);
 
-    _progressIndicator.finalizeIndicator();
-    _connectorRepository.refreshDatabaseMetaData(targetConnectorId);
+      return targetConnector instanceof ExportDumpConnector && ((ExportDumpConnector) targetConnector).isConcurrentExportSupported();
+    } else {
+      return true;
+    }
+  }
+
+  private boolean isDumpConnector(final String connectorId) {
+    final DatabaseType databaseType = _connectorRepository.getConnectionInfo(connectorId).getDatabaseType();
 
+    return DatabaseType.EXPORT_DUMP.equals(databaseType) || DatabaseType.IMPORT_DUMP.equals(databaseType);
+  }
+
+  /**
+   * Copy a single table including the table related callbacks of the source and target configurations.
+   */
+  private void copyTable(final String sourceConnectorId, final Connection sourceConnection, final TableMetaData sourceTableMetaData,
+                         final String targetConnectorId, final Connection targetConnection) throws SQLException {
+    final NumberOfRowsPerBatch numberOfRowsPerInsertionHint = _connectorRepository.getConnectorHint(targetConnectorId, NumberOfRowsPerBatch.class).getValue();
+    final MaxNumberOfDataItems maxNumberOfDataItemsHint = _connectorRepository.getConnectorHint(targetConnectorId, MaxNumberOfDataItems.class).getValue();
+    final SourceDatabaseConfiguration sourceDatabaseConfiguration = _connectorRepository
+            .getSourceDatabaseConfiguration(sourceConnectorId);
+    final TargetDatabaseConfiguration targetDatabaseConfiguration = _connectorRepository
+            .getTargetDatabaseConfiguration(targetConnectorId);
+    final TableNameMapper sourceTableNameMapper = _connectorRepository.getConnectorHint(sourceConnectorId, TableNameMapper.class).getValue();
+    final TableNameMapper targetTableNameMapper = _connectorRepository.getConnectorHint(targetConnectorId, TableNameMapper.class).getValue();
+    final TableMapper tableMapper = _connectorRepository.getConnectorHint(targetConnectorId, TableMapper.class).getValue();
+    final DatabaseMetaData targetDatabaseMetaData = _connectorRepository.getDatabaseMetaData(targetConnectorId);
+
+    final TableMetaData targetTableMetaData = tableMapper.map(sourceTableMetaData, targetDatabaseMetaData);
+
+    if (targetTableMetaData == null) {
+      throw new TableConfigurationException("No matching table for " + sourceTableMetaData + " in target data base!!!");
+    }
+
+    final TableCopyCheckpoint tableCopyCheckpoint = getTableCopyCheckpoint(targetConnectorId);
+    final String sourceTableName = sourceTableNameMapper.mapTableName(sourceTableMetaData);
+    final String targetTableName = targetTableNameMapper.mapTableName(targetTableMetaData);
+
+    if (tableCopyCheckpoint.isTableCopied(sourceConnectorId, targetConnectorId, sourceTableMetaData)) {
+      // Still counts as processed table for the progress indicator
+      _progressIndicator.startCopyTable(sourceTableName, sourceTableMetaData.getRowCount(), targetTableName);
+      _progressIndicator.info("Table " + sourceTableMetaData.getTableName() + " has already been copied, skipping it.");
+      _progressIndicator.endProcess();
+      return;
+    }
+
+    final int defaultNumberOfRowsPerBatch = numberOfRowsPerInsertionHint.getNumberOfRowsPerBatch(targetTableMetaData);
+    final boolean useMultipleValuesClauses = numberOfRowsPerInsertionHint.useMultipleValuesClauses(targetTableMetaData);
+    final int maxNumberOfDataItems = maxNumberOfDataItemsHint.getMaxNumberOfDataItems(targetTableMetaData);
+
+    // Estimated row count may be unknown or wrong
+    final int targetRowCount = targetTableMetaData.getExactRowCount();
+
+    if (targetRowCount > 0) {
+      _progressIndicator.warn("Target table " + targetTableMetaData.getTableName() + " is not empty!");
+    }
+
+    int numberOfRowsPerBatch = defaultNumberOfRowsPerBatch;
+    final int columnCount = targetTableMetaData.getColumnCount();
+
+    if (columnCount * numberOfRowsPerBatch > maxNumberOfDataItems) {
+      numberOfRowsPerBatch = maxNumberOfDataItems / columnCount;
+      _progressIndicator.debug("Max number of data items " + maxNumberOfDataItems
+              + " exceeds numberOfValuesClauses * columns="
+              + defaultNumberOfRowsPerBatch
+              + " * "
+              + columnCount
+              + ". Trim number of VALUES clauses to "
+              + numberOfRowsPerBatch);
+    }
+
+    sourceDatabaseConfiguration.beforeTableCopy(sourceConnection, sourceConnectorId, sourceTableMetaData);
+    targetDatabaseConfiguration.beforeTableCopy(targetConnection, targetConnectorId, targetTableMetaData);
+
+    _progressIndicator.startCopyTable(sourceTableName, sourceTableMetaData.getRowCount(), targetTableName);
+    _copiedTables.add(targetTableMetaData);
+
+    copyTable(sourceConnectorId, sourceConnection, sourceDatabaseConfiguration, sourceTableMetaData, sourceTableName,
+            targetConnectorId, targetConnection, targetDatabaseConfiguration, targetTableMetaData, targetTableName,
+            numberOfRowsPerBatch, useMultipleValuesClauses);
+
+    sourceDatabaseConfiguration.afterTableCopy(sourceConnection, sourceConnectorId, sourceTableMetaData);
+    targetDatabaseConfiguration.afterTableCopy(targetConnection, targetConnectorId, targetTableMetaData);
+
+    if (targetDatabaseConfiguration.isMayCommit()) {
+      tableCopyCheckpoint.tableCopied(sourceConnectorId, targetConnectorId, sourceTableMetaData);
+    }
+
+    _progressIndicator.endProcess();
+  }
+
+  /**
+   * @return checkpoint configured for the target connector. Dumps are always written from scratch, i.e. no progress is recorded.
+   */
+  protected final TableCopyCheckpoint getTableCopyCheckpoint(final String targetConnectorId) {
+    if (isDumpConnector(targetConnectorId)) {
+      return NO_CHECKPOINT;
+    }
+
+    return _connectorRepository.getConnectorHint(targetConnectorId, TableCopyCheckpoint.class).getValue();
+  }
+
+  /**
+   * @return adaptive batch sizing configured for the target connector or null if batch sizes are fixed
+   */
+  protected final AdaptiveNumberOfRowsPerBatch getAdaptiveNumberOfRowsPerBatch(final String targetConnectorId) {
+    final NumberOfRowsPerBatch numberOfRowsPerBatch = _connectorRepository.getConnectorHint(targetConnectorId,
+            NumberOfRowsPerBatch.class).getValue();
+
+    return numberOfRowsPerBatch instanceof AdaptiveNumberOfRowsPerBatch ? (AdaptiveNumberOfRowsPerBatch) numberOfRowsPerBatch : null;
+  }
+
+  /**
+   * Size of the next batch as proposed by the adaptive batch sizing, limited by the remaining rows and the maximum number of data
+   * items. With multiple VALUES clauses the size is rounded down to a power of two, so only a few distinct INSERT statements need
+   * to be prepared.
+   */
+  protected final int getNextNumberOfRowsPerBatch(final AdaptiveNumberOfRowsPerBatch adaptiveNumberOfRowsPerBatch,
+                                                  final String targetConnectorId, final TableMetaData targetTableMetaData,
+                                                  final int remainingRows, final boolean useMultipleValuesClauses) {
+    final int maxNumberOfDataItems = _connectorRepository.getConnectorHint(targetConnectorId, MaxNumberOfDataItems.class).getValue()
+            .getMaxNumberOfDataItems(targetTableMetaData);
+    final int columnCount = Math.max(1, targetTableMetaData.getColumnCount());
+    final int numberOfRowsPerBatch = Math.min(adaptiveNumberOfRowsPerBatch.getNumberOfRowsPerBatch(targetTableMetaData),
+            Math.max(1, maxNumberOfDataItems / columnCount));
+    final int result = Math.max(1, Math.min(numberOfRowsPerBatch, remainingRows));
+
+    return useMultipleValuesClauses ? Integer.highestOneBit(result) : result;
+  }
+
+  /**
+   * @return cache of INSERT statements for the given target connection. The statements are kept until the connection is closed, i.e.
+   * they are reused for all tables copied via this connection. Like the connection, the cache must be used by one thread at a time.
+   */
+  protected final InsertStatementCache getInsertStatementCache(final String targetConnectorId, final Connection targetConnection) {
+    final InsertStatementCache insertStatementCache = _insertStatementCaches.get(targetConnection);
+
+    if (insertStatementCache != null) {
+      return insertStatementCache;
+    }
+
+    final InsertStatementCache newInsertStatementCache = new InsertStatementCache(new InsertStatementCreator(_connectorRepository,
+            targetConnectorId), targetConnection);
+    final InsertStatementCache previousInsertStatementCache = _insertStatementCaches.putIfAbsent(targetConnection,
+            newInsertStatementCache);
+
+    return previousInsertStatementCache != null ? previousInsertStatementCache : newInsertStatementCache;
+  }
+
+  /**
+   * Close the cached INSERT statements of the given target connection, to be called before the connection is closed.
+   */
+  protected final void closeInsertStatementCache(final Connection targetConnection) {
+    final InsertStatementCache insertStatementCache = _insertStatementCaches.remove(targetConnection);
+
+    if (insertStatementCache != null) {
+      insertStatementCache.close();
+    }
+  }
+
+  private void closeInsertStatementCaches() {
+    for (final Connection targetConnection : new ArrayList<Connection>(_insertStatementCaches.keySet())) {
+      closeInsertStatementCache(targetConnection);
+    }
+  }
+
+  /**
+   * To be called by implementations whenever rows have been written into the target table. May be called by several threads
+   * concurrently.
+   */
+  protected final void rowsCopied(final TableMetaData targetTableMetaData, final long numberOfRows) {
+    if (_copiedTables.contains(targetTableMetaData)) {
+      _copiedRows.putIfAbsent(targetTableMetaData, new AtomicLong());
+      _copiedRows.get(targetTableMetaData).addAndGet(numberOfRows);
+    }
+  }
+
+  /**
+   * Called when all tables have been copied or copying failed. Subclasses may release additional resources here, such as
+   * connections opened by {@link #copyTable}.
+   */
+  protected void afterCopyTables(final String sourceConnectorId, final String targetConnectorId) throws SQLException {
   }
 
   protected abstract void copyTable(final String sourceConnectorId, final Connection sourceConnection,
@@ -145,4 +504,108 @@ public abstract class AbstractTableCopyTool {
                                     final String sourceTableName, final String targetConnectorId, final Connection targetConnection,
                                     final TargetDatabaseConfiguration targetDatabaseConfiguration, final TableMetaData targetTableMetaData,
                                     final String targetTableName, final int numberOfRowsPerBatch, boolean useMultipleValuesClauses) throws SQLException;
+
+  /**
+   * Copies tables handed out by the scheduler until there are no more tables left.
+   */
+  private class TableCopyWorker implements Callable<Void> {
+    private final String _sourceConnectorId;
+    private final String _targetConnectorId;
+    private final TableCopyScheduler _scheduler;
+    private final ConcurrentTableCopyProgressIndicator _concurrentProgressIndicator;
+    private final AtomicInteger _noCopiedTables;
+    private final int _numberOfTables;
+    private final Connector _sourceConnector;
+    private final Connector _targetConnector;
+    private Connection _sourceConnection;
+    private Connection _targetConnection;
+
+    public TableCopyWorker(final String sourceConnectorId, final String targetConnectorId, final Connector targetConnector,
+                           final TableCopyScheduler scheduler, final ConcurrentTableCopyProgressIndicator concurrentProgressIndicator,
+                           final AtomicInteger noCopiedTables, final int numberOfTables) {
+      _sourceConnectorId = sourceConnectorId;
+      _targetConnectorId = targetConnectorId;
+      _scheduler = scheduler;
+      _concurrentProgressIndicator = concurrentProgressIndicator;
+      _noCopiedTables = noCopiedTables;
+      _numberOfTables = numberOfTables;
+      _sourceConnector = _connectorRepository.createConnector(sourceConnectorId);
+      _targetConnector = targetConnector;
+    }
+
+    public void openConnections(final SourceDatabaseConfiguration sourceDatabaseConfiguration,
+                                final TargetDatabaseConfiguration targetDatabaseConfiguration) throws SQLException {
+      _sourceConnection = _sourceConnector.openConnection();
+      sourceDatabaseConfiguration.initializeSourceConnection(_sourceConnection, _sourceConnectorId);
+
+      _targetConnection = _targetConnector.openConnection();
+      targetDatabaseConfiguration.initializeTargetConnection(_targetConnection, _targetConnectorId);
+
+      // Disabling constraints or triggers may lock the tables until the transaction ends, the next worker's initialization would
+      // block forever otherwise
+      if (!_targetConnection.getAutoCommit()) {
+        _targetConnection.commit();
+      }
+    }
+
+    public void closeConnections(final SourceDatabaseConfiguration sourceDatabaseConfiguration,
+                                 final TargetDatabaseConfiguration targetDatabaseConfiguration) throws SQLException {
+      try {
+        if (_sourceConnection != null) {
+          sourceDatabaseConfiguration.finalizeSourceConnection(_sourceConnection, _sourceConnectorId);
+        }
+
+        if (_targetConnection != null) {
+          closeInsertStatementCache(_targetConnection);
+          targetDatabaseConfiguration.finalizeTargetConnection(_targetConnection, _targetConnectorId);
+        }
+      } finally {
+        _sourceConnector.closeConnection();
+        _targetConnector.closeConnection();
+      }
+    }
+
+    @Override
+    public Void call() throws Exception {
+      final TableCopyProgressIndicator progressIndicator = _connectorRepository.getConnectorHint(_targetConnectorId,
+              TableCopyProgressIndicator.class).getValue();
+      final RefreshTargetConnection refreshTargetConnection = _connectorRepository.getConnectorHint(_targetConnectorId,
+              RefreshTargetConnection.class).getValue();
+      boolean refreshIgnored = false;
+
+      progressIndicator.initializeIndicator();
+      progressIndicator.startProcess(_numberOfTables);
+      _concurrentProgressIndicator.registerThreadIndicator(progressIndicator);
+
+      try {
+        TableMetaData sourceTableMetaData;
+
+        while ((sourceTableMetaData = _scheduler.nextTable()) != null) {
+          try {
+            copyTable(_sourceConnectorId, _sourceConnection, sourceTableMetaData, _targetConnectorId, _targetConnection);
+          } catch (final Exception e) {
+            _scheduler.abort();
+            throw e;
+          }
+
+          _scheduler.tableCopied(sourceTableMetaData);
+          _concurrentProgressIndicator.getMainIndicator().info(_scheduler.getNumberOfCopiedTables() + "/" + _numberOfTables
+                  + " tables copied");
+
+          if (refreshTargetConnection.refreshConnection(_noCopiedTables.getAndIncrement(), sourceTableMetaData)
+                  && !refreshIgnored) {
+            // Finalizing the connection may change the state of the whole data base, e.g. enable foreign key checks, while
+            // other workers are still copying
+            progressIndicator.info("Refreshing target connection is not supported when copying tables in parallel, ignored.");
+            refreshIgnored = true;
+          }
+        }
+      } finally {
+        _concurrentProgressIndicator.unregisterThreadIndicator();
+        progressIndicator.finalizeIndicator();
+      }
+
+      return null;
+    }
+  }
 }
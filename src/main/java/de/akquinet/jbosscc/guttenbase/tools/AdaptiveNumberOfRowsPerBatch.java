@@ -0,0 +1,27 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+
+/**
+ * Number of rows per batch that adapts to the measured performance of the target data base. The copy tools query
+ * {@link #getNumberOfRowsPerBatch(TableMetaData)} before every batch and report the time needed to bind, execute and commit the
+ * batch afterwards.
+ * <p>
+ * The same instance must be returned by the hint on every call, since it keeps the state. Implementations must be thread-safe,
+ * since tables may be copied in parallel.
+ * </p>
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @see de.akquinet.jbosscc.guttenbase.defaults.impl.AimdNumberOfRowsPerBatch
+ */
+public interface AdaptiveNumberOfRowsPerBatch extends NumberOfRowsPerBatch
+{
+  /**
+   * @param numberOfRows  number of rows in the batch
+   * @param elapsedMillis time needed to bind, execute and commit the batch
+   */
+  void batchExecuted(TableMetaData targetTableMetaData, int numberOfRows, long elapsedMillis);
+}
@@ -117,15 +117,18 @@ public class CheckEqualTableDataTool
     final ColumnNameMapper targetColumnNameMapper = _connectorRepository.getConnectorHint(targetConnectorId,
         ColumnNameMapper.class).getValue();
 
-    if (sourceTableMetaData.getRowCount() != targetTableMetaData.getRowCount())
+    final int sourceRowCount = sourceTableMetaData.getExactRowCount();
+    final int targetRowCount = targetTableMetaData.getExactRowCount();
+
+    if (sourceRowCount != targetRowCount)
     {
       throw new UnequalNumberOfRowsException("Number of rows is not equal: " + tableName1
           + "="
-          + sourceTableMetaData.getRowCount()
+          + sourceRowCount
           + " vs. "
           + tableName2
           + "="
-          + targetTableMetaData.getRowCount());
+          + targetRowCount);
     }
 
     LOG.info("Checking data of " + tableName1 + " <--> " + tableName2 + " started");
@@ -2,24 +2,37 @@ package de.akquinet.jbosscc.guttenbase.tools;
 
 import de.akquinet.jbosscc.guttenbase.configuration.SourceDatabaseConfiguration;
 import de.akquinet.jbosscc.guttenbase.configuration.TargetDatabaseConfiguration;
+import de.akquinet.jbosscc.guttenbase.hints.TableCopyPipelineHint;
 import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
 import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
-import de.akquinet.jbosscc.guttenbase.statements.InsertStatementCreator;
+import de.akquinet.jbosscc.guttenbase.statements.InsertStatementCache;
 import de.akquinet.jbosscc.guttenbase.statements.InsertStatementFiller;
 import de.akquinet.jbosscc.guttenbase.statements.SelectStatementCreator;
+import de.akquinet.jbosscc.guttenbase.statements.TableCopyPlan;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 /**
  * Copy all tables from one connection to the other with multiple VALUES-tuples per batch statement.
  * <p>
+ * Reading and writing may optionally be pipelined, i.e. a reader thread fills a bounded queue of batches while the current thread
+ * writes them to the target.
+ * </p>
+ * <p>
  * &copy; 2012-2020 akquinet tech@spree
  * </p>
  *
  * @author M. Dahm
+ * @Uses-Hint {@link TableCopyPipelineHint} to determine whether reading and writing is pipelined
+ * @Uses-Hint {@link de.akquinet.jbosscc.guttenbase.hints.NumberOfRowsPerBatchHint} may supply an
+ * {@link AdaptiveNumberOfRowsPerBatch} that adapts the batch size to the measured latency. Pipelined copies use fixed batch sizes.
  */
 public class DefaultTableCopyTool extends AbstractTableCopyTool
 {
@@ -29,7 +42,9 @@ public class DefaultTableCopyTool extends AbstractTableCopyTool
   }
 
   /**
-   * Copy data with multiple VALUES-tuples per batch statement.
+   * Copy data with multiple VALUES-tuples per batch statement. Rows are read until the result set is exhausted, i.e. the row count
+   * of the source table need not be exact. If it is, full batches of multiple VALUES-tuples are filled directly from the result set,
+   * only the remaining rows are read in advance to determine the number of VALUES-tuples.
    *
    * @throws SQLException
    */
@@ -40,7 +55,6 @@ public class DefaultTableCopyTool extends AbstractTableCopyTool
       final TargetDatabaseConfiguration targetDatabaseConfiguration, final TableMetaData targetTableMetaData,
       final String targetTableName, final int numberOfRowsPerBatch, final boolean useMultipleValuesClauses) throws SQLException
   {
-    final int sourceRowCount = sourceTableMetaData.getRowCount();
     final PreparedStatement selectStatement = new SelectStatementCreator(_connectorRepository, sourceConnectorId)
         .createSelectStatement(sourceConnection, sourceTableName, sourceTableMetaData);
 
@@ -48,72 +62,279 @@ public class DefaultTableCopyTool extends AbstractTableCopyTool
     final ResultSet resultSet = selectStatement.executeQuery();
     sourceDatabaseConfiguration.afterSelect(sourceConnection, sourceConnectorId, sourceTableMetaData);
 
-    final int numberOfBatches = sourceRowCount / numberOfRowsPerBatch;
-    final int remainder = sourceRowCount - (numberOfBatches * numberOfRowsPerBatch);
-
-    final InsertStatementCreator insertStatementCreator = new InsertStatementCreator(_connectorRepository, targetConnectorId);
+    final int queueDepth = _connectorRepository.getConnectorHint(targetConnectorId, TableCopyPipeline.class).getValue()
+        .getQueueDepth(targetTableMetaData);
+    final TableCopyPlan tableCopyPlan = new TableCopyPlan(_connectorRepository, sourceConnectorId, sourceTableMetaData,
+        targetConnectorId, targetTableMetaData);
+    final InsertStatementCache insertStatementCache = getInsertStatementCache(targetConnectorId, targetConnection);
     final InsertStatementFiller insertStatementFiller = new InsertStatementFiller(_connectorRepository);
 
     targetDatabaseConfiguration.beforeInsert(targetConnection, targetConnectorId, targetTableMetaData);
-    final PreparedStatement batchInsertStatement = insertStatementCreator.createInsertStatement(sourceConnectorId,
-        sourceTableMetaData, targetTableName, targetTableMetaData, targetConnection, numberOfRowsPerBatch,
-        useMultipleValuesClauses);
 
-    for (int i = 0; i < numberOfBatches; i++)
+    if (queueDepth > 0)
+    {
+      copyTablePipelined(tableCopyPlan, insertStatementCache, insertStatementFiller, targetConnection,
+          targetDatabaseConfiguration, targetTableName, numberOfRowsPerBatch, useMultipleValuesClauses, resultSet, queueDepth);
+    }
+    else
+    {
+      copyTable(tableCopyPlan, insertStatementCache, insertStatementFiller, targetConnection, targetDatabaseConfiguration,
+          targetTableName, numberOfRowsPerBatch, useMultipleValuesClauses, resultSet);
+    }
+
+    targetDatabaseConfiguration.afterInsert(targetConnection, targetConnectorId, targetTableMetaData);
+
+    resultSet.close();
+    selectStatement.close();
+  }
+
+  private void copyTable(final TableCopyPlan tableCopyPlan, final InsertStatementCache insertStatementCache,
+      final InsertStatementFiller insertStatementFiller, final Connection targetConnection,
+      final TargetDatabaseConfiguration targetDatabaseConfiguration, final String targetTableName, final int numberOfRowsPerBatch,
+      final boolean useMultipleValuesClauses, final ResultSet resultSet) throws SQLException
+  {
+    final String targetConnectorId = tableCopyPlan.getTargetConnectorId();
+    final TableMetaData targetTableMetaData = tableCopyPlan.getTargetTableMetaData();
+    final AdaptiveNumberOfRowsPerBatch adaptiveNumberOfRowsPerBatch = getAdaptiveNumberOfRowsPerBatch(targetConnectorId);
+    final TableMetaData sourceTableMetaData = tableCopyPlan.getSourceTableMetaData();
+    final int sourceRowCount = sourceTableMetaData.isRowCountExact() ? sourceTableMetaData.getRowCount() : 0;
+    int totalWritten = 0;
+    boolean exhausted = false;
+
+    while (!exhausted)
     {
+      final int numberOfRows = adaptiveNumberOfRowsPerBatch == null ? numberOfRowsPerBatch : getNextNumberOfRowsPerBatch(
+          adaptiveNumberOfRowsPerBatch, targetConnectorId, targetTableMetaData, Integer.MAX_VALUE, useMultipleValuesClauses);
+      final int copiedRows;
+      final long startTime;
+
       _progressIndicator.startExecution();
 
-      insertStatementFiller.fillInsertStatementFromResultSet(sourceConnectorId, sourceTableMetaData, targetConnectorId,
-          targetTableMetaData, targetDatabaseConfiguration, targetConnection, resultSet, batchInsertStatement,
-          numberOfRowsPerBatch, useMultipleValuesClauses);
+      if (useMultipleValuesClauses && totalWritten + numberOfRows <= sourceRowCount)
+      {
+        // Enough rows are left to fill all VALUES clauses, so they need not be read in advance
+        final PreparedStatement insertStatement = insertStatementCache.getInsertStatement(tableCopyPlan.getSourceConnectorId(),
+            sourceTableMetaData, targetTableName, targetTableMetaData, numberOfRows, true);
 
-      batchInsertStatement.executeBatch();
+        insertStatementFiller.fillInsertStatementFromResultSet(tableCopyPlan, targetDatabaseConfiguration, targetConnection,
+            resultSet, insertStatement, numberOfRows, true);
+        startTime = System.currentTimeMillis();
+        insertStatement.executeBatch();
+        copiedRows = numberOfRows;
+      }
+      else if (useMultipleValuesClauses)
+      {
+        // The number of VALUES clauses must be known before the statement is filled
+        final List<Object[]> rows = insertStatementFiller.readNextRowsFromResultSet(tableCopyPlan, resultSet, numberOfRows);
 
-      if (targetDatabaseConfiguration.isMayCommit())
+        // Only the time needed for writing is regarded, reading the source is not affected by the batch size
+        startTime = System.currentTimeMillis();
+        insertRows(tableCopyPlan, insertStatementCache, insertStatementFiller, targetConnection, targetDatabaseConfiguration,
+            targetTableName, numberOfRows, true, rows);
+        copiedRows = rows.size();
+      }
+      else
       {
-        targetConnection.commit();
+        final PreparedStatement insertStatement = insertStatementCache.getInsertStatement(tableCopyPlan.getSourceConnectorId(),
+            tableCopyPlan.getSourceTableMetaData(), targetTableName, targetTableMetaData, 1, false);
+
+        copiedRows = insertStatementFiller.fillInsertStatementFromNextRows(tableCopyPlan, targetDatabaseConfiguration,
+            targetConnection, resultSet, insertStatement, numberOfRows);
+        startTime = System.currentTimeMillis();
+
+        if (copiedRows > 0)
+        {
+          insertStatement.executeBatch();
+        }
       }
 
-      insertStatementFiller.clear();
+      exhausted = copiedRows < numberOfRows;
 
-      _progressIndicator.endExecution((i + 1) * numberOfRowsPerBatch);
-    }
+      if (copiedRows > 0)
+      {
+        if (targetDatabaseConfiguration.isMayCommit())
+        {
+          targetConnection.commit();
+        }
 
-    if (numberOfBatches > 0)
-    {
-      batchInsertStatement.close();
+        insertStatementFiller.clear();
+
+        if (adaptiveNumberOfRowsPerBatch != null)
+        {
+          adaptiveNumberOfRowsPerBatch.batchExecuted(targetTableMetaData, copiedRows, System.currentTimeMillis() - startTime);
+        }
+
+        totalWritten += copiedRows;
+        rowsCopied(targetTableMetaData, copiedRows);
+        _progressIndicator.endExecution(totalWritten);
+      }
     }
+  }
 
-    if (remainder > 0)
+  private void copyTablePipelined(final TableCopyPlan tableCopyPlan, final InsertStatementCache insertStatementCache,
+      final InsertStatementFiller insertStatementFiller, final Connection targetConnection,
+      final TargetDatabaseConfiguration targetDatabaseConfiguration, final String targetTableName, final int numberOfRowsPerBatch,
+      final boolean useMultipleValuesClauses, final ResultSet resultSet, final int queueDepth) throws SQLException
+  {
+    final BatchReader batchReader = new BatchReader(tableCopyPlan, insertStatementFiller, resultSet, numberOfRowsPerBatch,
+        queueDepth);
+    final Thread readerThread = new Thread(batchReader, "GB-Batch-Reader-" + targetTableName);
+    readerThread.setDaemon(true);
+    readerThread.start();
+
+    try
     {
-      final PreparedStatement finalInsert = insertStatementCreator.createInsertStatement(sourceConnectorId, sourceTableMetaData,
-          targetTableName, targetTableMetaData, targetConnection, remainder, useMultipleValuesClauses);
-      insertStatementFiller.fillInsertStatementFromResultSet(sourceConnectorId, sourceTableMetaData, targetConnectorId,
-          targetTableMetaData, targetDatabaseConfiguration, targetConnection, resultSet, finalInsert, remainder,
-          useMultipleValuesClauses);
+      int totalCopiedRows = 0;
+      List<Object[]> rows;
+
+      while ((rows = batchReader.takeBatch()) != null)
+      {
+        _progressIndicator.startExecution();
 
-      finalInsert.executeBatch();
+        insertRows(tableCopyPlan, insertStatementCache, insertStatementFiller, targetConnection, targetDatabaseConfiguration,
+            targetTableName, numberOfRowsPerBatch, useMultipleValuesClauses, rows);
+
+        if (targetDatabaseConfiguration.isMayCommit())
+        {
+          targetConnection.commit();
+        }
+
+        insertStatementFiller.clear();
+
+        totalCopiedRows += rows.size();
+        rowsCopied(tableCopyPlan.getTargetTableMetaData(), rows.size());
+        _progressIndicator.endExecution(totalCopiedRows);
+      }
+    }
+    finally
+    {
+      readerThread.interrupt();
 
-      if (targetDatabaseConfiguration.isMayCommit())
+      try
+      {
+        readerThread.join();
+      }
+      catch (final InterruptedException e)
       {
-        targetConnection.commit();
+        Thread.currentThread().interrupt();
       }
+    }
+  }
 
-      insertStatementFiller.clear();
+  /**
+   * Insert rows previously read from the source, split into chunks of at most the given number of rows.
+   */
+  private static void insertRows(final TableCopyPlan tableCopyPlan, final InsertStatementCache insertStatementCache,
+      final InsertStatementFiller insertStatementFiller, final Connection targetConnection,
+      final TargetDatabaseConfiguration targetDatabaseConfiguration, final String targetTableName, final int numberOfRowsPerBatch,
+      final boolean useMultipleValuesClauses, final List<Object[]> rows) throws SQLException
+  {
+    int offset = 0;
 
-      _progressIndicator.endExecution(sourceRowCount);
+    for (final int chunkSize : InsertStatementCache.getChunkSizes(rows.size(), numberOfRowsPerBatch, useMultipleValuesClauses))
+    {
+      final PreparedStatement insertStatement = insertStatementCache.getInsertStatement(tableCopyPlan.getSourceConnectorId(),
+          tableCopyPlan.getSourceTableMetaData(), targetTableName, tableCopyPlan.getTargetTableMetaData(), chunkSize,
+          useMultipleValuesClauses);
 
-      finalInsert.close();
+      insertStatementFiller.fillInsertStatementFromRows(tableCopyPlan, targetDatabaseConfiguration, targetConnection,
+          rows.subList(offset, offset + chunkSize), insertStatement, useMultipleValuesClauses);
+      insertStatement.executeBatch();
+      offset += chunkSize;
     }
+  }
 
-    targetDatabaseConfiguration.afterInsert(targetConnection, targetConnectorId, targetTableMetaData);
+  /**
+   * Reads batches of rows into a bounded queue. {@link BlockingQueue#put(Object)} blocks when the queue is full, i.e. the reader
+   * never gets more than the configured number of batches ahead of the writer.
+   */
+  private static final class BatchReader implements Runnable
+  {
+    private static final List<Object[]> END_OF_DATA = new ArrayList<Object[]>(0);
 
-    if (resultSet.next())
+    private final TableCopyPlan _tableCopyPlan;
+    private final InsertStatementFiller _insertStatementFiller;
+    private final ResultSet _resultSet;
+    private final int _numberOfRowsPerBatch;
+    private final BlockingQueue<List<Object[]>> _queue;
+    private volatile SQLException _exception;
+
+    private BatchReader(final TableCopyPlan tableCopyPlan, final InsertStatementFiller insertStatementFiller,
+        final ResultSet resultSet, final int numberOfRowsPerBatch, final int queueDepth)
     {
-      _progressIndicator.warn("Uncopied data!!!");
+      _tableCopyPlan = tableCopyPlan;
+      _insertStatementFiller = insertStatementFiller;
+      _resultSet = resultSet;
+      _numberOfRowsPerBatch = numberOfRowsPerBatch;
+      _queue = new ArrayBlockingQueue<List<Object[]>>(queueDepth);
     }
 
-    resultSet.close();
-    selectStatement.close();
+    @Override
+    public void run()
+    {
+      try
+      {
+        try
+        {
+          List<Object[]> rows;
+
+          do
+          {
+            rows = _insertStatementFiller.readNextRowsFromResultSet(_tableCopyPlan, _resultSet, _numberOfRowsPerBatch);
+
+            if (!rows.isEmpty())
+            {
+              _queue.put(rows);
+            }
+          }
+          while (rows.size() == _numberOfRowsPerBatch);
+        }
+        catch (final SQLException e)
+        {
+          _exception = e;
+        }
+        catch (final RuntimeException e)
+        {
+          _exception = new SQLException("Reading batch failed", e);
+        }
+
+        _queue.put(END_OF_DATA);
+      }
+      catch (final InterruptedException e)
+      {
+        // Writer has stopped
+      }
+    }
+
+    /**
+     * @return next batch or null if all rows have been read
+     * @throws SQLException if reading failed
+     */
+    public List<Object[]> takeBatch() throws SQLException
+    {
+      final List<Object[]> result;
+
+      try
+      {
+        result = _queue.take();
+      }
+      catch (final InterruptedException e)
+      {
+        Thread.currentThread().interrupt();
+        throw new SQLException("Interrupted while waiting for data", e);
+      }
+
+      if (result == END_OF_DATA)
+      {
+        if (_exception != null)
+        {
+          throw _exception;
+        }
+
+        return null;
+      }
+
+      return result;
+    }
   }
 }
@@ -0,0 +1,204 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.configuration.SourceDatabaseConfiguration;
+import de.akquinet.jbosscc.guttenbase.configuration.TargetDatabaseConfiguration;
+import de.akquinet.jbosscc.guttenbase.exceptions.TableConfigurationException;
+import de.akquinet.jbosscc.guttenbase.hints.SplitColumnHint;
+import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+import de.akquinet.jbosscc.guttenbase.statements.InsertStatementCache;
+import de.akquinet.jbosscc.guttenbase.statements.InsertStatementFiller;
+import de.akquinet.jbosscc.guttenbase.statements.KeysetSelectStatementCreator;
+import de.akquinet.jbosscc.guttenbase.statements.TableCopyPlan;
+import de.akquinet.jbosscc.guttenbase.statements.TableCopyPlan.SourceColumnPlan;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Copy all tables from one connection to the other reading the data page by page, a.k.a. keyset or seek pagination. Each page is
+ * read with <tt>WHERE key &gt; ? ORDER BY key</tt>, where key is the split column and the parameter is the last key of the previous
+ * page. The number of rows per page is the number of rows per batch.
+ * <p>
+ * In contrast to the {@link SplitByRangeTableCopyTool} there are no COUNT queries and gaps in the key range do not matter, i.e.
+ * every page costs the same. The split column must be unique and numeric.
+ * </p>
+ * <p>
+ * If the number of rows per batch is an {@link AdaptiveNumberOfRowsPerBatch}, the size of each page is chosen anew. The last
+ * committed key of every page is recorded by the {@link TableCopyCheckpoint}, so an interrupted copy continues with the next page.
+ * </p>
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @Uses-Hint {@link SplitColumnHint} to determine the key column
+ */
+public class KeysetPaginationTableCopyTool extends AbstractTableCopyTool
+{
+  public KeysetPaginationTableCopyTool(final ConnectorRepository connectorRepository)
+  {
+    super(connectorRepository);
+  }
+
+  @Override
+  protected void copyTable(final String sourceConnectorId, final Connection sourceConnection,
+      final SourceDatabaseConfiguration sourceDatabaseConfiguration, final TableMetaData sourceTableMetaData,
+      final String sourceTableName, final String targetConnectorId, final Connection targetConnection,
+      final TargetDatabaseConfiguration targetDatabaseConfiguration, final TableMetaData targetTableMetaData,
+      final String targetTableName, final int numberOfRowsPerBatch, final boolean useMultipleValuesClauses) throws SQLException
+  {
+    final TableCopyPlan tableCopyPlan = new TableCopyPlan(_connectorRepository, sourceConnectorId, sourceTableMetaData,
+        targetConnectorId, targetTableMetaData);
+    final int keyRowIndex = getKeyRowIndex(sourceConnectorId, tableCopyPlan);
+    final InsertStatementCache insertStatementCache = getInsertStatementCache(targetConnectorId, targetConnection);
+    final InsertStatementFiller insertStatementFiller = new InsertStatementFiller(_connectorRepository);
+    final AdaptiveNumberOfRowsPerBatch adaptiveNumberOfRowsPerBatch = getAdaptiveNumberOfRowsPerBatch(targetConnectorId);
+
+    final PreparedStatement firstPageStatement = createSelectStatement(sourceConnectorId, sourceConnection, sourceTableMetaData,
+        sourceTableName, numberOfRowsPerBatch, true);
+    final PreparedStatement nextPageStatement = createSelectStatement(sourceConnectorId, sourceConnection, sourceTableMetaData,
+        sourceTableName, numberOfRowsPerBatch, false);
+
+    final TableCopyCheckpoint tableCopyCheckpoint = getTableCopyCheckpoint(targetConnectorId);
+    int totalWritten = 0;
+    Long lastKey = tableCopyCheckpoint.getLastCopiedKey(sourceConnectorId, targetConnectorId, sourceTableMetaData);
+
+    if (lastKey != null)
+    {
+      _progressIndicator.info("Resuming copy of " + sourceTableName + " after key " + lastKey);
+    }
+
+    try
+    {
+      boolean morePages = true;
+
+      while (morePages)
+      {
+        final int pageSize = adaptiveNumberOfRowsPerBatch == null ? numberOfRowsPerBatch : getNextNumberOfRowsPerBatch(
+            adaptiveNumberOfRowsPerBatch, targetConnectorId, targetTableMetaData, Integer.MAX_VALUE, useMultipleValuesClauses);
+        final PreparedStatement selectStatement;
+
+        if (lastKey == null)
+        {
+          selectStatement = firstPageStatement;
+        }
+        else
+        {
+          selectStatement = nextPageStatement;
+          selectStatement.setLong(1, lastKey);
+        }
+
+        // The statements are reused, so the limit of the previous page must always be overwritten
+        selectStatement.setMaxRows(pageSize);
+        selectStatement.setFetchSize(pageSize);
+
+        sourceDatabaseConfiguration.beforeSelect(sourceConnection, sourceConnectorId, sourceTableMetaData);
+        final ResultSet resultSet = selectStatement.executeQuery();
+        sourceDatabaseConfiguration.afterSelect(sourceConnection, sourceConnectorId, sourceTableMetaData);
+
+        _progressIndicator.startExecution();
+
+        final List<Object[]> rows = new ArrayList<Object[]>(pageSize);
+
+        while (rows.size() < pageSize && resultSet.next())
+        {
+          final Object[] row = insertStatementFiller.readRow(tableCopyPlan, resultSet);
+
+          rows.add(row);
+          lastKey = ((Number) row[keyRowIndex]).longValue();
+        }
+
+        resultSet.close();
+        morePages = rows.size() == pageSize;
+
+        if (!rows.isEmpty())
+        {
+          final long startTime = System.currentTimeMillis();
+
+          targetDatabaseConfiguration.beforeInsert(targetConnection, targetConnectorId, targetTableMetaData);
+
+          int offset = 0;
+
+          for (final int chunkSize : InsertStatementCache.getChunkSizes(rows.size(), pageSize,
+              useMultipleValuesClauses))
+          {
+            final PreparedStatement insertStatement = insertStatementCache.getInsertStatement(sourceConnectorId,
+                sourceTableMetaData, targetTableName, targetTableMetaData, chunkSize, useMultipleValuesClauses);
+
+            insertStatementFiller.fillInsertStatementFromRows(tableCopyPlan, targetDatabaseConfiguration, targetConnection,
+                rows.subList(offset, offset + chunkSize), insertStatement, useMultipleValuesClauses);
+            insertStatement.executeBatch();
+            offset += chunkSize;
+          }
+
+          if (targetDatabaseConfiguration.isMayCommit())
+          {
+            targetConnection.commit();
+          }
+
+          insertStatementFiller.clear();
+
+          targetDatabaseConfiguration.afterInsert(targetConnection, targetConnectorId, targetTableMetaData);
+
+          if (targetDatabaseConfiguration.isMayCommit())
+          {
+            tableCopyCheckpoint.keyCopied(sourceConnectorId, targetConnectorId, sourceTableMetaData, lastKey);
+          }
+
+          if (adaptiveNumberOfRowsPerBatch != null)
+          {
+            adaptiveNumberOfRowsPerBatch.batchExecuted(targetTableMetaData, rows.size(), System.currentTimeMillis() - startTime);
+          }
+
+          totalWritten += rows.size();
+          rowsCopied(targetTableMetaData, rows.size());
+          _progressIndicator.endExecution(totalWritten);
+        }
+      }
+    }
+    finally
+    {
+      firstPageStatement.close();
+      nextPageStatement.close();
+    }
+  }
+
+  private PreparedStatement createSelectStatement(final String sourceConnectorId, final Connection sourceConnection,
+      final TableMetaData sourceTableMetaData, final String sourceTableName, final int numberOfRowsPerBatch,
+      final boolean firstPage) throws SQLException
+  {
+    final PreparedStatement selectStatement = new KeysetSelectStatementCreator(_connectorRepository, sourceConnectorId, firstPage)
+        .createSelectStatement(sourceConnection, sourceTableName, sourceTableMetaData);
+
+    selectStatement.setMaxRows(numberOfRowsPerBatch);
+    selectStatement.setFetchSize(numberOfRowsPerBatch);
+
+    return selectStatement;
+  }
+
+  /**
+   * @return index of the key column within the rows read by {@link InsertStatementFiller#readRow}, i.e. the key is taken from the
+   * value copied to the first target column it is mapped to
+   */
+  private int getKeyRowIndex(final String sourceConnectorId, final TableCopyPlan tableCopyPlan) throws SQLException
+  {
+    final ColumnMetaData keyColumn = _connectorRepository.getConnectorHint(sourceConnectorId, SplitColumn.class).getValue()
+        .getSplitColumn(tableCopyPlan.getSourceTableMetaData());
+
+    for (final SourceColumnPlan sourceColumnPlan : tableCopyPlan.getSourceColumnPlans())
+    {
+      if (sourceColumnPlan.getSourceColumnMetaData().equals(keyColumn) && !sourceColumnPlan.getTargetColumnPlans().isEmpty())
+      {
+        return sourceColumnPlan.getTargetColumnPlans().get(0).getTargetColumnIndex() - 1;
+      }
+    }
+
+    throw new TableConfigurationException("Key column " + keyColumn + " is not copied from " + tableCopyPlan.getSourceTableMetaData());
+  }
+}
@@ -0,0 +1,398 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.configuration.SourceDatabaseConfiguration;
+import de.akquinet.jbosscc.guttenbase.configuration.TargetDatabaseConfiguration;
+import de.akquinet.jbosscc.guttenbase.connector.Connector;
+import de.akquinet.jbosscc.guttenbase.hints.RangeCopyParallelismHint;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+import de.akquinet.jbosscc.guttenbase.statements.InsertStatementCache;
+import de.akquinet.jbosscc.guttenbase.statements.InsertStatementFiller;
+import de.akquinet.jbosscc.guttenbase.statements.SplitByColumnSelectCountStatementCreator;
+import de.akquinet.jbosscc.guttenbase.statements.SplitByColumnSelectStatementCreator;
+import de.akquinet.jbosscc.guttenbase.utils.RangeCopyProgressAggregator;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Like the {@link SplitByRangeTableCopyTool}, but the ranges of a table are copied in parallel. A pool of workers pulls ranges from a
+ * shared queue, each worker using its own pair of source and target connections. This shortens the copying of very large tables
+ * considerably, the data bases must be able to handle the additional connections, of course.
+ * <p>
+ * Worker connections are kept open and reused until all tables have been copied. Since rows are inserted in no particular order,
+ * the target configuration should disable referential integrity for self-referencing tables.
+ * </p>
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @Uses-Hint {@link RangeCopyParallelismHint} to determine number of workers per table
+ * @Uses-Hint {@link de.akquinet.jbosscc.guttenbase.hints.SplitRangePlannerHint} to compute the ranges
+ */
+public class ParallelSplitByRangeTableCopyTool extends SplitByRangeTableCopyTool
+{
+  private final List<WorkerConnections> _idleConnections = new ArrayList<WorkerConnections>();
+  private final List<WorkerConnections> _allConnections = new ArrayList<WorkerConnections>();
+
+  public ParallelSplitByRangeTableCopyTool(final ConnectorRepository connectorRepository)
+  {
+    super(connectorRepository);
+  }
+
+  @Override
+  protected void copyTable(final String sourceConnectorId, final Connection sourceConnection,
+      final SourceDatabaseConfiguration sourceDatabaseConfiguration, final TableMetaData sourceTableMetaData,
+      final String sourceTableName, final String targetConnectorId, final Connection targetConnection,
+      final TargetDatabaseConfiguration targetDatabaseConfiguration, final TableMetaData targetTableMetaData,
+      final String targetTableName, final int numberOfRowsPerBatch, final boolean useMultipleValuesClauses) throws SQLException
+  {
+    final int numberOfParallelRangeCopies = _connectorRepository.getConnectorHint(targetConnectorId, RangeCopyParallelism.class)
+        .getValue().getNumberOfParallelRangeCopies(targetTableMetaData);
+
+    final List<SplitRange> splitRanges = _connectorRepository.getConnectorHint(sourceConnectorId, SplitRangePlanner.class).getValue()
+        .computeSplitRanges(_connectorRepository, sourceConnectorId, sourceTableMetaData, sourceConnection, numberOfRowsPerBatch);
+    final int numberOfWorkers = Math.min(numberOfParallelRangeCopies, splitRanges.size());
+
+    if (numberOfWorkers <= 1)
+    {
+      super.copyTable(sourceConnectorId, sourceConnection, sourceDatabaseConfiguration, sourceTableMetaData, sourceTableName,
+          targetConnectorId, targetConnection, targetDatabaseConfiguration, targetTableMetaData, targetTableName,
+          numberOfRowsPerBatch, useMultipleValuesClauses);
+    }
+    else
+    {
+      final RangeQueue rangeQueue = new RangeQueue(splitRanges);
+      final RangeCopyProgressAggregator progressAggregator = new RangeCopyProgressAggregator(_progressIndicator);
+      final List<RangeCopyWorker> workers = new ArrayList<RangeCopyWorker>();
+
+      for (int i = 0; i < numberOfWorkers; i++)
+      {
+        workers.add(new RangeCopyWorker(sourceConnectorId, sourceDatabaseConfiguration, sourceTableMetaData, sourceTableName,
+            targetConnectorId, targetDatabaseConfiguration, targetTableMetaData, targetTableName, numberOfRowsPerBatch,
+            useMultipleValuesClauses, rangeQueue, progressAggregator));
+      }
+
+      runWorkers(workers, rangeQueue);
+    }
+  }
+
+  /**
+   * Close all worker connections.
+   */
+  @Override
+  protected void afterCopyTables(final String sourceConnectorId, final String targetConnectorId) throws SQLException
+  {
+    final SourceDatabaseConfiguration sourceDatabaseConfiguration = _connectorRepository
+        .getSourceDatabaseConfiguration(sourceConnectorId);
+    final TargetDatabaseConfiguration targetDatabaseConfiguration = _connectorRepository
+        .getTargetDatabaseConfiguration(targetConnectorId);
+
+    synchronized (_idleConnections)
+    {
+      try
+      {
+        for (final WorkerConnections connections : _allConnections)
+        {
+          connections.close(sourceDatabaseConfiguration, targetDatabaseConfiguration);
+        }
+      }
+      finally
+      {
+        _allConnections.clear();
+        _idleConnections.clear();
+      }
+    }
+  }
+
+  private void runWorkers(final List<RangeCopyWorker> workers, final RangeQueue rangeQueue) throws SQLException
+  {
+    final ExecutorService executorService = Executors.newFixedThreadPool(workers.size(), new ThreadFactory()
+    {
+      private final AtomicInteger _threadNumber = new AtomicInteger();
+
+      @Override
+      public Thread newThread(final Runnable runnable)
+      {
+        final Thread thread = new Thread(runnable, "GB-Range-Copy-" + _threadNumber.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+
+    try
+    {
+      final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+
+      for (final RangeCopyWorker worker : workers)
+      {
+        futures.add(executorService.submit(worker));
+      }
+
+      SQLException exception = null;
+
+      for (final Future<Void> future : futures)
+      {
+        try
+        {
+          future.get();
+        }
+        catch (final ExecutionException e)
+        {
+          rangeQueue.abort();
+
+          if (exception == null)
+          {
+            exception = e.getCause() instanceof SQLException ? (SQLException) e.getCause()
+                : new SQLException("Copying range failed", e.getCause());
+          }
+        }
+        catch (final InterruptedException e)
+        {
+          rangeQueue.abort();
+          Thread.currentThread().interrupt();
+
+          if (exception == null)
+          {
+            exception = new SQLException("Interrupted while copying ranges", e);
+          }
+        }
+      }
+
+      if (exception != null)
+      {
+        throw exception;
+      }
+    }
+    finally
+    {
+      executorService.shutdownNow();
+    }
+  }
+
+  private WorkerConnections acquireConnections(final String sourceConnectorId,
+      final SourceDatabaseConfiguration sourceDatabaseConfiguration, final String targetConnectorId,
+      final TargetDatabaseConfiguration targetDatabaseConfiguration) throws SQLException
+  {
+    synchronized (_idleConnections)
+    {
+      if (!_idleConnections.isEmpty())
+      {
+        return _idleConnections.remove(_idleConnections.size() - 1);
+      }
+    }
+
+    final WorkerConnections connections = new WorkerConnections(sourceConnectorId, targetConnectorId);
+
+    // Data base configurations are shared and not necessarily thread-safe
+    synchronized (targetDatabaseConfiguration)
+    {
+      connections.open(sourceDatabaseConfiguration, targetDatabaseConfiguration);
+    }
+
+    synchronized (_idleConnections)
+    {
+      _allConnections.add(connections);
+    }
+
+    return connections;
+  }
+
+  private void releaseConnections(final WorkerConnections connections)
+  {
+    synchronized (_idleConnections)
+    {
+      _idleConnections.add(connections);
+    }
+  }
+
+  /**
+   * Hands out the ranges one after another.
+   */
+  private static final class RangeQueue
+  {
+    private final List<SplitRange> _splitRanges;
+    private final AtomicInteger _nextIndex = new AtomicInteger();
+    private final AtomicBoolean _aborted = new AtomicBoolean();
+
+    private RangeQueue(final List<SplitRange> splitRanges)
+    {
+      _splitRanges = splitRanges;
+    }
+
+    /**
+     * @return next range or null if all ranges have been handed out or copying has been aborted
+     */
+    public SplitRange next()
+    {
+      if (_aborted.get())
+      {
+        return null;
+      }
+
+      final int index = _nextIndex.getAndIncrement();
+
+      return index < _splitRanges.size() ? _splitRanges.get(index) : null;
+    }
+
+    public void abort()
+    {
+      _aborted.set(true);
+    }
+  }
+
+  private final class WorkerConnections
+  {
+    private final String _sourceConnectorId;
+    private final String _targetConnectorId;
+    private final Connector _sourceConnector;
+    private final Connector _targetConnector;
+    private Connection _sourceConnection;
+    private Connection _targetConnection;
+
+    private WorkerConnections(final String sourceConnectorId, final String targetConnectorId)
+    {
+      _sourceConnectorId = sourceConnectorId;
+      _targetConnectorId = targetConnectorId;
+      _sourceConnector = _connectorRepository.createConnector(sourceConnectorId);
+      _targetConnector = _connectorRepository.createConnector(targetConnectorId);
+    }
+
+    public void open(final SourceDatabaseConfiguration sourceDatabaseConfiguration,
+        final TargetDatabaseConfiguration targetDatabaseConfiguration) throws SQLException
+    {
+      _sourceConnection = _sourceConnector.openConnection();
+      sourceDatabaseConfiguration.initializeSourceConnection(_sourceConnection, _sourceConnectorId);
+
+      _targetConnection = _targetConnector.openConnection();
+      targetDatabaseConfiguration.initializeTargetConnection(_targetConnection, _targetConnectorId);
+    }
+
+    public void close(final SourceDatabaseConfiguration sourceDatabaseConfiguration,
+        final TargetDatabaseConfiguration targetDatabaseConfiguration) throws SQLException
+    {
+      try
+      {
+        if (_sourceConnection != null)
+        {
+          sourceDatabaseConfiguration.finalizeSourceConnection(_sourceConnection, _sourceConnectorId);
+        }
+
+        if (_targetConnection != null)
+        {
+          closeInsertStatementCache(_targetConnection);
+          targetDatabaseConfiguration.finalizeTargetConnection(_targetConnection, _targetConnectorId);
+        }
+      }
+      finally
+      {
+        _sourceConnector.closeConnection();
+        _targetConnector.closeConnection();
+      }
+    }
+  }
+
+  /**
+   * Copies ranges of a single table until the range queue is exhausted.
+   */
+  private final class RangeCopyWorker implements Callable<Void>
+  {
+    private final String _sourceConnectorId;
+    private final SourceDatabaseConfiguration _sourceDatabaseConfiguration;
+    private final TableMetaData _sourceTableMetaData;
+    private final String _sourceTableName;
+    private final String _targetConnectorId;
+    private final TargetDatabaseConfiguration _targetDatabaseConfiguration;
+    private final TableMetaData _targetTableMetaData;
+    private final String _targetTableName;
+    private final int _numberOfRowsPerBatch;
+    private final boolean _useMultipleValuesClauses;
+    private final RangeQueue _rangeQueue;
+    private final RangeCopyProgressAggregator _progressAggregator;
+
+    private RangeCopyWorker(final String sourceConnectorId, final SourceDatabaseConfiguration sourceDatabaseConfiguration,
+        final TableMetaData sourceTableMetaData, final String sourceTableName, final String targetConnectorId,
+        final TargetDatabaseConfiguration targetDatabaseConfiguration, final TableMetaData targetTableMetaData,
+        final String targetTableName, final int numberOfRowsPerBatch, final boolean useMultipleValuesClauses,
+        final RangeQueue rangeQueue, final RangeCopyProgressAggregator progressAggregator)
+    {
+      _sourceConnectorId = sourceConnectorId;
+      _sourceDatabaseConfiguration = sourceDatabaseConfiguration;
+      _sourceTableMetaData = sourceTableMetaData;
+      _sourceTableName = sourceTableName;
+      _targetConnectorId = targetConnectorId;
+      _targetDatabaseConfiguration = targetDatabaseConfiguration;
+      _targetTableMetaData = targetTableMetaData;
+      _targetTableName = targetTableName;
+      _numberOfRowsPerBatch = numberOfRowsPerBatch;
+      _useMultipleValuesClauses = useMultipleValuesClauses;
+      _rangeQueue = rangeQueue;
+      _progressAggregator = progressAggregator;
+    }
+
+    @Override
+    public Void call() throws Exception
+    {
+      final WorkerConnections connections = acquireConnections(_sourceConnectorId, _sourceDatabaseConfiguration,
+          _targetConnectorId, _targetDatabaseConfiguration);
+
+      try
+      {
+        copyRanges(connections._sourceConnection, connections._targetConnection);
+      }
+      catch (final Exception e)
+      {
+        _rangeQueue.abort();
+        throw e;
+      }
+      finally
+      {
+        releaseConnections(connections);
+      }
+
+      return null;
+    }
+
+    private void copyRanges(final Connection sourceConnection, final Connection targetConnection) throws SQLException
+    {
+      final InsertStatementCache insertStatementCache = getInsertStatementCache(_targetConnectorId, targetConnection);
+      final InsertStatementFiller insertStatementFiller = new InsertStatementFiller(_connectorRepository);
+
+      final PreparedStatement countStatement = new SplitByColumnSelectCountStatementCreator(_connectorRepository,
+          _sourceConnectorId).createSelectStatement(sourceConnection, _sourceTableName, _sourceTableMetaData);
+      final PreparedStatement selectStatement = new SplitByColumnSelectStatementCreator(_connectorRepository, _sourceConnectorId)
+          .createSelectStatement(sourceConnection, _sourceTableName, _sourceTableMetaData);
+      selectStatement.setFetchSize(Math.min(_numberOfRowsPerBatch, selectStatement.getMaxRows()));
+
+      try
+      {
+        SplitRange splitRange;
+
+        while ((splitRange = _rangeQueue.next()) != null)
+        {
+          copyRange(_sourceConnectorId, sourceConnection, _sourceDatabaseConfiguration, _sourceTableMetaData, countStatement,
+              selectStatement, _targetConnectorId, targetConnection, _targetDatabaseConfiguration, _targetTableMetaData,
+              _targetTableName, insertStatementCache, insertStatementFiller, _numberOfRowsPerBatch, _useMultipleValuesClauses,
+              splitRange.getStart(), splitRange.getEnd(), _progressAggregator);
+        }
+      }
+      finally
+      {
+        countStatement.close();
+        selectStatement.close();
+      }
+    }
+  }
+}
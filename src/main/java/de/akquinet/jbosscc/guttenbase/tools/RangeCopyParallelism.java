@@ -0,0 +1,18 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+
+/**
+ * How many ranges of a single table will be copied at the same time? Every worker uses its own pair of source and target
+ * connections.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @see ParallelSplitByRangeTableCopyTool
+ */
+public interface RangeCopyParallelism
+{
+  int getNumberOfParallelRangeCopies(TableMetaData targetTableMetaData);
+}
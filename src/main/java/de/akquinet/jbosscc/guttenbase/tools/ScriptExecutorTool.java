@@ -7,6 +7,7 @@ import de.akquinet.jbosscc.guttenbase.meta.IndexMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
 import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
 import de.akquinet.jbosscc.guttenbase.sql.SQLLexer;
+import de.akquinet.jbosscc.guttenbase.sql.SQLTableModificationDetector;
 import de.akquinet.jbosscc.guttenbase.utils.ScriptExecutorProgressIndicator;
 import de.akquinet.jbosscc.guttenbase.utils.Util;
 
@@ -90,7 +91,8 @@ public class ScriptExecutorTool {
    *
    * @param connectorId
    * @param scriptUpdatesSchema
-   *          The script alters the schema, scheme information needs to be reloaded
+   *          The script alters the schema, scheme information needs to be reloaded. Only the tables modified by the script will be
+   *          read again, if they can be determined.
    * @param prepareTargetConnection
    *          the target connection is initialized using the appropriate {@link TargetDatabaseConfiguration}
    * @param lines
@@ -116,6 +118,7 @@ public class ScriptExecutorTool {
     }
 
     final Statement statement = connection.createStatement();
+    final SQLTableModificationDetector tableModificationDetector = new SQLTableModificationDetector();
 
     try {
       _progressIndicator.startProcess(sqlStatements.size());
@@ -123,6 +126,7 @@ public class ScriptExecutorTool {
       for (final String sql : sqlStatements) {
         _progressIndicator.startExecution();
         executeSQL(statement, sql);
+        tableModificationDetector.addStatement(sql);
         _progressIndicator.endExecution(1);
         _progressIndicator.endProcess();
       }
@@ -138,12 +142,22 @@ public class ScriptExecutorTool {
     }
 
     if (scriptUpdatesSchema) {
-      _connectorRepository.refreshDatabaseMetaData(connectorId);
+      refreshDatabaseMetaData(connectorId, tableModificationDetector);
     }
 
     _progressIndicator.finalizeIndicator();
   }
 
+  private void refreshDatabaseMetaData(final String connectorId, final SQLTableModificationDetector tableModificationDetector) {
+    if (tableModificationDetector.isSchemaModified()) {
+      _connectorRepository.refreshDatabaseMetaData(connectorId);
+    } else {
+      for (final String tableName : tableModificationDetector.getTableNames()) {
+        _connectorRepository.refreshTableMetaData(connectorId, tableName);
+      }
+    }
+  }
+
   /**
    * Execute query (i.e. SELECT...) and return the result set as a list of Maps where the key is the column name and the value the
    * respective data.
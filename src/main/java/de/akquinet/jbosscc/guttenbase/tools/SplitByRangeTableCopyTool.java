@@ -2,28 +2,33 @@ package de.akquinet.jbosscc.guttenbase.tools;
 
 import de.akquinet.jbosscc.guttenbase.configuration.SourceDatabaseConfiguration;
 import de.akquinet.jbosscc.guttenbase.configuration.TargetDatabaseConfiguration;
+import de.akquinet.jbosscc.guttenbase.hints.SplitRangePlannerHint;
 import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
 import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
-import de.akquinet.jbosscc.guttenbase.statements.InsertStatementCreator;
+import de.akquinet.jbosscc.guttenbase.statements.InsertStatementCache;
 import de.akquinet.jbosscc.guttenbase.statements.InsertStatementFiller;
 import de.akquinet.jbosscc.guttenbase.statements.SplitByColumnSelectCountStatementCreator;
 import de.akquinet.jbosscc.guttenbase.statements.SplitByColumnSelectStatementCreator;
+import de.akquinet.jbosscc.guttenbase.utils.RangeCopyProgressAggregator;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 
 /**
  * Sometimes the amount of data exceeds any buffer. In these cases we need to split the data by some given range, usually the
  * primary key. I.e., the data is read in chunks where these chunks are split using the ID column range of values. Copy all tables
  * from one connection to the other splitting the input with the given column. If the number range is populated sparsely the
- * copying may take much longer than the {@link DefaultTableCopyTool}.
+ * copying may take much longer than the {@link DefaultTableCopyTool}, unless the ranges are computed by the
+ * {@link de.akquinet.jbosscc.guttenbase.defaults.impl.EqualCardinalitySplitRangePlanner}.
  * <p>
  * &copy; 2012-2020 akquinet tech@spree
  * </p>
  *
  * @author M. Dahm
+ * @Uses-Hint {@link SplitRangePlannerHint} to compute the ranges
  */
 public class SplitByRangeTableCopyTool extends AbstractTableCopyTool
 {
@@ -44,13 +49,11 @@ public class SplitByRangeTableCopyTool extends AbstractTableCopyTool
       final TargetDatabaseConfiguration targetDatabaseConfiguration, final TableMetaData targetTableMetaData,
       final String targetTableName, final int numberOfRowsPerBatch, final boolean useMultipleValuesClauses) throws SQLException
   {
-    final InsertStatementCreator insertStatementCreator = new InsertStatementCreator(_connectorRepository, targetConnectorId);
+    final InsertStatementCache insertStatementCache = getInsertStatementCache(targetConnectorId, targetConnection);
     final InsertStatementFiller insertStatementFiller = new InsertStatementFiller(_connectorRepository);
 
-    final MinMaxIdSelectorTool minMaxIdSelector = new MinMaxIdSelectorTool(_connectorRepository);
-    minMaxIdSelector.computeMinMax(sourceConnectorId, sourceTableMetaData, sourceConnection);
-    final long minValue = minMaxIdSelector.getMinValue();
-    final long maxValue = minMaxIdSelector.getMaxValue();
+    final List<SplitRange> splitRanges = _connectorRepository.getConnectorHint(sourceConnectorId, SplitRangePlanner.class).getValue()
+        .computeSplitRanges(_connectorRepository, sourceConnectorId, sourceTableMetaData, sourceConnection, numberOfRowsPerBatch);
 
     final PreparedStatement countStatement = new SplitByColumnSelectCountStatementCreator(_connectorRepository, sourceConnectorId)
         .createSelectStatement(sourceConnection, sourceTableName, sourceTableMetaData);
@@ -59,59 +62,96 @@ public class SplitByRangeTableCopyTool extends AbstractTableCopyTool
         .createSelectStatement(sourceConnection, sourceTableName, sourceTableMetaData);
     selectStatement.setFetchSize(Math.min(numberOfRowsPerBatch, selectStatement.getMaxRows()));
 
-    int totalWritten = 0;
-    for (long splitColumnValue = minValue; splitColumnValue <= maxValue; splitColumnValue += numberOfRowsPerBatch + 1)
+    final RangeCopyProgressAggregator progressAggregator = new RangeCopyProgressAggregator(_progressIndicator);
+
+    for (final SplitRange splitRange : splitRanges)
+    {
+      copyRange(sourceConnectorId, sourceConnection, sourceDatabaseConfiguration, sourceTableMetaData, countStatement,
+          selectStatement, targetConnectorId, targetConnection, targetDatabaseConfiguration, targetTableMetaData, targetTableName,
+          insertStatementCache, insertStatementFiller, numberOfRowsPerBatch, useMultipleValuesClauses, splitRange.getStart(),
+          splitRange.getEnd(), progressAggregator);
+    }
+
+    countStatement.close();
+    selectStatement.close();
+  }
+
+  /**
+   * Copy all rows whose split column value lies within [start, end]. The statements must have been created for the given source
+   * connection, see {@link SplitByColumnSelectCountStatementCreator} and {@link SplitByColumnSelectStatementCreator}. Ranges
+   * recorded by the {@link TableCopyCheckpoint} are skipped.
+   *
+   * @return number of copied rows
+   */
+  protected final long copyRange(final String sourceConnectorId, final Connection sourceConnection,
+      final SourceDatabaseConfiguration sourceDatabaseConfiguration, final TableMetaData sourceTableMetaData,
+      final PreparedStatement countStatement, final PreparedStatement selectStatement, final String targetConnectorId,
+      final Connection targetConnection, final TargetDatabaseConfiguration targetDatabaseConfiguration,
+      final TableMetaData targetTableMetaData, final String targetTableName, final InsertStatementCache insertStatementCache,
+      final InsertStatementFiller insertStatementFiller, final int numberOfRowsPerBatch, final boolean useMultipleValuesClauses,
+      final long start, final long end, final RangeCopyProgressAggregator progressAggregator) throws SQLException
+  {
+    final TableCopyCheckpoint tableCopyCheckpoint = getTableCopyCheckpoint(targetConnectorId);
+
+    if (tableCopyCheckpoint.isRangeCopied(sourceConnectorId, targetConnectorId, sourceTableMetaData, start, end))
+    {
+      return 0;
+    }
+
+    sourceDatabaseConfiguration.beforeSelect(sourceConnection, sourceConnectorId, sourceTableMetaData);
+    final long countData = getCurrentCount(countStatement, start, end);
+    sourceDatabaseConfiguration.afterSelect(sourceConnection, sourceConnectorId, sourceTableMetaData);
+
+    if (countData > 0)
     {
-      final long start = splitColumnValue;
-      final long end = splitColumnValue + numberOfRowsPerBatch;
+      progressAggregator.startExecution();
+      selectStatement.setLong(1, start);
+      selectStatement.setLong(2, end);
 
       sourceDatabaseConfiguration.beforeSelect(sourceConnection, sourceConnectorId, sourceTableMetaData);
-      final long countData = getCurrentCount(countStatement, start, end);
+      final ResultSet resultSet = selectStatement.executeQuery();
       sourceDatabaseConfiguration.afterSelect(sourceConnection, sourceConnectorId, sourceTableMetaData);
 
-      if (countData > 0)
-      {
-        _progressIndicator.startExecution();
-        selectStatement.setLong(1, start);
-        selectStatement.setLong(2, end);
-
-        sourceDatabaseConfiguration.beforeSelect(sourceConnection, sourceConnectorId, sourceTableMetaData);
-        final ResultSet resultSet = selectStatement.executeQuery();
-        sourceDatabaseConfiguration.afterSelect(sourceConnection, sourceConnectorId, sourceTableMetaData);
+      targetDatabaseConfiguration.beforeInsert(targetConnection, targetConnectorId, targetTableMetaData);
 
-        targetDatabaseConfiguration.beforeInsert(targetConnection, targetConnectorId, targetTableMetaData);
-        final PreparedStatement bulkInsert = insertStatementCreator.createInsertStatement(sourceConnectorId, sourceTableMetaData,
-            targetTableName, targetTableMetaData, targetConnection, (int) countData, useMultipleValuesClauses);
+      for (final int chunkSize : InsertStatementCache.getChunkSizes((int) countData, numberOfRowsPerBatch,
+          useMultipleValuesClauses))
+      {
+        final PreparedStatement bulkInsert = insertStatementCache.getInsertStatement(sourceConnectorId, sourceTableMetaData,
+            targetTableName, targetTableMetaData, chunkSize, useMultipleValuesClauses);
 
         insertStatementFiller.fillInsertStatementFromResultSet(sourceConnectorId, sourceTableMetaData, targetConnectorId,
-            targetTableMetaData, targetDatabaseConfiguration, targetConnection, resultSet, bulkInsert, (int) countData,
+            targetTableMetaData, targetDatabaseConfiguration, targetConnection, resultSet, bulkInsert, chunkSize,
             useMultipleValuesClauses);
         bulkInsert.executeBatch();
+      }
+
+      if (targetDatabaseConfiguration.isMayCommit())
+      {
+        targetConnection.commit();
+      }
 
-        if (targetDatabaseConfiguration.isMayCommit())
-        {
-          targetConnection.commit();
-        }
+      insertStatementFiller.clear();
 
-        insertStatementFiller.clear();
+      rowsCopied(targetTableMetaData, countData);
+      progressAggregator.endExecution((int) countData);
 
-        totalWritten += countData;
-        _progressIndicator.endExecution(totalWritten);
+      if (resultSet.next())
+      {
+        progressAggregator.warn("Uncopied data!!!");
+      }
 
-        if (resultSet.next())
-        {
-          _progressIndicator.warn("Uncopied data!!!");
-        }
+      resultSet.close();
 
-        resultSet.close();
-        bulkInsert.close();
+      targetDatabaseConfiguration.afterInsert(targetConnection, targetConnectorId, targetTableMetaData);
+    }
 
-        targetDatabaseConfiguration.afterInsert(targetConnection, targetConnectorId, targetTableMetaData);
-      }
+    if (targetDatabaseConfiguration.isMayCommit())
+    {
+      tableCopyCheckpoint.rangeCopied(sourceConnectorId, targetConnectorId, sourceTableMetaData, start, end);
     }
 
-    countStatement.close();
-    selectStatement.close();
+    return countData;
   }
 
   private long getCurrentCount(final PreparedStatement countStatement, final long start, final long end) throws SQLException
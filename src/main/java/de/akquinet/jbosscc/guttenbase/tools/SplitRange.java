@@ -0,0 +1,49 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+/**
+ * Range [start, end] of values of the split column, both inclusive.
+ * 
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ * 
+ * @author M. Dahm
+ */
+public class SplitRange {
+  private final long _start;
+  private final long _end;
+
+  public SplitRange(final long start, final long end) {
+    assert start <= end : "start <= end";
+    _start = start;
+    _end = end;
+  }
+
+  public long getStart() {
+    return _start;
+  }
+
+  public long getEnd() {
+    return _end;
+  }
+
+  @Override
+  public int hashCode() {
+    return (int) (_start ^ _end);
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (!(obj instanceof SplitRange)) {
+      return false;
+    }
+
+    final SplitRange that = (SplitRange) obj;
+    return _start == that._start && _end == that._end;
+  }
+
+  @Override
+  public String toString() {
+    return "[" + _start + ", " + _end + "]";
+  }
+}
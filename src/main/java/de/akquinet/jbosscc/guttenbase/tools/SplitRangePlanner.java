@@ -0,0 +1,26 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+
+/**
+ * Compute the ranges of the split column in which a table is read by the {@link SplitByRangeTableCopyTool}.
+ * 
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ * 
+ * @author M. Dahm
+ */
+public interface SplitRangePlanner {
+  /**
+   * @param numberOfRowsPerRange desired number of rows per range
+   * @return ranges in ascending order covering all values of the split column
+   */
+  List<SplitRange> computeSplitRanges(ConnectorRepository connectorRepository, String connectorId, TableMetaData tableMetaData,
+      Connection connection, int numberOfRowsPerRange) throws SQLException;
+}
@@ -0,0 +1,54 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+
+import java.sql.SQLException;
+
+/**
+ * Records the progress of a copy, so that a restarted copy may skip the work already done. Completed tables are skipped as a whole.
+ * Within a table the {@link KeysetPaginationTableCopyTool} continues after the last committed key and the split range tools skip
+ * committed ranges. Other tools copy an unfinished table from the beginning, i.e. its target table should be emptied before
+ * resuming.
+ * <p>
+ * Progress within a table is only recorded if the target configuration may commit, see
+ * {@link de.akquinet.jbosscc.guttenbase.configuration.TargetDatabaseConfiguration#isMayCommit()}. It is recorded right after the
+ * commit, i.e. if the process dies in between, the last batch will be copied again. Implementations must be thread-safe, since
+ * tables and ranges may be copied in parallel. Progress is recorded per pair of source and target connector, i.e. the same
+ * checkpoint may be used for several copies.
+ * </p>
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public interface TableCopyCheckpoint
+{
+  boolean isTableCopied(String sourceConnectorId, String targetConnectorId, TableMetaData sourceTableMetaData)
+      throws SQLException;
+
+  void tableCopied(String sourceConnectorId, String targetConnectorId, TableMetaData sourceTableMetaData) throws SQLException;
+
+  /**
+   * @return last committed key or null if no rows have been committed yet
+   */
+  Long getLastCopiedKey(String sourceConnectorId, String targetConnectorId, TableMetaData sourceTableMetaData)
+      throws SQLException;
+
+  void keyCopied(String sourceConnectorId, String targetConnectorId, TableMetaData sourceTableMetaData, long key)
+      throws SQLException;
+
+  /**
+   * @return true if a committed range contains [start, end]
+   */
+  boolean isRangeCopied(String sourceConnectorId, String targetConnectorId, TableMetaData sourceTableMetaData, long start,
+      long end) throws SQLException;
+
+  void rangeCopied(String sourceConnectorId, String targetConnectorId, TableMetaData sourceTableMetaData, long start, long end)
+      throws SQLException;
+
+  /**
+   * All tables have been copied successfully, the progress recorded for the given connectors may be discarded.
+   */
+  void copyFinished(String sourceConnectorId, String targetConnectorId) throws SQLException;
+}
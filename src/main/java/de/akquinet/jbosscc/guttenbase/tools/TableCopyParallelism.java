@@ -0,0 +1,20 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+/**
+ * How many tables will be copied at the same time? Every concurrent table copy uses its own pair of source and target
+ * connections. Tables are released for copying only when all tables they reference via foreign keys have been copied, unless the
+ * target configuration disables referential integrity. Larger tables are copied first, so the overall run finishes sooner.
+ * <p>
+ * A value of 1 means that tables are copied sequentially over a single pair of connections.
+ * </p>
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @see TableCopyScheduler
+ */
+public interface TableCopyParallelism
+{
+  int getNumberOfParallelTableCopies();
+}
@@ -0,0 +1,26 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+
+/**
+ * Pipelined copying of a table: A reader thread reads batches of rows from the source while the current thread writes the
+ * previous batches to the target. The queue of batches between reader and writer is bounded, i.e. the reader blocks when the
+ * writer falls behind.
+ * <p>
+ * Rows are read ahead of the INSERT statement, so BLOB/CLOB values must remain valid after the source cursor has moved on. This is
+ * the case for most drivers, but not all of them.
+ * </p>
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @see DefaultTableCopyTool
+ */
+public interface TableCopyPipeline
+{
+  /**
+   * @return maximum number of batches read ahead, 0 disables pipelining
+   */
+  int getQueueDepth(TableMetaData targetTableMetaData);
+}
@@ -0,0 +1,185 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hands out tables to concurrent copy workers. A table is released only when all the tables it references have been copied. Among
+ * all released tables the one with the most rows is handed out first, so that the largest tables do not end up being copied last.
+ * Estimated row counts are good enough for that, tables whose row count is unknown, e.g. with
+ * {@link de.akquinet.jbosscc.guttenbase.repository.RowCountStrategy#LAZY}, are treated as empty rather than counted.
+ * <br/>
+ * If the foreign key graph contains cycles, i.e. no table can be released while no table is being copied, the table with the fewest
+ * uncopied dependencies is chosen, similar to {@link TableOrderTool}.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class TableCopyScheduler
+{
+  private final List<TableMetaData> _pendingTables;
+  private final Map<TableMetaData, List<TableMetaData>> _referencedTables;
+  private final Set<TableMetaData> _runningTables = new HashSet<TableMetaData>();
+  private final Set<TableMetaData> _copiedTables = new HashSet<TableMetaData>();
+  private boolean _aborted;
+
+  /**
+   * @param tableMetaData    tables to be copied
+   * @param referencedTables tables referenced by each table as computed by {@link TableOrderTool#getReferencedTables(List)}. May be
+   *                         empty if dependencies are to be ignored
+   */
+  public TableCopyScheduler(final List<TableMetaData> tableMetaData, final Map<TableMetaData, List<TableMetaData>> referencedTables)
+  {
+    assert tableMetaData != null : "tableMetaData != null";
+    assert referencedTables != null : "referencedTables != null";
+
+    _pendingTables = new ArrayList<TableMetaData>(tableMetaData);
+    _referencedTables = new HashMap<TableMetaData, List<TableMetaData>>(referencedTables);
+
+    final Map<TableMetaData, Integer> rowCounts = new HashMap<TableMetaData, Integer>();
+
+    for (final TableMetaData table : _pendingTables)
+    {
+      rowCounts.put(table, getRowCount(table));
+    }
+
+    // Stable sort, i.e. the given order is kept for tables of equal size
+    Collections.sort(_pendingTables, new Comparator<TableMetaData>()
+    {
+      @Override
+      public int compare(final TableMetaData t1, final TableMetaData t2)
+      {
+        final int rowCount1 = rowCounts.get(t1);
+        final int rowCount2 = rowCounts.get(t2);
+
+        return rowCount1 < rowCount2 ? 1 : (rowCount1 == rowCount2 ? 0 : -1);
+      }
+    });
+  }
+
+  /**
+   * Wait until a table can be copied.
+   *
+   * @return next table to copy or null if there are no more tables or copying has been aborted
+   */
+  public synchronized TableMetaData nextTable() throws InterruptedException
+  {
+    while (!_aborted && !_pendingTables.isEmpty())
+    {
+      TableMetaData result = findReleasedTable();
+
+      if (result == null && _runningTables.isEmpty())
+      {
+        result = findTableWithFewestDependencies();
+      }
+
+      if (result != null)
+      {
+        _pendingTables.remove(result);
+        _runningTables.add(result);
+        return result;
+      }
+
+      wait();
+    }
+
+    return null;
+  }
+
+  /**
+   * Table has been copied, tables referencing it may be released.
+   */
+  public synchronized void tableCopied(final TableMetaData tableMetaData)
+  {
+    _runningTables.remove(tableMetaData);
+    _copiedTables.add(tableMetaData);
+    notifyAll();
+  }
+
+  /**
+   * Do not hand out further tables, e.g. because copying a table failed.
+   */
+  public synchronized void abort()
+  {
+    _aborted = true;
+    notifyAll();
+  }
+
+  public synchronized boolean isAborted()
+  {
+    return _aborted;
+  }
+
+  public synchronized int getNumberOfCopiedTables()
+  {
+    return _copiedTables.size();
+  }
+
+  private static int getRowCount(final TableMetaData tableMetaData)
+  {
+    final int rowCount = tableMetaData.getRowCount();
+
+    return rowCount < 0 ? 0 : rowCount;
+  }
+
+  private TableMetaData findReleasedTable()
+  {
+    for (final TableMetaData tableMetaData : _pendingTables)
+    {
+      if (getNumberOfUncopiedDependencies(tableMetaData) == 0)
+      {
+        return tableMetaData;
+      }
+    }
+
+    return null;
+  }
+
+  private TableMetaData findTableWithFewestDependencies()
+  {
+    TableMetaData result = null;
+    int fewestDependencies = Integer.MAX_VALUE;
+
+    for (final TableMetaData tableMetaData : _pendingTables)
+    {
+      final int dependencies = getNumberOfUncopiedDependencies(tableMetaData);
+
+      if (dependencies < fewestDependencies)
+      {
+        fewestDependencies = dependencies;
+        result = tableMetaData;
+      }
+    }
+
+    return result;
+  }
+
+  private int getNumberOfUncopiedDependencies(final TableMetaData tableMetaData)
+  {
+    final List<TableMetaData> referencedTables = _referencedTables.get(tableMetaData);
+    int result = 0;
+
+    if (referencedTables != null)
+    {
+      for (final TableMetaData referencedTable : referencedTables)
+      {
+        if (!_copiedTables.contains(referencedTable))
+        {
+          result++;
+        }
+      }
+    }
+
+    return result;
+  }
+}
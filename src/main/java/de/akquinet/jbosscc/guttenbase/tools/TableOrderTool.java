@@ -26,6 +26,38 @@ public class TableOrderTool
     return orderTables(tableNodes, topDown);
   }
 
+  /**
+   * Compute the foreign key dependencies of the given tables, i.e. for each table the list of tables it references. These tables have
+   * to be filled before the referencing table, unless referential integrity is disabled. Tables not contained in the given list and
+   * self references are ignored.
+   */
+  public Map<TableMetaData, List<TableMetaData>> getReferencedTables(final List<TableMetaData> tableMetaData)
+  {
+    final Map<String, TableNode> tableNodes = createGraph(tableMetaData);
+    final Map<TableMetaData, List<TableMetaData>> result = new LinkedHashMap<TableMetaData, List<TableMetaData>>();
+
+    for (final TableMetaData table : tableMetaData)
+    {
+      final TableNode tableNode = tableNodes.get(table.getTableName().toUpperCase());
+      final List<TableMetaData> referencedTables = new ArrayList<TableMetaData>();
+
+      for (final TableNode referencedTable : tableNode.getReferencedTables())
+      {
+        final TableMetaData referencedTableMetaData = referencedTable.getTableMetaData();
+
+        if (!referencedTable.equals(tableNode) && tableMetaData.contains(referencedTableMetaData)
+                && !referencedTables.contains(referencedTableMetaData))
+        {
+          referencedTables.add(referencedTableMetaData);
+        }
+      }
+
+      result.put(table, referencedTables);
+    }
+
+    return result;
+  }
+
   private List<TableMetaData> orderTables(final Map<String, TableNode> tableNodes, final boolean topDown) throws SQLException
   {
     final List<TableMetaData> result = new ArrayList<TableMetaData>();
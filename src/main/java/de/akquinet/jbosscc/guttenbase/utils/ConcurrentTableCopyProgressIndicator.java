@@ -0,0 +1,164 @@
+package de.akquinet.jbosscc.guttenbase.utils;
+
+/**
+ * Used when multiple tables are copied concurrently. Events concerning the whole process are forwarded to the main indicator. Events
+ * concerning a single table are forwarded to the indicator registered for the current thread, so the progress of different tables is
+ * not mixed up. All calls to an indicator are synchronized on that indicator.
+ * <br/>
+ * Threads started by a table copy, e.g. the workers of {@link de.akquinet.jbosscc.guttenbase.tools.ParallelSplitByRangeTableCopyTool},
+ * inherit the indicator of their parent thread.
+ * <p>
+ * &copy; 2013-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class ConcurrentTableCopyProgressIndicator implements TableCopyProgressIndicator
+{
+  private final TableCopyProgressIndicator _mainIndicator;
+  private final ThreadLocal<TableCopyProgressIndicator> _threadIndicator = new InheritableThreadLocal<TableCopyProgressIndicator>();
+
+  public ConcurrentTableCopyProgressIndicator(final TableCopyProgressIndicator mainIndicator)
+  {
+    assert mainIndicator != null : "mainIndicator != null";
+    _mainIndicator = mainIndicator;
+  }
+
+  /**
+   * Forward table related events of the current thread to the given indicator.
+   */
+  public void registerThreadIndicator(final TableCopyProgressIndicator progressIndicator)
+  {
+    _threadIndicator.set(progressIndicator);
+  }
+
+  public void unregisterThreadIndicator()
+  {
+    _threadIndicator.remove();
+  }
+
+  public TableCopyProgressIndicator getMainIndicator()
+  {
+    return _mainIndicator;
+  }
+
+  @Override
+  public void initializeIndicator()
+  {
+    synchronized (_mainIndicator)
+    {
+      _mainIndicator.initializeIndicator();
+    }
+  }
+
+  @Override
+  public void startProcess(final int totalNumberOfProcesses)
+  {
+    synchronized (_mainIndicator)
+    {
+      _mainIndicator.startProcess(totalNumberOfProcesses);
+    }
+  }
+
+  @Override
+  public void startCopyTable(final String sourceTableName, final int rowCount, final String targetTableName)
+  {
+    final TableCopyProgressIndicator indicator = getIndicator();
+
+    synchronized (indicator)
+    {
+      indicator.startCopyTable(sourceTableName, rowCount, targetTableName);
+    }
+  }
+
+  @Override
+  public void startExecution()
+  {
+    final TableCopyProgressIndicator indicator = getIndicator();
+
+    synchronized (indicator)
+    {
+      indicator.startExecution();
+    }
+  }
+
+  @Override
+  public void endExecution(final int numberOfFinishedItems)
+  {
+    final TableCopyProgressIndicator indicator = getIndicator();
+
+    synchronized (indicator)
+    {
+      indicator.endExecution(numberOfFinishedItems);
+    }
+  }
+
+  @Override
+  public void endProcess()
+  {
+    final TableCopyProgressIndicator indicator = getIndicator();
+
+    synchronized (indicator)
+    {
+      indicator.endProcess();
+    }
+  }
+
+  @Override
+  public void updateTimers()
+  {
+    synchronized (_mainIndicator)
+    {
+      _mainIndicator.updateTimers();
+    }
+  }
+
+  @Override
+  public void finalizeIndicator()
+  {
+    synchronized (_mainIndicator)
+    {
+      _mainIndicator.finalizeIndicator();
+    }
+  }
+
+  @Override
+  public void warn(final String text)
+  {
+    final TableCopyProgressIndicator indicator = getIndicator();
+
+    synchronized (indicator)
+    {
+      indicator.warn(text);
+    }
+  }
+
+  @Override
+  public void info(final String text)
+  {
+    final TableCopyProgressIndicator indicator = getIndicator();
+
+    synchronized (indicator)
+    {
+      indicator.info(text);
+    }
+  }
+
+  @Override
+  public void debug(final String text)
+  {
+    final TableCopyProgressIndicator indicator = getIndicator();
+
+    synchronized (indicator)
+    {
+      indicator.debug(text);
+    }
+  }
+
+  private TableCopyProgressIndicator getIndicator()
+  {
+    final TableCopyProgressIndicator indicator = _threadIndicator.get();
+
+    return indicator != null ? indicator : _mainIndicator;
+  }
+}
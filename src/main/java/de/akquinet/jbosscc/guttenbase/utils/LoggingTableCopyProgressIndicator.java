@@ -31,7 +31,7 @@ public class LoggingTableCopyProgressIndicator implements TableCopyProgressIndic
         + "("
         + _timingDelegate.getItemCounter()
         + "/"
-        + rowCount
+        + formatRowCount(rowCount)
         + ") started");
   }
 
@@ -49,7 +49,7 @@ public class LoggingTableCopyProgressIndicator implements TableCopyProgressIndic
     LOG.info(_timingDelegate.getSourceTableName() + ":"
         + totalCopiedRows
         + "/"
-        + _timingDelegate.getRowCount()
+        + formatRowCount(_timingDelegate.getRowCount())
         + " lines copied: Last batch took "
         + Util.formatTime(_timingDelegate.getElapsedExecutionTime()));
   }
@@ -101,4 +101,9 @@ public class LoggingTableCopyProgressIndicator implements TableCopyProgressIndic
   {
     throw new UnsupportedOperationException();
   }
+
+  private static String formatRowCount(final int rowCount)
+  {
+    return rowCount < 0 ? "?" : String.valueOf(rowCount);
+  }
 }
@@ -0,0 +1,47 @@
+package de.akquinet.jbosscc.guttenbase.utils;
+
+/**
+ * Collects the progress of several workers copying ranges of the same table and reports the accumulated number of copied rows
+ * to the table's {@link TableCopyProgressIndicator}. All calls are synchronized, since progress indicators are not required to be
+ * thread-safe.
+ * <p>
+ * &copy; 2013-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class RangeCopyProgressAggregator
+{
+  private final TableCopyProgressIndicator _progressIndicator;
+  private int _totalCopiedRows;
+
+  public RangeCopyProgressAggregator(final TableCopyProgressIndicator progressIndicator)
+  {
+    assert progressIndicator != null : "progressIndicator != null";
+    _progressIndicator = progressIndicator;
+  }
+
+  public synchronized void startExecution()
+  {
+    _progressIndicator.startExecution();
+  }
+
+  /**
+   * @param numberOfCopiedRows number of rows copied by the finished execution
+   */
+  public synchronized void endExecution(final int numberOfCopiedRows)
+  {
+    _totalCopiedRows += numberOfCopiedRows;
+    _progressIndicator.endExecution(_totalCopiedRows);
+  }
+
+  public synchronized void warn(final String text)
+  {
+    _progressIndicator.warn(text);
+  }
+
+  public synchronized int getTotalCopiedRows()
+  {
+    return _totalCopiedRows;
+  }
+}
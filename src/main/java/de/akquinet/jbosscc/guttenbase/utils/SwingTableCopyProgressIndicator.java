@@ -80,8 +80,10 @@ public class SwingTableCopyProgressIndicator implements TableCopyProgressIndicat
   {
     _timingDelegate.startCopyTable(sourceTableName, rowCount, targetTableName);
 
+    // Row count may be unknown
+    _panel.getTableProgress().setIndeterminate(rowCount < 0);
     _panel.getTableProgress().setMinimum(0);
-    _panel.getTableProgress().setMaximum(rowCount);
+    _panel.getTableProgress().setMaximum(Math.max(rowCount, 0));
     _panel.getTableProgress().setValue(0);
     _panel.getSourceTable().setText(sourceTableName);
     _panel.getTargetTable().setText(targetTableName);
@@ -107,6 +109,7 @@ public class SwingTableCopyProgressIndicator implements TableCopyProgressIndicat
   {
     _timingDelegate.endProcess();
 
+    _panel.getTableProgress().setIndeterminate(false);
     _panel.getTableProgress().setValue(_timingDelegate.getRowCount());
     _panel.getTotalProgress().setValue(_timingDelegate.getItemCounter());
   }
@@ -10,5 +10,9 @@ package de.akquinet.jbosscc.guttenbase.utils;
  */
 public interface TableCopyProgressIndicator extends ProgressIndicator
 {
+  /**
+   * @param rowCount number of rows in source table, -1 if unknown, see
+   *                 {@link de.akquinet.jbosscc.guttenbase.repository.RowCountStrategy}
+   */
   void startCopyTable(String sourceTableName, int rowCount, String targetTableName);
 }
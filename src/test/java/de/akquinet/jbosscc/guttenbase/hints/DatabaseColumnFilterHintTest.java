@@ -2,6 +2,7 @@ package de.akquinet.jbosscc.guttenbase.hints;
 
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.sql.SQLException;
 
@@ -68,4 +69,31 @@ public class DatabaseColumnFilterHintTest extends AbstractGuttenBaseTest
     assertNotNull(tableMetaData.getColumnMetaData("USERNAME"));
     assertNull(tableMetaData.getColumnMetaData("PASSWORD"));
   }
+
+  @Test
+  public void testFilterPrimaryKeyColumn() throws Exception
+  {
+    _connectorRepository.addConnectorHint(SOURCE, new DatabaseColumnFilterHint()
+    {
+      @Override
+      public DatabaseColumnFilter getValue()
+      {
+        return new DatabaseColumnFilter()
+        {
+          @Override
+          public boolean accept(final ColumnMetaData columnMetaData) throws SQLException
+          {
+            return !columnMetaData.getTableMetaData().getTableName().equals("FOO_COMPANY") || !columnMetaData.getColumnName()
+                .equals("ID");
+          }
+        };
+      }
+    });
+
+    final TableMetaData tableMetaData = _connectorRepository.getDatabaseMetaData(SOURCE).getTableMetaData("FOO_USER");
+
+    // Other catalog information is still read
+    assertTrue(tableMetaData.getColumnMetaData("ID").isPrimaryKey());
+    assertNotNull(tableMetaData.getIndexMetaData("USERNAME_IDX"));
+  }
 }
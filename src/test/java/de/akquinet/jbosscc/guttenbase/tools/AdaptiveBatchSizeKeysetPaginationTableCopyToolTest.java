@@ -0,0 +1,91 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.connector.DatabaseType;
+import de.akquinet.jbosscc.guttenbase.defaults.impl.AimdNumberOfRowsPerBatch;
+import de.akquinet.jbosscc.guttenbase.hints.RepositoryTableFilterHint;
+import de.akquinet.jbosscc.guttenbase.hints.impl.AdaptiveNumberOfRowsPerBatchHint;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.impl.DatabaseMetaDataImpl;
+import de.akquinet.jbosscc.guttenbase.meta.impl.TableMetaDataImpl;
+import de.akquinet.jbosscc.guttenbase.repository.RepositoryTableFilter;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+
+public class AdaptiveBatchSizeKeysetPaginationTableCopyToolTest extends AbstractTableCopyToolTest {
+  @Before
+  public void setupAdaptiveBatchSize() {
+    // Pages of 2 rows are reported as slow, pages of 1 row as fast, i.e. the page size shrinks and grows again and again
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, new AdaptiveNumberOfRowsPerBatchHint(
+            new AimdNumberOfRowsPerBatch(1, 2, 2, 1, 1000, true) {
+              @Override
+              public void batchExecuted(final TableMetaData targetTableMetaData, final int numberOfRows, final long elapsedMillis) {
+                super.batchExecuted(targetTableMetaData, numberOfRows, numberOfRows > 1 ? 2000 : 0);
+              }
+            }));
+
+    // Pages of a single row would skip duplicate keys, the split column of FOO_USER_ROLES is not unique
+    final RepositoryTableFilterHint tableFilterHint = new RepositoryTableFilterHint() {
+      @Override
+      public RepositoryTableFilter getValue() {
+        return new RepositoryTableFilter() {
+          @Override
+          public boolean accept(final TableMetaData table) throws SQLException {
+            return !table.getTableName().equalsIgnoreCase("FOO_USER_ROLES");
+          }
+        };
+      }
+    };
+
+    _connectorRepository.addConnectorHint(CONNECTOR_SOURCE, tableFilterHint);
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, tableFilterHint);
+  }
+
+  @Test
+  public void testConcurrentUpdates() throws Exception {
+    final TableMetaData tableMetaData = new TableMetaDataImpl("FOO_USER",
+            new DatabaseMetaDataImpl("", "Test", 1, 0, DatabaseType.GENERIC));
+    final AimdNumberOfRowsPerBatch objectUnderTest = new AimdNumberOfRowsPerBatch(1, 100000, 1, 1, 1000, false);
+    final ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+    try {
+      final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+
+      for (int i = 0; i < 4; i++) {
+        futures.add(executorService.submit(new Callable<Void>() {
+          @Override
+          public Void call() {
+            for (int j = 0; j < 1000; j++) {
+              objectUnderTest.batchExecuted(tableMetaData, Integer.MAX_VALUE, 0);
+            }
+
+            return null;
+          }
+        }));
+      }
+
+      for (final Future<Void> future : futures) {
+        future.get();
+      }
+    } finally {
+      executorService.shutdownNow();
+    }
+
+    // No increase is lost
+    assertEquals(4001, objectUnderTest.getNumberOfRowsPerBatch(tableMetaData));
+  }
+
+  @Override
+  protected AbstractTableCopyTool getCopyTool() {
+    return new KeysetPaginationTableCopyTool(_connectorRepository);
+  }
+}
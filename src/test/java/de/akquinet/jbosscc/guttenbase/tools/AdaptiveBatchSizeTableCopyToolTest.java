@@ -0,0 +1,73 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.connector.DatabaseType;
+import de.akquinet.jbosscc.guttenbase.defaults.impl.AimdNumberOfRowsPerBatch;
+import de.akquinet.jbosscc.guttenbase.hints.impl.AdaptiveNumberOfRowsPerBatchHint;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.impl.DatabaseMetaDataImpl;
+import de.akquinet.jbosscc.guttenbase.meta.impl.TableMetaDataImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AdaptiveBatchSizeTableCopyToolTest extends AbstractTableCopyToolTest {
+  private final AtomicInteger _numberOfBatches = new AtomicInteger();
+
+  @Before
+  public void setupAdaptiveBatchSize() {
+    // Small bounds, so that every table is copied in several batches of varying size
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, new AdaptiveNumberOfRowsPerBatchHint(
+            new AimdNumberOfRowsPerBatch(1, 4, 1000, true) {
+              @Override
+              public void batchExecuted(final TableMetaData targetTableMetaData, final int numberOfRows, final long elapsedMillis) {
+                _numberOfBatches.incrementAndGet();
+                super.batchExecuted(targetTableMetaData, numberOfRows, elapsedMillis);
+              }
+            }));
+  }
+
+  @Override
+  public void testCopyWithMultipleValuesClauses() throws Exception {
+    super.testCopyWithMultipleValuesClauses();
+
+    assertTrue(_numberOfBatches.get() > 0);
+  }
+
+  @Test
+  public void testAdditiveIncreaseMultiplicativeDecrease() {
+    final TableMetaData tableMetaData = new TableMetaDataImpl("FOO_USER",
+            new DatabaseMetaDataImpl("", "Test", 1, 0, DatabaseType.GENERIC));
+    final AimdNumberOfRowsPerBatch objectUnderTest = new AimdNumberOfRowsPerBatch(10, 100, 40, 10, 50, true);
+
+    assertEquals(40, objectUnderTest.getNumberOfRowsPerBatch(tableMetaData));
+
+    objectUnderTest.batchExecuted(tableMetaData, 40, 20);
+    assertEquals(50, objectUnderTest.getNumberOfRowsPerBatch(tableMetaData));
+
+    // Smaller batch, e.g. the last one of a table, does not increase
+    objectUnderTest.batchExecuted(tableMetaData, 3, 1);
+    assertEquals(50, objectUnderTest.getNumberOfRowsPerBatch(tableMetaData));
+
+    objectUnderTest.batchExecuted(tableMetaData, 50, 200);
+    assertEquals(25, objectUnderTest.getNumberOfRowsPerBatch(tableMetaData));
+
+    objectUnderTest.batchExecuted(tableMetaData, 25, 200);
+    objectUnderTest.batchExecuted(tableMetaData, 12, 200);
+    assertEquals(10, objectUnderTest.getNumberOfRowsPerBatch(tableMetaData));
+
+    for (int i = 0; i < 20; i++) {
+      objectUnderTest.batchExecuted(tableMetaData, 100, 1);
+    }
+
+    assertEquals(100, objectUnderTest.getNumberOfRowsPerBatch(tableMetaData));
+  }
+
+  @Override
+  protected AbstractTableCopyTool getCopyTool() {
+    return new DefaultTableCopyTool(_connectorRepository);
+  }
+}
@@ -0,0 +1,102 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+
+import de.akquinet.jbosscc.guttenbase.export.DumpChunk;
+import de.akquinet.jbosscc.guttenbase.export.DumpChunkIndex;
+import de.akquinet.jbosscc.guttenbase.export.ImportDumpConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.export.NumberOfRowsPerDumpChunk;
+import de.akquinet.jbosscc.guttenbase.export.zip.ZipImporter;
+import de.akquinet.jbosscc.guttenbase.hints.NumberOfRowsPerDumpChunkHint;
+import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+
+/**
+ * Table data is split into several chunks which may be read independently.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class ChunkedZipExportImportDumpTest extends AbstractExportImportDumpTest {
+  @Before
+  public void setupChunkSize() {
+    _connectorRepository.addConnectorHint(EXPORT, new NumberOfRowsPerDumpChunkHint() {
+      @Override
+      public NumberOfRowsPerDumpChunk getValue() {
+        return new NumberOfRowsPerDumpChunk() {
+          @Override
+          public int getNumberOfRowsPerChunk(final TableMetaData tableMetaData) {
+            return 2;
+          }
+        };
+      }
+    });
+  }
+
+  @Override
+  protected void checkDump() throws Exception {
+    final ZipImporter importer = new ZipImporter();
+    importer.initializeImport(_connectorRepository, IMPORT, new ImportDumpConnectionInfo(new File(DATA_JAR).toURI().toURL()));
+
+    try {
+      final DatabaseMetaData databaseMetaData = importer.readDatabaseMetaData();
+      final TableMetaData tableMetaData = databaseMetaData.getTableMetaData("FOO_USER");
+      final DumpChunkIndex chunkIndex = importer.getChunkIndex(tableMetaData);
+
+      assertNotNull(chunkIndex);
+      assertEquals(5, chunkIndex.getRowCount());
+      assertEquals(3, chunkIndex.getChunks().size());
+      assertEquals(tableMetaData.getColumnCount(), chunkIndex.getColumnNames().size());
+
+      final int idIndex = chunkIndex.getColumnIndex("ID");
+      final DumpChunk lastChunk = chunkIndex.getChunks().get(2);
+      assertTrue(idIndex >= 0);
+      assertEquals(4, lastChunk.getFirstRow());
+      assertEquals(1, lastChunk.getRowCount());
+      assertEquals(chunkIndex.getChunks().get(1), chunkIndex.getChunkForRow(3));
+
+      for (final DumpChunk chunk : chunkIndex.getChunks()) {
+        assertTrue(((Number) chunk.getMinimumValue(idIndex)).longValue() <= ((Number) chunk.getMaximumValue(idIndex)).longValue());
+      }
+
+      // Read last chunk directly
+      importer.seekChunk(tableMetaData, 2);
+      final List<Object> row = readRow(importer, chunkIndex);
+      assertEquals(((Number) lastChunk.getMinimumValue(idIndex)).longValue(), ((Number) row.get(idIndex)).longValue());
+
+      // Chunks are read subsequently
+      importer.seekChunk(tableMetaData, 0);
+      final List<Long> ids = new ArrayList<Long>();
+
+      for (int i = 0; i < chunkIndex.getRowCount(); i++) {
+        ids.add(((Number) readRow(importer, chunkIndex).get(idIndex)).longValue());
+      }
+
+      assertEquals(5, ids.size());
+      assertEquals(row.get(idIndex), ids.get(4));
+    } finally {
+      importer.finishImport();
+    }
+  }
+
+  private static List<Object> readRow(final ZipImporter importer, final DumpChunkIndex chunkIndex) throws Exception {
+    final List<Object> result = new ArrayList<Object>();
+
+    for (int i = 0; i < chunkIndex.getColumnNames().size(); i++) {
+      result.add(importer.readObject());
+    }
+
+    return result;
+  }
+}
@@ -0,0 +1,120 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.akquinet.jbosscc.guttenbase.configuration.TestDerbyConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.defaults.impl.DefaultDatabaseTableFilter;
+import de.akquinet.jbosscc.guttenbase.defaults.impl.FileDatabaseMetaDataCache;
+import de.akquinet.jbosscc.guttenbase.hints.DatabaseMetaDataCacheHint;
+import de.akquinet.jbosscc.guttenbase.hints.DatabaseTableFilterHint;
+import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.DatabaseMetaDataCache;
+import de.akquinet.jbosscc.guttenbase.repository.DatabaseTableFilter;
+import de.akquinet.jbosscc.guttenbase.utils.Util;
+
+public class DatabaseMetaDataCacheTest extends AbstractGuttenBaseTest {
+	private static final String CONNECTOR_ID = "derby";
+	private static final File CACHE_DIRECTORY = new File("target/meta-data-cache");
+
+	private final List<DatabaseMetaData> _cachedMetaData = new ArrayList<DatabaseMetaData>();
+	private final FileDatabaseMetaDataCache _databaseMetaDataCache = new FileDatabaseMetaDataCache(CACHE_DIRECTORY) {
+		@Override
+		public DatabaseMetaData load(final String connectorId, final String fingerprint) {
+			final DatabaseMetaData result = super.load(connectorId, fingerprint);
+
+			if (result != null) {
+				_cachedMetaData.add(result);
+			}
+
+			return result;
+		}
+	};
+
+	@Before
+	public void setup() throws Exception {
+		Util.deleteDirectory(CACHE_DIRECTORY);
+
+		_connectorRepository.addConnectionInfo(CONNECTOR_ID, new TestDerbyConnectionInfo());
+		_connectorRepository.addConnectorHint(CONNECTOR_ID, new DatabaseMetaDataCacheHint() {
+			@Override
+			public DatabaseMetaDataCache getValue() {
+				return _databaseMetaDataCache;
+			}
+		});
+
+		new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_ID, "/ddl/tables.sql");
+	}
+
+	@Test
+	public void testCachedMetaData() throws Exception {
+		assertEquals(0, _connectorRepository.getDatabaseMetaData(CONNECTOR_ID).getTableMetaData("FOO_USER").getRowCount());
+		assertTrue(_databaseMetaDataCache.getFile(CONNECTOR_ID).exists());
+		assertEquals(0, _cachedMetaData.size());
+
+		new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_ID, false, false, "/data/test-data.sql");
+		_connectorRepository.refreshDatabaseMetaData(CONNECTOR_ID);
+
+		final TableMetaData userTableMetaData = _connectorRepository.getDatabaseMetaData(CONNECTOR_ID).getTableMetaData("FOO_USER");
+		assertEquals(1, _cachedMetaData.size());
+		assertEquals(6, userTableMetaData.getColumnCount());
+		assertEquals(3, userTableMetaData.getIndexes().size());
+		assertEquals(1, userTableMetaData.getPrimaryKeyColumns().size());
+
+		// Row counts are not taken from the cache
+		assertEquals(5, userTableMetaData.getRowCount());
+	}
+
+	@Test
+	public void testShortConnectorId() throws Exception {
+		final DatabaseMetaData databaseMetaData = _connectorRepository.getDatabaseMetaData(CONNECTOR_ID);
+
+		// Temporary file names need a prefix of at least three characters
+		_databaseMetaDataCache.store("db", "fingerprint", databaseMetaData);
+
+		assertTrue(_databaseMetaDataCache.getFile("db").exists());
+		assertEquals(databaseMetaData.getTableMetaData().size(), _databaseMetaDataCache.load("db", "fingerprint").getTableMetaData().size());
+	}
+
+	@Test
+	public void testSchemaChanged() throws Exception {
+		_connectorRepository.getDatabaseMetaData(CONNECTOR_ID);
+
+		new ScriptExecutorTool(_connectorRepository).executeScript(CONNECTOR_ID, "ALTER TABLE FOO_USER ADD COLUMN EMAIL VARCHAR(100);");
+		_connectorRepository.refreshDatabaseMetaData(CONNECTOR_ID);
+
+		final TableMetaData userTableMetaData = _connectorRepository.getDatabaseMetaData(CONNECTOR_ID).getTableMetaData("FOO_USER");
+		assertEquals(0, _cachedMetaData.size());
+		assertEquals(7, userTableMetaData.getColumnCount());
+	}
+
+	@Test
+	public void testTableFilterChanged() throws Exception {
+		final int numberOfTables = _connectorRepository.getDatabaseMetaData(CONNECTOR_ID).getTableMetaData().size();
+
+		_connectorRepository.addConnectorHint(CONNECTOR_ID, new DatabaseTableFilterHint() {
+			@Override
+			public DatabaseTableFilter getValue() {
+				return new DefaultDatabaseTableFilter() {
+					@Override
+					public boolean accept(final TableMetaData table) {
+						return table.getTableName().equalsIgnoreCase("FOO_USER");
+					}
+				};
+			}
+		});
+		_connectorRepository.refreshDatabaseMetaData(CONNECTOR_ID);
+
+		assertTrue(numberOfTables > 1);
+		assertEquals(1, _connectorRepository.getDatabaseMetaData(CONNECTOR_ID).getTableMetaData().size());
+		assertEquals(0, _cachedMetaData.size());
+	}
+}
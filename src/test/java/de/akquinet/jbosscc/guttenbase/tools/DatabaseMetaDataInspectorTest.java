@@ -12,10 +12,16 @@ import org.junit.Before;
 import org.junit.Test;
 
 import de.akquinet.jbosscc.guttenbase.configuration.TestDerbyConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.hints.DatabaseMetaDataParallelismHint;
+import de.akquinet.jbosscc.guttenbase.hints.MetaDataLoadingStrategyHint;
+import de.akquinet.jbosscc.guttenbase.hints.RowCountStrategyHint;
 import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.IndexMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.DatabaseMetaDataParallelism;
+import de.akquinet.jbosscc.guttenbase.repository.MetaDataLoadingStrategy;
+import de.akquinet.jbosscc.guttenbase.repository.RowCountStrategy;
 
 public class DatabaseMetaDataInspectorTest extends AbstractGuttenBaseTest {
 	private static final String CONNECTOR_ID = "derby";
@@ -29,6 +35,61 @@ public class DatabaseMetaDataInspectorTest extends AbstractGuttenBaseTest {
 
 	@Test
 	public void testMetaData() throws Exception {
+		checkMetaData();
+	}
+
+	@Test
+	public void testMetaDataWithSeveralConnections() throws Exception {
+		_connectorRepository.addConnectorHint(CONNECTOR_ID, new DatabaseMetaDataParallelismHint() {
+			@Override
+			public DatabaseMetaDataParallelism getValue() {
+				return new DatabaseMetaDataParallelism() {
+					@Override
+					public int getNumberOfConnections() {
+						return 3;
+					}
+				};
+			}
+		});
+
+		checkMetaData();
+	}
+
+	@Test
+	public void testLazyMetaDataLoading() throws Exception {
+		_connectorRepository.addConnectorHint(CONNECTOR_ID, new MetaDataLoadingStrategyHint() {
+			@Override
+			public MetaDataLoadingStrategy getValue() {
+				return MetaDataLoadingStrategy.LAZY;
+			}
+		});
+
+		checkMetaData();
+	}
+
+	@Test
+	public void testLazyRowCount() throws Exception {
+		new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_ID, false, false, "/data/test-data.sql");
+		_connectorRepository.addConnectorHint(CONNECTOR_ID, new RowCountStrategyHint() {
+			@Override
+			public RowCountStrategy getValue() {
+				return RowCountStrategy.LAZY;
+			}
+		});
+
+		final TableMetaData userTableMetaData = _connectorRepository.getDatabaseMetaData(CONNECTOR_ID).getTableMetaData("FOO_USER");
+		assertFalse(userTableMetaData.isRowCountExact());
+		assertEquals(-1, userTableMetaData.getRowCount());
+
+		assertEquals(5, userTableMetaData.getExactRowCount());
+		assertTrue(userTableMetaData.isRowCountExact());
+		assertEquals(5, userTableMetaData.getRowCount());
+
+		// Copies of the meta data share the row counter
+		assertEquals(5, _connectorRepository.getDatabaseMetaData(CONNECTOR_ID).getTableMetaData("FOO_USER").getExactRowCount());
+	}
+
+	private void checkMetaData() throws Exception {
 		final DatabaseMetaData databaseMetaData = _connectorRepository.getDatabaseMetaData(CONNECTOR_ID);
 		assertNotNull(databaseMetaData);
 		assertEquals("Apache Derby", databaseMetaData.getDatabaseName());
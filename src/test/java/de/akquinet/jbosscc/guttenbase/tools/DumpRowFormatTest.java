@@ -0,0 +1,269 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.export.DumpRowReader;
+import de.akquinet.jbosscc.guttenbase.export.DumpRowWriter;
+import de.akquinet.jbosscc.guttenbase.export.ExportDumpBlob;
+import de.akquinet.jbosscc.guttenbase.export.ExportDumpClob;
+import de.akquinet.jbosscc.guttenbase.export.LobSpillFile;
+import de.akquinet.jbosscc.guttenbase.meta.ColumnType;
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class DumpRowFormatTest
+{
+  private static final byte[] DATA = "Hello GuttenBase".getBytes();
+
+  @Test
+  public void testRoundTrip() throws Exception
+  {
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    final DumpRowWriter writer = new DumpRowWriter(outputStream,
+        Arrays.asList("ID", "NAME", "AMOUNT", "CREATED", "MODIFIED", "ACTIVE", "DATA"),
+        Arrays.asList(ColumnType.CLASS_LONG, ColumnType.CLASS_STRING, ColumnType.CLASS_BIGDECIMAL, ColumnType.CLASS_DATE,
+            ColumnType.CLASS_TIMESTAMP, ColumnType.CLASS_BOOLEAN, ColumnType.CLASS_BLOB));
+    final Timestamp timestamp = new Timestamp(1234567890123L);
+    timestamp.setNanos(123456789);
+
+    writer.writeLong(-42L);
+    writer.writeString("Jörg");
+    writer.writeBigDecimal(new BigDecimal("-1234.5678"));
+    writer.writeDate(new Date(86400000L));
+    writer.writeTimestamp(timestamp);
+    writer.writeBoolean(true);
+    writer.writeStream(new ByteArrayInputStream(DATA));
+
+    writer.writeInt(4711); // Will be converted to long
+    writer.writeNull();
+    writer.writeNull();
+    writer.writeNull();
+    writer.writeObject(null);
+    writer.writeBoolean(false);
+    writer.writeNull();
+    writer.finish();
+
+    assertEquals(2, writer.getNumberOfRows());
+
+    final DumpRowReader reader = new DumpRowReader(new ByteArrayInputStream(outputStream.toByteArray()));
+    assertEquals("NAME", reader.getColumnNames().get(1));
+    assertEquals(ColumnType.CLASS_BLOB, reader.getColumnTypes().get(6));
+
+    assertTrue(reader.hasNextRow());
+    assertEquals(-42L, reader.readLong());
+    assertFalse(reader.wasNull());
+    assertEquals("Jörg", reader.readObject());
+    assertEquals(new BigDecimal("-1234.5678"), reader.readObject());
+    assertEquals(new Date(86400000L), reader.readObject());
+    assertEquals(timestamp, reader.readObject());
+    assertTrue(reader.readBoolean());
+
+    final ExportDumpBlob blob = (ExportDumpBlob) reader.readObject();
+    assertArrayEquals(DATA, IOUtils.toByteArray(blob.getBinaryStream()));
+    blob.free();
+
+    assertEquals(4711L, reader.readObject());
+    assertNull(reader.readObject());
+    assertTrue(reader.wasNull());
+    assertEquals(0, reader.readDouble(), 0.0);
+    assertTrue(reader.wasNull());
+    assertNull(reader.readObject());
+    assertNull(reader.readObject());
+    assertFalse(reader.readBoolean());
+    assertFalse(reader.wasNull());
+    assertNull(reader.readObject());
+    assertFalse(reader.hasNextRow());
+    assertEquals(2, reader.getNumberOfRows());
+  }
+
+  @Test
+  public void testStatisticsWithNaNAndInfinity() throws Exception
+  {
+    final DumpRowWriter writer = new DumpRowWriter(new ByteArrayOutputStream(), Arrays.asList("RATIO", "AMOUNT", "WEIGHT"),
+        Arrays.asList(ColumnType.CLASS_DOUBLE, ColumnType.CLASS_DOUBLE, ColumnType.CLASS_FLOAT));
+
+    final double[][] rows = {
+        {1.5, Double.POSITIVE_INFINITY, Float.NaN},
+        {Double.NaN, 2.0, 3.0F},
+        {-2.5, Double.NEGATIVE_INFINITY, 1.0F}
+    };
+
+    for (final double[] row : rows)
+    {
+      writer.writeDouble(row[0]);
+      writer.writeDouble(row[1]);
+      writer.writeFloat((float) row[2]);
+    }
+
+    writer.flush();
+
+    // NaN has no place within [min, max], thus the range is unknown
+    assertNull(writer.getMinimumValues()[0]);
+    assertNull(writer.getMaximumValues()[0]);
+    assertEquals(Double.NEGATIVE_INFINITY, writer.getMinimumValues()[1]);
+    assertEquals(Double.POSITIVE_INFINITY, writer.getMaximumValues()[1]);
+    assertNull(writer.getMinimumValues()[2]);
+    assertNull(writer.getMaximumValues()[2]);
+  }
+
+  @Test
+  public void testReadSpillFileAfterTruncate() throws Exception
+  {
+    final LobSpillFile spillFile = new LobSpillFile();
+
+    try
+    {
+      spillFile.write(DATA, 0, DATA.length);
+
+      final InputStream inputStream = spillFile.getInputStream(0, DATA.length);
+      assertEquals(DATA[0], inputStream.read());
+
+      spillFile.truncate();
+
+      try
+      {
+        inputStream.read(new byte[DATA.length]);
+        fail("Discarded region must not be readable");
+      }
+      catch (final IOException e)
+      {
+        // Expected
+      }
+    }
+    finally
+    {
+      spillFile.delete();
+    }
+  }
+
+  @Test
+  public void testSmallerThanSerialization() throws Exception
+  {
+    final ByteArrayOutputStream binaryStream = new ByteArrayOutputStream();
+    final ByteArrayOutputStream serializedStream = new ByteArrayOutputStream();
+    final DumpRowWriter writer = new DumpRowWriter(binaryStream, Arrays.asList("ID", "NAME"),
+        Arrays.asList(ColumnType.CLASS_LONG, ColumnType.CLASS_STRING));
+    final ObjectOutputStream objectOutputStream = new ObjectOutputStream(serializedStream);
+
+    for (long i = 0; i < 1000; i++)
+    {
+      writer.writeLong(i);
+      writer.writeString("User " + i);
+      objectOutputStream.writeObject(i);
+      objectOutputStream.writeObject("User " + i);
+    }
+
+    writer.flush();
+    objectOutputStream.close();
+
+    assertTrue(binaryStream.size() * 3 < serializedStream.size() * 2);
+  }
+
+  @Test
+  public void testLargeLobsAreSpilled() throws Exception
+  {
+    final byte[] largeData = new byte[100000];
+
+    for (int i = 0; i < largeData.length; i++)
+    {
+      largeData[i] = (byte) i;
+    }
+
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    final LobSpillFile writerSpillFile = new LobSpillFile();
+    final DumpRowWriter writer = new DumpRowWriter(outputStream, Arrays.asList("ID", "DATA", "TEXT"),
+        Arrays.asList(ColumnType.CLASS_LONG, ColumnType.CLASS_BLOB, ColumnType.CLASS_CLOB), writerSpillFile, 1000);
+
+    for (long i = 0; i < 3; i++)
+    {
+      writer.writeLong(i);
+      writer.writeStream(new ByteArrayInputStream(largeData));
+      writer.writeStream(new ByteArrayInputStream(DATA));
+      assertEquals("Spill file is truncated after each row", 0, writerSpillFile.size());
+    }
+
+    writer.flush();
+    writerSpillFile.delete();
+
+    final LobSpillFile readerSpillFile = new LobSpillFile();
+    final DumpRowReader reader = new DumpRowReader(new ByteArrayInputStream(outputStream.toByteArray()), readerSpillFile, 1000);
+
+    try
+    {
+      for (long i = 0; i < 3; i++)
+      {
+        assertEquals(i, reader.readLong());
+
+        final ExportDumpBlob blob = (ExportDumpBlob) reader.readObject();
+        final ExportDumpClob clob = (ExportDumpClob) reader.readObject();
+
+        assertEquals(largeData.length, blob.length());
+        assertArrayEquals(largeData, IOUtils.toByteArray(blob.getBinaryStream()));
+        assertArrayEquals(Arrays.copyOfRange(largeData, 10, 20), blob.getBytes(10, 10));
+        assertArrayEquals(DATA, IOUtils.toByteArray(clob.getAsciiStream()));
+        blob.free();
+        clob.free();
+      }
+
+      // Only large LOBs are stored in the file shared by all LOBs
+      assertEquals(3L * largeData.length, readerSpillFile.size());
+    }
+    finally
+    {
+      readerSpillFile.delete();
+    }
+  }
+
+  @Test
+  public void testSkipUnselectedColumns() throws Exception
+  {
+    final byte[] largeData = new byte[100000];
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    final LobSpillFile writerSpillFile = new LobSpillFile();
+    final DumpRowWriter writer = new DumpRowWriter(outputStream, Arrays.asList("ID", "DATA", "NAME", "AMOUNT"),
+        Arrays.asList(ColumnType.CLASS_LONG, ColumnType.CLASS_BLOB, ColumnType.CLASS_STRING, ColumnType.CLASS_BIGDECIMAL),
+        writerSpillFile, 1000);
+
+    for (long i = 0; i < 3; i++)
+    {
+      writer.writeLong(i);
+      writer.writeStream(new ByteArrayInputStream(i == 1 ? DATA : largeData));
+      writer.writeString("Row " + i);
+      writer.writeObject(i == 2 ? null : new BigDecimal(i));
+    }
+
+    writer.flush();
+    writerSpillFile.delete();
+
+    final LobSpillFile readerSpillFile = new LobSpillFile();
+    final DumpRowReader reader = new DumpRowReader(new ByteArrayInputStream(outputStream.toByteArray()), readerSpillFile, 1000);
+
+    try
+    {
+      for (long i = 0; i < 3; i++)
+      {
+        reader.skipObject();
+        reader.skipObject();
+        assertEquals("Row " + i, reader.readString());
+        reader.skipObject();
+      }
+
+      assertEquals(3, reader.getNumberOfRows());
+      assertEquals("Skipped LOBs are not read", 0, readerSpillFile.size());
+    }
+    finally
+    {
+      readerSpillFile.delete();
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.defaults.impl.EqualCardinalitySplitRangePlanner;
+import de.akquinet.jbosscc.guttenbase.hints.NumberOfRowsPerBatchHint;
+import de.akquinet.jbosscc.guttenbase.hints.SplitRangePlannerHint;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import org.junit.Before;
+
+public class EqualCardinalitySplitByRangeTableCopyToolTest extends AbstractTableCopyToolTest {
+  @Before
+  public void setupSplitRangePlanner() {
+    _connectorRepository.addConnectorHint(CONNECTOR_SOURCE, new SplitRangePlannerHint() {
+      @Override
+      public SplitRangePlanner getValue() {
+        return new EqualCardinalitySplitRangePlanner();
+      }
+    });
+
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, new NumberOfRowsPerBatchHint() {
+      @Override
+      public NumberOfRowsPerBatch getValue() {
+        return new NumberOfRowsPerBatch() {
+          @Override
+          public int getNumberOfRowsPerBatch(final TableMetaData targetTableMetaData) {
+            return 2;
+          }
+
+          @Override
+          public boolean useMultipleValuesClauses(final TableMetaData targetTableMetaData) {
+            return true;
+          }
+        };
+      }
+    });
+  }
+
+  @Override
+  protected AbstractTableCopyTool getCopyTool() {
+    return new ParallelSplitByRangeTableCopyTool(_connectorRepository);
+  }
+}
@@ -0,0 +1,64 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.akquinet.jbosscc.guttenbase.configuration.TestHsqlConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.connector.Connector;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.statements.InsertStatementCache;
+import de.akquinet.jbosscc.guttenbase.statements.InsertStatementCreator;
+
+public class InsertStatementCacheTest extends AbstractGuttenBaseTest {
+  public static final String CONNECTOR_ID = "hsqldb";
+
+  @Before
+  public void setup() throws Exception {
+    _connectorRepository.addConnectionInfo(CONNECTOR_ID, new TestHsqlConnectionInfo());
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_ID, "/ddl/tables.sql");
+  }
+
+  @Test
+  public void testChunkSizes() {
+    assertEquals(Arrays.asList(100, 100, 16, 4, 1), InsertStatementCache.getChunkSizes(221, 100, true));
+    assertEquals(Arrays.asList(100, 100, 21), InsertStatementCache.getChunkSizes(221, 100, false));
+    assertEquals(Arrays.asList(64, 32, 2), InsertStatementCache.getChunkSizes(98, 100, true));
+    assertEquals(Arrays.asList(100), InsertStatementCache.getChunkSizes(100, 100, true));
+    assertEquals(Collections.<Integer>emptyList(), InsertStatementCache.getChunkSizes(0, 100, true));
+  }
+
+  @Test
+  public void testCache() throws Exception {
+    final TableMetaData tableMetaData = _connectorRepository.getDatabaseMetaData(CONNECTOR_ID).getTableMetaData("FOO_USER");
+    final Connector connector = _connectorRepository.createConnector(CONNECTOR_ID);
+    final Connection connection = connector.openConnection();
+    final InsertStatementCache objectUnderTest = new InsertStatementCache(new InsertStatementCreator(_connectorRepository,
+        CONNECTOR_ID), connection, 2);
+
+    final PreparedStatement statement4 = objectUnderTest.getInsertStatement(CONNECTOR_ID, tableMetaData, "FOO_USER", tableMetaData,
+        4, true);
+    assertSame(statement4, objectUnderTest.getInsertStatement(CONNECTOR_ID, tableMetaData, "FOO_USER", tableMetaData, 4, true));
+
+    final PreparedStatement statement2 = objectUnderTest.getInsertStatement(CONNECTOR_ID, tableMetaData, "FOO_USER", tableMetaData,
+        2, true);
+    assertNotSame(statement4, statement2);
+
+    // Without multiple VALUES clauses the number of rows does not matter
+    objectUnderTest.getInsertStatement(CONNECTOR_ID, tableMetaData, "FOO_USER", tableMetaData, 8, false);
+    assertSame(statement2, objectUnderTest.getInsertStatement(CONNECTOR_ID, tableMetaData, "FOO_USER", tableMetaData, 2, true));
+    assertEquals(2, objectUnderTest.size());
+
+    objectUnderTest.close();
+    assertEquals(0, objectUnderTest.size());
+    connector.closeConnection();
+  }
+}
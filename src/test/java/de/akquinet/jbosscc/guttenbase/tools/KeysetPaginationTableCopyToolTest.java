@@ -0,0 +1,33 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.hints.NumberOfRowsPerBatchHint;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import org.junit.Before;
+
+public class KeysetPaginationTableCopyToolTest extends AbstractTableCopyToolTest {
+  @Before
+  public void setupPageSize() {
+    // Small pages with remainder
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, new NumberOfRowsPerBatchHint() {
+      @Override
+      public NumberOfRowsPerBatch getValue() {
+        return new NumberOfRowsPerBatch() {
+          @Override
+          public int getNumberOfRowsPerBatch(final TableMetaData targetTableMetaData) {
+            return 2;
+          }
+
+          @Override
+          public boolean useMultipleValuesClauses(final TableMetaData targetTableMetaData) {
+            return true;
+          }
+        };
+      }
+    });
+  }
+
+  @Override
+  protected AbstractTableCopyTool getCopyTool() {
+    return new KeysetPaginationTableCopyTool(_connectorRepository);
+  }
+}
@@ -0,0 +1,116 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.akquinet.jbosscc.guttenbase.configuration.TestDerbyConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.configuration.TestHsqlConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.hints.MetaDataLoadingStrategyHint;
+import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.InternalTableMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.MetaDataLoadingStrategy;
+
+public class LazyMetaDataLoadingTest extends AbstractGuttenBaseTest {
+	private static final String SOURCE = "hsqldb";
+	private static final String TARGET = "derby";
+
+	@Before
+	public void setup() throws Exception {
+		_connectorRepository.addConnectionInfo(SOURCE, new TestHsqlConnectionInfo());
+		_connectorRepository.addConnectionInfo(TARGET, new TestDerbyConnectionInfo());
+
+		for (final String connectorId : new String[] { SOURCE, TARGET }) {
+			_connectorRepository.addConnectorHint(connectorId, new MetaDataLoadingStrategyHint() {
+				@Override
+				public MetaDataLoadingStrategy getValue() {
+					return MetaDataLoadingStrategy.LAZY;
+				}
+			});
+
+			new ScriptExecutorTool(_connectorRepository).executeFileScript(connectorId, "/ddl/tables.sql");
+		}
+
+		new ScriptExecutorTool(_connectorRepository).executeFileScript(SOURCE, false, false, "/data/test-data.sql");
+	}
+
+	@Test
+	public void testOnlyAccessedTablesAreLoaded() throws Exception {
+		DatabaseMetaData databaseMetaData = _connectorRepository.getDatabaseMetaData(SOURCE);
+		assertEquals(6, databaseMetaData.getTableMetaData().size());
+
+		final InternalTableMetaData userTableMetaData = (InternalTableMetaData) databaseMetaData.getTableMetaData("FOO_USER");
+		assertFalse(userTableMetaData.isColumnsLoaded());
+		assertEquals(5, userTableMetaData.getRowCount());
+		assertTrue(userTableMetaData.isColumnsLoaded());
+		assertFalse(userTableMetaData.isForeignKeysLoaded());
+		assertFalse(((InternalTableMetaData) databaseMetaData.getTableMetaData("FOO_COMPANY")).isColumnsLoaded());
+
+		// Referenced tables are loaded along with the foreign keys
+		final ColumnMetaData referencedColumn = userTableMetaData.getColumnMetaData("COMPANY_ID").getReferencedColumn();
+		assertNotNull(referencedColumn);
+		assertSame(databaseMetaData.getTableMetaData("FOO_COMPANY"), referencedColumn.getTableMetaData());
+		assertTrue(((InternalTableMetaData) databaseMetaData.getTableMetaData("FOO_COMPANY")).isColumnsLoaded());
+		assertFalse(((InternalTableMetaData) databaseMetaData.getTableMetaData("FOO_ROLE")).isColumnsLoaded());
+
+		// Further copies contain what has been loaded so far
+		databaseMetaData = _connectorRepository.getDatabaseMetaData(SOURCE);
+		assertTrue(((InternalTableMetaData) databaseMetaData.getTableMetaData("FOO_USER")).isColumnsLoaded());
+		assertFalse(((InternalTableMetaData) databaseMetaData.getTableMetaData("FOO_ROLE")).isColumnsLoaded());
+		assertEquals(2, databaseMetaData.getTableMetaData("FOO_USER").getColumnMetaData("ID").getReferencedByColumn().size());
+	}
+
+	@Test
+	public void testConcurrentAccess() throws Exception {
+		final DatabaseMetaData databaseMetaData = _connectorRepository.getDatabaseMetaData(TARGET);
+		final List<TableMetaData> tables = databaseMetaData.getTableMetaData();
+		final ExecutorService executorService = Executors.newFixedThreadPool(tables.size());
+
+		try {
+			final List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+
+			for (int i = 0; i < 3; i++) {
+				for (final TableMetaData table : tables) {
+					futures.add(executorService.submit(new Callable<Integer>() {
+						@Override
+						public Integer call() throws Exception {
+							return table.getColumnCount() + table.getImportedForeignKeys().size();
+						}
+					}));
+				}
+			}
+
+			for (final Future<Integer> future : futures) {
+				assertTrue(future.get() > 0);
+			}
+		} finally {
+			executorService.shutdownNow();
+		}
+
+		assertEquals(6, databaseMetaData.getTableMetaData("FOO_USER").getColumnCount());
+		assertEquals(3, databaseMetaData.getTableMetaData("FOO_USER").getIndexes().size());
+		assertEquals(2, databaseMetaData.getTableMetaData("FOO_USER_ROLES").getPrimaryKeyColumns().size());
+	}
+
+	@Test
+	public void testCopy() throws Exception {
+		new DefaultTableCopyTool(_connectorRepository).copyTables(SOURCE, TARGET);
+		new CheckEqualTableDataTool(_connectorRepository).checkTableData(SOURCE, TARGET);
+
+		assertEquals(5, _connectorRepository.getDatabaseMetaData(TARGET).getTableMetaData("FOO_USER").getRowCount());
+	}
+}
@@ -0,0 +1,28 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.hints.RowCountStrategyHint;
+import de.akquinet.jbosscc.guttenbase.repository.RowCountStrategy;
+import org.junit.Before;
+
+/**
+ * Rows are not counted while reading the meta data, so the copy tool must read until the result set is exhausted.
+ */
+public class LazyRowCountTableCopyToolTest extends AbstractTableCopyToolTest {
+  @Before
+  public void setupRowCountStrategy() {
+    final RowCountStrategyHint rowCountStrategyHint = new RowCountStrategyHint() {
+      @Override
+      public RowCountStrategy getValue() {
+        return RowCountStrategy.LAZY;
+      }
+    };
+
+    _connectorRepository.addConnectorHint(CONNECTOR_SOURCE, rowCountStrategyHint);
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, rowCountStrategyHint);
+  }
+
+  @Override
+  protected AbstractTableCopyTool getCopyTool() {
+    return new DefaultTableCopyTool(_connectorRepository);
+  }
+}
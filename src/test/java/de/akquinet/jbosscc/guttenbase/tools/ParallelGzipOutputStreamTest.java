@@ -0,0 +1,88 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.export.GzipCompression;
+import de.akquinet.jbosscc.guttenbase.export.ParallelGzipOutputStream;
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.*;
+
+public class ParallelGzipOutputStreamTest
+{
+  @Test
+  public void testConcurrentCompression() throws Exception
+  {
+    checkRoundTrip(4);
+  }
+
+  @Test
+  public void testSingleThreadedCompression() throws Exception
+  {
+    checkRoundTrip(1);
+  }
+
+  private static void checkRoundTrip(final int numberOfThreads) throws Exception
+  {
+    final byte[] data = createData();
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    final ParallelGzipOutputStream gzipOutputStream = new ParallelGzipOutputStream(outputStream, new GzipCompression()
+    {
+      @Override
+      public int getCompressionLevel()
+      {
+        return Deflater.BEST_SPEED;
+      }
+
+      @Override
+      public int getBlockSize()
+      {
+        return 1000;
+      }
+
+      @Override
+      public int getNumberOfThreads()
+      {
+        return numberOfThreads;
+      }
+    });
+
+    gzipOutputStream.write(data, 0, 12345);
+    gzipOutputStream.finish();
+    final int size = outputStream.size();
+
+    for (int i = 12345; i < data.length; i++)
+    {
+      gzipOutputStream.write(data[i]);
+    }
+
+    gzipOutputStream.close();
+
+    assertTrue(outputStream.size() < data.length);
+    assertArrayEquals(data, IOUtils.toByteArray(new GZIPInputStream(new ByteArrayInputStream(outputStream.toByteArray()))));
+
+    // Data following finish() may be read independently
+    final byte[] tail = IOUtils.toByteArray(new GZIPInputStream(new ByteArrayInputStream(outputStream.toByteArray(), size,
+        outputStream.size() - size)));
+    assertEquals(data.length - 12345, tail.length);
+    assertEquals(data[12345], tail[0]);
+  }
+
+  private static byte[] createData()
+  {
+    final Random random = new Random(4711);
+    final StringBuilder builder = new StringBuilder();
+
+    while (builder.length() < 100000)
+    {
+      builder.append("Row ").append(random.nextInt(1000)).append(';');
+    }
+
+    return builder.toString().getBytes();
+  }
+}
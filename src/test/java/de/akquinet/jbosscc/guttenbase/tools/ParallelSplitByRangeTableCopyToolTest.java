@@ -0,0 +1,58 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.hints.NumberOfRowsPerBatchHint;
+import de.akquinet.jbosscc.guttenbase.hints.TableCopyParallelismHint;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelSplitByRangeTableCopyToolTest extends AbstractTableCopyToolTest {
+  @Before
+  public void setupRanges() {
+    // Small ranges, so that tables are split among several workers
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, new NumberOfRowsPerBatchHint() {
+      @Override
+      public NumberOfRowsPerBatch getValue() {
+        return new NumberOfRowsPerBatch() {
+          @Override
+          public int getNumberOfRowsPerBatch(final TableMetaData targetTableMetaData) {
+            return 1;
+          }
+
+          @Override
+          public boolean useMultipleValuesClauses(final TableMetaData targetTableMetaData) {
+            return false;
+          }
+        };
+      }
+    });
+  }
+
+  @Test
+  public void testCopyTablesAndRangesInParallel() throws Exception {
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, new TableCopyParallelismHint() {
+      @Override
+      public TableCopyParallelism getValue() {
+        return new TableCopyParallelism() {
+          @Override
+          public int getNumberOfParallelTableCopies() {
+            return 2;
+          }
+        };
+      }
+    });
+
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_SOURCE, "/ddl/tables.sql");
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_TARGET, "/ddl/tables.sql");
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_SOURCE, false, false, "/data/test-data.sql");
+
+    getCopyTool().copyTables(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+
+    new CheckEqualTableDataTool(_connectorRepository).checkTableData(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+  }
+
+  @Override
+  protected AbstractTableCopyTool getCopyTool() {
+    return new ParallelSplitByRangeTableCopyTool(_connectorRepository);
+  }
+}
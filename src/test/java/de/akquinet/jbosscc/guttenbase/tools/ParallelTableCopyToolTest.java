@@ -0,0 +1,26 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.hints.TableCopyParallelismHint;
+import org.junit.Before;
+
+public class ParallelTableCopyToolTest extends AbstractTableCopyToolTest {
+  @Before
+  public void setupParallelism() {
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, new TableCopyParallelismHint() {
+      @Override
+      public TableCopyParallelism getValue() {
+        return new TableCopyParallelism() {
+          @Override
+          public int getNumberOfParallelTableCopies() {
+            return 3;
+          }
+        };
+      }
+    });
+  }
+
+  @Override
+  protected AbstractTableCopyTool getCopyTool() {
+    return new DefaultTableCopyTool(_connectorRepository);
+  }
+}
@@ -0,0 +1,60 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Enumeration;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.junit.Before;
+
+import de.akquinet.jbosscc.guttenbase.export.zip.ZipConstants;
+import de.akquinet.jbosscc.guttenbase.hints.TableCopyParallelismHint;
+
+/**
+ * Tables are compressed concurrently and added to the ZIP file without compressing them again.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class ParallelZipExportImportDumpTest extends AbstractExportImportDumpTest {
+  @Before
+  public void setupParallelism() {
+    _connectorRepository.addConnectorHint(EXPORT, new TableCopyParallelismHint() {
+      @Override
+      public TableCopyParallelism getValue() {
+        return new TableCopyParallelism() {
+          @Override
+          public int getNumberOfParallelTableCopies() {
+            return 3;
+          }
+        };
+      }
+    });
+  }
+
+  @Override
+  protected void checkDump() throws Exception {
+    final ZipFile zipFile = new ZipFile(DATA_JAR);
+    int numberOfTables = 0;
+
+    try {
+      for (final Enumeration<? extends ZipEntry> entries = zipFile.entries(); entries.hasMoreElements(); ) {
+        final ZipEntry zipEntry = entries.nextElement();
+
+        if (zipEntry.getName().endsWith(ZipConstants.PATH_SEPARATOR + ZipConstants.TABLE_DATA_NAME)) {
+          assertEquals(zipEntry.getName(), ZipEntry.STORED, zipEntry.getMethod());
+          numberOfTables++;
+        }
+      }
+    } finally {
+      zipFile.close();
+    }
+
+    assertTrue(numberOfTables > 1);
+  }
+}
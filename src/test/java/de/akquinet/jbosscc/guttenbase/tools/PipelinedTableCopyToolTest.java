@@ -0,0 +1,46 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.hints.NumberOfRowsPerBatchHint;
+import de.akquinet.jbosscc.guttenbase.hints.TableCopyPipelineHint;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import org.junit.Before;
+
+public class PipelinedTableCopyToolTest extends AbstractTableCopyToolTest {
+  @Before
+  public void setupPipeline() {
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, new TableCopyPipelineHint() {
+      @Override
+      public TableCopyPipeline getValue() {
+        return new TableCopyPipeline() {
+          @Override
+          public int getQueueDepth(final TableMetaData targetTableMetaData) {
+            return 1;
+          }
+        };
+      }
+    });
+
+    // Small batches with remainder, so that the reader has to wait for the writer
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, new NumberOfRowsPerBatchHint() {
+      @Override
+      public NumberOfRowsPerBatch getValue() {
+        return new NumberOfRowsPerBatch() {
+          @Override
+          public int getNumberOfRowsPerBatch(final TableMetaData targetTableMetaData) {
+            return 2;
+          }
+
+          @Override
+          public boolean useMultipleValuesClauses(final TableMetaData targetTableMetaData) {
+            return true;
+          }
+        };
+      }
+    });
+  }
+
+  @Override
+  protected AbstractTableCopyTool getCopyTool() {
+    return new DefaultTableCopyTool(_connectorRepository);
+  }
+}
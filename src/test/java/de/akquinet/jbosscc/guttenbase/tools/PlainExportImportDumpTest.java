@@ -1,15 +1,27 @@
 package de.akquinet.jbosscc.guttenbase.tools;
 
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
 import org.junit.Before;
 
 import de.akquinet.jbosscc.guttenbase.export.Exporter;
 import de.akquinet.jbosscc.guttenbase.export.ExporterFactory;
+import de.akquinet.jbosscc.guttenbase.export.ImportDumpConnectionInfo;
 import de.akquinet.jbosscc.guttenbase.export.Importer;
 import de.akquinet.jbosscc.guttenbase.export.ImporterFactory;
 import de.akquinet.jbosscc.guttenbase.export.plain.PlainGzipExporter;
 import de.akquinet.jbosscc.guttenbase.export.plain.PlainGzipImporter;
 import de.akquinet.jbosscc.guttenbase.hints.ExporterFactoryHint;
 import de.akquinet.jbosscc.guttenbase.hints.ImporterFactoryHint;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
 
 public class PlainExportImportDumpTest extends AbstractExportImportDumpTest {
 	@Before
@@ -38,4 +50,37 @@ public class PlainExportImportDumpTest extends AbstractExportImportDumpTest {
 			}
 		});
 	}
+
+	/**
+	 * Tables may be read in any order, the dump is still a valid gzip file.
+	 */
+	@Override
+	protected void checkDump() throws Exception {
+		final InputStream inputStream = new GZIPInputStream(new FileInputStream(DATA_JAR));
+		IOUtils.copy(inputStream, new NullOutputStream());
+		inputStream.close();
+
+		final PlainGzipImporter importer = new PlainGzipImporter();
+		importer.initializeImport(_connectorRepository, IMPORT, new ImportDumpConnectionInfo(new File(DATA_JAR).toURI().toURL()));
+
+		final List<TableMetaData> tables = importer.readDatabaseMetaData().getTableMetaData();
+		final TableMetaData lastTable = tables.get(tables.size() - 1);
+		final TableMetaData firstTable = tables.get(0);
+
+		importer.seekTableHeader(lastTable);
+		assertEquals(lastTable.getColumnCount(), readRow(importer, lastTable));
+		importer.seekTableHeader(firstTable);
+		assertEquals(firstTable.getColumnCount(), readRow(importer, firstTable));
+		importer.finishImport();
+	}
+
+	private static int readRow(final Importer importer, final TableMetaData tableMetaData) throws Exception {
+		int result = 0;
+
+		for (; result < tableMetaData.getColumnCount(); result++) {
+			importer.readObject();
+		}
+
+		return result;
+	}
 }
@@ -0,0 +1,192 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.configuration.TestDerbyConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.configuration.TestHsqlConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.export.DumpRowFilter;
+import de.akquinet.jbosscc.guttenbase.export.ExportDumpConnectorInfo;
+import de.akquinet.jbosscc.guttenbase.export.ImportDumpConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.export.NumberOfRowsPerDumpChunk;
+import de.akquinet.jbosscc.guttenbase.hints.DumpRowFilterHint;
+import de.akquinet.jbosscc.guttenbase.hints.NumberOfRowsPerDumpChunkHint;
+import de.akquinet.jbosscc.guttenbase.hints.RepositoryColumnFilterHint;
+import de.akquinet.jbosscc.guttenbase.hints.RepositoryTableFilterHint;
+import de.akquinet.jbosscc.guttenbase.hints.impl.DefaultZipExporterClassResourcesHint;
+import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.RepositoryColumnFilter;
+import de.akquinet.jbosscc.guttenbase.repository.RepositoryTableFilter;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Copy filtered rows from dump source. The dump is split into chunks of two rows, so chunks which cannot contain accepted rows are
+ * skipped as a whole.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class ReadRowFilteredDataFromImportDumpTest extends AbstractGuttenBaseTest
+{
+  public static final String DATA_JAR = "./data.jar";
+  public static final String IMPORT = "import";
+  public static final String EXPORT = "export";
+  public static final String CONNECTOR_ID1 = "derby";
+  public static final String CONNECTOR_ID2 = "h2";
+
+  @Before
+  public final void setup() throws Exception
+  {
+    new File(DATA_JAR).delete();
+
+    _connectorRepository.addConnectionInfo(CONNECTOR_ID1, new TestHsqlConnectionInfo());
+    _connectorRepository.addConnectionInfo(CONNECTOR_ID2, new TestDerbyConnectionInfo());
+    _connectorRepository.addConnectionInfo(EXPORT, new ExportDumpConnectorInfo(CONNECTOR_ID1, DATA_JAR));
+    _connectorRepository.addConnectionInfo(IMPORT, new ImportDumpConnectionInfo(new File(DATA_JAR).toURI().toURL()));
+    _connectorRepository.addConnectorHint(EXPORT, new DefaultZipExporterClassResourcesHint());
+    _connectorRepository.addConnectorHint(EXPORT, new NumberOfRowsPerDumpChunkHint()
+    {
+      @Override
+      public NumberOfRowsPerDumpChunk getValue()
+      {
+        return new NumberOfRowsPerDumpChunk()
+        {
+          @Override
+          public int getNumberOfRowsPerChunk(final TableMetaData tableMetaData)
+          {
+            return 2;
+          }
+        };
+      }
+    });
+
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_ID1, "/ddl/tables.sql");
+    new ScriptExecutorTool(_connectorRepository).executeScript(CONNECTOR_ID2,
+        "CREATE TABLE FOO_USER(ID bigint PRIMARY KEY, USERNAME varchar(100), NAME varchar(100), PASSWORD varchar(255));");
+
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_ID1, false, false, "/data/test-data.sql");
+    new DefaultTableCopyTool(_connectorRepository).copyTables(CONNECTOR_ID1, EXPORT);
+  }
+
+  @Test
+  public void testRowFilteredImport() throws Exception
+  {
+    final List<Long> acceptedIds = new ArrayList<Long>();
+    final List<Long> testedIds = new ArrayList<Long>();
+
+    _connectorRepository.addConnectorHint(IMPORT, new DumpRowFilterHint()
+    {
+      @Override
+      public DumpRowFilter getValue()
+      {
+        return new DumpRowFilter()
+        {
+          @Override
+          public List<String> getKeyColumns(final TableMetaData tableMetaData)
+          {
+            return tableMetaData.getTableName().equalsIgnoreCase("FOO_USER") ? Arrays.asList("id")
+                : Collections.<String>emptyList();
+          }
+
+          @Override
+          public boolean mayAccept(final TableMetaData tableMetaData, final Object[] minimumValues, final Object[] maximumValues)
+          {
+            return ((Number) maximumValues[0]).longValue() >= 4;
+          }
+
+          @Override
+          public boolean accept(final TableMetaData tableMetaData, final Object[] keyValues)
+          {
+            final long id = ((Number) keyValues[0]).longValue();
+            testedIds.add(id);
+
+            if (id >= 4)
+            {
+              acceptedIds.add(id);
+              return true;
+            }
+            else
+            {
+              return false;
+            }
+          }
+        };
+      }
+    });
+
+    addTableAndColumnFilters();
+
+    // Accepted rows are not counted in advance
+    final TableMetaData importTableMetaData = _connectorRepository.getDatabaseMetaData(IMPORT).getTableMetaData("FOO_USER");
+    assertFalse(importTableMetaData.isRowCountExact());
+
+    new DefaultTableCopyTool(_connectorRepository).copyTables(IMPORT, CONNECTOR_ID2);
+
+    final TableMetaData tableMetaData = _connectorRepository.getDatabaseMetaData(CONNECTOR_ID2).getTableMetaData("FOO_USER");
+    assertEquals(2, tableMetaData.getRowCount());
+
+    final List<Map<String, Object>> tableData = new ReadTableDataTool(_connectorRepository).readTableData(CONNECTOR_ID2,
+        tableMetaData, 2);
+    assertEquals(4L, tableData.get(0).get("ID"));
+    assertEquals("User_5", tableData.get(1).get("USERNAME"));
+
+    // First chunk (IDs 1 and 2) is skipped when copying rows, the dump is read only once
+    assertEquals(Arrays.asList(3L, 4L, 5L), testedIds);
+    assertEquals(Arrays.asList(4L, 5L), acceptedIds);
+
+    // First chunk is skipped when counting, too
+    assertEquals(2, importTableMetaData.getExactRowCount());
+    assertEquals(Arrays.asList(3L, 4L, 5L, 3L, 4L, 5L), testedIds);
+  }
+
+  private void addTableAndColumnFilters()
+  {
+    final RepositoryTableFilterHint tableFilterHint = new RepositoryTableFilterHint()
+    {
+      @Override
+      public RepositoryTableFilter getValue()
+      {
+        return new RepositoryTableFilter()
+        {
+          @Override
+          public boolean accept(final TableMetaData table) throws SQLException
+          {
+            return table.getTableName().equalsIgnoreCase("FOO_USER");
+          }
+        };
+      }
+    };
+
+    final RepositoryColumnFilterHint columnFilterHint = new RepositoryColumnFilterHint()
+    {
+      @Override
+      public RepositoryColumnFilter getValue()
+      {
+        return new RepositoryColumnFilter()
+        {
+          @Override
+          public boolean accept(final ColumnMetaData column) throws SQLException
+          {
+            final String columnName = column.getColumnName();
+            return columnName.equalsIgnoreCase("ID") || columnName.equalsIgnoreCase("USERNAME")
+                || columnName.equalsIgnoreCase("PASSWORD");
+          }
+        };
+      }
+    };
+
+    _connectorRepository.addConnectorHint(IMPORT, tableFilterHint);
+    _connectorRepository.addConnectorHint(IMPORT, columnFilterHint);
+  }
+}
@@ -0,0 +1,213 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.connector.DatabaseType;
+import de.akquinet.jbosscc.guttenbase.defaults.impl.FileTableCopyCheckpoint;
+import de.akquinet.jbosscc.guttenbase.hints.NumberOfRowsPerBatchHint;
+import de.akquinet.jbosscc.guttenbase.hints.TableCopyCheckpointHint;
+import de.akquinet.jbosscc.guttenbase.hints.TableCopyProgressIndicatorHint;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.impl.DatabaseMetaDataImpl;
+import de.akquinet.jbosscc.guttenbase.meta.impl.TableMetaDataImpl;
+import de.akquinet.jbosscc.guttenbase.utils.LoggingTableCopyProgressIndicator;
+import de.akquinet.jbosscc.guttenbase.utils.TableCopyProgressIndicator;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ResumableTableCopyToolTest extends AbstractTableCopyToolTest {
+  private static final File CHECKPOINT_FILE = new File("target/checkpoint.txt");
+
+  private int _failAfterNumberOfPages;
+  private int _startedTables;
+  private int _finishedTables;
+
+  @Before
+  public void setupCheckpoint() {
+    CHECKPOINT_FILE.delete();
+
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, new TableCopyCheckpointHint() {
+      private final TableCopyCheckpoint _checkpoint = new FileTableCopyCheckpoint(CHECKPOINT_FILE) {
+        private int _numberOfPages;
+
+        @Override
+        public synchronized void keyCopied(final String sourceConnectorId, final String targetConnectorId,
+                                           final TableMetaData sourceTableMetaData, final long key) throws SQLException {
+          super.keyCopied(sourceConnectorId, targetConnectorId, sourceTableMetaData, key);
+
+          // Simulate crash right after a page has been committed
+          if (++_numberOfPages == _failAfterNumberOfPages) {
+            throw new SQLException("Simulated failure");
+          }
+        }
+      };
+
+      @Override
+      public TableCopyCheckpoint getValue() {
+        return _checkpoint;
+      }
+    });
+
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, new TableCopyProgressIndicatorHint() {
+      @Override
+      public TableCopyProgressIndicator getValue() {
+        return new LoggingTableCopyProgressIndicator() {
+          @Override
+          public void startCopyTable(final String sourceTableName, final int rowCount, final String targetTableName) {
+            super.startCopyTable(sourceTableName, rowCount, targetTableName);
+            _startedTables++;
+          }
+
+          @Override
+          public void endProcess() {
+            super.endProcess();
+            _finishedTables++;
+          }
+        };
+      }
+    });
+
+    // Small pages with remainder
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, new NumberOfRowsPerBatchHint() {
+      @Override
+      public NumberOfRowsPerBatch getValue() {
+        return new NumberOfRowsPerBatch() {
+          @Override
+          public int getNumberOfRowsPerBatch(final TableMetaData targetTableMetaData) {
+            return 2;
+          }
+
+          @Override
+          public boolean useMultipleValuesClauses(final TableMetaData targetTableMetaData) {
+            return true;
+          }
+        };
+      }
+    });
+  }
+
+  @Test
+  public void testResumeAfterFailure() throws Exception {
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_SOURCE, "/ddl/tables.sql");
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_TARGET, "/ddl/tables.sql");
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_SOURCE, false, false, "/data/test-data.sql");
+
+    _failAfterNumberOfPages = 3;
+
+    try {
+      getCopyTool().copyTables(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+      fail("Expected simulated failure");
+    } catch (final SQLException e) {
+      // Expected
+    }
+
+    assertTrue(CHECKPOINT_FILE.exists());
+
+    // Duplicate keys would be rejected, if finished tables or pages were copied again
+    _failAfterNumberOfPages = 0;
+    _startedTables = 0;
+    _finishedTables = 0;
+    getCopyTool().copyTables(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+
+    // Tables skipped because they have already been copied are reported, too
+    final int numberOfTables = _connectorRepository.getDatabaseMetaData(CONNECTOR_SOURCE).getTableMetaData().size();
+    assertEquals(numberOfTables, _startedTables);
+    assertEquals(numberOfTables, _finishedTables);
+
+    new CheckEqualTableDataTool(_connectorRepository).checkTableData(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+    assertFalse(CHECKPOINT_FILE.exists());
+  }
+
+  @Test
+  public void testReadJournal() throws Exception {
+    final TableMetaData tableMetaData = createTableMetaData();
+    final FileTableCopyCheckpoint checkpoint = new FileTableCopyCheckpoint(CHECKPOINT_FILE);
+
+    checkpoint.rangeCopied(CONNECTOR_SOURCE, CONNECTOR_TARGET, tableMetaData, 1, 100);
+    checkpoint.keyCopied(CONNECTOR_SOURCE, CONNECTOR_TARGET, tableMetaData, 42);
+    checkpoint.tableCopied(CONNECTOR_SOURCE, CONNECTOR_TARGET, tableMetaData);
+
+    // Incomplete entry written by crashed process
+    final FileOutputStream outputStream = new FileOutputStream(CHECKPOINT_FILE, true);
+    outputStream.write(("KEY\t" + CONNECTOR_SOURCE + "\t" + CONNECTOR_TARGET + "\tFOO_USER\t99").getBytes("UTF-8"));
+    outputStream.close();
+
+    final FileTableCopyCheckpoint objectUnderTest = new FileTableCopyCheckpoint(CHECKPOINT_FILE);
+
+    assertTrue(objectUnderTest.isTableCopied(CONNECTOR_SOURCE, CONNECTOR_TARGET, tableMetaData));
+    assertEquals(Long.valueOf(42), objectUnderTest.getLastCopiedKey(CONNECTOR_SOURCE, CONNECTOR_TARGET, tableMetaData));
+    assertTrue(objectUnderTest.isRangeCopied(CONNECTOR_SOURCE, CONNECTOR_TARGET, tableMetaData, 10, 20));
+    assertFalse(objectUnderTest.isRangeCopied(CONNECTOR_SOURCE, CONNECTOR_TARGET, tableMetaData, 90, 110));
+
+    objectUnderTest.copyFinished(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+
+    assertFalse(CHECKPOINT_FILE.exists());
+    assertFalse(objectUnderTest.isTableCopied(CONNECTOR_SOURCE, CONNECTOR_TARGET, tableMetaData));
+  }
+
+  @Test
+  public void testSeparateCopies() throws Exception {
+    final TableMetaData tableMetaData = createTableMetaData();
+    final FileTableCopyCheckpoint checkpoint = new FileTableCopyCheckpoint(CHECKPOINT_FILE);
+
+    checkpoint.tableCopied(CONNECTOR_SOURCE, CONNECTOR_TARGET, tableMetaData);
+    checkpoint.keyCopied(CONNECTOR_SOURCE, "other", tableMetaData, 42);
+
+    assertTrue(checkpoint.isTableCopied(CONNECTOR_SOURCE, CONNECTOR_TARGET, tableMetaData));
+    assertFalse(checkpoint.isTableCopied(CONNECTOR_SOURCE, "other", tableMetaData));
+    assertNull(checkpoint.getLastCopiedKey(CONNECTOR_SOURCE, CONNECTOR_TARGET, tableMetaData));
+
+    // Progress of the other copy is kept
+    checkpoint.copyFinished(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+    assertTrue(CHECKPOINT_FILE.exists());
+
+    final FileTableCopyCheckpoint objectUnderTest = new FileTableCopyCheckpoint(CHECKPOINT_FILE);
+
+    assertFalse(objectUnderTest.isTableCopied(CONNECTOR_SOURCE, CONNECTOR_TARGET, tableMetaData));
+    assertEquals(Long.valueOf(42), objectUnderTest.getLastCopiedKey(CONNECTOR_SOURCE, "other", tableMetaData));
+
+    objectUnderTest.copyFinished(CONNECTOR_SOURCE, "other");
+    assertFalse(CHECKPOINT_FILE.exists());
+  }
+
+  @Test
+  public void testMergeRanges() throws Exception {
+    final TableMetaData tableMetaData = createTableMetaData();
+    final FileTableCopyCheckpoint objectUnderTest = new FileTableCopyCheckpoint(CHECKPOINT_FILE);
+
+    objectUnderTest.rangeCopied(CONNECTOR_SOURCE, CONNECTOR_TARGET, tableMetaData, 21, 30);
+    objectUnderTest.rangeCopied(CONNECTOR_SOURCE, CONNECTOR_TARGET, tableMetaData, 1, 10);
+    objectUnderTest.rangeCopied(CONNECTOR_SOURCE, CONNECTOR_TARGET, tableMetaData, 50, 60);
+
+    assertTrue(objectUnderTest.isRangeCopied(CONNECTOR_SOURCE, CONNECTOR_TARGET, tableMetaData, 1, 10));
+    assertTrue(objectUnderTest.isRangeCopied(CONNECTOR_SOURCE, CONNECTOR_TARGET, tableMetaData, 25, 30));
+    assertFalse(objectUnderTest.isRangeCopied(CONNECTOR_SOURCE, CONNECTOR_TARGET, tableMetaData, 5, 25));
+    assertFalse(objectUnderTest.isRangeCopied(CONNECTOR_SOURCE, CONNECTOR_TARGET, tableMetaData, 0, 5));
+
+    // Fills the gap, i.e. [1, 30] has been copied
+    objectUnderTest.rangeCopied(CONNECTOR_SOURCE, CONNECTOR_TARGET, tableMetaData, 11, 20);
+
+    assertTrue(objectUnderTest.isRangeCopied(CONNECTOR_SOURCE, CONNECTOR_TARGET, tableMetaData, 5, 25));
+    assertTrue(objectUnderTest.isRangeCopied(CONNECTOR_SOURCE, CONNECTOR_TARGET, tableMetaData, 1, 30));
+    assertFalse(objectUnderTest.isRangeCopied(CONNECTOR_SOURCE, CONNECTOR_TARGET, tableMetaData, 1, 50));
+    assertTrue(new FileTableCopyCheckpoint(CHECKPOINT_FILE).isRangeCopied(CONNECTOR_SOURCE, CONNECTOR_TARGET, tableMetaData,
+            1, 30));
+  }
+
+  private static TableMetaData createTableMetaData() {
+    return new TableMetaDataImpl("FOO_USER", new DatabaseMetaDataImpl("", "Test", 1, 0, DatabaseType.GENERIC));
+  }
+
+  @Override
+  protected AbstractTableCopyTool getCopyTool() {
+    return new KeysetPaginationTableCopyTool(_connectorRepository);
+  }
+}
@@ -0,0 +1,55 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.akquinet.jbosscc.guttenbase.configuration.TestHsqlConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.connector.Connector;
+import de.akquinet.jbosscc.guttenbase.defaults.impl.DefaultSplitRangePlanner;
+import de.akquinet.jbosscc.guttenbase.defaults.impl.EqualCardinalitySplitRangePlanner;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+
+public class SplitRangePlannerTest extends AbstractGuttenBaseTest {
+	public static final String CONNECTOR_ID = "hsql";
+
+	private TableMetaData _tableMetaData;
+	private Connector _connector;
+
+	@Before
+	public void setup() throws Exception {
+		_connectorRepository.addConnectionInfo(CONNECTOR_ID, new TestHsqlConnectionInfo());
+		new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_ID, "/ddl/tables.sql");
+		new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_ID, false, false, "/data/test-data.sql");
+
+		_tableMetaData = _connectorRepository.getDatabaseMetaData(CONNECTOR_ID).getTableMetaData("FOO_COMPANY");
+		_connector = _connectorRepository.createConnector(CONNECTOR_ID);
+	}
+
+	@Test
+	public void testFixedSizeRanges() throws Exception {
+		assertEquals(Arrays.asList(new SplitRange(1, 3), new SplitRange(4, 6), new SplitRange(7, 9)),
+				new DefaultSplitRangePlanner().computeSplitRanges(_connectorRepository, CONNECTOR_ID, _tableMetaData,
+						_connector.openConnection(), 2));
+
+		_connector.closeConnection();
+	}
+
+	@Test
+	public void testEqualCardinalityRanges() throws Exception {
+		assertEquals(Arrays.asList(new SplitRange(1, 2), new SplitRange(3, 7)),
+				new EqualCardinalitySplitRangePlanner().computeSplitRanges(_connectorRepository, CONNECTOR_ID, _tableMetaData,
+						_connector.openConnection(), 2));
+		assertEquals(Arrays.asList(new SplitRange(1, 1), new SplitRange(2, 2), new SplitRange(3, 3), new SplitRange(4, 7)),
+				new EqualCardinalitySplitRangePlanner().computeSplitRanges(_connectorRepository, CONNECTOR_ID, _tableMetaData,
+						_connector.openConnection(), 1));
+		assertEquals(Arrays.asList(new SplitRange(1, 7)),
+				new EqualCardinalitySplitRangePlanner().computeSplitRanges(_connectorRepository, CONNECTOR_ID, _tableMetaData,
+						_connector.openConnection(), 10));
+
+		_connector.closeConnection();
+	}
+}
@@ -0,0 +1,238 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.akquinet.jbosscc.guttenbase.configuration.TestDerbyConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.configuration.TestHsqlConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.connector.DatabaseType;
+import de.akquinet.jbosscc.guttenbase.meta.ColumnType;
+import de.akquinet.jbosscc.guttenbase.meta.ColumnValueTransfer;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.statements.TableCopyPlan;
+import de.akquinet.jbosscc.guttenbase.statements.TableCopyPlan.SourceColumnPlan;
+import de.akquinet.jbosscc.guttenbase.statements.TableCopyPlan.TargetColumnPlan;
+
+public class TableCopyPlanTest extends AbstractGuttenBaseTest {
+  public static final String CONNECTOR_SOURCE = "hsqldb";
+  public static final String CONNECTOR_TARGET = "derby";
+
+  @Before
+  public void setup() throws Exception {
+    _connectorRepository.addConnectionInfo(CONNECTOR_SOURCE, new TestHsqlConnectionInfo());
+    _connectorRepository.addConnectionInfo(CONNECTOR_TARGET, new TestDerbyConnectionInfo());
+
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_SOURCE, "/ddl/tables.sql");
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_TARGET, "/ddl/tables.sql");
+  }
+
+  @Test
+  public void testPlan() throws Exception {
+    final TableMetaData sourceTableMetaData = _connectorRepository.getDatabaseMetaData(CONNECTOR_SOURCE).getTableMetaData("FOO_USER");
+    final TableMetaData targetTableMetaData = _connectorRepository.getDatabaseMetaData(CONNECTOR_TARGET).getTableMetaData("FOO_USER");
+
+    final TableCopyPlan plan = new TableCopyPlan(_connectorRepository, CONNECTOR_SOURCE, sourceTableMetaData, CONNECTOR_TARGET,
+        targetTableMetaData);
+
+    assertEquals(6, plan.getNumberOfTargetColumns());
+    assertTrue(plan.isPlanFor(CONNECTOR_SOURCE, sourceTableMetaData, CONNECTOR_TARGET, targetTableMetaData));
+    assertFalse(plan.isPlanFor(CONNECTOR_TARGET, sourceTableMetaData, CONNECTOR_SOURCE, targetTableMetaData));
+
+    final List<SourceColumnPlan> sourceColumnPlans = plan.getSourceColumnPlans();
+    assertEquals(6, sourceColumnPlans.size());
+
+    for (int i = 0; i < sourceColumnPlans.size(); i++) {
+      final SourceColumnPlan sourceColumnPlan = sourceColumnPlans.get(i);
+      assertEquals(i + 1, sourceColumnPlan.getSourceColumnIndex());
+      assertEquals(1, sourceColumnPlan.getTargetColumnPlans().size());
+
+      final TargetColumnPlan targetColumnPlan = sourceColumnPlan.getTargetColumnPlans().get(0);
+      assertEquals(i + 1, targetColumnPlan.getTargetColumnIndex());
+      assertEquals(sourceColumnPlan.getSourceColumnMetaData().getColumnName(), targetColumnPlan.getTargetColumnMetaData().getColumnName());
+    }
+
+    final TargetColumnPlan idColumnPlan = findTargetColumnPlan(sourceColumnPlans, "ID");
+    assertEquals(ColumnType.CLASS_LONG, idColumnPlan.getSourceColumnType());
+    assertEquals(ColumnType.CLASS_LONG, idColumnPlan.getTargetColumnType());
+    assertNotNull(idColumnPlan.getValueTransfer());
+  }
+
+  @Test
+  public void testTransferNullWithTargetColumnType() throws Exception {
+    final TableMetaData sourceTableMetaData = _connectorRepository.getDatabaseMetaData(CONNECTOR_SOURCE).getTableMetaData("FOO_USER");
+    final TableMetaData targetTableMetaData = _connectorRepository.getDatabaseMetaData(CONNECTOR_TARGET).getTableMetaData("FOO_USER");
+    final TableCopyPlan plan = new TableCopyPlan(_connectorRepository, CONNECTOR_SOURCE, sourceTableMetaData, CONNECTOR_TARGET,
+        targetTableMetaData);
+    final List<SourceColumnPlan> sourceColumnPlans = plan.getSourceColumnPlans();
+
+    final TargetColumnPlan personalNumberColumnPlan = findTargetColumnPlan(sourceColumnPlans, "PERSONAL_NUMBER");
+    assertEquals(ColumnType.CLASS_SHORT, personalNumberColumnPlan.getTargetColumnType());
+    checkTransfer(personalNumberColumnPlan.getValueTransfer(), ColumnType.CLASS_SHORT, Types.SMALLINT, null);
+
+    final TargetColumnPlan nameColumnPlan = findTargetColumnPlan(sourceColumnPlans, "NAME");
+    assertEquals(ColumnType.CLASS_STRING, nameColumnPlan.getTargetColumnType());
+    checkTransfer(nameColumnPlan.getValueTransfer(), ColumnType.CLASS_STRING, Types.VARCHAR, null);
+  }
+
+  @Test
+  public void testTransferValues() throws Exception {
+    final Object[][] values = {
+        {ColumnType.CLASS_STRING, Types.VARCHAR, "Un'fug"},
+        {ColumnType.CLASS_INTEGER, Types.INTEGER, 4711},
+        {ColumnType.CLASS_LONG, Types.BIGINT, 4711L},
+        {ColumnType.CLASS_DOUBLE, Types.DOUBLE, 47.11},
+        {ColumnType.CLASS_FLOAT, Types.REAL, 47.11F},
+        {ColumnType.CLASS_SHORT, Types.SMALLINT, (short) 47},
+        {ColumnType.CLASS_BOOLEAN, Types.BOOLEAN, true},
+        {ColumnType.CLASS_BIGDECIMAL, Types.DECIMAL, new BigDecimal("47.11")},
+        {ColumnType.CLASS_TIMESTAMP, Types.TIMESTAMP, new Timestamp(4711L)},
+        {ColumnType.CLASS_DATE, Types.DATE, new Date(4711L)},
+        {ColumnType.CLASS_TIME, Types.TIME, new Time(4711L)}
+    };
+
+    for (final Object[] value : values) {
+      final ColumnType columnType = (ColumnType) value[0];
+      final int sqlType = (Integer) value[1];
+      final ColumnValueTransfer valueTransfer = columnType.createValueTransfer(DatabaseType.DERBY, sqlType);
+
+      checkTransfer(valueTransfer, columnType, sqlType, value[2]);
+      checkTransfer(valueTransfer, columnType, sqlType, null);
+    }
+  }
+
+  /**
+   * Expect the value to be read from column 3 of the result set and to be set as parameter 5 of the statement
+   */
+  private static void checkTransfer(final ColumnValueTransfer valueTransfer, final ColumnType columnType, final int sqlType,
+                                    final Object value) throws SQLException {
+    final ResultSet resultSet = createMock(ResultSet.class);
+    final PreparedStatement insertStatement = createMock(PreparedStatement.class);
+
+    expectRead(resultSet, columnType, value);
+    expect(resultSet.wasNull()).andReturn(value == null);
+
+    if (value == null) {
+      insertStatement.setNull(5, sqlType);
+    } else {
+      expectWrite(insertStatement, columnType, value);
+    }
+
+    replay(resultSet, insertStatement);
+    assertNull(valueTransfer.transfer(resultSet, 3, insertStatement, 5));
+    verify(resultSet, insertStatement);
+  }
+
+  /**
+   * NULL is returned as null or 0/false by the getter, just like JDBC does
+   */
+  private static void expectRead(final ResultSet resultSet, final ColumnType columnType, final Object value) throws SQLException {
+    switch (columnType) {
+      case CLASS_STRING:
+        expect(resultSet.getString(3)).andReturn((String) value);
+        break;
+      case CLASS_INTEGER:
+        expect(resultSet.getInt(3)).andReturn(value == null ? 0 : (Integer) value);
+        break;
+      case CLASS_LONG:
+        expect(resultSet.getLong(3)).andReturn(value == null ? 0L : (Long) value);
+        break;
+      case CLASS_DOUBLE:
+        expect(resultSet.getDouble(3)).andReturn(value == null ? 0.0 : (Double) value);
+        break;
+      case CLASS_FLOAT:
+        expect(resultSet.getFloat(3)).andReturn(value == null ? 0.0F : (Float) value);
+        break;
+      case CLASS_SHORT:
+        expect(resultSet.getShort(3)).andReturn(value == null ? 0 : (Short) value);
+        break;
+      case CLASS_BOOLEAN:
+        expect(resultSet.getBoolean(3)).andReturn(value != null && (Boolean) value);
+        break;
+      case CLASS_BIGDECIMAL:
+        expect(resultSet.getBigDecimal(3)).andReturn((BigDecimal) value);
+        break;
+      case CLASS_TIMESTAMP:
+        expect(resultSet.getTimestamp(3)).andReturn((Timestamp) value);
+        break;
+      case CLASS_DATE:
+        expect(resultSet.getDate(3)).andReturn((Date) value);
+        break;
+      case CLASS_TIME:
+        expect(resultSet.getTime(3)).andReturn((Time) value);
+        break;
+      default:
+        throw new IllegalArgumentException(columnType.name());
+    }
+  }
+
+  private static void expectWrite(final PreparedStatement insertStatement, final ColumnType columnType, final Object value)
+      throws SQLException {
+    switch (columnType) {
+      case CLASS_STRING:
+        insertStatement.setString(5, (String) value);
+        break;
+      case CLASS_INTEGER:
+        insertStatement.setInt(5, (Integer) value);
+        break;
+      case CLASS_LONG:
+        insertStatement.setLong(5, (Long) value);
+        break;
+      case CLASS_DOUBLE:
+        insertStatement.setDouble(5, (Double) value);
+        break;
+      case CLASS_FLOAT:
+        insertStatement.setFloat(5, (Float) value);
+        break;
+      case CLASS_SHORT:
+        insertStatement.setShort(5, (Short) value);
+        break;
+      case CLASS_BOOLEAN:
+        insertStatement.setBoolean(5, (Boolean) value);
+        break;
+      case CLASS_BIGDECIMAL:
+        insertStatement.setBigDecimal(5, (BigDecimal) value);
+        break;
+      case CLASS_TIMESTAMP:
+        insertStatement.setTimestamp(5, (Timestamp) value);
+        break;
+      case CLASS_DATE:
+        insertStatement.setDate(5, (Date) value);
+        break;
+      case CLASS_TIME:
+        insertStatement.setTime(5, (Time) value);
+        break;
+      default:
+        throw new IllegalArgumentException(columnType.name());
+    }
+  }
+
+  private static TargetColumnPlan findTargetColumnPlan(final List<SourceColumnPlan> sourceColumnPlans, final String columnName) {
+    for (final SourceColumnPlan sourceColumnPlan : sourceColumnPlans) {
+      if (sourceColumnPlan.getSourceColumnMetaData().getColumnName().equalsIgnoreCase(columnName)) {
+        return sourceColumnPlan.getTargetColumnPlans().get(0);
+      }
+    }
+
+    throw new IllegalStateException(columnName);
+  }
+}
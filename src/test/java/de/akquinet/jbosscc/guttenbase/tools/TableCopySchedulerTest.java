@@ -0,0 +1,134 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.akquinet.jbosscc.guttenbase.configuration.TestDerbyConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.connector.DatabaseType;
+import de.akquinet.jbosscc.guttenbase.hints.TableOrderHint;
+import de.akquinet.jbosscc.guttenbase.meta.RowCounter;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.impl.DatabaseMetaDataImpl;
+import de.akquinet.jbosscc.guttenbase.meta.impl.TableMetaDataImpl;
+
+public class TableCopySchedulerTest extends AbstractGuttenBaseTest
+{
+  private static final String DB = "db";
+  private List<TableMetaData> _tableMetaData;
+
+  @Before
+  public void setup() throws SQLException
+  {
+    _connectorRepository.addConnectionInfo(DB, new TestDerbyConnectionInfo());
+
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(DB, "/ddl/tables.sql");
+
+    _tableMetaData = TableOrderHint.getSortedTables(_connectorRepository, DB);
+  }
+
+  @Test
+  public void testDependenciesAreCopiedFirst() throws Exception
+  {
+    final TableCopyScheduler objectUnderTest = new TableCopyScheduler(_tableMetaData,
+        new TableOrderTool().getReferencedTables(_tableMetaData));
+    final List<String> copiedTables = new ArrayList<String>();
+    TableMetaData tableMetaData;
+
+    while ((tableMetaData = objectUnderTest.nextTable()) != null)
+    {
+      copiedTables.add(tableMetaData.getTableName().toUpperCase());
+      objectUnderTest.tableCopied(tableMetaData);
+    }
+
+    assertEquals(_tableMetaData.size(), copiedTables.size());
+    assertEquals(_tableMetaData.size(), objectUnderTest.getNumberOfCopiedTables());
+    assertTrue(copiedTables.toString(), copiedTables.indexOf("FOO_COMPANY") < copiedTables.indexOf("FOO_USER_COMPANY"));
+    assertTrue(copiedTables.toString(), copiedTables.indexOf("FOO_USER") < copiedTables.indexOf("FOO_USER_COMPANY"));
+    assertTrue(copiedTables.toString(), copiedTables.indexOf("FOO_COMPANY") < copiedTables.indexOf("FOO_USER"));
+  }
+
+  @Test
+  public void testAllTablesReleasedWithoutDependencies() throws Exception
+  {
+    final TableCopyScheduler objectUnderTest = new TableCopyScheduler(_tableMetaData,
+        new HashMap<TableMetaData, List<TableMetaData>>());
+
+    for (int i = 0; i < _tableMetaData.size(); i++)
+    {
+      // None of the tables has been copied yet, i.e. all are running concurrently
+      assertTrue(objectUnderTest.nextTable() != null);
+    }
+
+    assertNull(objectUnderTest.nextTable());
+  }
+
+  @Test
+  public void testLargestTablesFirst() throws Exception
+  {
+    final DatabaseMetaDataImpl databaseMetaData = new DatabaseMetaDataImpl("", "Test", 1, 0, DatabaseType.GENERIC);
+    final TableMetaDataImpl small = new TableMetaDataImpl("SMALL", databaseMetaData);
+    final TableMetaDataImpl medium = new TableMetaDataImpl("MEDIUM", databaseMetaData);
+    final TableMetaDataImpl estimated = new TableMetaDataImpl("ESTIMATED", databaseMetaData);
+    final TableMetaDataImpl unknown = new TableMetaDataImpl("UNKNOWN", databaseMetaData);
+
+    small.setRowCount(10);
+    medium.setRowCount(100);
+    estimated.setEstimatedRowCount(50, new FixedRowCounter(50));
+
+    // Row count not known yet, will not be counted just for ordering
+    unknown.setEstimatedRowCount(-1, new FixedRowCounter(1000));
+
+    final TableCopyScheduler objectUnderTest = new TableCopyScheduler(Arrays.<TableMetaData>asList(small, medium, estimated,
+        unknown), new HashMap<TableMetaData, List<TableMetaData>>());
+    final List<TableMetaData> copiedTables = new ArrayList<TableMetaData>();
+    TableMetaData tableMetaData;
+
+    while ((tableMetaData = objectUnderTest.nextTable()) != null)
+    {
+      copiedTables.add(tableMetaData);
+      objectUnderTest.tableCopied(tableMetaData);
+    }
+
+    assertEquals(Arrays.<TableMetaData>asList(medium, estimated, small, unknown), copiedTables);
+  }
+
+  @Test
+  public void testAbort() throws Exception
+  {
+    final Map<TableMetaData, List<TableMetaData>> referencedTables = new TableOrderTool().getReferencedTables(_tableMetaData);
+    final TableCopyScheduler objectUnderTest = new TableCopyScheduler(_tableMetaData, referencedTables);
+
+    objectUnderTest.nextTable();
+    objectUnderTest.abort();
+
+    assertTrue(objectUnderTest.isAborted());
+    assertNull(objectUnderTest.nextTable());
+  }
+
+  private static final class FixedRowCounter implements RowCounter
+  {
+    private final int _rowCount;
+
+    private FixedRowCounter(final int rowCount)
+    {
+      _rowCount = rowCount;
+    }
+
+    @Override
+    public int countRows()
+    {
+      return _rowCount;
+    }
+  }
+}
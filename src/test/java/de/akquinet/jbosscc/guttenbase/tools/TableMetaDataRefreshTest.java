@@ -0,0 +1,141 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.akquinet.jbosscc.guttenbase.configuration.TestDerbyConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.configuration.TestHsqlConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.sql.SQLTableModificationDetector;
+
+public class TableMetaDataRefreshTest extends AbstractGuttenBaseTest {
+	private static final String SOURCE = "hsqldb";
+	private static final String TARGET = "derby";
+
+	@Before
+	public void setup() throws Exception {
+		_connectorRepository.addConnectionInfo(SOURCE, new TestHsqlConnectionInfo());
+		_connectorRepository.addConnectionInfo(TARGET, new TestDerbyConnectionInfo());
+
+		new ScriptExecutorTool(_connectorRepository).executeFileScript(TARGET, "/ddl/tables.sql");
+	}
+
+	@Test
+	public void testRowCountsUpdatedAfterCopy() throws Exception {
+		new ScriptExecutorTool(_connectorRepository).executeFileScript(SOURCE, "/ddl/tables.sql");
+		new ScriptExecutorTool(_connectorRepository).executeFileScript(SOURCE, false, false, "/data/test-data.sql");
+		assertEquals(0, _connectorRepository.getDatabaseMetaData(TARGET).getTableMetaData("FOO_USER").getRowCount());
+
+		new DefaultTableCopyTool(_connectorRepository).copyTables(SOURCE, TARGET);
+
+		// Not noticed, since the target data base is not inspected again
+		new ScriptExecutorTool(_connectorRepository).executeScript(TARGET, false, false, "DROP TABLE FOO_USER_COMPANY;");
+
+		final DatabaseMetaData databaseMetaData = _connectorRepository.getDatabaseMetaData(TARGET);
+		assertEquals(6, databaseMetaData.getTableMetaData().size());
+
+		final TableMetaData userTableMetaData = databaseMetaData.getTableMetaData("FOO_USER");
+		assertTrue(userTableMetaData.isRowCountExact());
+		assertEquals(5, userTableMetaData.getRowCount());
+		assertEquals(4, databaseMetaData.getTableMetaData("FOO_COMPANY").getRowCount());
+	}
+
+	@Test
+	public void testAlterTable() throws Exception {
+		assertEquals(6, _connectorRepository.getDatabaseMetaData(TARGET).getTableMetaData("FOO_USER").getColumnCount());
+
+		new ScriptExecutorTool(_connectorRepository).executeScript(TARGET, "ALTER TABLE FOO_USER ADD COLUMN BIRTHDAY DATE;",
+				"INSERT INTO FOO_COMPANY (ID, SUPPLIER, NAME) VALUES(1, 'Y', 'Company 1');");
+
+		final DatabaseMetaData databaseMetaData = _connectorRepository.getDatabaseMetaData(TARGET);
+		final TableMetaData userTableMetaData = databaseMetaData.getTableMetaData("FOO_USER");
+		assertEquals(7, userTableMetaData.getColumnCount());
+		assertNotNull(userTableMetaData.getColumnMetaData("BIRTHDAY"));
+		assertEquals(3, userTableMetaData.getIndexes().size());
+		assertEquals(1, databaseMetaData.getTableMetaData("FOO_COMPANY").getRowCount());
+
+		// Foreign keys of other tables reference the new column meta data
+		final ColumnMetaData idColumn = userTableMetaData.getColumnMetaData("ID");
+		assertTrue(idColumn.isPrimaryKey());
+		assertEquals(2, idColumn.getReferencedByColumn().size());
+		assertSame(idColumn, databaseMetaData.getTableMetaData("FOO_USER_COMPANY").getColumnMetaData("USER_ID").getReferencedColumn());
+		assertEquals("FOO_COMPANY", userTableMetaData.getColumnMetaData("COMPANY_ID").getReferencedColumn().getTableMetaData()
+				.getTableName());
+	}
+
+	@Test
+	public void testCreateAndDropTable() throws Exception {
+		assertEquals(6, _connectorRepository.getDatabaseMetaData(TARGET).getTableMetaData().size());
+
+		new ScriptExecutorTool(_connectorRepository).executeScript(TARGET,
+				"CREATE TABLE FOO_NEW (ID bigint PRIMARY KEY, USER_ID bigint REFERENCES FOO_USER(ID));");
+
+		DatabaseMetaData databaseMetaData = _connectorRepository.getDatabaseMetaData(TARGET);
+		assertEquals(7, databaseMetaData.getTableMetaData().size());
+		assertEquals(3, databaseMetaData.getTableMetaData("FOO_USER").getColumnMetaData("ID").getReferencedByColumn().size());
+
+		new ScriptExecutorTool(_connectorRepository).executeScript(TARGET, "DROP TABLE FOO_NEW;");
+
+		databaseMetaData = _connectorRepository.getDatabaseMetaData(TARGET);
+		assertEquals(6, databaseMetaData.getTableMetaData().size());
+		assertNull(databaseMetaData.getTableMetaData("FOO_NEW"));
+		assertEquals(2, databaseMetaData.getTableMetaData("FOO_USER").getColumnMetaData("ID").getReferencedByColumn().size());
+	}
+
+	@Test
+	public void testTableModificationDetector() throws Exception {
+		final SQLTableModificationDetector objectUnderTest = new SQLTableModificationDetector();
+
+		objectUnderTest.addStatement("CREATE TABLE FOO( USER_ID bigint )");
+		objectUnderTest.addStatement("create unique index BAR_IDX on \"schema\".\"Bar\"(NAME)");
+		objectUnderTest.addStatement("ALTER TABLE schema.OLD RENAME TO NEW");
+		objectUnderTest.addStatement("INSERT INTO DATA (ID) VALUES(1)");
+		objectUnderTest.addStatement("SELECT * FROM OTHER");
+		assertEquals(new LinkedHashSet<String>(Arrays.asList("FOO", "BAR", "OLD", "NEW", "DATA")), objectUnderTest.getTableNames());
+		assertFalse(objectUnderTest.isSchemaModified());
+
+		objectUnderTest.addStatement("DROP INDEX BAR_IDX");
+		assertTrue(objectUnderTest.isSchemaModified());
+	}
+
+	@Test
+	public void testProcedureCallModifiesSchema() throws Exception {
+		for (final String sql : Arrays.asList("CALL SYSCS_UTIL.SYSCS_COMPRESS_TABLE('APP', 'FOO_USER', 0)", "exec sp_rename 'OLD', 'NEW'",
+				"EXECUTE my_procedure", "{call my_procedure(?)}")) {
+			final SQLTableModificationDetector objectUnderTest = new SQLTableModificationDetector();
+
+			objectUnderTest.addStatement(sql);
+			assertTrue(sql, objectUnderTest.isSchemaModified());
+		}
+	}
+
+	@Test
+	public void testUnknownStatementModifiesSchema() throws Exception {
+		final SQLTableModificationDetector objectUnderTest = new SQLTableModificationDetector();
+
+		objectUnderTest.addStatement("INSERT IGNORE INTO FOO (ID) VALUES(1)");
+		objectUnderTest.addStatement("REPLACE INTO BAR (ID) VALUES(1)");
+		objectUnderTest.addStatement("UPDATE OTHER SET NAME = 'x'");
+		assertEquals(new LinkedHashSet<String>(Arrays.asList("FOO", "BAR")), objectUnderTest.getTableNames());
+		assertFalse(objectUnderTest.isSchemaModified());
+
+		for (final String sql : Arrays.asList("SELECT * INTO NEW_TABLE FROM OTHER", "UPSERT FOO VALUES(1)", "GRANT SELECT ON FOO TO PUBLIC")) {
+			final SQLTableModificationDetector detector = new SQLTableModificationDetector();
+
+			detector.addStatement(sql);
+			assertTrue(sql, detector.isSchemaModified());
+		}
+	}
+}
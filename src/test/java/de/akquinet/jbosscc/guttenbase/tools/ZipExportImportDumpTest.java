@@ -12,15 +12,18 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.jar.JarFile;
+import java.util.zip.Inflater;
 import java.util.zip.ZipEntry;
 
 import org.apache.commons.io.IOUtils;
 import org.junit.Before;
 
 import de.akquinet.jbosscc.guttenbase.defaults.impl.DefaultZipExporterClassResources;
+import de.akquinet.jbosscc.guttenbase.export.InlineLobSize;
 import de.akquinet.jbosscc.guttenbase.export.zip.ZipConstants;
 import de.akquinet.jbosscc.guttenbase.export.zip.ZipExporter;
 import de.akquinet.jbosscc.guttenbase.export.zip.ZipExporterClassResources;
+import de.akquinet.jbosscc.guttenbase.hints.InlineLobSizeHint;
 import de.akquinet.jbosscc.guttenbase.hints.ZipExporterClassResourcesHint;
 import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
@@ -60,6 +63,19 @@ public class ZipExportImportDumpTest extends AbstractExportImportDumpTest {
         };
       }
     });
+
+    // Store the image in the LOB area instead of inlining it
+    _connectorRepository.addConnectorHint(EXPORT, new InlineLobSizeHint() {
+      @Override
+      public InlineLobSize getValue() {
+        return new InlineLobSize() {
+          @Override
+          public int getMaximumInlineLobSize() {
+            return 1024;
+          }
+        };
+      }
+    });
   }
 
   @Override
@@ -68,6 +84,22 @@ public class ZipExportImportDumpTest extends AbstractExportImportDumpTest {
     assertTrue(manifest.contains("Main-Class: " + MyStartup.class.getName()));
 
     assertEquals(37950, getImage().length);
+
+    // Identical BLOBs are stored only once, deflated
+    final JarFile jarFile = new JarFile(DATA_JAR);
+    final ZipEntry lobAreaEntry = jarFile.getEntry(ZipConstants.LOB_AREA);
+    assertNotNull(lobAreaEntry);
+    assertEquals(ZipEntry.STORED, lobAreaEntry.getMethod());
+    final byte[] lobArea = IOUtils.toByteArray(jarFile.getInputStream(lobAreaEntry));
+    jarFile.close();
+
+    final Inflater inflater = new Inflater();
+    inflater.setInput(lobArea);
+    final byte[] content = new byte[IMAGE.length + 1];
+    assertEquals(IMAGE.length, inflater.inflate(content));
+    assertTrue(inflater.finished());
+    assertEquals(0, inflater.getRemaining());
+    inflater.end();
   }
 
   private static byte[] getImage() throws Exception {